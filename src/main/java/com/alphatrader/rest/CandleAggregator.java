@@ -0,0 +1,162 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Builds open, high, low, close and volume bars from trades as they arrive. Every trade is merged into
+ * one {@link CandleSeries} per security and configured interval, so the bars never have to be rebuilt
+ * from the full history. The aggregator accepts security order logs and can be registered directly as
+ * listener of a {@link SecurityOrderLogTailer}. Every trade must be fed only once.
+ * <p>
+ * Bars are aligned to multiples of their interval since the epoch, i.e. daily bars start at midnight
+ * UTC.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CandleAggregator implements Consumer<SecurityOrderLog> {
+    /**
+     * The intervals bars are built for.
+     */
+    private final Interval[] intervals;
+
+    /**
+     * The number of bars kept per series.
+     */
+    private final int capacity;
+
+    /**
+     * The series of every security, indexed like {@link #intervals}.
+     */
+    private final Map<String, CandleSeries[]> series = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an aggregator.
+     *
+     * @param capacity  the number of bars kept per security and interval
+     * @param intervals the intervals to build bars for
+     */
+    public CandleAggregator(int capacity, Interval... intervals) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (intervals.length == 0) {
+            throw new IllegalArgumentException("At least one interval is required");
+        }
+        this.capacity = capacity;
+        this.intervals = new LinkedHashSet<>(Arrays.asList(intervals)).toArray(new Interval[0]);
+    }
+
+    /**
+     * Merges a trade into the bars of its security. Trades without a security, price or date are
+     * skipped.
+     *
+     * @param log the trade
+     */
+    @Override
+    public void accept(SecurityOrderLog log) {
+        if (log.getSecurityIdentifier() == null || log.getPrice() == null
+            || log.getDateMillis() == Timestamps.NONE) {
+            return;
+        }
+        add(log.getSecurityIdentifier(), log.getDateMillis(), log.getPrice(),
+            log.getNumberOfShares() != null ? log.getNumberOfShares() : 0.0,
+            log.getVolume() != null ? log.getVolume() : 0.0);
+    }
+
+    /**
+     * Merges a trade into the bars of its security.
+     *
+     * @param securityIdentifier the security identifier
+     * @param dateMillis         the date of the trade as unix timestamp in milliseconds
+     * @param price              the price
+     * @param numberOfShares     the number of shares traded
+     * @param volume             the traded volume
+     * @return false if the trade is older than all kept bars and was dropped everywhere
+     */
+    public boolean add(String securityIdentifier, long dateMillis, double price, double numberOfShares,
+                       double volume) {
+        CandleSeries[] all = series.computeIfAbsent(securityIdentifier, key -> {
+            CandleSeries[] created = new CandleSeries[intervals.length];
+            for (int i = 0; i < intervals.length; i++) {
+                created[i] = new CandleSeries(intervals[i].getMillis(), capacity);
+            }
+            return created;
+        });
+
+        boolean added = false;
+        for (CandleSeries candles : all) {
+            added |= candles.add(dateMillis, price, numberOfShares, volume);
+        }
+        return added;
+    }
+
+    /**
+     * @param securityIdentifier the security identifier
+     * @param interval           the interval
+     * @return the bars of the security, or null if it has no trades or the interval is not configured
+     */
+    @Nullable
+    public CandleSeries getSeries(String securityIdentifier, Interval interval) {
+        CandleSeries[] all = series.get(securityIdentifier);
+        if (all == null) {
+            return null;
+        }
+        for (int i = 0; i < intervals.length; i++) {
+            if (intervals[i] == interval) {
+                return all[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the identifiers of all securities with trades
+     */
+    public Set<String> getSecurityIdentifiers() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    /**
+     * Drops all bars of a security.
+     *
+     * @param securityIdentifier the security identifier
+     */
+    public void remove(String securityIdentifier) {
+        series.remove(securityIdentifier);
+    }
+
+    /**
+     * The length of a bar.
+     */
+    public enum Interval {
+        ONE_MINUTE(TimeUnit.MINUTES.toMillis(1)),
+        FIVE_MINUTES(TimeUnit.MINUTES.toMillis(5)),
+        FIFTEEN_MINUTES(TimeUnit.MINUTES.toMillis(15)),
+        ONE_HOUR(TimeUnit.HOURS.toMillis(1)),
+        ONE_DAY(TimeUnit.DAYS.toMillis(1));
+
+        /**
+         * The length in milliseconds.
+         */
+        private final long millis;
+
+        Interval(long millis) {
+            this.millis = millis;
+        }
+
+        /**
+         * @return the length in milliseconds
+         */
+        @PublicAPI
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.alphatrader.rest;
+
+import java.util.Arrays;
+
+/**
+ * The open, high, low, close and volume bars of one security at one interval. The series keeps a fixed
+ * number of the most recent bars in primitive ring buffers. The slot of a bar is derived from its
+ * start, so adding a trade and reading a bar are both O(1). Intervals without trades are empty bars.
+ * <p>
+ * Trades may arrive out of order. A late trade is merged into the bar it belongs to: it becomes the
+ * open if it is older than the current open trade and the close if it is not older than the current
+ * close trade. Trades older than the oldest kept bar are dropped.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class CandleSeries {
+    /**
+     * Marks a slot that does not hold a bar.
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /**
+     * The length of a bar in milliseconds.
+     */
+    private final long intervalMillis;
+
+    /**
+     * The number of bars kept.
+     */
+    private final int capacity;
+
+    /**
+     * The bar number, i.e. start divided by the interval, of every slot.
+     */
+    private final long[] bars;
+
+    /**
+     * The date of the trade that set the open of every slot.
+     */
+    private final long[] openDates;
+
+    /**
+     * The date of the trade that set the close of every slot.
+     */
+    private final long[] closeDates;
+
+    /**
+     * The open prices.
+     */
+    private final double[] opens;
+
+    /**
+     * The high prices.
+     */
+    private final double[] highs;
+
+    /**
+     * The low prices.
+     */
+    private final double[] lows;
+
+    /**
+     * The close prices.
+     */
+    private final double[] closes;
+
+    /**
+     * The traded shares.
+     */
+    private final double[] shares;
+
+    /**
+     * The traded volumes.
+     */
+    private final double[] volumes;
+
+    /**
+     * The number of trades.
+     */
+    private final int[] trades;
+
+    /**
+     * The number of the newest bar, or {@link #EMPTY} before the first trade.
+     */
+    private long newest = EMPTY;
+
+    /**
+     * The number of the oldest bar ever traded in.
+     */
+    private long oldest = EMPTY;
+
+    /**
+     * Creates an empty series.
+     *
+     * @param intervalMillis the length of a bar in milliseconds
+     * @param capacity       the number of bars kept
+     */
+    CandleSeries(long intervalMillis, int capacity) {
+        this.intervalMillis = intervalMillis;
+        this.capacity = capacity;
+        this.bars = new long[capacity];
+        this.openDates = new long[capacity];
+        this.closeDates = new long[capacity];
+        this.opens = new double[capacity];
+        this.highs = new double[capacity];
+        this.lows = new double[capacity];
+        this.closes = new double[capacity];
+        this.shares = new double[capacity];
+        this.volumes = new double[capacity];
+        this.trades = new int[capacity];
+        Arrays.fill(bars, EMPTY);
+    }
+
+    /**
+     * Merges a trade into its bar.
+     *
+     * @param dateMillis     the date of the trade as unix timestamp in milliseconds
+     * @param price          the price
+     * @param numberOfShares the number of shares traded
+     * @param volume         the traded volume
+     * @return false if the trade is older than the oldest kept bar and was dropped
+     */
+    synchronized boolean add(long dateMillis, double price, double numberOfShares, double volume) {
+        long bar = Math.floorDiv(dateMillis, intervalMillis);
+        if (newest != EMPTY && bar <= newest - capacity) {
+            return false;
+        }
+        if (newest == EMPTY || bar > newest) {
+            newest = bar;
+        }
+        if (oldest == EMPTY || bar < oldest) {
+            oldest = bar;
+        }
+
+        int slot = (int) Math.floorMod(bar, (long) capacity);
+        if (bars[slot] != bar) {
+            bars[slot] = bar;
+            openDates[slot] = dateMillis;
+            closeDates[slot] = dateMillis;
+            opens[slot] = price;
+            highs[slot] = price;
+            lows[slot] = price;
+            closes[slot] = price;
+            shares[slot] = numberOfShares;
+            volumes[slot] = volume;
+            trades[slot] = 1;
+            return true;
+        }
+
+        if (dateMillis < openDates[slot]) {
+            openDates[slot] = dateMillis;
+            opens[slot] = price;
+        }
+        if (dateMillis >= closeDates[slot]) {
+            closeDates[slot] = dateMillis;
+            closes[slot] = price;
+        }
+        highs[slot] = Math.max(highs[slot], price);
+        lows[slot] = Math.min(lows[slot], price);
+        shares[slot] += numberOfShares;
+        volumes[slot] += volume;
+        trades[slot]++;
+        return true;
+    }
+
+    /**
+     * @return the length of a bar in milliseconds
+     */
+    @PublicAPI
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * @return the number of bars kept
+     */
+    @PublicAPI
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of bars from the oldest kept one to the newest one, including empty bars
+     */
+    @PublicAPI
+    public synchronized int size() {
+        if (newest == EMPTY) {
+            return 0;
+        }
+        return (int) Math.min(capacity, newest - oldest + 1);
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the start of the bar as unix timestamp in milliseconds, or {@link Long#MIN_VALUE} before
+     * the first trade
+     */
+    @PublicAPI
+    public synchronized long getStartMillis(int ago) {
+        return newest == EMPTY ? EMPTY : (newest - ago) * intervalMillis;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return true if the bar has trades
+     */
+    @PublicAPI
+    public synchronized boolean hasTrades(int ago) {
+        return slotOf(ago) >= 0;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the open price, or NaN if the bar has no trades
+     */
+    @PublicAPI
+    public synchronized double getOpen(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? opens[slot] : Double.NaN;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the high price, or NaN if the bar has no trades
+     */
+    @PublicAPI
+    public synchronized double getHigh(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? highs[slot] : Double.NaN;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the low price, or NaN if the bar has no trades
+     */
+    @PublicAPI
+    public synchronized double getLow(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? lows[slot] : Double.NaN;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the close price, or NaN if the bar has no trades
+     */
+    @PublicAPI
+    public synchronized double getClose(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? closes[slot] : Double.NaN;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the number of shares traded
+     */
+    @PublicAPI
+    public synchronized double getShares(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? shares[slot] : 0.0;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the traded volume
+     */
+    @PublicAPI
+    public synchronized double getVolume(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? volumes[slot] : 0.0;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the number of trades
+     */
+    @PublicAPI
+    public synchronized int getTradeCount(int ago) {
+        int slot = slotOf(ago);
+        return slot >= 0 ? trades[slot] : 0;
+    }
+
+    /**
+     * @param ago the number of bars back from the newest one, 0 being the newest
+     * @return the slot of the bar, or -1 if it has no trades or is not kept
+     */
+    private int slotOf(int ago) {
+        if (newest == EMPTY || ago < 0 || ago >= capacity) {
+            return -1;
+        }
+        long bar = newest - ago;
+        int slot = (int) Math.floorMod(bar, (long) capacity);
+        return bars[slot] == bar ? slot : -1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CandleSeries{"
+            + "intervalMillis=" + intervalMillis
+            + ", capacity=" + capacity
+            + ", newestStart=" + getStartMillis(0)
+            + '}';
+    }
+}
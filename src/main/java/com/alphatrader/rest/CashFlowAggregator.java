@@ -0,0 +1,521 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates cash transfer logs, e.g. the result of
+ * {@link CashTransferLog#getCashTransferLogs(ZonedDateTime, ZonedDateTime, String, String)}, into the
+ * number, sum and largest amount of the transfers per sender, per receiver, per pair of sender and
+ * receiver and per date bucket. Bank account ids are mapped to numbers once, so all totals are kept in
+ * open addressing tables keyed by primitive longs.
+ * <p>
+ * Batches are reduced in parallel on a fork-join pool: the batch is split into slices, every slice is
+ * summed into tables of its own and the tables are merged pairwise, so large histories scale with the
+ * number of cores. The totals are updated incrementally as new logs are added. The aggregator accepts
+ * cash transfer logs and can be used directly as sink of a {@link HistoryBackfill}. Every log must be
+ * added only once.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CashFlowAggregator implements Consumer<CashTransferLog> {
+    /**
+     * The number of logs below which a slice is summed without splitting it further.
+     */
+    private static final int SLICE_SIZE = 8192;
+
+    /**
+     * The length of a date bucket in milliseconds.
+     */
+    private final long bucketMillis;
+
+    /**
+     * The numbers of the bank accounts.
+     */
+    private final Map<String, Integer> accountNumbers = new ConcurrentHashMap<>();
+
+    /**
+     * The totals of the aggregated logs.
+     */
+    private Tables tables = new Tables();
+
+    /**
+     * The fork-join pool batches are reduced on.
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Creates an aggregator.
+     *
+     * @param bucketLength the length of a date bucket, buckets are aligned to multiples of the length
+     *                     since the epoch
+     */
+    public CashFlowAggregator(Duration bucketLength) {
+        if (bucketLength.toMillis() < 1) {
+            throw new IllegalArgumentException("Bucket length must be positive: " + bucketLength);
+        }
+        this.bucketMillis = bucketLength.toMillis();
+    }
+
+    /**
+     * Sets the fork-join pool batches are reduced on. Defaults to the common pool.
+     *
+     * @param pool the pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds a cash transfer log.
+     *
+     * @param log the cash transfer log
+     */
+    @Override
+    public synchronized void accept(CashTransferLog log) {
+        add(tables, log, bucketMillis, accountNumbers);
+    }
+
+    /**
+     * Adds cash transfer logs. Batches are reduced in parallel before they are merged into the totals.
+     *
+     * @param logs the cash transfer logs
+     */
+    @PublicAPI
+    public void addAll(Collection<CashTransferLog> logs) {
+        CashTransferLog[] batch = logs.toArray(new CashTransferLog[0]);
+        Tables partial = batch.length <= SLICE_SIZE
+            ? reduce(batch, 0, batch.length, bucketMillis, accountNumbers)
+            : pool.invoke(new Reduction(batch, 0, batch.length, bucketMillis, accountNumbers));
+        synchronized (this) {
+            tables.merge(partial);
+        }
+    }
+
+    /**
+     * @return the length of a date bucket in milliseconds
+     */
+    @PublicAPI
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * @param bankAccountId the bank account id
+     * @return the totals of the transfers sent from the bank account
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Totals getSent(String bankAccountId) {
+        Integer account = accountNumbers.get(bankAccountId);
+        return account != null ? tables.bySender.get(account) : Totals.EMPTY;
+    }
+
+    /**
+     * @param bankAccountId the bank account id
+     * @return the totals of the transfers received by the bank account
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Totals getReceived(String bankAccountId) {
+        Integer account = accountNumbers.get(bankAccountId);
+        return account != null ? tables.byReceiver.get(account) : Totals.EMPTY;
+    }
+
+    /**
+     * @param bankAccountId the bank account id
+     * @return the received minus the sent amount of the bank account
+     */
+    @PublicAPI
+    public synchronized double getNetFlow(String bankAccountId) {
+        return getReceived(bankAccountId).getSum() - getSent(bankAccountId).getSum();
+    }
+
+    /**
+     * @param senderBankAccountId   the bank account id of the sender
+     * @param receiverBankAccountId the bank account id of the receiver
+     * @return the totals of the transfers from the sender to the receiver
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Totals getBetween(String senderBankAccountId, String receiverBankAccountId) {
+        Integer sender = accountNumbers.get(senderBankAccountId);
+        Integer receiver = accountNumbers.get(receiverBankAccountId);
+        return sender != null && receiver != null ? tables.byPair.get(pair(sender, receiver))
+            : Totals.EMPTY;
+    }
+
+    /**
+     * @param dateMillis a date as unix timestamp in milliseconds
+     * @return the totals of the transfers in the bucket containing the date
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Totals getBucket(long dateMillis) {
+        return tables.byBucket.get(Math.floorDiv(dateMillis, bucketMillis));
+    }
+
+    /**
+     * @return the totals of all non-empty buckets by the start of the bucket as unix timestamp in
+     * milliseconds
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized SortedMap<Long, Totals> getBuckets() {
+        SortedMap<Long, Totals> buckets = new TreeMap<>();
+        tables.byBucket.forEach((bucket, totals) -> buckets.put(bucket * bucketMillis, totals));
+        return buckets;
+    }
+
+    /**
+     * @return the totals of the sent transfers by bank account id
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Map<String, Totals> getSentByAccount() {
+        return byAccount(tables.bySender);
+    }
+
+    /**
+     * @return the totals of the received transfers by bank account id
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Map<String, Totals> getReceivedByAccount() {
+        return byAccount(tables.byReceiver);
+    }
+
+    /**
+     * @return the totals of all aggregated transfers
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Totals getTotal() {
+        return tables.total.get(0L);
+    }
+
+    /**
+     * Drops all totals.
+     */
+    @PublicAPI
+    public synchronized void clear() {
+        tables = new Tables();
+    }
+
+    /**
+     * Sums a slice of logs into new tables.
+     *
+     * @param logs           the logs
+     * @param from           the first log, inclusive
+     * @param to             the last log, exclusive
+     * @param bucketMillis   the bucket length in milliseconds
+     * @param accountNumbers the numbers of the bank accounts by id
+     * @return the tables
+     */
+    private static Tables reduce(CashTransferLog[] logs, int from, int to, long bucketMillis,
+                                 Map<String, Integer> accountNumbers) {
+        Tables result = new Tables();
+        for (int i = from; i < to; i++) {
+            add(result, logs[i], bucketMillis, accountNumbers);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a log to the given tables.
+     *
+     * @param target         the tables
+     * @param log            the log
+     * @param bucketMillis   the bucket length in milliseconds
+     * @param accountNumbers the numbers of the bank accounts by id
+     */
+    private static void add(Tables target, CashTransferLog log, long bucketMillis,
+                            Map<String, Integer> accountNumbers) {
+        double amount = log.getAmount() != null ? log.getAmount() : 0.0;
+        int sender = accountNumber(accountNumbers, log.getSenderBankAccount());
+        int receiver = accountNumber(accountNumbers, log.getReceiverBankAccount());
+        target.total.add(0L, amount);
+        target.bySender.add(sender, amount);
+        target.byReceiver.add(receiver, amount);
+        target.byPair.add(pair(sender, receiver), amount);
+        target.byBucket.add(Math.floorDiv(log.getDateMillis(), bucketMillis), amount);
+    }
+
+    /**
+     * @param accountNumbers the numbers of the bank accounts by id
+     * @param bankAccountId  a bank account id, may be null
+     * @return the number of the bank account, -1 for null
+     */
+    private static int accountNumber(Map<String, Integer> accountNumbers, String bankAccountId) {
+        if (bankAccountId == null) {
+            return -1;
+        }
+        Integer number = accountNumbers.get(bankAccountId);
+        if (number == null) {
+            synchronized (accountNumbers) {
+                number = accountNumbers.computeIfAbsent(bankAccountId, key -> accountNumbers.size());
+            }
+        }
+        return number;
+    }
+
+    /**
+     * @param table a table keyed by bank account number
+     * @return the totals of the table by bank account id
+     */
+    private Map<String, Totals> byAccount(TotalsTable table) {
+        Map<String, Totals> result = new HashMap<>();
+        for (Map.Entry<String, Integer> account : accountNumbers.entrySet()) {
+            Totals totals = table.get(account.getValue());
+            if (totals.getCount() > 0) {
+                result.put(account.getKey(), totals);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param sender   the number of the sender
+     * @param receiver the number of the receiver
+     * @return the key of the pair
+     */
+    private static long pair(int sender, int receiver) {
+        return ((long) sender << 32) | (receiver & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The number, sum and largest amount of a group of transfers.
+     */
+    public static final class Totals {
+        /**
+         * The totals of no transfers.
+         */
+        static final Totals EMPTY = new Totals(0, 0.0, Double.NaN);
+
+        /**
+         * The number of transfers.
+         */
+        private final long count;
+
+        /**
+         * The sum of the amounts.
+         */
+        private final double sum;
+
+        /**
+         * The largest amount.
+         */
+        private final double max;
+
+        /**
+         * @param count the number of transfers
+         * @param sum   the sum of the amounts
+         * @param max   the largest amount
+         */
+        Totals(long count, double sum, double max) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return the number of transfers
+         */
+        @PublicAPI
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the sum of the amounts
+         */
+        @PublicAPI
+        public double getSum() {
+            return sum;
+        }
+
+        /**
+         * @return the largest amount, or NaN if there are no transfers
+         */
+        @PublicAPI
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * @return the average amount, or NaN if there are no transfers
+         */
+        @PublicAPI
+        public double getAverage() {
+            return count > 0 ? sum / count : Double.NaN;
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{"
+                + "count=" + count
+                + ", sum=" + sum
+                + ", max=" + max
+                + '}';
+        }
+    }
+
+    /**
+     * The tables of one reduction.
+     */
+    private static final class Tables {
+        private final TotalsTable total = new TotalsTable();
+        private final TotalsTable bySender = new TotalsTable();
+        private final TotalsTable byReceiver = new TotalsTable();
+        private final TotalsTable byPair = new TotalsTable();
+        private final TotalsTable byBucket = new TotalsTable();
+
+        private void merge(Tables other) {
+            total.merge(other.total);
+            bySender.merge(other.bySender);
+            byReceiver.merge(other.byReceiver);
+            byPair.merge(other.byPair);
+            byBucket.merge(other.byBucket);
+        }
+    }
+
+    /**
+     * Splits a batch until the slices are small enough, then sums the slices and merges the results.
+     * Tasks are never serialized, they only run in the pool of the aggregator.
+     */
+    private static final class Reduction extends RecursiveTask<Tables> {
+        private static final long serialVersionUID = 1L;
+        private final CashTransferLog[] logs;
+        private final int from;
+        private final int to;
+        private final long bucketMillis;
+        private final Map<String, Integer> accountNumbers;
+
+        private Reduction(CashTransferLog[] logs, int from, int to, long bucketMillis,
+                          Map<String, Integer> accountNumbers) {
+            this.logs = logs;
+            this.from = from;
+            this.to = to;
+            this.bucketMillis = bucketMillis;
+            this.accountNumbers = accountNumbers;
+        }
+
+        @Override
+        protected Tables compute() {
+            if (to - from <= SLICE_SIZE) {
+                return reduce(logs, from, to, bucketMillis, accountNumbers);
+            }
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(logs, from, middle, bucketMillis, accountNumbers);
+            left.fork();
+            Tables right = new Reduction(logs, middle, to, bucketMillis, accountNumbers).compute();
+            Tables result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+
+    /**
+     * An open addressing hash table from long keys to the number, sum and largest amount of transfers.
+     */
+    private static final class TotalsTable {
+        private long[] keys = new long[16];
+        private long[] counts = new long[16];
+        private double[] sums = new double[16];
+        private double[] maxes = new double[16];
+        private int size;
+
+        private void add(long key, double amount) {
+            merge(key, 1, amount, amount);
+        }
+
+        private void merge(TotalsTable other) {
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.counts[slot] > 0) {
+                    merge(other.keys[slot], other.counts[slot], other.sums[slot], other.maxes[slot]);
+                }
+            }
+        }
+
+        private void merge(long key, long count, double sum, double max) {
+            int slot = slot(key);
+            if (counts[slot] == 0) {
+                if (2 * (size + 1) > keys.length) {
+                    grow();
+                    slot = slot(key);
+                }
+                keys[slot] = key;
+                maxes[slot] = max;
+                size++;
+            }
+            else {
+                maxes[slot] = Math.max(maxes[slot], max);
+            }
+            counts[slot] += count;
+            sums[slot] += sum;
+        }
+
+        private Totals get(long key) {
+            int slot = slot(key);
+            return counts[slot] > 0 ? new Totals(counts[slot], sums[slot], maxes[slot]) : Totals.EMPTY;
+        }
+
+        private void forEach(KeyConsumer consumer) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (counts[slot] > 0) {
+                    consumer.accept(keys[slot], new Totals(counts[slot], sums[slot], maxes[slot]));
+                }
+            }
+        }
+
+        /**
+         * @param key a key
+         * @return the slot holding the key, or the empty slot it belongs in
+         */
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            long hash = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (counts[slot] > 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            double[] oldSums = sums;
+            double[] oldMaxes = maxes;
+            keys = new long[oldKeys.length * 2];
+            counts = new long[keys.length];
+            sums = new double[keys.length];
+            maxes = new double[keys.length];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldCounts[slot] > 0) {
+                    int target = slot(oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    counts[target] = oldCounts[slot];
+                    sums[target] = oldSums[slot];
+                    maxes[target] = oldMaxes[slot];
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the entries of a {@link TotalsTable}.
+     */
+    @FunctionalInterface
+    private interface KeyConsumer {
+        void accept(long key, Totals totals);
+    }
+}
@@ -1,8 +1,14 @@
 package com.alphatrader.rest;
 
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.mashape.unirest.http.exceptions.UnirestException;
 import javafx.beans.property.*;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,9 +36,14 @@ public class CashTransferLog {
     private final StringProperty senderBankAccount = new SimpleStringProperty();
 
     /**
-     * The date the transfer took place.
+     * The date the transfer took place. Kept as unix timestamp in milliseconds.
      */
-    private final ObjectProperty<ZonedDateTime> date = new SimpleObjectProperty<>();
+    private long dateMillis = Timestamps.NONE;
+
+    /**
+     * The date property, created from the timestamp on first access.
+     */
+    private ObjectProperty<ZonedDateTime> date;
 
     /**
      * The message describing this transfer.
@@ -60,6 +71,42 @@ public class CashTransferLog {
                                                             ZonedDateTime endDate,
                                                             String senderBankAccountId,
                                                             String receiverBankAccountId) {
+        return Http.getMultipleObjectFromApi(CashTransferLog.class, buildRequest(startDate, endDate,
+            senderBankAccountId, receiverBankAccountId));
+    }
+
+    /**
+     * Returns all cash transfer logs that fit the provided filters, bypassing the response cache and
+     * reporting failures to the caller.
+     *
+     * @param startDate             the lower date boundary to fetch logs from
+     * @param endDate               the upper date boundary to fetch logs from
+     * @param senderBankAccountId   the id of the sender's bank account
+     * @param receiverBankAccountId the id of the receiver's bank account
+     * @return a list of all cash transfers matching the given criteria
+     * @throws UnirestException if the request fails
+     */
+    @NotNull
+    static List<CashTransferLog> requestCashTransferLogs(ZonedDateTime startDate, ZonedDateTime endDate,
+                                                         String senderBankAccountId,
+                                                         String receiverBankAccountId)
+        throws UnirestException {
+        return Http.requestMultipleObjectsFromApi(CashTransferLog.class, buildRequest(startDate, endDate,
+            senderBankAccountId, receiverBankAccountId));
+    }
+
+    /**
+     * Builds the request url for the given filters.
+     *
+     * @param startDate             the lower date boundary to fetch logs from
+     * @param endDate               the upper date boundary to fetch logs from
+     * @param senderBankAccountId   the id of the sender's bank account
+     * @param receiverBankAccountId the id of the receiver's bank account
+     * @return the request url
+     */
+    @NotNull
+    private static String buildRequest(ZonedDateTime startDate, ZonedDateTime endDate,
+                                       String senderBankAccountId, String receiverBankAccountId) {
         String request = "/api/cashtransferlogs/";
         List<String> options = new ArrayList<>();
 
@@ -80,7 +127,7 @@ public class CashTransferLog {
             request += "?" + String.join("&", options);
         }
 
-        return Http.getMultipleObjectFromApi(CashTransferLog.class, request);
+        return request;
     }
 
     /**
@@ -135,7 +182,15 @@ public class CashTransferLog {
      */
     @PublicAPI
     public ZonedDateTime getDate() {
-        return date.getValue();
+        return dateProperty().getValue();
+    }
+
+    /**
+     * @return the date the transfer took place as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public long getDateMillis() {
+        return dateMillis;
     }
 
     /**
@@ -143,6 +198,9 @@ public class CashTransferLog {
      */
     @PublicAPI
     public ReadOnlyObjectProperty<ZonedDateTime> dateProperty() {
+        if (date == null) {
+            date = new SimpleObjectProperty<>(Timestamps.toZonedDateTime(dateMillis));
+        }
         return date;
     }
 
@@ -184,7 +242,7 @@ public class CashTransferLog {
             + "amount=" + amount.getValue()
             + ", receiverBankAccount='" + receiverBankAccount.getValue() + '\''
             + ", senderBankAccount='" + senderBankAccount.getValue() + '\''
-            + ", date=" + date.getValue()
+            + ", date=" + getDate()
             + ", message=" + message.getValue()
             + ", id='" + id.getValue() + '\''
             + '}';
@@ -211,4 +269,79 @@ public class CashTransferLog {
     public int hashCode() {
         return id.getValue() != null ? id.getValue().hashCode() : 0;
     }
+
+    /**
+     * Streaming gson adapter for cash transfer logs.
+     */
+    static final class GsonAdapter extends TypeAdapter<CashTransferLog> {
+        /**
+         * The adapter used for the nested message.
+         */
+        private final TypeAdapter<Message> messageAdapter;
+
+        /**
+         * @param messageAdapter the adapter used for the nested message
+         */
+        GsonAdapter(TypeAdapter<Message> messageAdapter) {
+            this.messageAdapter = messageAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, CashTransferLog log) throws IOException {
+            if (log == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("amount").value(log.amount.get());
+            out.name("receiverBankAccount").value(log.receiverBankAccount.getValue());
+            out.name("senderBankAccount").value(log.senderBankAccount.getValue());
+            out.name("date");
+            ModelTypeAdapterFactory.writeDate(out, log.dateMillis);
+            out.name("message");
+            messageAdapter.write(out, log.message.getValue());
+            out.name("id").value(log.id.getValue());
+            out.endObject();
+        }
+
+        @Override
+        public CashTransferLog read(JsonReader in) throws IOException {
+            if (ModelTypeAdapterFactory.skipNull(in)) {
+                return null;
+            }
+
+            CashTransferLog log = new CashTransferLog();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (ModelTypeAdapterFactory.skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "amount":
+                        log.amount.set(in.nextDouble());
+                        break;
+                    case "receiverBankAccount":
+                        log.receiverBankAccount.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "senderBankAccount":
+                        log.senderBankAccount.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "date":
+                        log.dateMillis = in.nextLong();
+                        break;
+                    case "message":
+                        log.message.setValue(messageAdapter.read(in));
+                        break;
+                    case "id":
+                        log.id.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return log;
+        }
+    }
 }
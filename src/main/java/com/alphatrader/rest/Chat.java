@@ -55,6 +55,17 @@ public class Chat {
         return getMultipleChatsFromApi("");
     }
 
+    /**
+     * Lists all chats for the logged-in user, bypassing the response cache. Used by components that
+     * poll for new messages.
+     *
+     * @return a list of all chats for this user
+     */
+    @NotNull
+    static List<Chat> getAllChatsForThisUserUncached() {
+        return Http.getMultipleObjectFromApiUncached(Chat.class, "/api/chats");
+    }
+
     /**
      * Lists all chats with unread messages for the logged-in user.
      *
@@ -106,21 +106,7 @@ public class ChatMessage {
     @PublicAPI
     @NotNull
     public static List<ChatMessage> getChatMessages(String chatId, ZonedDateTime from, ZonedDateTime to) {
-        String suffix = chatId;
-
-        List<String> parameters = new ArrayList<>();
-        if (from != null) {
-            parameters.add("afterDate=" + from.toInstant().toEpochMilli());
-        }
-        if (to != null) {
-            parameters.add("beforeDate=" + to.toInstant().toEpochMilli());
-        }
-
-        if (!parameters.isEmpty()) {
-            suffix += "?" + String.join("&", parameters);
-        }
-
-        return getFromApi("messages/chat/" + suffix);
+        return getFromApi(buildChatSuffix(chatId, from, to));
     }
 
     /**
@@ -137,6 +123,20 @@ public class ChatMessage {
         return getChatMessages(chat.getId(), from, to);
     }
 
+    /**
+     * Fetches all messages from the given chat younger than the provided date, bypassing the response
+     * cache. Used by components that poll for new messages.
+     *
+     * @param chatId the id of the chat room
+     * @param from   the lower date boundary, may be null to fetch all messages
+     * @return the list of messages
+     */
+    @NotNull
+    static List<ChatMessage> getChatMessagesUncached(String chatId, ZonedDateTime from) {
+        return Http.getMultipleObjectFromApiUncached(ChatMessage.class,
+            "/api/" + buildChatSuffix(chatId, from, null));
+    }
+
     @PublicAPI
     @NotNull
     public static List<ChatMessage> getUnreadMessages() {
@@ -155,6 +155,33 @@ public class ChatMessage {
         return Http.getMultipleObjectFromApi(ChatMessage.class, "/api/" + suffix);
     }
 
+    /**
+     * Builds the api suffix for the messages of a chat room in between the two dates.
+     *
+     * @param chatId the id of the chat room
+     * @param from   the lower date boundary, may be null
+     * @param to     the upper date boundary, may be null
+     * @return the api suffix
+     */
+    @NotNull
+    private static String buildChatSuffix(String chatId, ZonedDateTime from, ZonedDateTime to) {
+        String suffix = "messages/chat/" + chatId;
+
+        List<String> parameters = new ArrayList<>();
+        if (from != null) {
+            parameters.add("afterDate=" + from.toInstant().toEpochMilli());
+        }
+        if (to != null) {
+            parameters.add("beforeDate=" + to.toInstant().toEpochMilli());
+        }
+
+        if (!parameters.isEmpty()) {
+            suffix += "?" + String.join("&", parameters);
+        }
+
+        return suffix;
+    }
+
     /**
      * Fetches the message with the given id from the API.
      *
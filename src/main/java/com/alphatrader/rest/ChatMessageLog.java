@@ -0,0 +1,140 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * Local, append-only log of the messages of a single chat, ordered by the date they were sent. The send
+ * dates are kept in a primitive array next to the messages, so messages in a time range are found by
+ * binary search.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ChatMessageLog {
+    /**
+     * The id of the chat.
+     */
+    private final String chatId;
+
+    /**
+     * The messages in the order they were sent.
+     */
+    private final List<ChatMessage> messages = new ArrayList<>();
+
+    /**
+     * The send dates of the messages as unix timestamps in milliseconds.
+     */
+    private long[] dates = new long[16];
+
+    /**
+     * The ids of all messages sent at the date of the newest message.
+     */
+    private final Set<String> idsAtNewestDate = new HashSet<>();
+
+    /**
+     * Creates an empty log.
+     *
+     * @param chatId the id of the chat
+     */
+    public ChatMessageLog(String chatId) {
+        this.chatId = chatId;
+    }
+
+    /**
+     * @return the id of the chat
+     */
+    public String getChatId() {
+        return chatId;
+    }
+
+    /**
+     * Appends a message. Messages older than the newest one held, messages without a send date and
+     * messages that are already held are ignored.
+     *
+     * @param message the message to append
+     * @return true if the message was appended
+     */
+    public synchronized boolean append(ChatMessage message) {
+        if (message.getDateSent() == null) {
+            return false;
+        }
+
+        long date = message.getDateSent().toInstant().toEpochMilli();
+        int size = messages.size();
+        if (size > 0) {
+            long newest = dates[size - 1];
+            if (date < newest || (date == newest && idsAtNewestDate.contains(message.getId()))) {
+                return false;
+            }
+            if (date > newest) {
+                idsAtNewestDate.clear();
+            }
+        }
+
+        if (size == dates.length) {
+            dates = Arrays.copyOf(dates, size * 2);
+        }
+        dates[size] = date;
+        messages.add(message);
+        idsAtNewestDate.add(message.getId());
+        return true;
+    }
+
+    /**
+     * @return the number of messages held
+     */
+    public synchronized int size() {
+        return messages.size();
+    }
+
+    /**
+     * @return the send date of the newest message, or null if the log is empty
+     */
+    public synchronized ZonedDateTime getNewestDate() {
+        return messages.isEmpty() ? null : messages.get(messages.size() - 1).getDateSent();
+    }
+
+    /**
+     * @return all messages in the order they were sent
+     */
+    @NotNull
+    public synchronized List<ChatMessage> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    /**
+     * Returns all messages sent in the given time range.
+     *
+     * @param from the lower date boundary, inclusive
+     * @param to   the upper date boundary, exclusive
+     * @return the messages in the order they were sent
+     */
+    @NotNull
+    public synchronized List<ChatMessage> getMessages(ZonedDateTime from, ZonedDateTime to) {
+        int fromIndex = lowerBound(from.toInstant().toEpochMilli());
+        int toIndex = lowerBound(to.toInstant().toEpochMilli());
+        return new ArrayList<>(messages.subList(fromIndex, Math.max(fromIndex, toIndex)));
+    }
+
+    /**
+     * @param date a unix timestamp in milliseconds
+     * @return the index of the first message sent at or after the given date
+     */
+    private int lowerBound(long date) {
+        int low = 0;
+        int high = messages.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < date) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
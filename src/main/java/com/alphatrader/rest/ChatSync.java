@@ -0,0 +1,205 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Schedulers;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps local copies of the chats of the logged-in user in sync with the server. Every chat has an
+ * append-only {@link ChatMessageLog}, and only messages newer than the newest one held are fetched. A
+ * single request for all chats of the user is used to find the chats whose last message is newer than
+ * the local copy, so quiet chats cost no requests at all.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ChatSync {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(ChatSync.class);
+
+    /**
+     * Orders messages by the date they were sent.
+     */
+    private static final Comparator<ChatMessage> BY_DATE_SENT = Comparator.comparing(
+        ChatMessage::getDateSent, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Fetches all chats of the user.
+     */
+    private final Supplier<List<Chat>> chatFetcher;
+
+    /**
+     * Fetches the messages of a chat newer than the given date.
+     */
+    private final BiFunction<String, ZonedDateTime, List<ChatMessage>> messageFetcher;
+
+    /**
+     * The local message logs by chat id.
+     */
+    private final ConcurrentMap<String, ChatMessageLog> logs = new ConcurrentHashMap<>();
+
+    /**
+     * The registered listeners.
+     */
+    private final List<Consumer<ChatMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The executor running the scheduled polls, if started.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a sync engine for the chats of the logged-in user.
+     */
+    public ChatSync() {
+        this(Chat::getAllChatsForThisUserUncached, ChatMessage::getChatMessagesUncached);
+    }
+
+    /**
+     * Creates a sync engine using the given sources.
+     *
+     * @param chatFetcher    fetches all chats of the user
+     * @param messageFetcher fetches the messages of a chat newer than the given date
+     */
+    ChatSync(Supplier<List<Chat>> chatFetcher,
+             BiFunction<String, ZonedDateTime, List<ChatMessage>> messageFetcher) {
+        this.chatFetcher = chatFetcher;
+        this.messageFetcher = messageFetcher;
+    }
+
+    /**
+     * Registers a listener that is called for every new message.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Consumer<ChatMessage> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Consumer<ChatMessage> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param chatId the id of the chat
+     * @return the local message log of the chat, or null if the chat has not been synced yet
+     */
+    @Nullable
+    public ChatMessageLog getLog(String chatId) {
+        return logs.get(chatId);
+    }
+
+    /**
+     * Fetches the list of chats and syncs every chat whose last message is newer than the local copy.
+     *
+     * @return all new messages
+     */
+    @NotNull
+    public synchronized List<ChatMessage> syncAll() {
+        List<ChatMessage> fresh = new ArrayList<>();
+
+        for (Chat chat : chatFetcher.get()) {
+            if (hasNewMessages(chat)) {
+                fresh.addAll(sync(chat.getId()));
+            }
+        }
+
+        return fresh;
+    }
+
+    /**
+     * Checks whether the last message of a chat is newer than the local copy. If that cannot be decided,
+     * the chat is treated as changed.
+     *
+     * @param chat the chat as returned by the server
+     * @return true if the chat has to be synced
+     */
+    private boolean hasNewMessages(Chat chat) {
+        ChatMessageLog chatLog = logs.get(chat.getId());
+        ChatMessage lastMessage = chat.getLastMessage();
+        if (chatLog == null || chatLog.getNewestDate() == null || lastMessage == null
+            || lastMessage.getDateSent() == null) {
+            return true;
+        }
+        return lastMessage.getDateSent().isAfter(chatLog.getNewestDate());
+    }
+
+    /**
+     * Fetches all messages of the given chat newer than the newest one held.
+     *
+     * @param chatId the id of the chat
+     * @return the new messages in the order they were sent
+     */
+    @NotNull
+    public synchronized List<ChatMessage> sync(String chatId) {
+        ChatMessageLog chatLog = logs.computeIfAbsent(chatId, ChatMessageLog::new);
+
+        List<ChatMessage> fetched = new ArrayList<>(
+            messageFetcher.apply(chatId, chatLog.getNewestDate()));
+        fetched.sort(BY_DATE_SENT);
+
+        List<ChatMessage> fresh = new ArrayList<>();
+        for (ChatMessage message : fetched) {
+            if (chatLog.append(message)) {
+                fresh.add(message);
+                for (Consumer<ChatMessage> listener : listeners) {
+                    try {
+                        listener.accept(message);
+                    }
+                    catch (RuntimeException e) {
+                        log.error("Chat message listener failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        return fresh;
+    }
+
+    /**
+     * Starts syncing all chats on the given schedule in a daemon thread. A failing sync is logged and
+     * the next one runs as scheduled. Does nothing if the sync is already running.
+     *
+     * @param period the delay between the end of one sync and the start of the next
+     * @param unit   the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executor == null) {
+            executor = Schedulers.newDaemonScheduler("chat-sync");
+            executor.scheduleWithFixedDelay(Schedulers.logFailures("Chat sync", this::syncAll), 0,
+                period, unit);
+        }
+    }
+
+    /**
+     * Stops syncing.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
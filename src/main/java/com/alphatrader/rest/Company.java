@@ -305,6 +305,21 @@ public class Company {
         return logoUrl;
     }
 
+    /**
+     * Fills the values of this company that are still missing from another copy of it. Values that are
+     * already set are never changed.
+     *
+     * @param other the other copy
+     */
+    void fillMissingFrom(Company other) {
+        EntityIdentityMap.fillMissing(name, other.name);
+        EntityIdentityMap.fillMissing(securitiesAccountId, other.securitiesAccountId);
+        EntityIdentityMap.fillMissing(bankAccount, other.bankAccount);
+        EntityIdentityMap.fillMissing(ceo, other.ceo);
+        EntityIdentityMap.fillMissing(listing, other.listing);
+        EntityIdentityMap.fillMissing(logoUrl, other.logoUrl);
+    }
+
     @Override
     public String toString() {
         return "Company{"
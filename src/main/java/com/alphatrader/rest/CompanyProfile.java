@@ -1,5 +1,6 @@
 package com.alphatrader.rest;
 
+import com.mashape.unirest.http.exceptions.UnirestException;
 import javafx.beans.property.*;
 import javafx.collections.ObservableList;
 import org.jetbrains.annotations.Nullable;
@@ -135,6 +136,19 @@ public class CompanyProfile {
         return Http.getSingleObjectFromApi(CompanyProfile.class, "/api/companyprofiles/" + companyId);
     }
 
+    /**
+     * Requests the profile of the given company, bypassing the response cache. Failures are thrown.
+     *
+     * @param companyId the company id
+     * @return the CompanyProfile requested
+     * @throws UnirestException if the request fails
+     */
+    @Nullable
+    static CompanyProfile requestByCompany(String companyId) throws UnirestException {
+        return Http.requestSingleObjectFromApi(CompanyProfile.class, "/api/companyprofiles/"
+            + companyId);
+    }
+
     /**
      * @return the current CEO employment agreement
      */
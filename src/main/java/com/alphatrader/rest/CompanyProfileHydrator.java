@@ -0,0 +1,325 @@
+package com.alphatrader.rest;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads the profiles of many companies at once. Profiles are requested concurrently up to a
+ * configurable limit and, if set, no faster than a rate budget allows. Each profile is handed to the
+ * sink as soon as it arrives, and progress and failures are reported to a listener.
+ * <p>
+ * If a version function is set, the hydrator remembers the version of every company it loaded. On later
+ * runs, companies whose version has not changed are skipped without a request. A version is any value
+ * that changes whenever the profile does, e.g. the id of the last trade of the company's listing.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CompanyProfileHydrator {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(CompanyProfileHydrator.class);
+
+    /**
+     * Requests a single profile.
+     */
+    private final ProfileFetcher fetcher;
+
+    /**
+     * The versions of the last loaded profiles by company id.
+     */
+    private final Map<String, Object> versions = new ConcurrentHashMap<>();
+
+    /**
+     * The maximum number of requests running at the same time.
+     */
+    private int parallelism = 8;
+
+    /**
+     * The maximum number of requests per second, or 0 for no limit.
+     */
+    private double requestsPerSecond;
+
+    /**
+     * Returns the current version of a company, or null if unknown.
+     */
+    private Function<String, ?> versionFunction;
+
+    /**
+     * Receives progress and failures.
+     */
+    private Listener listener = new Listener() {
+    };
+
+    /**
+     * Creates a hydrator that requests the profiles from the server.
+     */
+    public CompanyProfileHydrator() {
+        this(CompanyProfile::requestByCompany);
+    }
+
+    /**
+     * Creates a hydrator using the given profile source.
+     *
+     * @param fetcher requests a single profile
+     */
+    CompanyProfileHydrator(ProfileFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Sets the maximum number of requests running at the same time.
+     *
+     * @param parallelism the number of concurrent requests
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets the maximum number of requests started per second.
+     *
+     * @param requestsPerSecond the rate budget, or 0 for no limit
+     */
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = Math.max(0, requestsPerSecond);
+    }
+
+    /**
+     * Sets the function used to skip unchanged profiles.
+     *
+     * @param versionFunction returns the current version of a company by its id, or null if unknown
+     */
+    public void setVersionFunction(@Nullable Function<String, ?> versionFunction) {
+        this.versionFunction = versionFunction;
+    }
+
+    /**
+     * Sets the listener that receives progress and failures.
+     *
+     * @param listener the listener
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Loads the profiles of the given companies.
+     *
+     * @param companies the companies
+     * @param sink      receives the profiles in the order they arrive
+     * @return the summary of the run
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    @NotNull
+    public Summary hydrateCompanies(Collection<Company> companies, Consumer<? super CompanyProfile> sink)
+        throws InterruptedException {
+        List<String> companyIds = new ArrayList<>(companies.size());
+        for (Company company : companies) {
+            companyIds.add(company.getId());
+        }
+        return hydrate(companyIds, sink);
+    }
+
+    /**
+     * Loads the profiles of the companies with the given ids.
+     *
+     * @param companyIds the company ids
+     * @param sink       receives the profiles in the order they arrive
+     * @return the summary of the run
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    @NotNull
+    public Summary hydrate(Collection<String> companyIds, Consumer<? super CompanyProfile> sink)
+        throws InterruptedException {
+        Set<String> pending = new LinkedHashSet<>(companyIds);
+        int total = pending.size();
+        Summary summary = new Summary();
+
+        RateLimiter rateLimiter = requestsPerSecond > 0 ? RateLimiter.create(requestsPerSecond) : null;
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        CompletionService<CompanyProfile> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<CompanyProfile>, String> submitted = new HashMap<>();
+        Map<String, Object> currentVersions = new HashMap<>();
+
+        try {
+            for (String companyId : pending) {
+                Object version = versionFunction != null ? versionFunction.apply(companyId) : null;
+                if (version != null && version.equals(versions.get(companyId))) {
+                    summary.skipped++;
+                    listener.onProgress(summary.getCompleted(), total);
+                    continue;
+                }
+                if (version != null) {
+                    currentVersions.put(companyId, version);
+                }
+                submitted.put(completion.submit(() -> {
+                    if (rateLimiter != null) {
+                        rateLimiter.acquire();
+                    }
+                    return fetcher.fetch(companyId);
+                }), companyId);
+            }
+
+            for (int i = submitted.size(); i > 0; i--) {
+                Future<CompanyProfile> future = completion.take();
+                String companyId = submitted.get(future);
+                CompanyProfile profile;
+                try {
+                    profile = future.get();
+                }
+                catch (ExecutionException e) {
+                    fail(summary, companyId, e.getCause(), total);
+                    continue;
+                }
+                if (profile == null) {
+                    fail(summary, companyId, new NoSuchElementException("Profile of company " + companyId
+                        + " not found"), total);
+                    continue;
+                }
+
+                summary.loaded++;
+                Object version = currentVersions.get(companyId);
+                if (version != null) {
+                    versions.put(companyId, version);
+                }
+                sink.accept(profile);
+                listener.onProgress(summary.getCompleted(), total);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return summary;
+    }
+
+    /**
+     * Records a failed profile and reports it to the listener.
+     *
+     * @param summary   the summary of the run
+     * @param companyId the company id
+     * @param cause     the reason of the failure
+     * @param total     the number of companies of the run
+     */
+    private void fail(Summary summary, String companyId, Throwable cause, int total) {
+        summary.failures.put(companyId, cause);
+        versions.remove(companyId);
+        log.warn("Loading the profile of company " + companyId + " failed: " + cause.getMessage());
+        listener.onFailure(companyId, cause);
+        listener.onProgress(summary.getCompleted(), total);
+    }
+
+    /**
+     * Forgets all remembered versions, so the next run loads every profile.
+     */
+    public void clearVersions() {
+        versions.clear();
+    }
+
+    /**
+     * Requests a single profile.
+     */
+    @FunctionalInterface
+    interface ProfileFetcher {
+        /**
+         * @param companyId the company id
+         * @return the profile, or null if not found
+         * @throws Exception if the request fails
+         */
+        CompanyProfile fetch(String companyId) throws Exception;
+    }
+
+    /**
+     * Receives the progress of a run. All methods are called on the thread running the hydration.
+     */
+    public interface Listener {
+        /**
+         * Called whenever a company has been loaded, skipped or has failed.
+         *
+         * @param completed the number of companies done
+         * @param total     the number of companies in the run
+         */
+        default void onProgress(int completed, int total) {
+        }
+
+        /**
+         * Called when the profile of a company could not be loaded.
+         *
+         * @param companyId the company id
+         * @param cause     the failure
+         */
+        default void onFailure(String companyId, Throwable cause) {
+        }
+    }
+
+    /**
+     * The outcome of a run.
+     */
+    public static final class Summary {
+        /**
+         * The number of loaded profiles.
+         */
+        private int loaded;
+
+        /**
+         * The number of unchanged profiles that were skipped.
+         */
+        private int skipped;
+
+        /**
+         * The failures by company id.
+         */
+        private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+        /**
+         * @return the number of loaded profiles
+         */
+        @PublicAPI
+        public int getLoaded() {
+            return loaded;
+        }
+
+        /**
+         * @return the number of unchanged profiles that were skipped
+         */
+        @PublicAPI
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return the failures by company id
+         */
+        @PublicAPI
+        public Map<String, Throwable> getFailures() {
+            return Collections.unmodifiableMap(failures);
+        }
+
+        /**
+         * @return the number of companies done, whether loaded, skipped or failed
+         */
+        @PublicAPI
+        public int getCompleted() {
+            return loaded + skipped + failures.size();
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{"
+                + "loaded=" + loaded
+                + ", skipped=" + skipped
+                + ", failed=" + failures.size()
+                + '}';
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, compressed price history in the format of Facebook's Gorilla time series database.
+ * Dates are stored as the difference between consecutive deltas, which is zero or small for regularly
+ * spaced points, and prices as the XOR with the previous price, which only keeps the bits that changed.
+ * Both are written into a packed bit stream.
+ * <p>
+ * The points are split into time blocks of a fixed length. Every block starts with an uncompressed
+ * point, so each block can be decoded on its own and a time range only decodes the blocks it touches.
+ * Series are built in a single pass with a {@link Builder} and decoded in a single pass with a
+ * {@link Cursor}, neither of which allocates per point.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class CompressedPriceSeries {
+    /**
+     * The default length of a block, one day.
+     */
+    public static final long DEFAULT_BLOCK_MILLIS = 24L * 60 * 60 * 1000;
+
+    /**
+     * The payload sizes of the delta-of-delta buckets, indexed by the number of leading one bits of
+     * their prefix.
+     */
+    private static final int[] DELTA_BITS = {0, 7, 12, 20, 32, 64};
+
+    /**
+     * The length of a block in milliseconds.
+     */
+    private final long blockMillis;
+
+    /**
+     * The packed bit stream, followed by one zero word so reads may look ahead past the end.
+     */
+    private final long[] words;
+
+    /**
+     * The number of bits used in the stream.
+     */
+    private final long bitLength;
+
+    /**
+     * The start of every block, aligned to multiples of the block length.
+     */
+    private final long[] blockStarts;
+
+    /**
+     * The bit position of every block in the stream.
+     */
+    private final long[] blockOffsets;
+
+    /**
+     * The number of points before every block; one element longer than the number of blocks.
+     */
+    private final int[] blockFirstPoints;
+
+    private CompressedPriceSeries(long blockMillis, long[] words, long bitLength, long[] blockStarts,
+                                  long[] blockOffsets, int[] blockFirstPoints) {
+        this.blockMillis = blockMillis;
+        this.words = words;
+        this.bitLength = bitLength;
+        this.blockStarts = blockStarts;
+        this.blockOffsets = blockOffsets;
+        this.blockFirstPoints = blockFirstPoints;
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param blockMillis the length of a block in milliseconds
+     * @return the builder
+     */
+    @PublicAPI
+    @NotNull
+    public static Builder builder(long blockMillis) {
+        return new Builder(blockMillis);
+    }
+
+    /**
+     * Compresses a price series.
+     *
+     * @param series      the series
+     * @param blockMillis the length of a block in milliseconds
+     * @return the compressed series
+     */
+    @PublicAPI
+    @NotNull
+    public static CompressedPriceSeries of(PriceSeries series, long blockMillis) {
+        long[] dates = series.getDates();
+        double[] values = series.getValues();
+        Builder builder = new Builder(blockMillis);
+        for (int i = 0; i < dates.length; i++) {
+            builder.append(dates[i], values[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decompresses the series into a columnar price series.
+     *
+     * @param securityIdentifier the identifier of the security
+     * @return the price series
+     */
+    @PublicAPI
+    @NotNull
+    public PriceSeries toPriceSeries(String securityIdentifier) {
+        PriceSeries series = new PriceSeries(securityIdentifier);
+        forEach(series::append);
+        return series;
+    }
+
+    /**
+     * @return the number of points
+     */
+    @PublicAPI
+    public int size() {
+        return blockFirstPoints[blockStarts.length];
+    }
+
+    /**
+     * @return the length of a block in milliseconds
+     */
+    @PublicAPI
+    public long getBlockMillis() {
+        return blockMillis;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    @PublicAPI
+    public int getBlockCount() {
+        return blockStarts.length;
+    }
+
+    /**
+     * @param block the index of the block
+     * @return the start of the block as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public long getBlockStartMillis(int block) {
+        return blockStarts[block];
+    }
+
+    /**
+     * @param block the index of the block
+     * @return the number of points in the block
+     */
+    @PublicAPI
+    public int getBlockSize(int block) {
+        return blockFirstPoints[block + 1] - blockFirstPoints[block];
+    }
+
+    /**
+     * Finds the block holding the points at the given date.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the index of the last block starting at or before the date, or 0 if there is none
+     */
+    @PublicAPI
+    public int findBlock(long dateMillis) {
+        int index = Arrays.binarySearch(blockStarts, dateMillis);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    /**
+     * @return the size of the compressed bit stream in bytes
+     */
+    @PublicAPI
+    public long getCompressedBytes() {
+        return (bitLength + 7) / 8;
+    }
+
+    /**
+     * @return a cursor over all points
+     */
+    @PublicAPI
+    @NotNull
+    public Cursor cursor() {
+        return new Cursor(0, blockStarts.length);
+    }
+
+    /**
+     * @param fromBlock the index of the first block to decode
+     * @return a cursor over all points from the given block on
+     */
+    @PublicAPI
+    @NotNull
+    public Cursor cursor(int fromBlock) {
+        if (fromBlock < 0 || fromBlock > blockStarts.length) {
+            throw new IndexOutOfBoundsException("Block: " + fromBlock + ", blocks: "
+                + blockStarts.length);
+        }
+        return new Cursor(fromBlock, blockStarts.length);
+    }
+
+    /**
+     * Hands all points to the consumer, oldest first.
+     *
+     * @param consumer the consumer
+     */
+    @PublicAPI
+    public void forEach(PointConsumer consumer) {
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            consumer.accept(cursor.getDateMillis(), cursor.getValue());
+        }
+    }
+
+    /**
+     * Hands all points in the given time range to the consumer, oldest first. Only the blocks
+     * overlapping the range are decoded.
+     *
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @param consumer   the consumer
+     */
+    @PublicAPI
+    public void forEach(long fromMillis, long toMillis, PointConsumer consumer) {
+        if (blockStarts.length == 0) {
+            return;
+        }
+        Cursor cursor = new Cursor(findBlock(fromMillis), blockStarts.length);
+        while (cursor.next()) {
+            long date = cursor.getDateMillis();
+            if (date >= toMillis) {
+                return;
+            }
+            if (date >= fromMillis) {
+                consumer.accept(date, cursor.getValue());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedPriceSeries{"
+            + "size=" + size()
+            + ", blocks=" + blockStarts.length
+            + ", compressedBytes=" + getCompressedBytes()
+            + '}';
+    }
+
+    /**
+     * Receives decoded points.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+        /**
+         * @param dateMillis the date as unix timestamp in milliseconds
+         * @param value      the price
+         */
+        void accept(long dateMillis, double value);
+    }
+
+    /**
+     * Encodes points in a single pass. Points must be added in chronological order.
+     */
+    public static final class Builder {
+        private final long blockMillis;
+        private long[] words = new long[64];
+        private long position;
+        private long[] blockStarts = new long[8];
+        private long[] blockOffsets = new long[8];
+        private int[] blockFirstPoints = new int[9];
+        private int blocks;
+        private int points;
+        private long previousDate;
+        private long previousDelta;
+        private long previousBits;
+        private int previousLeading;
+        private int previousTrailing;
+
+        private Builder(long blockMillis) {
+            if (blockMillis < 1) {
+                throw new IllegalArgumentException("Block length must be positive: " + blockMillis);
+            }
+            this.blockMillis = blockMillis;
+        }
+
+        /**
+         * Encodes a point.
+         *
+         * @param dateMillis the date as unix timestamp in milliseconds, not older than the previous one
+         * @param value      the price
+         * @return this builder
+         */
+        @NotNull
+        public Builder append(long dateMillis, double value) {
+            if (points > 0 && dateMillis < previousDate) {
+                throw new IllegalArgumentException("Points must be added in chronological order: "
+                    + dateMillis + " < " + previousDate);
+            }
+
+            long bits = Double.doubleToRawLongBits(value);
+            long blockStart = Math.floorDiv(dateMillis, blockMillis) * blockMillis;
+            if (blocks == 0 || blockStart != blockStarts[blocks - 1]) {
+                startBlock(blockStart);
+                write(dateMillis, 64);
+                write(bits, 64);
+                previousDelta = 0;
+                previousLeading = -1;
+            }
+            else {
+                long delta = dateMillis - previousDate;
+                writeDeltaOfDelta(delta - previousDelta);
+                previousDelta = delta;
+                writeValue(bits ^ previousBits);
+            }
+            previousDate = dateMillis;
+            previousBits = bits;
+            points++;
+            blockFirstPoints[blocks] = points;
+            return this;
+        }
+
+        /**
+         * @return the compressed series of all points added so far
+         */
+        @NotNull
+        public CompressedPriceSeries build() {
+            return new CompressedPriceSeries(blockMillis,
+                Arrays.copyOf(words, (int) ((position + 63) >>> 6) + 1), position,
+                Arrays.copyOf(blockStarts, blocks), Arrays.copyOf(blockOffsets, blocks),
+                Arrays.copyOf(blockFirstPoints, blocks + 1));
+        }
+
+        private void startBlock(long blockStart) {
+            if (blocks == blockStarts.length) {
+                blockStarts = Arrays.copyOf(blockStarts, blocks * 2);
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                blockFirstPoints = Arrays.copyOf(blockFirstPoints, blocks * 2 + 1);
+            }
+            blockStarts[blocks] = blockStart;
+            blockOffsets[blocks] = position;
+            blocks++;
+            blockFirstPoints[blocks] = points;
+        }
+
+        private void writeDeltaOfDelta(long deltaOfDelta) {
+            long zigZag = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+            for (int bucket = 0; bucket < DELTA_BITS.length; bucket++) {
+                int payload = DELTA_BITS[bucket];
+                if (payload == 64 || zigZag >>> payload == 0) {
+                    if (bucket < DELTA_BITS.length - 1) {
+                        write(((1L << bucket) - 1) << 1, bucket + 1);
+                    }
+                    else {
+                        write((1L << bucket) - 1, bucket);
+                    }
+                    write(zigZag, payload);
+                    return;
+                }
+            }
+        }
+
+        private void writeValue(long xor) {
+            if (xor == 0) {
+                write(0, 1);
+                return;
+            }
+            int leading = Long.numberOfLeadingZeros(xor);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                write(0b10, 2);
+                write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                return;
+            }
+            int length = 64 - leading - trailing;
+            write(0b11, 2);
+            write(leading, 6);
+            write(length - 1, 6);
+            write(xor >>> trailing, length);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+
+        private void write(long value, int bits) {
+            if (bits == 0) {
+                return;
+            }
+            long masked = bits < 64 ? value & ((1L << bits) - 1) : value;
+            int index = (int) (position >>> 6);
+            if (index + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int free = 64 - (int) (position & 63);
+            if (bits <= free) {
+                words[index] |= masked << (free - bits);
+            }
+            else {
+                words[index] |= masked >>> (bits - free);
+                words[index + 1] |= masked << (64 - (bits - free));
+            }
+            position += bits;
+        }
+    }
+
+    /**
+     * Decodes points in a single pass. A cursor starts before its first point; {@link #next()} moves
+     * it to the next one.
+     */
+    public final class Cursor {
+        private final long[] data = words;
+        private final int endBlock;
+        private int block;
+        private int remaining;
+        private long position;
+        private long date;
+        private long delta;
+        private long bits;
+        private int leading;
+        private int trailing;
+
+        private Cursor(int fromBlock, int endBlock) {
+            this.block = fromBlock - 1;
+            this.endBlock = endBlock;
+        }
+
+        /**
+         * Moves to the next point.
+         *
+         * @return false if there are no more points
+         */
+        public boolean next() {
+            if (remaining == 0) {
+                do {
+                    if (++block >= endBlock) {
+                        block = endBlock;
+                        return false;
+                    }
+                    remaining = getBlockSize(block);
+                } while (remaining == 0);
+                position = blockOffsets[block];
+                date = read(64);
+                bits = read(64);
+                delta = 0;
+                remaining--;
+                return true;
+            }
+
+            long zigZag = readDeltaOfDelta();
+            delta += (zigZag >>> 1) ^ -(zigZag & 1);
+            date += delta;
+            int control = (int) peek(2);
+            if (control < 0b10) {
+                position++;
+            }
+            else {
+                position += 2;
+                if (control == 0b11) {
+                    leading = (int) read(6);
+                    trailing = 64 - leading - ((int) read(6) + 1);
+                }
+                bits ^= read(64 - leading - trailing) << trailing;
+            }
+            remaining--;
+            return true;
+        }
+
+        /**
+         * @return the date of the current point as unix timestamp in milliseconds
+         */
+        public long getDateMillis() {
+            checkPositioned();
+            return date;
+        }
+
+        /**
+         * @return the price of the current point
+         */
+        public double getValue() {
+            checkPositioned();
+            return Double.longBitsToDouble(bits);
+        }
+
+        private void checkPositioned() {
+            if (block < 0 || block >= endBlock) {
+                throw new NoSuchElementException("The cursor is not on a point");
+            }
+        }
+
+        private long readDeltaOfDelta() {
+            int last = DELTA_BITS.length - 1;
+            int bucket = Math.min(last, Integer.numberOfLeadingZeros(~(int) peek(last) << (32 - last)));
+            position += bucket < last ? bucket + 1 : last;
+            return read(DELTA_BITS[bucket]);
+        }
+
+        private long read(int count) {
+            long result = peek(count);
+            position += count;
+            return result;
+        }
+
+        private long peek(int count) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long result;
+            if (count <= free) {
+                result = data[index] >>> (free - count);
+            }
+            else {
+                int rest = count - free;
+                result = (data[index] << rest) | (data[index + 1] >>> (64 - rest));
+            }
+            return count < 64 ? result & ((1L << count) - 1) : result;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.alphatrader.rest;
+
+import com.google.common.collect.MapMaker;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import javafx.beans.property.Property;
+import javafx.beans.value.ObservableValue;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Identity map for the entities that are embedded in many other objects. Every company, user and
+ * listing read by gson is looked up by its id, and if the same logical entity has been read before, the
+ * existing object is returned instead of a fresh copy. Values the existing object is still missing are
+ * filled from the fresh copy, but values that are already set are never changed, so objects handed out
+ * earlier stay stable for their callers. Entities are only weakly referenced and are collected once
+ * nothing else refers to them.
+ * <p>
+ * Gson may read on any thread, e.g. on the pools of {@link CompanyProfileHydrator} and
+ * {@link OwnershipCrawler}. Filling an entity locks on the entity itself, so concurrent reads of the
+ * same entity do not interleave. Listeners on the properties of a shared entity are only notified when
+ * a missing value is filled, and then on the thread that read the fresh copy; listeners that update a
+ * user interface have to hand the change over to the UI thread themselves.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class EntityIdentityMap implements TypeAdapterFactory {
+    /**
+     * The singleton instance.
+     */
+    private static final EntityIdentityMap instance = new EntityIdentityMap();
+
+    /**
+     * All known companies by id.
+     */
+    private final ConcurrentMap<String, Company> companies = new MapMaker().weakValues().makeMap();
+
+    /**
+     * All known users by id.
+     */
+    private final ConcurrentMap<String, User> users = new MapMaker().weakValues().makeMap();
+
+    /**
+     * All known listings by security identifier.
+     */
+    private final ConcurrentMap<String, Listing> listings = new MapMaker().weakValues().makeMap();
+
+    private EntityIdentityMap() {
+    }
+
+    /**
+     * @return the singleton instance.
+     */
+    public static EntityIdentityMap getInstance() {
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType != Company.class && rawType != User.class && rawType != Listing.class) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return (T) canonicalize(delegate.read(in));
+            }
+        };
+    }
+
+    /**
+     * Returns the shared instance of the given entity, registering it if it is not known yet.
+     *
+     * @param entity the freshly read entity
+     * @return the shared instance, with its missing values filled from the fresh copy
+     */
+    @Nullable
+    Object canonicalize(@Nullable Object entity) {
+        if (entity instanceof Company) {
+            Company company = (Company) entity;
+            if (company.getId() == null) {
+                return company;
+            }
+            Company known = companies.putIfAbsent(company.getId(), company);
+            if (known == null) {
+                return company;
+            }
+            synchronized (known) {
+                known.fillMissingFrom(company);
+            }
+            return known;
+        }
+        if (entity instanceof User) {
+            User user = (User) entity;
+            if (user.getId() == null) {
+                return user;
+            }
+            User known = users.putIfAbsent(user.getId(), user);
+            if (known == null) {
+                return user;
+            }
+            synchronized (known) {
+                known.fillMissingFrom(user);
+            }
+            return known;
+        }
+        if (entity instanceof Listing) {
+            Listing listing = (Listing) entity;
+            if (listing.getSecurityIdentifier() == null) {
+                return listing;
+            }
+            Listing known = listings.putIfAbsent(listing.getSecurityIdentifier(), listing);
+            if (known == null) {
+                return listing;
+            }
+            synchronized (known) {
+                known.fillMissingFrom(listing);
+            }
+            return known;
+        }
+        return entity;
+    }
+
+    /**
+     * @return the number of entities currently held
+     */
+    public int size() {
+        return companies.size() + users.size() + listings.size();
+    }
+
+    /**
+     * Forgets all known entities. Objects read afterwards are no longer shared with earlier ones.
+     */
+    public void clear() {
+        companies.clear();
+        users.clear();
+        listings.clear();
+    }
+
+    /**
+     * Copies the value of the source into the target if the target has no value yet.
+     *
+     * @param target the property to fill
+     * @param source the value to copy
+     * @param <T>    the type of the value
+     */
+    static <T> void fillMissing(Property<T> target, ObservableValue<T> source) {
+        T value = source.getValue();
+        if (target.getValue() == null && value != null) {
+            target.setValue(value);
+        }
+    }
+}
@@ -76,6 +76,26 @@ public class Event {
         return getMultipleEventsFromApi("events/user/?afterDate=" + fromDate.toInstant().toEpochMilli());
     }
 
+    /**
+     * @param fromDate the lower boundary date
+     * @return all non-persistent events in the game from the provided date, bypassing the response cache
+     */
+    @NotNull
+    static List<Event> getAllEventsUncached(ZonedDateTime fromDate) {
+        return Http.getMultipleObjectFromApiUncached(Event.class, "/api/events/?afterDate="
+            + fromDate.toInstant().toEpochMilli());
+    }
+
+    /**
+     * @param fromDate the lower boundary date
+     * @return all non-persistent events for this user from the provided date, bypassing the cache
+     */
+    @NotNull
+    static List<Event> getAllUserEventsUncached(ZonedDateTime fromDate) {
+        return Http.getMultipleObjectFromApiUncached(Event.class, "/api/events/user/?afterDate="
+            + fromDate.toInstant().toEpochMilli());
+    }
+
     /**
      * Gets events based on the provided suffix and date.
      *
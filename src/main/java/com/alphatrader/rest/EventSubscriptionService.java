@@ -0,0 +1,318 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Schedulers;
+import com.alphatrader.rest.util.Timestamps;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Delivers game events to subscribers. The service keeps a high-water mark on the event date and only
+ * requests events from that date on. Every event is delivered at most once and in date order: the mark
+ * is advanced before the subscribers are called, and events at the edge of the window that have already
+ * been seen are dropped. The subscribers are indexed by event type, so dispatching an event is a table
+ * lookup instead of a scan over all subscriptions.
+ * <p>
+ * When started, the service polls adaptively: after a poll that returned events it polls again after the
+ * minimum period, and every idle poll doubles the period up to the maximum.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class EventSubscriptionService {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(EventSubscriptionService.class);
+
+    /**
+     * Orders events by date.
+     */
+    private static final Comparator<Event> BY_DATE = Comparator.comparing(Event::getDate);
+
+    /**
+     * Fetches all events from the given date on.
+     */
+    private final Function<ZonedDateTime, List<Event>> fetcher;
+
+    /**
+     * The subscriptions by event type. Replaced as a whole whenever a subscription is added or removed.
+     */
+    private volatile Map<Event.Type, Subscription[]> dispatchTable = new EnumMap<>(Event.Type.class);
+
+    /**
+     * All active subscriptions.
+     */
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * The date of the newest delivered event as unix timestamp in milliseconds.
+     */
+    private long watermark;
+
+    /**
+     * The events dated exactly at the watermark that have already been delivered.
+     */
+    private final Set<Event> eventsAtWatermark = new HashSet<>();
+
+    /**
+     * The executor running the scheduled polls, if started.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * The shortest delay between two polls in milliseconds.
+     */
+    private long minPeriod;
+
+    /**
+     * The longest delay between two polls in milliseconds.
+     */
+    private long maxPeriod;
+
+    /**
+     * The delay before the next poll in milliseconds.
+     */
+    private long currentPeriod;
+
+    /**
+     * Creates a service using the given event source.
+     *
+     * @param fetcher   fetches all events from the given date on
+     * @param startDate the date to start delivering events from
+     */
+    EventSubscriptionService(Function<ZonedDateTime, List<Event>> fetcher, ZonedDateTime startDate) {
+        this.fetcher = fetcher;
+        this.watermark = startDate.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Creates a service for all non-persistent events in the game.
+     *
+     * @param startDate the date to start delivering events from
+     * @return the service
+     */
+    @NotNull
+    public static EventSubscriptionService forAllEvents(ZonedDateTime startDate) {
+        return new EventSubscriptionService(Event::getAllEventsUncached, startDate);
+    }
+
+    /**
+     * Creates a service for the non-persistent events of the logged-in user.
+     *
+     * @param startDate the date to start delivering events from
+     * @return the service
+     */
+    @NotNull
+    public static EventSubscriptionService forUserEvents(ZonedDateTime startDate) {
+        return new EventSubscriptionService(Event::getAllUserEventsUncached, startDate);
+    }
+
+    /**
+     * Subscribes to events.
+     *
+     * @param subscriber the subscriber to call for every matching event
+     * @param realm      the realm an event has to belong to, or null for all realms
+     * @param types      the event types to receive, or none for all types
+     * @return the subscription, used to cancel it
+     */
+    @NotNull
+    public synchronized Subscription subscribe(Consumer<Event> subscriber, @Nullable String realm,
+                                               Event.Type... types) {
+        EnumSet<Event.Type> typeSet = types.length == 0 ? EnumSet.allOf(Event.Type.class)
+            : EnumSet.copyOf(Arrays.asList(types));
+        Subscription subscription = new Subscription(subscriber, realm, typeSet);
+        subscriptions.add(subscription);
+        rebuildDispatchTable();
+        return subscription;
+    }
+
+    /**
+     * Rebuilds the dispatch table from the active subscriptions.
+     */
+    private synchronized void rebuildDispatchTable() {
+        Map<Event.Type, List<Subscription>> byType = new EnumMap<>(Event.Type.class);
+        for (Subscription subscription : subscriptions) {
+            for (Event.Type type : subscription.types) {
+                byType.computeIfAbsent(type, key -> new ArrayList<>()).add(subscription);
+            }
+        }
+
+        Map<Event.Type, Subscription[]> table = new EnumMap<>(Event.Type.class);
+        for (Map.Entry<Event.Type, List<Subscription>> entry : byType.entrySet()) {
+            table.put(entry.getKey(), entry.getValue().toArray(new Subscription[0]));
+        }
+        dispatchTable = table;
+    }
+
+    /**
+     * @return the date of the newest delivered event, or the start date if none was delivered yet
+     */
+    public synchronized ZonedDateTime getWatermark() {
+        return Timestamps.toZonedDateTime(watermark);
+    }
+
+    /**
+     * Requests all events newer than the high-water mark and dispatches the new ones.
+     *
+     * @return the new events, in date order
+     */
+    @NotNull
+    public synchronized List<Event> poll() {
+        List<Event> fresh = new ArrayList<>();
+
+        for (Event event : fetcher.apply(Timestamps.toZonedDateTime(watermark))) {
+            if (event.getDate() == null || event.getType() == null) {
+                continue;
+            }
+            long date = event.getDate().toInstant().toEpochMilli();
+            if (date > watermark || (date == watermark && !eventsAtWatermark.contains(event))) {
+                fresh.add(event);
+            }
+        }
+        fresh.sort(BY_DATE);
+
+        for (Event event : fresh) {
+            long date = event.getDate().toInstant().toEpochMilli();
+            if (date > watermark) {
+                watermark = date;
+                eventsAtWatermark.clear();
+            }
+            eventsAtWatermark.add(event);
+            dispatch(event);
+        }
+
+        return fresh;
+    }
+
+    /**
+     * Calls all subscribers of the event's type whose realm matches.
+     *
+     * @param event the event to dispatch
+     */
+    private void dispatch(Event event) {
+        Subscription[] candidates = dispatchTable.get(event.getType());
+        if (candidates == null) {
+            return;
+        }
+
+        for (Subscription subscription : candidates) {
+            if (subscription.realm != null && !event.getRealms().contains(subscription.realm)) {
+                continue;
+            }
+            try {
+                subscription.subscriber.accept(event);
+            }
+            catch (RuntimeException e) {
+                log.error("Event subscriber failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts polling in a daemon thread. The delay between two polls adapts to the event rate within the
+     * given bounds. A failing poll is logged and counts as idle. Does nothing if the service is already
+     * running.
+     *
+     * @param minPeriod the delay after a poll that returned events
+     * @param maxPeriod the longest delay after idle polls
+     * @param unit      the unit of the periods
+     */
+    public synchronized void start(long minPeriod, long maxPeriod, TimeUnit unit) {
+        if (executor == null) {
+            this.minPeriod = Math.max(1, unit.toMillis(minPeriod));
+            this.maxPeriod = Math.max(this.minPeriod, unit.toMillis(maxPeriod));
+            this.currentPeriod = this.minPeriod;
+            executor = Schedulers.newDaemonScheduler("event-subscription-service");
+            executor.schedule(this::scheduledPoll, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls once and schedules the next poll with the adapted period.
+     */
+    private void scheduledPoll() {
+        boolean active;
+        try {
+            active = !poll().isEmpty();
+        }
+        catch (Throwable e) {
+            log.error("Event poll failed: " + e.getMessage());
+            active = false;
+        }
+
+        synchronized (this) {
+            if (executor == null) {
+                return;
+            }
+            currentPeriod = nextPeriod(currentPeriod, active);
+            executor.schedule(this::scheduledPoll, currentPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Computes the delay before the next poll.
+     *
+     * @param period the current delay in milliseconds
+     * @param active whether the last poll returned events
+     * @return the next delay in milliseconds
+     */
+    long nextPeriod(long period, boolean active) {
+        return active ? minPeriod : Math.min(maxPeriod, period * 2);
+    }
+
+    /**
+     * Stops polling.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * A subscription to events of a set of types, optionally restricted to a realm.
+     */
+    public final class Subscription {
+        /**
+         * The subscriber to call.
+         */
+        private final Consumer<Event> subscriber;
+
+        /**
+         * The realm an event has to belong to, or null for all realms.
+         */
+        private final String realm;
+
+        /**
+         * The event types to receive.
+         */
+        private final Set<Event.Type> types;
+
+        private Subscription(Consumer<Event> subscriber, String realm, Set<Event.Type> types) {
+            this.subscriber = subscriber;
+            this.realm = realm;
+            this.types = types;
+        }
+
+        /**
+         * Cancels this subscription. The subscriber receives no further events.
+         */
+        public void cancel() {
+            synchronized (EventSubscriptionService.this) {
+                if (subscriptions.remove(this)) {
+                    rebuildDispatchTable();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+import javafx.util.Pair;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Backfills long histories of logs by splitting the requested date range into shards. Shards are fetched
+ * concurrently up to a configurable limit, failed shards are retried on their own, and the size of new
+ * shards adapts to the number of logs the previous ones returned. The result is streamed to a sink in
+ * date order. Shards that complete before an earlier one are held back until it is delivered; they count
+ * against the limit, so a slow or retried shard stalls new requests instead of piling up results in
+ * memory. If a checkpoint file is set, the date up to which all logs have been delivered is stored
+ * after every shard, so an interrupted backfill resumes where it stopped. The checkpoint also records
+ * the range and the checkpoint key it was written for; resuming with a different range or key fails
+ * instead of skipping logs that were never fetched.
+ *
+ * @param <T> the type of log to backfill
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class HistoryBackfill<T> {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(HistoryBackfill.class);
+
+    /**
+     * The smallest shard length in milliseconds.
+     */
+    private static final long MIN_SHARD_LENGTH = 1000L;
+
+    /**
+     * The largest factor a shard can grow or shrink by compared to the previous one.
+     */
+    private static final int MAX_ADAPTION_FACTOR = 4;
+
+    /**
+     * Fetches the logs of a single shard.
+     */
+    private final ShardFetcher<T> fetcher;
+
+    /**
+     * Extracts the log date as unix timestamp in milliseconds.
+     */
+    private final ToLongFunction<T> dateExtractor;
+
+    /**
+     * The maximum number of shards fetched at the same time.
+     */
+    private int parallelism = 4;
+
+    /**
+     * The number of logs a shard should contain.
+     */
+    private int targetShardSize = 1000;
+
+    /**
+     * The length of the first shard in milliseconds.
+     */
+    private long initialShardLength = Duration.ofDays(1).toMillis();
+
+    /**
+     * The number of retries per shard.
+     */
+    private int maxRetries = 3;
+
+    /**
+     * The delay before the first retry in milliseconds, doubled with every further retry.
+     */
+    private long retryDelay = 1000L;
+
+    /**
+     * The checkpoint file, if any.
+     */
+    private Path checkpointFile;
+
+    /**
+     * Identifies the filters of the fetcher in the checkpoint.
+     */
+    private String checkpointKey = "";
+
+    /**
+     * Creates a new backfill.
+     *
+     * @param fetcher       fetches the logs of a single shard
+     * @param dateExtractor extracts the log date as unix timestamp in milliseconds
+     */
+    public HistoryBackfill(ShardFetcher<T> fetcher, ToLongFunction<T> dateExtractor) {
+        this.fetcher = fetcher;
+        this.dateExtractor = dateExtractor;
+    }
+
+    /**
+     * Creates a backfill for security order logs.
+     *
+     * @param params additional search parameters, e.g. a security identifier
+     * @return the backfill
+     */
+    @SafeVarargs
+    public static HistoryBackfill<SecurityOrderLog> forSecurityOrderLogs(
+        Pair<SecurityOrderLog.SearchType, String>... params) {
+        HistoryBackfill<SecurityOrderLog> backfill = new HistoryBackfill<>((from, to) ->
+            SecurityOrderLog.requestLogs(from, to, params), SecurityOrderLog::getDateMillis);
+        StringJoiner key = new StringJoiner(", ", "SecurityOrderLog[", "]");
+        for (Pair<SecurityOrderLog.SearchType, String> param : params) {
+            key.add(param.toString());
+        }
+        backfill.setCheckpointKey(key.toString());
+        return backfill;
+    }
+
+    /**
+     * Creates a backfill for cash transfer logs. Both filters are optional.
+     *
+     * @param senderBankAccountId   the id of the sender's bank account
+     * @param receiverBankAccountId the id of the receiver's bank account
+     * @return the backfill
+     */
+    public static HistoryBackfill<CashTransferLog> forCashTransferLogs(String senderBankAccountId,
+                                                                       String receiverBankAccountId) {
+        HistoryBackfill<CashTransferLog> backfill = new HistoryBackfill<>((from, to) ->
+            CashTransferLog.requestCashTransferLogs(from, to, senderBankAccountId,
+                receiverBankAccountId), CashTransferLog::getDateMillis);
+        backfill.setCheckpointKey("CashTransferLog[" + senderBankAccountId + ", "
+            + receiverBankAccountId + "]");
+        return backfill;
+    }
+
+    /**
+     * Sets the maximum number of shards fetched at the same time.
+     *
+     * @param parallelism the number of concurrent requests
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets the number of logs a shard should contain. The shard length is adapted towards this size.
+     *
+     * @param targetShardSize the number of logs per shard
+     */
+    public void setTargetShardSize(int targetShardSize) {
+        this.targetShardSize = Math.max(1, targetShardSize);
+    }
+
+    /**
+     * Sets the length of the first shard.
+     *
+     * @param initialShardLength the length of the first shard
+     */
+    public void setInitialShardLength(Duration initialShardLength) {
+        this.initialShardLength = Math.max(MIN_SHARD_LENGTH, initialShardLength.toMillis());
+    }
+
+    /**
+     * Sets how often a failed shard is retried before the backfill fails.
+     *
+     * @param maxRetries the number of retries per shard
+     * @param retryDelay the delay before the first retry, doubled with every further retry
+     */
+    public void setRetries(int maxRetries, Duration retryDelay) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryDelay = retryDelay.toMillis();
+    }
+
+    /**
+     * Sets the file the progress is stored in. If the file exists when the backfill runs, the backfill
+     * resumes from the stored date. The run fails if the file was written for another range or key.
+     *
+     * @param checkpointFile the checkpoint file
+     */
+    public void setCheckpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Sets the key that identifies the filters of the fetcher in the checkpoint. The factory methods
+     * set it from their search parameters; backfills with a custom fetcher should set it whenever the
+     * same checkpoint file may be used with different filters.
+     *
+     * @param checkpointKey the checkpoint key
+     */
+    public void setCheckpointKey(String checkpointKey) {
+        this.checkpointKey = checkpointKey;
+    }
+
+    /**
+     * Fetches all logs in the given range and streams them to the sink in date order.
+     *
+     * @param startDate the lower date boundary, inclusive
+     * @param endDate   the upper date boundary, inclusive
+     * @param sink      receives the logs in date order
+     * @return the number of logs delivered to the sink
+     * @throws IOException if a shard still fails after all retries or the checkpoint cannot be written
+     */
+    public long run(ZonedDateTime startDate, ZonedDateTime endDate, Consumer<? super T> sink)
+        throws IOException {
+        long start = startDate.toInstant().toEpochMilli();
+        long end = endDate.toInstant().toEpochMilli() + 1;
+        long delivered = readCheckpoint(start, end);
+        long next = delivered;
+        long shardLength = initialShardLength;
+        long count = 0;
+        int inFlight = 0;
+
+        TreeMap<Long, Shard<T>> completed = new TreeMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        CompletionService<Shard<T>> completion = new ExecutorCompletionService<>(executor);
+
+        try {
+            while (delivered < end) {
+                while (inFlight + completed.size() < parallelism && next < end) {
+                    Shard<T> shard = new Shard<>(next, Math.min(end, next + shardLength));
+                    completion.submit(() -> fetch(shard));
+                    next = shard.end;
+                    inFlight++;
+                }
+
+                Shard<T> shard = completion.take().get();
+                inFlight--;
+                shardLength = adapt(shardLength, shard);
+                completed.put(shard.start, shard);
+
+                while (!completed.isEmpty() && completed.firstKey() == delivered) {
+                    Shard<T> first = completed.pollFirstEntry().getValue();
+                    for (T item : first.items) {
+                        sink.accept(item);
+                    }
+                    count += first.items.size();
+                    delivered = first.end;
+                    writeCheckpoint(start, end, delivered);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backfill interrupted");
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Backfill failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        return count;
+    }
+
+    /**
+     * Fetches a single shard, retrying failures.
+     *
+     * @param shard the shard to fetch
+     * @return the shard with its logs in date order
+     * @throws Exception if the shard still fails after all retries
+     */
+    private Shard<T> fetch(Shard<T> shard) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                List<T> items = new ArrayList<>();
+                for (T item : fetcher.fetch(Timestamps.toZonedDateTime(shard.start),
+                    Timestamps.toZonedDateTime(shard.end - 1))) {
+                    long date = dateExtractor.applyAsLong(item);
+                    if (date >= shard.start && date < shard.end) {
+                        items.add(item);
+                    }
+                }
+                items.sort(Comparator.comparingLong(dateExtractor));
+                shard.items = items;
+                return shard;
+            }
+            catch (Exception e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                log.warn("Backfill shard " + shard.start + "-" + shard.end + " failed, retrying: "
+                    + e.getMessage());
+                Thread.sleep(retryDelay << attempt);
+            }
+        }
+    }
+
+    /**
+     * Computes the length of the next shard from the observed size of a completed one.
+     *
+     * @param shardLength the current shard length
+     * @param shard       the completed shard
+     * @return the new shard length
+     */
+    private long adapt(long shardLength, Shard<T> shard) {
+        long observedLength = shard.end - shard.start;
+        long proposed = shard.items.isEmpty() ? observedLength * MAX_ADAPTION_FACTOR
+            : observedLength * targetShardSize / shard.items.size();
+        long bounded = Math.max(shardLength / MAX_ADAPTION_FACTOR,
+            Math.min(shardLength * MAX_ADAPTION_FACTOR, proposed));
+        return Math.max(MIN_SHARD_LENGTH, bounded);
+    }
+
+    /**
+     * Reads the checkpoint.
+     *
+     * @param start the start of the requested range
+     * @param end   the end of the requested range, exclusive
+     * @return the date from which on logs still have to be fetched
+     * @throws IOException if the checkpoint file exists but cannot be read or belongs to another range
+     *                     or key
+     */
+    private long readCheckpoint(long start, long end) throws IOException {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return start;
+        }
+        Properties checkpoint = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            checkpoint.load(reader);
+        }
+        long delivered;
+        try {
+            if (Long.parseLong(checkpoint.getProperty("start")) != start
+                || Long.parseLong(checkpoint.getProperty("end")) != end
+                || !checkpointKey.equals(checkpoint.getProperty("key"))) {
+                throw new IOException("Backfill checkpoint " + checkpointFile
+                    + " belongs to another range or key: " + checkpoint);
+            }
+            delivered = Long.parseLong(checkpoint.getProperty("delivered"));
+        }
+        catch (NumberFormatException e) {
+            throw new IOException("Invalid backfill checkpoint: " + checkpoint, e);
+        }
+        return Math.max(start, Math.min(end, delivered));
+    }
+
+    /**
+     * Atomically replaces the checkpoint.
+     *
+     * @param start     the start of the requested range
+     * @param end       the end of the requested range, exclusive
+     * @param delivered the date up to which all logs have been delivered, exclusive
+     * @throws IOException if the checkpoint file cannot be written
+     */
+    private void writeCheckpoint(long start, long end, long delivered) throws IOException {
+        if (checkpointFile == null) {
+            return;
+        }
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("start", Long.toString(start));
+        checkpoint.setProperty("end", Long.toString(end));
+        checkpoint.setProperty("key", checkpointKey);
+        checkpoint.setProperty("delivered", Long.toString(delivered));
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, null);
+        }
+        Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Fetches the logs of a single shard.
+     *
+     * @param <T> the type of log
+     */
+    @FunctionalInterface
+    public interface ShardFetcher<T> {
+        /**
+         * @param startDate the lower date boundary, inclusive
+         * @param endDate   the upper date boundary, inclusive
+         * @return all logs in the given range
+         * @throws Exception if the request fails
+         */
+        List<T> fetch(ZonedDateTime startDate, ZonedDateTime endDate) throws Exception;
+    }
+
+    /**
+     * A half-open date range [start, end) and its logs once fetched.
+     *
+     * @param <T> the type of log
+     */
+    private static final class Shard<T> {
+        private final long start;
+        private final long end;
+        private List<T> items;
+
+        private Shard(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
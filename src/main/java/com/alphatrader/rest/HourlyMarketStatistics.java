@@ -210,6 +210,17 @@ public class HourlyMarketStatistics {
         return Http.getMultipleObjectFromApi(HourlyMarketStatistics.class, "/api/marketstatistics/");
     }
 
+    /**
+     * Fetches the hourly market statistics from the server, bypassing the response cache.
+     *
+     * @return a list of the hourly market statistics
+     */
+    @NotNull
+    static List<HourlyMarketStatistics> getAllUncached() {
+        return Http.getMultipleObjectFromApiUncached(HourlyMarketStatistics.class,
+            "/api/marketstatistics/");
+    }
+
     /**
      * @return the unique id
      */
@@ -140,6 +140,103 @@ class Http {
         return myReturn;
     }
 
+    /**
+     * Fetches a specific object from the API, bypassing the response cache. Use this for requests that
+     * are polled repeatedly and must always see the current state of the server.
+     *
+     * @param typeParameterClass the class of the type of object to return
+     * @param suffix             the api endpoint suffix
+     * @param <T>                the type of object to return
+     * @return the requested object
+     */
+    @Nullable
+    static <T> T getSingleObjectFromApiUncached(Class<T> typeParameterClass, String suffix) {
+        T myReturn = null;
+
+        try {
+            HttpResponse<String> response = getInstance().get(suffix);
+
+            if (response != null && response.getStatus() == 200) {
+                myReturn = gson.fromJson(response.getBody(), typeParameterClass);
+            }
+        }
+        catch (UnirestException ue) {
+            handleException(ue, typeParameterClass);
+        }
+
+        return myReturn;
+    }
+
+    /**
+     * Fetches a list of objects from the API, bypassing the response cache. Use this for requests that
+     * are polled repeatedly and must always see the current state of the server.
+     *
+     * @param typeParameterClass the class of the type of objects to return
+     * @param suffix             the api endpoint suffix
+     * @param <T>                the type of object to return
+     * @return the requested objects
+     */
+    @NotNull
+    static <T> List<T> getMultipleObjectFromApiUncached(Class<T> typeParameterClass, String suffix) {
+        List<T> myReturn = new ArrayList<>();
+
+        try {
+            myReturn.addAll(requestMultipleObjectsFromApi(typeParameterClass, suffix));
+        }
+        catch (UnirestException ue) {
+            handleException(ue, typeParameterClass);
+        }
+
+        return myReturn;
+    }
+
+    /**
+     * Fetches a specific object from the API, bypassing the response cache. Unlike the other fetch
+     * methods, failures are not swallowed, so callers can report or retry them.
+     *
+     * @param typeParameterClass the class of the type of object to return
+     * @param suffix             the api endpoint suffix
+     * @param <T>                the type of object to return
+     * @return the requested object
+     * @throws UnirestException if the request fails or the server does not answer with status 200
+     */
+    @Nullable
+    static <T> T requestSingleObjectFromApi(Class<T> typeParameterClass, String suffix)
+        throws UnirestException {
+        HttpResponse<String> response = getInstance().get(suffix);
+
+        if (response == null || response.getStatus() != 200) {
+            throw new UnirestException("Request to " + suffix + " failed with status "
+                + (response == null ? "none" : response.getStatus()));
+        }
+
+        return gson.fromJson(response.getBody(), typeParameterClass);
+    }
+
+    /**
+     * Fetches a list of objects from the API, bypassing the response cache. Unlike the other fetch
+     * methods, failures are not swallowed, so callers can retry them.
+     *
+     * @param typeParameterClass the class of the type of objects to return
+     * @param suffix             the api endpoint suffix
+     * @param <T>                the type of object to return
+     * @return the requested objects
+     * @throws UnirestException if the request fails or the server does not answer with status 200
+     */
+    @NotNull
+    static <T> List<T> requestMultipleObjectsFromApi(Class<T> typeParameterClass, String suffix)
+        throws UnirestException {
+        HttpResponse<String> response = getInstance().get(suffix);
+
+        if (response == null || response.getStatus() != 200) {
+            throw new UnirestException("Request to " + suffix + " failed with status "
+                + (response == null ? "none" : response.getStatus()));
+        }
+
+        return new ArrayList<>(gson.fromJson(response.getBody(),
+            new ArrayListTypeToken<>(typeParameterClass)));
+    }
+
     /**
      * Creates a new http service object that automatically refreshes it's cache.
      */
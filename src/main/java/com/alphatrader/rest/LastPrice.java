@@ -1,7 +1,12 @@
 package com.alphatrader.rest;
 
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import javafx.beans.property.*;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 
 /**
@@ -12,21 +17,49 @@ import java.time.ZonedDateTime;
  */
 public class LastPrice {
     /**
-     * The date of the last transaction resulting in this price.
+     * The date of the last transaction resulting in this price. Kept as unix timestamp in milliseconds.
      */
-    private final ObjectProperty<ZonedDateTime> date = new SimpleObjectProperty<>();
+    private long dateMillis = Timestamps.NONE;
+
+    /**
+     * The date property, created from the timestamp on first access.
+     */
+    private ObjectProperty<ZonedDateTime> date;
 
     /**
      * The last trade price of this position.
      */
     private final StringProperty value = new SimpleStringProperty();
 
+    /**
+     * The numeric value, parsed once from the raw value.
+     */
+    private double parsedValue;
+
+    /**
+     * True if the raw value was given as a percentage.
+     */
+    private boolean percent;
+
+    /**
+     * True once the raw value has been parsed into the primitive fields.
+     */
+    private boolean parsed;
+
     /**
      * @return the time this trade took place
      */
     @PublicAPI
     public ZonedDateTime getDate() {
-        return this.date.getValue();
+        return dateProperty().getValue();
+    }
+
+    /**
+     * @return the time this trade took place as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public long getDateMillis() {
+        return dateMillis;
     }
 
     /**
@@ -34,7 +67,43 @@ public class LastPrice {
      */
     @PublicAPI
     public Double getValue() {
-        return Double.valueOf(this.value.getValue().replaceAll("%", "").trim());
+        return getValueAsDouble();
+    }
+
+    /**
+     * @return the value of this trade as primitive, avoiding the boxing of {@link #getValue()}
+     */
+    @PublicAPI
+    public double getValueAsDouble() {
+        if (!parsed) {
+            setRawValue(this.value.getValue());
+        }
+        return parsedValue;
+    }
+
+    /**
+     * @return true if the value of this trade was given as a percentage
+     */
+    @PublicAPI
+    public boolean isPercent() {
+        if (!parsed) {
+            setRawValue(this.value.getValue());
+        }
+        return percent;
+    }
+
+    /**
+     * Sets the raw value and parses it into its numeric value and percent flag.
+     *
+     * @param rawValue the raw value as sent by the api, e.g. "656.93" or "3.5 %"
+     */
+    private void setRawValue(String rawValue) {
+        this.value.setValue(rawValue);
+        int percentIndex = rawValue.indexOf('%');
+        this.percent = percentIndex >= 0;
+        this.parsedValue = Double.parseDouble(percent ? rawValue.substring(0, percentIndex)
+            + rawValue.substring(percentIndex + 1) : rawValue);
+        this.parsed = true;
     }
 
     /**
@@ -42,6 +111,9 @@ public class LastPrice {
      */
     @PublicAPI
     public ReadOnlyObjectProperty<ZonedDateTime> dateProperty() {
+        if (date == null) {
+            date = new SimpleObjectProperty<>(Timestamps.toZonedDateTime(dateMillis));
+        }
         return date;
     }
 
@@ -56,7 +128,7 @@ public class LastPrice {
     @Override
     public String toString() {
         return "LastPrice{"
-            + "date=" + date
+            + "date=" + getDate()
             + ", value=" + value
             + '}';
     }
@@ -72,8 +144,8 @@ public class LastPrice {
 
         LastPrice lastPrice = (LastPrice) o;
 
-        return Double.compare(lastPrice.getValue(), getValue()) == 0 && (date.getValue() != null
-            ? date.getValue().equals(lastPrice.date.getValue()) : lastPrice.date.getValue() == null);
+        return Double.compare(lastPrice.getValueAsDouble(), getValueAsDouble()) == 0
+            && dateMillis == lastPrice.dateMillis;
 
     }
 
@@ -81,9 +153,55 @@ public class LastPrice {
     public int hashCode() {
         int result;
         long temp;
-        result = date.getValue() != null ? date.getValue().hashCode() : 0;
-        temp = Double.doubleToLongBits(this.getValue());
+        result = (int) (dateMillis ^ (dateMillis >>> 32));
+        temp = Double.doubleToLongBits(this.getValueAsDouble());
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         return result;
     }
+
+    /**
+     * Streaming gson adapter for last prices.
+     */
+    static final class GsonAdapter extends TypeAdapter<LastPrice> {
+        @Override
+        public void write(JsonWriter out, LastPrice lastPrice) throws IOException {
+            if (lastPrice == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("date");
+            ModelTypeAdapterFactory.writeDate(out, lastPrice.dateMillis);
+            out.name("value").value(lastPrice.value.getValue());
+            out.endObject();
+        }
+
+        @Override
+        public LastPrice read(JsonReader in) throws IOException {
+            if (ModelTypeAdapterFactory.skipNull(in)) {
+                return null;
+            }
+
+            LastPrice lastPrice = new LastPrice();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (ModelTypeAdapterFactory.skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "date":
+                        lastPrice.dateMillis = in.nextLong();
+                        break;
+                    case "value":
+                        lastPrice.setRawValue(in.nextString());
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return lastPrice;
+        }
+    }
 }
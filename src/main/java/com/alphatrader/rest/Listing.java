@@ -214,6 +214,19 @@ public class Listing {
         return type;
     }
 
+    /**
+     * Fills the values of this listing that are still missing from another copy of it. Values that are
+     * already set are never changed.
+     *
+     * @param other the other copy
+     */
+    void fillMissingFrom(Listing other) {
+        EntityIdentityMap.fillMissing(startDate, other.startDate);
+        EntityIdentityMap.fillMissing(endDate, other.endDate);
+        EntityIdentityMap.fillMissing(name, other.name);
+        EntityIdentityMap.fillMissing(type, other.type);
+    }
+
     @Override
     public String toString() {
         return "Listing{"
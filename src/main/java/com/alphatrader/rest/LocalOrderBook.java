@@ -0,0 +1,282 @@
+package com.alphatrader.rest;
+
+import java.util.Arrays;
+
+/**
+ * A local copy of an order book aggregated into price levels. Every side keeps its prices ordered from
+ * the best level on together with the cumulative number of shares and the cumulative cash value up to
+ * each level, all in primitive arrays. That answers best prices in constant time and depth and fill cost
+ * queries with a single binary search. Both sides are replaced together by every new snapshot through a
+ * single reference, so readers never see a partially updated book or sides of different snapshots and
+ * need no locking.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class LocalOrderBook {
+    /**
+     * The current snapshot.
+     */
+    private volatile Book book = Book.EMPTY;
+
+    /**
+     * Creates an empty book.
+     */
+    public LocalOrderBook() {
+    }
+
+    /**
+     * Creates a book from a snapshot.
+     *
+     * @param orderBook the snapshot
+     */
+    public LocalOrderBook(OrderBook orderBook) {
+        update(orderBook);
+    }
+
+    /**
+     * Replaces the book with a new snapshot.
+     *
+     * @param orderBook the snapshot
+     */
+    public void update(OrderBook orderBook) {
+        book = new Book(Side.of(PriceLevels.aggregate(orderBook.getBuyEntries()), true),
+            Side.of(PriceLevels.aggregate(orderBook.getSellEntries()), false));
+    }
+
+    /**
+     * @return the highest bid price, or NaN if there are no bids
+     */
+    @PublicAPI
+    public double getBestBid() {
+        return book.bids.bestPrice();
+    }
+
+    /**
+     * @return the lowest ask price, or NaN if there are no asks
+     */
+    @PublicAPI
+    public double getBestAsk() {
+        return book.asks.bestPrice();
+    }
+
+    /**
+     * @return the difference between the best ask and the best bid, or NaN if a side is empty
+     */
+    @PublicAPI
+    public double getSpread() {
+        Book current = book;
+        return current.asks.bestPrice() - current.bids.bestPrice();
+    }
+
+    /**
+     * @param price the price limit
+     * @return the number of shares bid at or above the given price
+     */
+    @PublicAPI
+    public long getBidDepth(double price) {
+        return book.bids.depth(price);
+    }
+
+    /**
+     * @param price the price limit
+     * @return the number of shares offered at or below the given price
+     */
+    @PublicAPI
+    public long getAskDepth(double price) {
+        return book.asks.depth(price);
+    }
+
+    /**
+     * @return the total number of shares bid
+     */
+    @PublicAPI
+    public long getTotalBidSize() {
+        return book.bids.totalSize();
+    }
+
+    /**
+     * @return the total number of shares offered
+     */
+    @PublicAPI
+    public long getTotalAskSize() {
+        return book.asks.totalSize();
+    }
+
+    /**
+     * Computes the average price paid when buying the given number of shares by walking up the asks.
+     *
+     * @param shares the number of shares to buy
+     * @return the volume-weighted average price, or NaN if the asks do not hold enough shares
+     */
+    @PublicAPI
+    public double getVwapToBuy(long shares) {
+        return book.asks.vwap(shares);
+    }
+
+    /**
+     * Computes the average price received when selling the given number of shares by walking down the
+     * bids.
+     *
+     * @param shares the number of shares to sell
+     * @return the volume-weighted average price, or NaN if the bids do not hold enough shares
+     */
+    @PublicAPI
+    public double getVwapToSell(long shares) {
+        return book.bids.vwap(shares);
+    }
+
+    /**
+     * @return the bid prices, best first
+     */
+    @PublicAPI
+    public double[] getBidPrices() {
+        return book.bids.prices.clone();
+    }
+
+    /**
+     * @return the number of shares bid at or above each price of {@link #getBidPrices()}
+     */
+    @PublicAPI
+    public long[] getCumulativeBidSizes() {
+        return book.bids.cumulativeSizes();
+    }
+
+    /**
+     * @return the ask prices, best first
+     */
+    @PublicAPI
+    public double[] getAskPrices() {
+        return book.asks.prices.clone();
+    }
+
+    /**
+     * @return the number of shares offered at or below each price of {@link #getAskPrices()}
+     */
+    @PublicAPI
+    public long[] getCumulativeAskSizes() {
+        return book.asks.cumulativeSizes();
+    }
+
+    /**
+     * Both sides of a snapshot.
+     */
+    private static final class Book {
+        /**
+         * An empty book.
+         */
+        private static final Book EMPTY = new Book(Side.EMPTY, Side.EMPTY);
+
+        /**
+         * The buy side, best (highest) price first.
+         */
+        private final Side bids;
+
+        /**
+         * The sell side, best (lowest) price first.
+         */
+        private final Side asks;
+
+        private Book(Side bids, Side asks) {
+            this.bids = bids;
+            this.asks = asks;
+        }
+    }
+
+    /**
+     * One side of the book with prefix sums over its levels.
+     */
+    private static final class Side {
+        /**
+         * An empty side.
+         */
+        private static final Side EMPTY = new Side(new double[0], new long[1], new double[1], false);
+
+        /**
+         * The prices, best first.
+         */
+        private final double[] prices;
+
+        /**
+         * The number of shares on the first i levels at index i; one element longer than the prices.
+         */
+        private final long[] sizePrefix;
+
+        /**
+         * The cash value of the first i levels at index i; one element longer than the prices.
+         */
+        private final double[] valuePrefix;
+
+        /**
+         * True if better prices are higher, which is the case for bids.
+         */
+        private final boolean descending;
+
+        private Side(double[] prices, long[] sizePrefix, double[] valuePrefix, boolean descending) {
+            this.prices = prices;
+            this.sizePrefix = sizePrefix;
+            this.valuePrefix = valuePrefix;
+            this.descending = descending;
+        }
+
+        /**
+         * @param levels     the levels in ascending price order
+         * @param descending true to order the side from the highest price on
+         * @return the side
+         */
+        private static Side of(PriceLevels levels, boolean descending) {
+            int count = levels.size();
+            double[] prices = new double[count];
+            long[] sizePrefix = new long[count + 1];
+            double[] valuePrefix = new double[count + 1];
+            for (int i = 0; i < count; i++) {
+                int source = descending ? count - 1 - i : i;
+                prices[i] = levels.prices[source];
+                sizePrefix[i + 1] = sizePrefix[i] + levels.sizes[source];
+                valuePrefix[i + 1] = valuePrefix[i] + levels.sizes[source] * levels.prices[source];
+            }
+            return new Side(prices, sizePrefix, valuePrefix, descending);
+        }
+
+        private double bestPrice() {
+            return prices.length == 0 ? Double.NaN : prices[0];
+        }
+
+        private long totalSize() {
+            return sizePrefix[prices.length];
+        }
+
+        private long depth(double price) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (descending ? prices[middle] >= price : prices[middle] <= price) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return sizePrefix[low];
+        }
+
+        private double vwap(long shares) {
+            if (shares <= 0 || shares > totalSize()) {
+                return Double.NaN;
+            }
+
+            int found = Arrays.binarySearch(sizePrefix, shares);
+            if (found >= 0) {
+                return valuePrefix[found] / shares;
+            }
+            int level = -found - 2;
+            double value = valuePrefix[level] + (shares - sizePrefix[level]) * prices[level];
+            return value / shares;
+        }
+
+        private long[] cumulativeSizes() {
+            return Arrays.copyOfRange(sizePrefix, 1, sizePrefix.length);
+        }
+    }
+}
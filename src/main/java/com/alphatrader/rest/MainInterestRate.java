@@ -51,6 +51,27 @@ public class MainInterestRate {
         return Http.getMultipleObjectFromApi(MainInterestRate.class, "/api/maininterestrate/");
     }
 
+    /**
+     * Fetches the latest main interest rate, bypassing the response cache.
+     *
+     * @return the latest main interest rate
+     */
+    @Nullable
+    static MainInterestRate getCurrentUncached() {
+        return Http.getSingleObjectFromApiUncached(MainInterestRate.class,
+            "/api/maininterestrate/latest/");
+    }
+
+    /**
+     * Fetches all main interest rates, bypassing the response cache.
+     *
+     * @return all main interest rates
+     */
+    @NotNull
+    static List<MainInterestRate> getAllUncached() {
+        return Http.getMultipleObjectFromApiUncached(MainInterestRate.class, "/api/maininterestrate/");
+    }
+
     /**
      * @return the unique id
      */
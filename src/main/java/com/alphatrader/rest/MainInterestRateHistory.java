@@ -0,0 +1,282 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the history of the {@link MainInterestRate} in two primitive arrays, the dates the rates were
+ * put into place and the rates themselves, sorted by date. A rate is in effect from its date until the
+ * date of the next one, so the rate as of any past date is found by a binary search over the dates
+ * without requesting the server or allocating objects.
+ * <p>
+ * The first refresh loads the full history. Later refreshes only request the latest rate and append it
+ * if it is newer than the newest rate held; since rates change rarely, polling the latest rate keeps the
+ * history complete as long as it is refreshed more often than the rate changes. Call {@link #reload()}
+ * to load the full history again.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class MainInterestRateHistory {
+    /**
+     * Fetches the full history.
+     */
+    private final Supplier<List<MainInterestRate>> allFetcher;
+
+    /**
+     * Fetches the latest rate.
+     */
+    private final Supplier<MainInterestRate> currentFetcher;
+
+    /**
+     * The dates the rates were put into place as unix timestamps in milliseconds, ascending.
+     */
+    private long[] dates = new long[16];
+
+    /**
+     * The rates by date index.
+     */
+    private double[] values = new double[16];
+
+    /**
+     * The number of rates.
+     */
+    private int size;
+
+    /**
+     * Creates an empty history that requests the rates from the server.
+     */
+    public MainInterestRateHistory() {
+        this(MainInterestRate::getAllUncached, MainInterestRate::getCurrentUncached);
+    }
+
+    /**
+     * Creates an empty history using the given rate sources.
+     *
+     * @param allFetcher     fetches the full history
+     * @param currentFetcher fetches the latest rate
+     */
+    MainInterestRateHistory(Supplier<List<MainInterestRate>> allFetcher,
+                            Supplier<MainInterestRate> currentFetcher) {
+        this.allFetcher = allFetcher;
+        this.currentFetcher = currentFetcher;
+    }
+
+    /**
+     * Loads the full history if it is empty, otherwise fetches the latest rate and appends it if it is
+     * new.
+     *
+     * @return the number of rates added
+     */
+    @PublicAPI
+    public int refresh() {
+        if (size() == 0) {
+            return reload();
+        }
+        MainInterestRate current = currentFetcher.get();
+        return current != null && add(current) ? 1 : 0;
+    }
+
+    /**
+     * Fetches the full history and adds all rates not held yet.
+     *
+     * @return the number of rates added
+     */
+    @PublicAPI
+    public int reload() {
+        return addAll(allFetcher.get());
+    }
+
+    /**
+     * Adds rates.
+     *
+     * @param rates the rates in any order
+     * @return the number of rates added
+     */
+    @PublicAPI
+    public synchronized int addAll(Collection<MainInterestRate> rates) {
+        int added = 0;
+        for (MainInterestRate rate : rates) {
+            if (add(rate)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Adds a rate. Rates newer than all rates held are appended in constant time. A rate with the date
+     * of a rate already held replaces its value.
+     *
+     * @param rate the rate
+     * @return true if a rate with a new date was added
+     */
+    @PublicAPI
+    public synchronized boolean add(MainInterestRate rate) {
+        if (rate.getDate() == null || rate.getValue() == null) {
+            return false;
+        }
+        long date = rate.getDate().toInstant().toEpochMilli();
+        int index = size > 0 && date > dates[size - 1] ? -size - 1
+            : Arrays.binarySearch(dates, 0, size, date);
+        if (index >= 0) {
+            values[index] = rate.getValue();
+            return false;
+        }
+
+        int position = -index - 1;
+        if (size == dates.length) {
+            dates = Arrays.copyOf(dates, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(dates, position, dates, position + 1, size - position);
+        System.arraycopy(values, position, values, position + 1, size - position);
+        dates[position] = date;
+        values[position] = rate.getValue();
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the number of rates held
+     */
+    @PublicAPI
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the date the newest rate was put into place as unix timestamp in milliseconds, or
+     * {@link Timestamps#NONE} if the history is empty
+     */
+    @PublicAPI
+    public synchronized long getNewestDateMillis() {
+        return size > 0 ? dates[size - 1] : Timestamps.NONE;
+    }
+
+    /**
+     * Returns the rate in effect at the given date, i.e. the newest rate put into place at or before it.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the rate, or NaN if the date is older than the history
+     */
+    @PublicAPI
+    public synchronized double getRateAt(long dateMillis) {
+        int index = floor(dateMillis);
+        return index >= 0 ? values[index] : Double.NaN;
+    }
+
+    /**
+     * Returns the rate in effect at the given date, i.e. the newest rate put into place at or before it.
+     *
+     * @param date the date
+     * @return the rate, or NaN if the date is older than the history
+     */
+    @PublicAPI
+    public double getRateAt(ZonedDateTime date) {
+        return getRateAt(date.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Returns the first rate put into place at or after the given date.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the rate, or NaN if the date is newer than the history
+     */
+    @PublicAPI
+    public synchronized double getNextRate(long dateMillis) {
+        int index = ceiling(dateMillis);
+        return index < size ? values[index] : Double.NaN;
+    }
+
+    /**
+     * Returns the first rate put into place at or after the given date.
+     *
+     * @param date the date
+     * @return the rate, or NaN if the date is newer than the history
+     */
+    @PublicAPI
+    public double getNextRate(ZonedDateTime date) {
+        return getNextRate(date.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Returns the date the rate in effect at the given date was put into place.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the date as unix timestamp in milliseconds, or
+     * {@link Timestamps#NONE} if the date is older than the history
+     */
+    @PublicAPI
+    public synchronized long getEffectiveDateMillis(long dateMillis) {
+        int index = floor(dateMillis);
+        return index >= 0 ? dates[index] : Timestamps.NONE;
+    }
+
+    /**
+     * Interpolates the rate linearly between the rates put into place before and after the given date,
+     * e.g. for smooth discount curves. Outside the history the first or last rate is returned.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the interpolated rate, or NaN if the history is empty
+     */
+    @PublicAPI
+    public synchronized double getInterpolatedRate(long dateMillis) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        int upper = ceiling(dateMillis);
+        if (upper == 0) {
+            return values[0];
+        }
+        if (upper == size) {
+            return values[size - 1];
+        }
+        if (dates[upper] == dateMillis) {
+            return values[upper];
+        }
+        int lower = upper - 1;
+        double fraction = (double) (dateMillis - dates[lower]) / (dates[upper] - dates[lower]);
+        return values[lower] + fraction * (values[upper] - values[lower]);
+    }
+
+    /**
+     * Interpolates the rate linearly between the rates put into place before and after the given date,
+     * e.g. for smooth discount curves. Outside the history the first or last rate is returned.
+     *
+     * @param date the date
+     * @return the interpolated rate, or NaN if the history is empty
+     */
+    @PublicAPI
+    public double getInterpolatedRate(ZonedDateTime date) {
+        return getInterpolatedRate(date.toInstant().toEpochMilli());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MainInterestRateHistory{"
+            + "size=" + size
+            + '}';
+    }
+
+    /**
+     * @param dateMillis a date as unix timestamp in milliseconds
+     * @return the index of the newest rate put into place at or before the date, or -1
+     */
+    private int floor(long dateMillis) {
+        int index = Arrays.binarySearch(dates, 0, size, dateMillis);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * @param dateMillis a date as unix timestamp in milliseconds
+     * @return the index of the first rate put into place at or after the date, or the size
+     */
+    private int ceiling(long dateMillis) {
+        int index = Arrays.binarySearch(dates, 0, size, dateMillis);
+        return index >= 0 ? index : -index - 1;
+    }
+}
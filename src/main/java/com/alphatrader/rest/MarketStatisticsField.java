@@ -0,0 +1,66 @@
+package com.alphatrader.rest;
+
+import java.util.function.Function;
+
+/**
+ * The numeric fields of the {@link HourlyMarketStatistics}, used to address the columns of a
+ * {@link MarketStatisticsStore}.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public enum MarketStatisticsField {
+    AVERAGE_BOND_DURATION_IN_DAYS(HourlyMarketStatistics::getAverageBondDurationInDays),
+    AVERAGE_BOOK_VALUE(HourlyMarketStatistics::getAverageBookValue),
+    AVERAGE_DAILY_WAGE(HourlyMarketStatistics::getAverageDailyWage),
+    AVERAGE_YIELD_TO_MATURITY(HourlyMarketStatistics::getAverageYieldToMaturity),
+    BOND_FACE_VOLUME(HourlyMarketStatistics::getBondFaceVolume),
+    CENTRAL_BANK_RESERVES(HourlyMarketStatistics::getCentralBankReserves),
+    COMMITTED_CASH(HourlyMarketStatistics::getCommittedCash),
+    CORPORATE_CASH(HourlyMarketStatistics::getCorporateCash),
+    MAIN_INTEREST_RATE(HourlyMarketStatistics::getMainInterestRate),
+    MARKET_CAP(HourlyMarketStatistics::getMarketCap),
+    NUMBER_OF_ACTIVE_OTHER_LISTINGS(HourlyMarketStatistics::getNumberOfActiveOtherListings),
+    NUMBER_OF_BANKS(HourlyMarketStatistics::getNumberOfBanks),
+    NUMBER_OF_BOND_ORDERS(HourlyMarketStatistics::getNumberOfBondOrders),
+    NUMBER_OF_CASHOUT_POLLS(HourlyMarketStatistics::getNumberOfCashoutPolls),
+    NUMBER_OF_COMMITTED_SHARES(HourlyMarketStatistics::getNumberOfCommittedShares),
+    NUMBER_OF_COMPANIES(HourlyMarketStatistics::getNumberOfCompanies),
+    NUMBER_OF_DESIGNATED_SPONSORS(HourlyMarketStatistics::getNumberOfDesignatedSponsors),
+    NUMBER_OF_LIQUIDATION_POLLS(HourlyMarketStatistics::getNumberOfLiquidationPolls),
+    NUMBER_OF_ORDERS(HourlyMarketStatistics::getNumberOfOrders),
+    NUMBER_OF_ORDERS_24H(HourlyMarketStatistics::getNumberOfOrders24h),
+    NUMBER_OF_OTC_ORDERS(HourlyMarketStatistics::getNumberOfOtcOrders),
+    NUMBER_OF_OTHER_LISTINGS(HourlyMarketStatistics::getNumberOfOtherListings),
+    NUMBER_OF_OTHER_ORDERS(HourlyMarketStatistics::getNumberOfOtherOrders),
+    NUMBER_OF_PARTNER_USERS(HourlyMarketStatistics::getNumberOfPartnerUsers),
+    NUMBER_OF_PREMIUM_USERS(HourlyMarketStatistics::getNumberOfPremiumUsers),
+    NUMBER_OF_REPO_ORDERS(HourlyMarketStatistics::getNumberOfRepoOrders),
+    NUMBER_OF_STOCK_ORDERS(HourlyMarketStatistics::getNumberOfStockOrders),
+    NUMBER_OF_SYSTEM_BOND_ORDERS(HourlyMarketStatistics::getNumberOfSystemBondOrders),
+    NUMBER_OF_SYSTEM_REPO_ORDERS(HourlyMarketStatistics::getNumberOfSystemRepoOrders),
+    NUMBER_OF_USERS(HourlyMarketStatistics::getNumberOfUsers),
+    ORDER_VOLUME(HourlyMarketStatistics::getOrderVolume),
+    ORDER_VOLUME_24H(HourlyMarketStatistics::getOrderVolume24h),
+    PRIVATE_CASH(HourlyMarketStatistics::getPrivateCash),
+    SYSTEM_BOND_FACE_VOLUME(HourlyMarketStatistics::getSystemBondFaceVolume);
+
+    /**
+     * Reads the field from an hour of statistics.
+     */
+    private final Function<HourlyMarketStatistics, ? extends Number> getter;
+
+    MarketStatisticsField(Function<HourlyMarketStatistics, ? extends Number> getter) {
+        this.getter = getter;
+    }
+
+    /**
+     * @param statistics an hour of statistics
+     * @return the value of the field, or NaN if missing
+     */
+    @PublicAPI
+    public double valueOf(HourlyMarketStatistics statistics) {
+        Number value = getter.apply(statistics);
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
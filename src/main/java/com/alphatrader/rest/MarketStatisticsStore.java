@@ -0,0 +1,521 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the history of the {@link HourlyMarketStatistics} in columns: one primitive array of dates and
+ * one primitive array per {@link MarketStatisticsField}. Aggregates over a single field scan a single
+ * array instead of touching a property object per hour. Counts are stored as doubles, which represents
+ * them exactly up to 2^53.
+ * <p>
+ * Daily, weekly and monthly rollups with the minimum, maximum, average and last value of every field are
+ * maintained while hours are appended. Hours must arrive in chronological order, so only the newest
+ * period of each rollup ever changes. Periods are calendar days, ISO weeks and calendar months in the
+ * time zone of the store. Missing values are stored as NaN and skipped by all aggregates.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class MarketStatisticsStore {
+    /**
+     * All fields, indexed by their ordinal.
+     */
+    private static final MarketStatisticsField[] FIELDS = MarketStatisticsField.values();
+
+    /**
+     * Fetches the full history.
+     */
+    private final Supplier<List<HourlyMarketStatistics>> fetcher;
+
+    /**
+     * The time zone the rollup periods are aligned to.
+     */
+    private final ZoneId zone;
+
+    /**
+     * The dates of the hours as unix timestamps in milliseconds.
+     */
+    private long[] dates = new long[256];
+
+    /**
+     * The values by field ordinal and hour.
+     */
+    private final double[][] columns = new double[FIELDS.length][256];
+
+    /**
+     * The number of hours.
+     */
+    private int size;
+
+    /**
+     * The rollups by resolution ordinal.
+     */
+    private final Rollups[] rollups = new Rollups[Resolution.values().length];
+
+    /**
+     * Creates a store that requests the statistics from the server.
+     *
+     * @param zone the time zone the rollup periods are aligned to
+     */
+    public MarketStatisticsStore(ZoneId zone) {
+        this(HourlyMarketStatistics::getAllUncached, zone);
+    }
+
+    /**
+     * Creates a store using the given statistics source.
+     *
+     * @param fetcher fetches the full history
+     * @param zone    the time zone the rollup periods are aligned to
+     */
+    MarketStatisticsStore(Supplier<List<HourlyMarketStatistics>> fetcher, ZoneId zone) {
+        this.fetcher = fetcher;
+        this.zone = zone;
+        for (Resolution resolution : Resolution.values()) {
+            rollups[resolution.ordinal()] = new Rollups(resolution);
+        }
+    }
+
+    /**
+     * Fetches the statistics and appends all hours newer than the newest one held.
+     *
+     * @return the number of hours appended
+     */
+    @PublicAPI
+    public int refresh() {
+        return appendAll(fetcher.get());
+    }
+
+    /**
+     * Appends all hours newer than the newest one held, in chronological order.
+     *
+     * @param statistics the hours in any order
+     * @return the number of hours appended
+     */
+    @PublicAPI
+    public synchronized int appendAll(Collection<HourlyMarketStatistics> statistics) {
+        List<HourlyMarketStatistics> sorted = new ArrayList<>(statistics.size());
+        for (HourlyMarketStatistics hour : statistics) {
+            if (hour.getDate() != null) {
+                sorted.add(hour);
+            }
+        }
+        sorted.sort(Comparator.comparing(HourlyMarketStatistics::getDate));
+
+        int appended = 0;
+        for (HourlyMarketStatistics hour : sorted) {
+            if (append(hour)) {
+                appended++;
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Appends an hour and updates the rollups.
+     *
+     * @param statistics the hour
+     * @return false if the hour has no date or is not newer than the newest hour held
+     */
+    @PublicAPI
+    public synchronized boolean append(HourlyMarketStatistics statistics) {
+        if (statistics.getDate() == null) {
+            return false;
+        }
+        long date = statistics.getDate().toInstant().toEpochMilli();
+        if (size > 0 && date <= dates[size - 1]) {
+            return false;
+        }
+
+        if (size == dates.length) {
+            dates = Arrays.copyOf(dates, size * 2);
+            for (int field = 0; field < FIELDS.length; field++) {
+                columns[field] = Arrays.copyOf(columns[field], size * 2);
+            }
+        }
+        dates[size] = date;
+        for (int field = 0; field < FIELDS.length; field++) {
+            columns[field][size] = FIELDS[field].valueOf(statistics);
+        }
+        for (Rollups rollup : rollups) {
+            rollup.add(date, size);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the number of hours held
+     */
+    @PublicAPI
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of the hour, 0 being the oldest
+     * @return the date of the hour as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public synchronized long getDateMillis(int index) {
+        checkIndex(index, size);
+        return dates[index];
+    }
+
+    /**
+     * @param field the field
+     * @param index the index of the hour, 0 being the oldest
+     * @return the value of the field in that hour
+     */
+    @PublicAPI
+    public synchronized double getValue(MarketStatisticsField field, int index) {
+        checkIndex(index, size);
+        return columns[field.ordinal()][index];
+    }
+
+    /**
+     * @return a copy of the dates of all hours as unix timestamps in milliseconds
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized long[] getDates() {
+        return Arrays.copyOf(dates, size);
+    }
+
+    /**
+     * @param field the field
+     * @return a copy of the values of the field in all hours
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized double[] getColumn(MarketStatisticsField field) {
+        return Arrays.copyOf(columns[field.ordinal()], size);
+    }
+
+    /**
+     * @param field      the field
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return the sum of the field over the hours in the range
+     */
+    @PublicAPI
+    public synchronized double sum(MarketStatisticsField field, long fromMillis, long toMillis) {
+        double[] column = columns[field.ordinal()];
+        double sum = 0.0;
+        for (int i = lowerBound(fromMillis), to = lowerBound(toMillis); i < to; i++) {
+            double value = column[i];
+            if (!Double.isNaN(value)) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @param field      the field
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return the average of the field over the hours in the range, or NaN if there are none
+     */
+    @PublicAPI
+    public synchronized double average(MarketStatisticsField field, long fromMillis, long toMillis) {
+        double[] column = columns[field.ordinal()];
+        double sum = 0.0;
+        int count = 0;
+        for (int i = lowerBound(fromMillis), to = lowerBound(toMillis); i < to; i++) {
+            double value = column[i];
+            if (!Double.isNaN(value)) {
+                sum += value;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * @param field      the field
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return the minimum of the field over the hours in the range, or NaN if there are none
+     */
+    @PublicAPI
+    public synchronized double min(MarketStatisticsField field, long fromMillis, long toMillis) {
+        double[] column = columns[field.ordinal()];
+        double min = Double.POSITIVE_INFINITY;
+        boolean found = false;
+        for (int i = lowerBound(fromMillis), to = lowerBound(toMillis); i < to; i++) {
+            double value = column[i];
+            if (value <= min) {
+                min = value;
+                found = true;
+            }
+        }
+        return found ? min : Double.NaN;
+    }
+
+    /**
+     * @param field      the field
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return the maximum of the field over the hours in the range, or NaN if there are none
+     */
+    @PublicAPI
+    public synchronized double max(MarketStatisticsField field, long fromMillis, long toMillis) {
+        double[] column = columns[field.ordinal()];
+        double max = Double.NEGATIVE_INFINITY;
+        boolean found = false;
+        for (int i = lowerBound(fromMillis), to = lowerBound(toMillis); i < to; i++) {
+            double value = column[i];
+            if (value >= max) {
+                max = value;
+                found = true;
+            }
+        }
+        return found ? max : Double.NaN;
+    }
+
+    /**
+     * @param resolution the length of the periods
+     * @return the rollups at that resolution, updated as hours are appended
+     */
+    @PublicAPI
+    @NotNull
+    public Rollups getRollups(Resolution resolution) {
+        return rollups[resolution.ordinal()];
+    }
+
+    /**
+     * @param date a unix timestamp in milliseconds
+     * @return the index of the first hour at or after the given date
+     */
+    private int lowerBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < date) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param index the index to check
+     * @param size  the number of elements
+     */
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * The length of a rollup period.
+     */
+    public enum Resolution {
+        DAY,
+        WEEK,
+        MONTH;
+
+        /**
+         * @param date a date in the time zone of the store
+         * @return the start of the period holding the date
+         */
+        ZonedDateTime startOf(ZonedDateTime date) {
+            ZonedDateTime day = date.truncatedTo(ChronoUnit.DAYS);
+            switch (this) {
+                case WEEK:
+                    return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return day.withDayOfMonth(1);
+                default:
+                    return day;
+            }
+        }
+
+        /**
+         * @param start the start of a period
+         * @return the start of the following period
+         */
+        ZonedDateTime next(ZonedDateTime start) {
+            switch (this) {
+                case WEEK:
+                    return start.plusWeeks(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                default:
+                    return start.plusDays(1);
+            }
+        }
+    }
+
+    /**
+     * The aggregates of every field per period. All methods read under the lock of the store.
+     */
+    public final class Rollups {
+        private final Resolution resolution;
+        private long[] starts = new long[16];
+        private long currentEnd = Long.MIN_VALUE;
+        private final double[][] mins = new double[FIELDS.length][16];
+        private final double[][] maxs = new double[FIELDS.length][16];
+        private final double[][] sums = new double[FIELDS.length][16];
+        private final double[][] lasts = new double[FIELDS.length][16];
+        private final int[][] counts = new int[FIELDS.length][16];
+        private int periods;
+
+        private Rollups(Resolution resolution) {
+            this.resolution = resolution;
+        }
+
+        /**
+         * Adds an hour to the current period, starting a new period if the hour is past its end.
+         *
+         * @param date the date of the hour
+         * @param row  the index of the hour in the columns
+         */
+        private void add(long date, int row) {
+            if (date >= currentEnd) {
+                ZonedDateTime start = resolution.startOf(Instant.ofEpochMilli(date).atZone(zone));
+                currentEnd = resolution.next(start).toInstant().toEpochMilli();
+                startPeriod(start.toInstant().toEpochMilli());
+            }
+            int period = periods - 1;
+            for (int field = 0; field < FIELDS.length; field++) {
+                double value = columns[field][row];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (counts[field][period] == 0) {
+                    mins[field][period] = value;
+                    maxs[field][period] = value;
+                }
+                else {
+                    mins[field][period] = Math.min(mins[field][period], value);
+                    maxs[field][period] = Math.max(maxs[field][period], value);
+                }
+                sums[field][period] += value;
+                lasts[field][period] = value;
+                counts[field][period]++;
+            }
+        }
+
+        private void startPeriod(long start) {
+            if (periods == starts.length) {
+                int capacity = periods * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                for (int field = 0; field < FIELDS.length; field++) {
+                    mins[field] = Arrays.copyOf(mins[field], capacity);
+                    maxs[field] = Arrays.copyOf(maxs[field], capacity);
+                    sums[field] = Arrays.copyOf(sums[field], capacity);
+                    lasts[field] = Arrays.copyOf(lasts[field], capacity);
+                    counts[field] = Arrays.copyOf(counts[field], capacity);
+                }
+            }
+            starts[periods++] = start;
+        }
+
+        /**
+         * @return the length of the periods
+         */
+        @PublicAPI
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        /**
+         * @return the number of periods with at least one hour
+         */
+        @PublicAPI
+        public int size() {
+            synchronized (MarketStatisticsStore.this) {
+                return periods;
+            }
+        }
+
+        /**
+         * @param period the index of the period, 0 being the oldest
+         * @return the start of the period as unix timestamp in milliseconds
+         */
+        @PublicAPI
+        public long getStartMillis(int period) {
+            synchronized (MarketStatisticsStore.this) {
+                checkIndex(period, periods);
+                return starts[period];
+            }
+        }
+
+        /**
+         * @param field  the field
+         * @param period the index of the period, 0 being the oldest
+         * @return the number of hours with a value of the field in the period
+         */
+        @PublicAPI
+        public int getCount(MarketStatisticsField field, int period) {
+            synchronized (MarketStatisticsStore.this) {
+                checkIndex(period, periods);
+                return counts[field.ordinal()][period];
+            }
+        }
+
+        /**
+         * @param field  the field
+         * @param period the index of the period, 0 being the oldest
+         * @return the minimum of the field in the period, or NaN if it has no values
+         */
+        @PublicAPI
+        public double getMin(MarketStatisticsField field, int period) {
+            return aggregate(mins, field, period);
+        }
+
+        /**
+         * @param field  the field
+         * @param period the index of the period, 0 being the oldest
+         * @return the maximum of the field in the period, or NaN if it has no values
+         */
+        @PublicAPI
+        public double getMax(MarketStatisticsField field, int period) {
+            return aggregate(maxs, field, period);
+        }
+
+        /**
+         * @param field  the field
+         * @param period the index of the period, 0 being the oldest
+         * @return the newest value of the field in the period, or NaN if it has no values
+         */
+        @PublicAPI
+        public double getLast(MarketStatisticsField field, int period) {
+            return aggregate(lasts, field, period);
+        }
+
+        /**
+         * @param field  the field
+         * @param period the index of the period, 0 being the oldest
+         * @return the average of the field in the period, or NaN if it has no values
+         */
+        @PublicAPI
+        public double getAverage(MarketStatisticsField field, int period) {
+            synchronized (MarketStatisticsStore.this) {
+                checkIndex(period, periods);
+                int count = counts[field.ordinal()][period];
+                return count > 0 ? sums[field.ordinal()][period] / count : Double.NaN;
+            }
+        }
+
+        private double aggregate(double[][] values, MarketStatisticsField field, int period) {
+            synchronized (MarketStatisticsStore.this) {
+                checkIndex(period, periods);
+                int column = field.ordinal();
+                return counts[column][period] > 0 ? values[column][period] : Double.NaN;
+            }
+        }
+    }
+}
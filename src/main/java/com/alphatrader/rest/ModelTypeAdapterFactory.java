@@ -0,0 +1,93 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Identifiers;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Provides reflection-free streaming type adapters for the model classes that are loaded in bulk. The
+ * adapters read the json token stream straight into the model properties instead of going through the
+ * reflective property adapters. Identifiers are interned while reading.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+    @SuppressWarnings("unchecked")
+    @Nullable
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter = null;
+
+        if (rawType == LastPrice.class) {
+            adapter = new LastPrice.GsonAdapter();
+        }
+        else if (rawType == SecurityOrderLog.class) {
+            adapter = new SecurityOrderLog.GsonAdapter();
+        }
+        else if (rawType == CashTransferLog.class) {
+            adapter = new CashTransferLog.GsonAdapter(gson.getAdapter(Message.class));
+        }
+        else if (rawType == Order.class) {
+            adapter = new Order.GsonAdapter(gson.getAdapter(Listing.class),
+                gson.getAdapter(Order.Type.class), gson.getAdapter(Order.Action.class));
+        }
+        else if (rawType == Position.class) {
+            adapter = new Position.GsonAdapter(gson.getAdapter(LastPrice.class));
+        }
+
+        return (TypeAdapter<T>) adapter;
+    }
+
+    /**
+     * Consumes the next token if it is a json null.
+     *
+     * @param in the reader to read from
+     * @return true if a null value was consumed
+     * @throws IOException if the token stream cannot be read
+     */
+    static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads an identifier and returns its pooled instance.
+     *
+     * @param in the reader to read from
+     * @return the interned identifier
+     * @throws IOException if the token stream cannot be read
+     */
+    static String readIdentifier(JsonReader in) throws IOException {
+        return Identifiers.intern(in.nextString());
+    }
+
+    /**
+     * Writes a unix timestamp in milliseconds.
+     *
+     * @param out         the writer to write to
+     * @param epochMillis the timestamp to write or {@link Timestamps#NONE}
+     * @throws IOException if the token stream cannot be written
+     */
+    static void writeDate(JsonWriter out, long epochMillis) throws IOException {
+        if (epochMillis == Timestamps.NONE) {
+            out.nullValue();
+        }
+        else {
+            out.value(epochMillis);
+        }
+    }
+}
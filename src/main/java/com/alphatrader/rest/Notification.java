@@ -73,6 +73,14 @@ public class Notification {
         return getMultipleNotificationsFromApi("");
     }
 
+    /**
+     * @return all notifications for the logged in user, bypassing the response cache
+     */
+    @NotNull
+    static List<Notification> getNotificationsUncached() {
+        return Http.getMultipleObjectFromApiUncached(Notification.class, "/api/notifications");
+    }
+
     /**
      * @return the message
      */
@@ -1,9 +1,14 @@
 package com.alphatrader.rest;
 
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import javafx.beans.property.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.List;
 
@@ -445,12 +450,128 @@ public class Order {
         BUY,
         SELL
     }
-}
-
-
-    
-    
-    
 
+    /**
+     * Streaming gson adapter for orders. Order book entries name the price "priceLimit" and the number
+     * of shares "size"; both are read into the same properties.
+     */
+    static final class GsonAdapter extends TypeAdapter<Order> {
+        /**
+         * The adapter used for the nested listing.
+         */
+        private final TypeAdapter<Listing> listingAdapter;
+
+        /**
+         * The adapter used for the order type.
+         */
+        private final TypeAdapter<Type> typeAdapter;
+
+        /**
+         * The adapter used for the order action.
+         */
+        private final TypeAdapter<Action> actionAdapter;
+
+        /**
+         * @param listingAdapter the adapter used for the nested listing
+         * @param typeAdapter    the adapter used for the order type
+         * @param actionAdapter  the adapter used for the order action
+         */
+        GsonAdapter(TypeAdapter<Listing> listingAdapter, TypeAdapter<Type> typeAdapter,
+                    TypeAdapter<Action> actionAdapter) {
+            this.listingAdapter = listingAdapter;
+            this.typeAdapter = typeAdapter;
+            this.actionAdapter = actionAdapter;
+        }
 
+        @Override
+        public void write(JsonWriter out, Order order) throws IOException {
+            if (order == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("creationDate");
+            ModelTypeAdapterFactory.writeDate(out, order.creationDate.getValue() != null
+                ? order.creationDate.getValue().toInstant().toEpochMilli() : Timestamps.NONE);
+            out.name("listing");
+            listingAdapter.write(out, order.listing.getValue());
+            out.name("type");
+            typeAdapter.write(out, order.type.getValue());
+            out.name("securityIdentifier").value(order.securityIdentifier.getValue());
+            out.name("numberOfShares").value(order.numberOfShares.get());
+            out.name("counterPartyName").value(order.counterPartyName.getValue());
+            out.name("counterParty").value(order.counterParty.getValue());
+            out.name("action");
+            actionAdapter.write(out, order.action.getValue());
+            out.name("committedCash").value(order.committedCash.get());
+            out.name("price").value(order.price.get());
+            out.name("ownerName").value(order.ownerName.getValue());
+            out.name("owner").value(order.owner.getValue());
+            out.name("id").value(order.id.getValue());
+            out.endObject();
+        }
 
+        @Override
+        public Order read(JsonReader in) throws IOException {
+            if (ModelTypeAdapterFactory.skipNull(in)) {
+                return null;
+            }
+
+            Order order = new Order();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (ModelTypeAdapterFactory.skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "creationDate":
+                        order.creationDate.setValue(Timestamps.toZonedDateTime(in.nextLong()));
+                        break;
+                    case "listing":
+                        order.listing.setValue(listingAdapter.read(in));
+                        break;
+                    case "type":
+                        order.type.setValue(typeAdapter.read(in));
+                        break;
+                    case "securityIdentifier":
+                        order.securityIdentifier.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "numberOfShares":
+                    case "size":
+                        order.numberOfShares.set(in.nextLong());
+                        break;
+                    case "counterPartyName":
+                        order.counterPartyName.setValue(in.nextString());
+                        break;
+                    case "counterParty":
+                        order.counterParty.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "action":
+                        order.action.setValue(actionAdapter.read(in));
+                        break;
+                    case "committedCash":
+                        order.committedCash.set(in.nextDouble());
+                        break;
+                    case "price":
+                    case "priceLimit":
+                        order.price.set(in.nextDouble());
+                        break;
+                    case "ownerName":
+                        order.ownerName.setValue(in.nextString());
+                        break;
+                    case "owner":
+                        order.owner.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "id":
+                        order.id.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return order;
+        }
+    }
+}
@@ -46,6 +46,18 @@ public class OrderBook {
         return Http.getSingleObjectFromApi(OrderBook.class, "/api/orderbook/" + securityIdentifier);
     }
 
+    /**
+     * Returns the order book for the specified company, bypassing the response cache.
+     *
+     * @param securityIdentifier the security identifier
+     * @return the order book
+     */
+    @Nullable
+    static OrderBook getOrderBookUncached(String securityIdentifier) {
+        return Http.getSingleObjectFromApiUncached(OrderBook.class, "/api/orderbook/"
+            + securityIdentifier);
+    }
+
     /**
      * @return the maximum buy size
      */
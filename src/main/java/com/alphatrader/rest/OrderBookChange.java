@@ -0,0 +1,134 @@
+package com.alphatrader.rest;
+
+/**
+ * A change of a single price level between two snapshots of an order book.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class OrderBookChange {
+    /**
+     * The side of the book.
+     */
+    private final Order.Action side;
+
+    /**
+     * The kind of change.
+     */
+    private final Kind kind;
+
+    /**
+     * The price of the level.
+     */
+    private final double price;
+
+    /**
+     * The number of shares at the level before the change, 0 if the level was added.
+     */
+    private final long previousSize;
+
+    /**
+     * The number of shares at the level after the change, 0 if the level was removed.
+     */
+    private final long size;
+
+    /**
+     * @param side         the side of the book
+     * @param kind         the kind of change
+     * @param price        the price of the level
+     * @param previousSize the number of shares before the change
+     * @param size         the number of shares after the change
+     */
+    OrderBookChange(Order.Action side, Kind kind, double price, long previousSize, long size) {
+        this.side = side;
+        this.kind = kind;
+        this.price = price;
+        this.previousSize = previousSize;
+        this.size = size;
+    }
+
+    /**
+     * @return the side of the book, {@link Order.Action#BUY} for bids and {@link Order.Action#SELL} for
+     * asks
+     */
+    @PublicAPI
+    public Order.Action getSide() {
+        return side;
+    }
+
+    /**
+     * @return the kind of change
+     */
+    @PublicAPI
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the price of the level
+     */
+    @PublicAPI
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return the number of shares at the level before the change, 0 if the level was added
+     */
+    @PublicAPI
+    public long getPreviousSize() {
+        return previousSize;
+    }
+
+    /**
+     * @return the number of shares at the level after the change, 0 if the level was removed
+     */
+    @PublicAPI
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderBookChange{"
+            + "side=" + side
+            + ", kind=" + kind
+            + ", price=" + price
+            + ", previousSize=" + previousSize
+            + ", size=" + size
+            + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        OrderBookChange that = (OrderBookChange) o;
+
+        return Double.compare(that.price, price) == 0 && previousSize == that.previousSize
+            && size == that.size && side == that.side && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = side != null ? side.hashCode() : 0;
+        result = 31 * result + (kind != null ? kind.hashCode() : 0);
+        long temp = Double.doubleToLongBits(price);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (int) (previousSize ^ (previousSize >>> 32));
+        result = 31 * result + (int) (size ^ (size >>> 32));
+        return result;
+    }
+
+    /**
+     * All kinds of level changes.
+     */
+    public enum Kind {
+        ADDED, REMOVED, RESIZED
+    }
+}
@@ -0,0 +1,112 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the changes between consecutive order book snapshots. The engine keeps the previous book of
+ * every security as price levels and emits only the levels that were added, removed or resized, so
+ * consumers do work proportional to the number of changes instead of the size of the book.
+ * <p>
+ * The server sends order book entries already aggregated by price and without order ids, so the price
+ * level is the finest unit a change can be detected at. Entries at the same price are summed.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OrderBookDiffEngine {
+    /**
+     * The previous book by security identifier.
+     */
+    private final Map<String, Book> previous = new ConcurrentHashMap<>();
+
+    /**
+     * Compares the given snapshot with the previous one of the same security and remembers it for the
+     * next call. The first snapshot of a security is reported as all levels added.
+     *
+     * @param securityIdentifier the security identifier of the listing
+     * @param orderBook          the new snapshot
+     * @return the changed levels, bids first, each side in ascending price order
+     */
+    @NotNull
+    public List<OrderBookChange> update(String securityIdentifier, OrderBook orderBook) {
+        Book next = new Book(PriceLevels.aggregate(orderBook.getBuyEntries()),
+            PriceLevels.aggregate(orderBook.getSellEntries()));
+        Book last = previous.put(securityIdentifier, next);
+        if (last == null) {
+            last = new Book(PriceLevels.EMPTY, PriceLevels.EMPTY);
+        }
+
+        List<OrderBookChange> changes = new ArrayList<>();
+        diff(Order.Action.BUY, last.bids, next.bids, changes);
+        diff(Order.Action.SELL, last.asks, next.asks, changes);
+        return changes;
+    }
+
+    /**
+     * Forgets the previous snapshot of a security, so the next one is reported as all levels added.
+     *
+     * @param securityIdentifier the security identifier of the listing
+     */
+    public void reset(String securityIdentifier) {
+        previous.remove(securityIdentifier);
+    }
+
+    /**
+     * Forgets the previous snapshots of all securities.
+     */
+    public void clear() {
+        previous.clear();
+    }
+
+    /**
+     * Walks both sorted level arrays once and collects the differences.
+     *
+     * @param side    the side of the book
+     * @param last    the previous levels
+     * @param next    the new levels
+     * @param changes the list to add the changes to
+     */
+    static void diff(Order.Action side, PriceLevels last, PriceLevels next,
+                     List<OrderBookChange> changes) {
+        int i = 0;
+        int j = 0;
+        while (i < last.size() || j < next.size()) {
+            if (j == next.size() || (i < last.size() && last.prices[i] < next.prices[j])) {
+                changes.add(new OrderBookChange(side, OrderBookChange.Kind.REMOVED, last.prices[i],
+                    last.sizes[i], 0));
+                i++;
+            }
+            else if (i == last.size() || next.prices[j] < last.prices[i]) {
+                changes.add(new OrderBookChange(side, OrderBookChange.Kind.ADDED, next.prices[j], 0,
+                    next.sizes[j]));
+                j++;
+            }
+            else {
+                if (last.sizes[i] != next.sizes[j]) {
+                    changes.add(new OrderBookChange(side, OrderBookChange.Kind.RESIZED, next.prices[j],
+                        last.sizes[i], next.sizes[j]));
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Both sides of a book as price levels.
+     */
+    private static final class Book {
+        private final PriceLevels bids;
+        private final PriceLevels asks;
+
+        private Book(PriceLevels bids, PriceLevels asks) {
+            this.bids = bids;
+            this.asks = asks;
+        }
+    }
+}
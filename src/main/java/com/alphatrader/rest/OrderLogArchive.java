@@ -0,0 +1,765 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Identifiers;
+import com.alphatrader.rest.util.Timestamps;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An append-only archive of security order logs on disk. Every log is stored as a fixed-width binary
+ * record in a data file that is accessed through a memory mapping, so the archive does not hold the
+ * logs on the heap and reopens without reading them. Identifiers are stored once in a symbol file and
+ * referred to by number, ids in UUID form are stored as two longs.
+ * <p>
+ * Two companion index files speed up range scans: the date index keeps the smallest and largest date of
+ * every block of {@value #BLOCK_SIZE} records, so blocks outside a date range are skipped, and the
+ * security index keeps the newest record of every security. Each record links to the previous record of
+ * the same security, so the records of one security are found without touching the others. Scans hand
+ * out a reusable {@link OrderLogEntry} that reads the mapped record in place.
+ * <p>
+ * Appends are crash safe: records and new symbols are written and forced to disk before the record count
+ * in the data file header is updated, so a crash in between leaves the archive at its last committed
+ * state. The index files are derived from the data file and are rebuilt when an archive that was not
+ * closed cleanly is opened again.
+ * <p>
+ * The archive accepts security order logs and can be registered directly as listener of a
+ * {@link SecurityOrderLogTailer}. Every log is forced to disk on its own then, so larger batches should
+ * use {@link #appendAll(Collection)}.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OrderLogArchive implements Consumer<SecurityOrderLog>, Closeable {
+    /**
+     * The name of the data file.
+     */
+    static final String DATA_FILE = "orderlogs.dat";
+
+    /**
+     * The name of the symbol file.
+     */
+    static final String SYMBOL_FILE = "orderlogs.sym";
+
+    /**
+     * The name of the date index file.
+     */
+    static final String DATE_INDEX_FILE = "orderlogs.date.idx";
+
+    /**
+     * The name of the security index file.
+     */
+    static final String SECURITY_INDEX_FILE = "orderlogs.security.idx";
+
+    /**
+     * The number of records per block of the date index.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    /**
+     * The size of a record in bytes.
+     */
+    static final int RECORD_SIZE = 72;
+
+    /**
+     * The symbol number of a missing identifier, also the record number of a missing record.
+     */
+    static final int NONE = -1;
+
+    /**
+     * The record flag marking an id stored as two longs.
+     */
+    static final int FLAG_UUID = 1;
+
+    /**
+     * The offset of the date within a record.
+     */
+    static final int DATE = 0;
+
+    /**
+     * The offset of the price within a record.
+     */
+    static final int PRICE = 8;
+
+    /**
+     * The offset of the number of shares within a record.
+     */
+    static final int SHARES = 16;
+
+    /**
+     * The offset of the volume within a record.
+     */
+    static final int VOLUME = 24;
+
+    /**
+     * The offset of the security identifier symbol within a record.
+     */
+    static final int SECURITY = 32;
+
+    /**
+     * The offset of the buyer securities account symbol within a record.
+     */
+    static final int BUYER = 36;
+
+    /**
+     * The offset of the seller securities account symbol within a record.
+     */
+    static final int SELLER = 40;
+
+    /**
+     * The offset of the number of the previous record of the same security within a record.
+     */
+    static final int PREVIOUS = 44;
+
+    /**
+     * The offset of the flags within a record.
+     */
+    static final int FLAGS = 48;
+
+    /**
+     * The offset of the most significant bits of the id, or of the id symbol, within a record.
+     */
+    static final int ID_HIGH = 56;
+
+    /**
+     * The offset of the least significant bits of the id within a record.
+     */
+    static final int ID_LOW = 64;
+
+    /**
+     * Identifies the data file, "ATOL" in ASCII.
+     */
+    private static final int MAGIC = 0x41544F4C;
+
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the data file header in bytes.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * The offset of the state in the data file header, {@link #OPEN} while the archive is in use.
+     */
+    private static final int STATE_OFFSET = 12;
+
+    /**
+     * The state of an archive that was closed cleanly, so its index files are complete.
+     */
+    private static final int CLOSED = 0;
+
+    /**
+     * The state of an archive in use. If an archive is opened in this state, it was not closed cleanly
+     * and its index files are rebuilt.
+     */
+    private static final int OPEN = 1;
+
+    /**
+     * The offset of the committed number of symbols in the data file header. The number of records
+     * follows directly, so both are committed by a single long write.
+     */
+    private static final int SYMBOL_COUNT_OFFSET = 16;
+
+    /**
+     * The offset of the committed number of records in the data file header.
+     */
+    private static final int RECORD_COUNT_OFFSET = 20;
+
+    /**
+     * The number of records the data file is created for.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * The largest number of records a single mapping can hold.
+     */
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    /**
+     * The data file.
+     */
+    private final FileChannel dataChannel;
+
+    /**
+     * The symbol file.
+     */
+    private FileChannel symbolChannel;
+
+    /**
+     * The date index file.
+     */
+    private FileChannel dateIndexChannel;
+
+    /**
+     * The security index file.
+     */
+    private FileChannel securityIndexChannel;
+
+    /**
+     * The mapping of the data file.
+     */
+    private MappedByteBuffer data;
+
+    /**
+     * The number of records the current mapping can hold.
+     */
+    private int capacity;
+
+    /**
+     * The number of committed records.
+     */
+    private int size;
+
+    /**
+     * The identifiers by symbol number.
+     */
+    private final List<String> symbols = new ArrayList<>();
+
+    /**
+     * The symbol numbers by identifier.
+     */
+    private final Map<String, Integer> symbolNumbers = new HashMap<>();
+
+    /**
+     * The length of the committed part of the symbol file in bytes.
+     */
+    private long symbolBytes;
+
+    /**
+     * The date and security indexes.
+     */
+    private final OrderLogIndex logIndex;
+
+    /**
+     * The entry handed out by scans.
+     */
+    private final OrderLogEntry entry = new OrderLogEntry(symbols);
+
+    /**
+     * Whether the archive is closed.
+     */
+    private boolean closed;
+
+    /**
+     * Whether an append failed, so the index files may be incomplete.
+     */
+    private boolean failed;
+
+    /**
+     * Opens the archive in the given directory, or creates an empty one if the directory does not
+     * contain an archive yet.
+     *
+     * @param directory the directory holding the archive files
+     * @throws IOException if the files cannot be opened or are not a valid archive
+     */
+    public OrderLogArchive(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        dataChannel = open(directory.resolve(DATA_FILE));
+        try {
+            symbolChannel = open(directory.resolve(SYMBOL_FILE));
+            dateIndexChannel = open(directory.resolve(DATE_INDEX_FILE));
+            securityIndexChannel = open(directory.resolve(SECURITY_INDEX_FILE));
+            logIndex = new OrderLogIndex(dateIndexChannel, securityIndexChannel);
+            openData();
+            readSymbols(data.getInt(SYMBOL_COUNT_OFFSET));
+            int dateCovered = 0;
+            int securityCovered = 0;
+            if (data.getInt(STATE_OFFSET) == CLOSED) {
+                dateCovered = logIndex.readDateIndex(size);
+                securityCovered = logIndex.readSecurityIndex(size, symbols.size());
+            }
+            else {
+                logIndex.clear();
+            }
+            data.putInt(STATE_OFFSET, OPEN);
+            data.force();
+            logIndex.indexDates(data, dateCovered - dateCovered % BLOCK_SIZE, size);
+            logIndex.indexSecurities(data, symbols.size(), securityCovered, size);
+        }
+        catch (IOException | RuntimeException e) {
+            failed = true;
+            closeQuietly(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a security order log.
+     *
+     * @param orderLog the security order log
+     * @throws UncheckedIOException if the log cannot be written, the archive is closed then
+     */
+    @Override
+    public void accept(SecurityOrderLog orderLog) {
+        try {
+            append(orderLog);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a security order log.
+     *
+     * @param orderLog the security order log
+     * @throws IOException if the log cannot be written, the archive is closed then
+     */
+    @PublicAPI
+    public void append(SecurityOrderLog orderLog) throws IOException {
+        appendAll(Collections.singletonList(orderLog));
+    }
+
+    /**
+     * Appends security order logs in one commit. Either all logs are committed or, after a crash,
+     * none. If an append fails, the archive is closed and has to be reopened, which restores the last
+     * committed state.
+     *
+     * @param orderLogs the security order logs in any order
+     * @throws IOException if the logs cannot be written
+     */
+    @PublicAPI
+    public synchronized void appendAll(Collection<SecurityOrderLog> orderLogs) throws IOException {
+        checkOpen();
+        if (orderLogs.isEmpty()) {
+            return;
+        }
+        ensureCapacity((long) size + orderLogs.size());
+
+        try {
+            ByteArrayOutputStream newSymbols = new ByteArrayOutputStream();
+            DataOutputStream symbolOut = new DataOutputStream(newSymbols);
+            Map<Integer, Integer> batchHeads = new HashMap<>();
+            int index = size;
+            for (SecurityOrderLog orderLog : orderLogs) {
+                int offset = offset(index);
+                int security = symbol(orderLog.getSecurityIdentifier(), symbolOut);
+                int previous = NONE;
+                if (security != NONE) {
+                    Integer batchHead = batchHeads.put(security, index);
+                    previous = batchHead != null ? batchHead : logIndex.head(security);
+                }
+                data.putLong(offset + DATE, orderLog.getDateMillis());
+                data.putDouble(offset + PRICE, value(orderLog.getPrice()));
+                data.putDouble(offset + SHARES, value(orderLog.getNumberOfShares()));
+                data.putDouble(offset + VOLUME, value(orderLog.getVolume()));
+                data.putInt(offset + SECURITY, security);
+                data.putInt(offset + BUYER, symbol(orderLog.getBuyerSecuritiesAccount(), symbolOut));
+                data.putInt(offset + SELLER, symbol(orderLog.getSellerSecuritiesAccount(), symbolOut));
+                data.putInt(offset + PREVIOUS, previous);
+                String id = orderLog.getId();
+                if (Identifiers.isUuid(id)) {
+                    data.putInt(offset + FLAGS, FLAG_UUID);
+                    data.putLong(offset + ID_HIGH, Identifiers.mostSignificantBits(id));
+                    data.putLong(offset + ID_LOW, Identifiers.leastSignificantBits(id));
+                }
+                else {
+                    data.putInt(offset + FLAGS, 0);
+                    data.putLong(offset + ID_HIGH, symbol(id, symbolOut));
+                    data.putLong(offset + ID_LOW, 0L);
+                }
+                index++;
+            }
+
+            if (newSymbols.size() > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(newSymbols.toByteArray());
+                while (buffer.hasRemaining()) {
+                    symbolChannel.write(buffer, symbolBytes + buffer.position());
+                }
+                symbolChannel.force(false);
+                symbolBytes += newSymbols.size();
+            }
+            data.force();
+            data.putLong(SYMBOL_COUNT_OFFSET, ((long) symbols.size() << 32) | index);
+            data.force();
+
+            int from = size;
+            size = index;
+            logIndex.indexDates(data, from, size);
+            logIndex.indexSecurities(data, symbols.size(), from, size);
+        }
+        catch (IOException | RuntimeException e) {
+            failed = true;
+            closeQuietly(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of archived logs
+     */
+    @PublicAPI
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param index the number of the log in the order it was appended, 0 being the first
+     * @return the log
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized SecurityOrderLog get(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return entry.moveTo(data, index).toSecurityOrderLog();
+    }
+
+    /**
+     * @return the date of the newest log as unix timestamp in milliseconds, or {@link Timestamps#NONE}
+     * if the archive is empty. A {@link SecurityOrderLogTailer} can resume from here after a restart.
+     */
+    @PublicAPI
+    public synchronized long getNewestDateMillis() {
+        int blocks = logIndex.getBlocks();
+        return blocks > 0 ? logIndex.getMaxDateUpTo(blocks - 1) : Timestamps.NONE;
+    }
+
+    /**
+     * @return the identifiers of all securities with archived logs
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized Set<String> getSecurityIdentifiers() {
+        Set<String> identifiers = new HashSet<>();
+        for (int symbol = 0; symbol < symbols.size(); symbol++) {
+            if (logIndex.head(symbol) != NONE) {
+                identifiers.add(symbols.get(symbol));
+            }
+        }
+        return identifiers;
+    }
+
+    /**
+     * @param securityIdentifier the security identifier
+     * @return the number of archived logs of the security
+     */
+    @PublicAPI
+    public synchronized int getCount(String securityIdentifier) {
+        Integer symbol = symbolNumbers.get(securityIdentifier);
+        return symbol != null ? logIndex.count(symbol) : 0;
+    }
+
+    /**
+     * Visits all logs in the given time range in the order they were appended. The entry handed to the
+     * consumer reads the mapped record in place and is only valid during the call.
+     *
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @param consumer   the consumer of the entries
+     * @return the number of visited logs
+     */
+    @PublicAPI
+    public synchronized int scan(long fromMillis, long toMillis, Consumer<OrderLogEntry> consumer) {
+        checkOpen();
+        int visited = 0;
+        for (int block = 0; block < logIndex.getBlocks(); block++) {
+            if (!logIndex.overlaps(block, fromMillis, toMillis)) {
+                continue;
+            }
+            int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+            for (int index = block * BLOCK_SIZE; index < end; index++) {
+                long date = data.getLong(offset(index) + DATE);
+                if (date >= fromMillis && date < toMillis) {
+                    consumer.accept(entry.moveTo(data, index));
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Visits the logs of a security in the given time range in the order they were appended. The entry
+     * handed to the consumer reads the mapped record in place and is only valid during the call.
+     *
+     * @param securityIdentifier the security identifier
+     * @param fromMillis         the lower date boundary, inclusive
+     * @param toMillis           the upper date boundary, exclusive
+     * @param consumer           the consumer of the entries
+     * @return the number of visited logs
+     */
+    @PublicAPI
+    public synchronized int scan(String securityIdentifier, long fromMillis, long toMillis,
+                                 Consumer<OrderLogEntry> consumer) {
+        checkOpen();
+        Integer symbol = symbolNumbers.get(securityIdentifier);
+        if (symbol == null || logIndex.head(symbol) == NONE) {
+            return 0;
+        }
+
+        int[] matches = new int[Math.min(logIndex.count(symbol), BLOCK_SIZE)];
+        int found = 0;
+        for (int index = logIndex.head(symbol); index != NONE;
+             index = data.getInt(offset(index) + PREVIOUS)) {
+            if (logIndex.getMaxDateUpTo(index / BLOCK_SIZE) < fromMillis) {
+                break;
+            }
+            long date = data.getLong(offset(index) + DATE);
+            if (date >= fromMillis && date < toMillis) {
+                if (found == matches.length) {
+                    matches = Arrays.copyOf(matches, Math.max(16, found * 2));
+                }
+                matches[found++] = index;
+            }
+        }
+        for (int i = found - 1; i >= 0; i--) {
+            consumer.accept(entry.moveTo(data, matches[i]));
+        }
+        return found;
+    }
+
+    /**
+     * Closes the archive files. All appended logs are already on disk, closing forces the index files to
+     * disk as well, so they do not have to be rebuilt when the archive is opened again.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        try {
+            if (data != null && !failed) {
+                logIndex.force();
+                data.putInt(STATE_OFFSET, CLOSED);
+                data.force();
+            }
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+        data = null;
+        for (Closeable channel : Arrays.asList(securityIndexChannel, dateIndexChannel, symbolChannel,
+            dataChannel)) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "OrderLogArchive{"
+            + "size=" + size
+            + ", symbols=" + symbols.size()
+            + ", closed=" + closed
+            + '}';
+    }
+
+    /**
+     * Maps the data file, writing the header first if the file is new.
+     *
+     * @throws IOException if the file cannot be mapped or is not a data file
+     */
+    private void openData() throws IOException {
+        long fileSize = dataChannel.size();
+        if (fileSize == 0) {
+            map(INITIAL_CAPACITY);
+            data.putInt(0, MAGIC);
+            data.putInt(4, VERSION);
+            data.putInt(8, RECORD_SIZE);
+            data.putLong(SYMBOL_COUNT_OFFSET, 0L);
+            data.force();
+            return;
+        }
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Order log archive is truncated: " + fileSize + " bytes");
+        }
+        ByteBuffer header = read(dataChannel, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+            || header.getInt(8) != RECORD_SIZE) {
+            throw new IOException("Not an order log archive of version " + VERSION);
+        }
+        long records = (fileSize - HEADER_SIZE) / RECORD_SIZE;
+        map((int) Math.min(MAX_RECORDS, Math.max(INITIAL_CAPACITY, records)));
+        size = data.getInt(RECORD_COUNT_OFFSET);
+        if (size < 0 || size > capacity) {
+            throw new IOException("Invalid order log count: " + size);
+        }
+    }
+
+    /**
+     * Reads the committed symbols and cuts off symbols of an uncommitted append.
+     *
+     * @param count the number of committed symbols
+     * @throws IOException if the symbol file cannot be read or is missing committed symbols
+     */
+    private void readSymbols(int count) throws IOException {
+        ByteBuffer buffer = read(symbolChannel, 0, (int) symbolChannel.size());
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < 4 || buffer.remaining() - 4 < buffer.getInt(buffer.position())) {
+                throw new IOException("Order log symbols are truncated: " + i + " of " + count);
+            }
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            String symbol = Identifiers.intern(new String(bytes, StandardCharsets.UTF_8));
+            symbolNumbers.put(symbol, symbols.size());
+            symbols.add(symbol);
+        }
+        symbolBytes = buffer.position();
+        symbolChannel.truncate(symbolBytes);
+    }
+
+    /**
+     * Returns the number of an identifier, registering it as new symbol if necessary.
+     *
+     * @param identifier the identifier, may be null
+     * @param newSymbols the output for new symbols
+     * @return the symbol number, or {@link #NONE} for null
+     * @throws IOException if the symbol cannot be written to the output
+     */
+    private int symbol(String identifier, DataOutputStream newSymbols) throws IOException {
+        if (identifier == null) {
+            return NONE;
+        }
+        Integer number = symbolNumbers.get(identifier);
+        if (number == null) {
+            number = symbols.size();
+            String symbol = Identifiers.intern(identifier);
+            symbols.add(symbol);
+            symbolNumbers.put(symbol, number);
+            byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+            newSymbols.writeInt(bytes.length);
+            newSymbols.write(bytes);
+        }
+        return number;
+    }
+
+    /**
+     * Remaps the data file if it cannot hold the given number of records.
+     *
+     * @param required the number of records
+     * @throws IOException if the file cannot be mapped or would exceed the size of a mapping
+     */
+    private void ensureCapacity(long required) throws IOException {
+        if (required > MAX_RECORDS) {
+            throw new IOException("Order log archive is full: " + MAX_RECORDS + " records");
+        }
+        if (required > capacity) {
+            map((int) Math.min(MAX_RECORDS, Math.max(required, 2L * capacity)));
+        }
+    }
+
+    /**
+     * Maps the data file, growing it if necessary.
+     *
+     * @param records the number of records the mapping holds
+     * @throws IOException if the file cannot be mapped
+     */
+    private void map(int records) throws IOException {
+        long length = HEADER_SIZE + (long) records * RECORD_SIZE;
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        capacity = records;
+    }
+
+    /**
+     * Closes the archive after a failure, keeping the failure as the reported exception.
+     *
+     * @param failure the failure
+     */
+    private void closeQuietly(Exception failure) {
+        try {
+            close();
+        }
+        catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the archive is closed
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Order log archive is closed");
+        }
+    }
+
+    /**
+     * @param index a record number
+     * @return the offset of the record in the data file
+     */
+    static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    /**
+     * @param value a possibly missing value
+     * @return the value, or NaN if it is missing
+     */
+    private static double value(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * @param path the file to open
+     * @return a channel for reading and writing, creating the file if necessary
+     * @throws IOException if the file cannot be opened
+     */
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    }
+
+    /**
+     * @param channel  the file
+     * @param position the position to read from
+     * @param length   the number of bytes to read
+     * @return a buffer holding the bytes, flipped for reading
+     * @throws IOException if the file cannot be read or is too short
+     */
+    static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of order log archive file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @param channel  the file
+     * @param buffer   the bytes to write
+     * @param position the position to write to
+     * @throws IOException if the file cannot be written
+     */
+    static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        }
+    }
+}
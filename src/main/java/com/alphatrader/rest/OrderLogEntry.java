@@ -0,0 +1,161 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Identifiers;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A view of a record of an {@link OrderLogArchive}. Reads the fields from the mapped data file without
+ * copying them. Scans of the archive reuse a single entry, so it is only valid during the call it is
+ * handed to.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class OrderLogEntry {
+    /**
+     * The identifiers of the archive by symbol number.
+     */
+    private final List<String> symbols;
+
+    /**
+     * The mapped data file.
+     */
+    private ByteBuffer data;
+
+    /**
+     * The number of the record.
+     */
+    private int index;
+
+    /**
+     * Creates an entry.
+     *
+     * @param symbols the identifiers of the archive by symbol number
+     */
+    OrderLogEntry(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Points the entry to a record.
+     *
+     * @param mapped the mapped data file
+     * @param record the number of the record
+     * @return this entry
+     */
+    OrderLogEntry moveTo(ByteBuffer mapped, int record) {
+        this.data = mapped;
+        this.index = record;
+        return this;
+    }
+
+    /**
+     * @return the number of the record in the order it was appended
+     */
+    @PublicAPI
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the date as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public long getDateMillis() {
+        return data.getLong(OrderLogArchive.offset(index) + OrderLogArchive.DATE);
+    }
+
+    /**
+     * @return the price
+     */
+    @PublicAPI
+    public double getPrice() {
+        return data.getDouble(OrderLogArchive.offset(index) + OrderLogArchive.PRICE);
+    }
+
+    /**
+     * @return the number of shares
+     */
+    @PublicAPI
+    public double getNumberOfShares() {
+        return data.getDouble(OrderLogArchive.offset(index) + OrderLogArchive.SHARES);
+    }
+
+    /**
+     * @return the volume
+     */
+    @PublicAPI
+    public double getVolume() {
+        return data.getDouble(OrderLogArchive.offset(index) + OrderLogArchive.VOLUME);
+    }
+
+    /**
+     * @return the security identifier
+     */
+    @PublicAPI
+    public String getSecurityIdentifier() {
+        return symbolAt(OrderLogArchive.SECURITY);
+    }
+
+    /**
+     * @return the buyer securities account id
+     */
+    @PublicAPI
+    public String getBuyerSecuritiesAccount() {
+        return symbolAt(OrderLogArchive.BUYER);
+    }
+
+    /**
+     * @return the seller securities account id
+     */
+    @PublicAPI
+    public String getSellerSecuritiesAccount() {
+        return symbolAt(OrderLogArchive.SELLER);
+    }
+
+    /**
+     * @return the unique id
+     */
+    @PublicAPI
+    public String getId() {
+        int offset = OrderLogArchive.offset(index);
+        if ((data.getInt(offset + OrderLogArchive.FLAGS) & OrderLogArchive.FLAG_UUID) != 0) {
+            return Identifiers.fromBits(data.getLong(offset + OrderLogArchive.ID_HIGH),
+                data.getLong(offset + OrderLogArchive.ID_LOW));
+        }
+        int symbol = (int) data.getLong(offset + OrderLogArchive.ID_HIGH);
+        return symbol != OrderLogArchive.NONE ? symbols.get(symbol) : null;
+    }
+
+    /**
+     * @return a copy of the record as security order log
+     */
+    @PublicAPI
+    @NotNull
+    public SecurityOrderLog toSecurityOrderLog() {
+        SecurityOrderLog log = SecurityOrderLog.create(getId(), getSecurityIdentifier(),
+            getDateMillis());
+        log.setParties(getBuyerSecuritiesAccount(), getSellerSecuritiesAccount());
+        log.setTrade(getNumberOfShares(), getPrice(), getVolume());
+        return log;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderLogEntry{"
+            + "index=" + index
+            + '}';
+    }
+
+    /**
+     * @param field the offset of a symbol field
+     * @return the identifier stored in the field, or null
+     */
+    private String symbolAt(int field) {
+        int symbol = data.getInt(OrderLogArchive.offset(index) + field);
+        return symbol != OrderLogArchive.NONE ? symbols.get(symbol) : null;
+    }
+}
@@ -0,0 +1,323 @@
+package com.alphatrader.rest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the two index files of an {@link OrderLogArchive}. The date index holds the smallest and
+ * largest date of every block of {@value OrderLogArchive#BLOCK_SIZE} records, the security index holds
+ * the newest record and the number of records of every security. Both files start with the number of
+ * records they cover, so an index that fell behind the data file is completed from there.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+final class OrderLogIndex {
+    /**
+     * The size of the header of the index files in bytes.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of a date index entry in bytes.
+     */
+    private static final int DATE_ENTRY_SIZE = 16;
+
+    /**
+     * The size of a security index entry in bytes.
+     */
+    private static final int SECURITY_ENTRY_SIZE = 8;
+
+    /**
+     * The date index file.
+     */
+    private final FileChannel dateChannel;
+
+    /**
+     * The security index file.
+     */
+    private final FileChannel securityChannel;
+
+    /**
+     * The smallest date of every block.
+     */
+    private long[] blockMin = new long[16];
+
+    /**
+     * The largest date of every block.
+     */
+    private long[] blockMax = new long[16];
+
+    /**
+     * The largest date of every block and all blocks before it.
+     */
+    private long[] blockMaxBefore = new long[16];
+
+    /**
+     * The number of blocks.
+     */
+    private int blocks;
+
+    /**
+     * The newest record of every security by symbol number.
+     */
+    private int[] heads = new int[0];
+
+    /**
+     * The number of records of every security by symbol number.
+     */
+    private int[] counts = new int[0];
+
+    /**
+     * @param dateChannel     the date index file
+     * @param securityChannel the security index file
+     */
+    OrderLogIndex(FileChannel dateChannel, FileChannel securityChannel) {
+        this.dateChannel = dateChannel;
+        this.securityChannel = securityChannel;
+    }
+
+    /**
+     * Empties both index files, so they are rebuilt from the data file.
+     *
+     * @throws IOException if the files cannot be truncated
+     */
+    void clear() throws IOException {
+        dateChannel.truncate(0);
+        securityChannel.truncate(0);
+    }
+
+    /**
+     * Reads the date index.
+     *
+     * @param size the number of committed records
+     * @return the number of records the date index covers
+     * @throws IOException if the index file cannot be read
+     */
+    int readDateIndex(int size) throws IOException {
+        int covered = readCovered(dateChannel, size);
+        int count = (covered + OrderLogArchive.BLOCK_SIZE - 1) / OrderLogArchive.BLOCK_SIZE;
+        if (dateChannel.size() < HEADER_SIZE + (long) count * DATE_ENTRY_SIZE) {
+            return 0;
+        }
+        ByteBuffer buffer = OrderLogArchive.read(dateChannel, HEADER_SIZE, count * DATE_ENTRY_SIZE);
+        ensureBlocks(count);
+        for (int block = 0; block < count; block++) {
+            blockMin[block] = buffer.getLong();
+            blockMax[block] = buffer.getLong();
+            blockMaxBefore[block] = Math.max(blockMax[block], block > 0 ? blockMaxBefore[block - 1]
+                : Long.MIN_VALUE);
+        }
+        blocks = count;
+        return covered;
+    }
+
+    /**
+     * Reads the security index.
+     *
+     * @param size        the number of committed records
+     * @param symbolCount the number of committed symbols
+     * @return the number of records the security index covers
+     * @throws IOException if the index file cannot be read
+     */
+    int readSecurityIndex(int size, int symbolCount) throws IOException {
+        int covered = readCovered(securityChannel, size);
+        long available = (securityChannel.size() - HEADER_SIZE) / SECURITY_ENTRY_SIZE;
+        int count = (int) Math.max(0, Math.min(symbolCount, available));
+        ensureSymbols(symbolCount);
+        ByteBuffer buffer = OrderLogArchive.read(securityChannel, HEADER_SIZE,
+            count * SECURITY_ENTRY_SIZE);
+        for (int symbol = 0; symbol < count; symbol++) {
+            heads[symbol] = buffer.getInt() - 1;
+            counts[symbol] = buffer.getInt();
+            if (heads[symbol] >= size) {
+                Arrays.fill(heads, OrderLogArchive.NONE);
+                Arrays.fill(counts, 0);
+                return 0;
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Merges records into the date index and writes the changed blocks.
+     *
+     * @param data the mapped data file
+     * @param from the first record, inclusive
+     * @param to   the last record, exclusive
+     * @throws IOException if the index file cannot be written
+     */
+    void indexDates(ByteBuffer data, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+        int firstBlock = from / OrderLogArchive.BLOCK_SIZE;
+        int lastBlock = (to - 1) / OrderLogArchive.BLOCK_SIZE;
+        ensureBlocks(lastBlock + 1);
+        for (int block = blocks; block <= lastBlock; block++) {
+            blockMin[block] = Long.MAX_VALUE;
+            blockMax[block] = Long.MIN_VALUE;
+        }
+        blocks = Math.max(blocks, lastBlock + 1);
+
+        for (int index = from; index < to; index++) {
+            int block = index / OrderLogArchive.BLOCK_SIZE;
+            long date = data.getLong(OrderLogArchive.offset(index) + OrderLogArchive.DATE);
+            blockMin[block] = Math.min(blockMin[block], date);
+            blockMax[block] = Math.max(blockMax[block], date);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((lastBlock - firstBlock + 1) * DATE_ENTRY_SIZE);
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            buffer.putLong(blockMin[block]).putLong(blockMax[block]);
+        }
+        for (int block = firstBlock; block < blocks; block++) {
+            blockMaxBefore[block] = Math.max(blockMax[block], block > 0 ? blockMaxBefore[block - 1]
+                : Long.MIN_VALUE);
+        }
+        buffer.flip();
+        OrderLogArchive.write(dateChannel, buffer, HEADER_SIZE + (long) firstBlock * DATE_ENTRY_SIZE);
+        writeCovered(dateChannel, to);
+    }
+
+    /**
+     * Merges records into the security index and writes the changed entries. Records already covered
+     * by the index are skipped, so replaying records after a crash is harmless.
+     *
+     * @param data        the mapped data file
+     * @param symbolCount the number of committed symbols
+     * @param from        the first record, inclusive
+     * @param to          the last record, exclusive
+     * @throws IOException if the index file cannot be written
+     */
+    void indexSecurities(ByteBuffer data, int symbolCount, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+        ensureSymbols(symbolCount);
+        Set<Integer> changed = new TreeSet<>();
+        for (int index = from; index < to; index++) {
+            int symbol = data.getInt(OrderLogArchive.offset(index) + OrderLogArchive.SECURITY);
+            if (symbol != OrderLogArchive.NONE && index > heads[symbol]) {
+                heads[symbol] = index;
+                counts[symbol]++;
+                changed.add(symbol);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SECURITY_ENTRY_SIZE);
+        for (int symbol : changed) {
+            buffer.clear();
+            buffer.putInt(heads[symbol] + 1).putInt(counts[symbol]);
+            buffer.flip();
+            OrderLogArchive.write(securityChannel, buffer,
+                HEADER_SIZE + (long) symbol * SECURITY_ENTRY_SIZE);
+        }
+        writeCovered(securityChannel, to);
+    }
+
+    /**
+     * Forces both index files to disk.
+     *
+     * @throws IOException if a file cannot be forced
+     */
+    void force() throws IOException {
+        dateChannel.force(false);
+        securityChannel.force(false);
+    }
+
+    /**
+     * @return the number of blocks of the date index
+     */
+    int getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @param block      a block number
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return whether the block may contain records in the date range
+     */
+    boolean overlaps(int block, long fromMillis, long toMillis) {
+        return blockMax[block] >= fromMillis && blockMin[block] < toMillis;
+    }
+
+    /**
+     * @param block a block number
+     * @return the largest date of the block and all blocks before it
+     */
+    long getMaxDateUpTo(int block) {
+        return blockMaxBefore[block];
+    }
+
+    /**
+     * @param symbol a symbol number
+     * @return the newest record of the security, or {@link OrderLogArchive#NONE}
+     */
+    int head(int symbol) {
+        return symbol < heads.length ? heads[symbol] : OrderLogArchive.NONE;
+    }
+
+    /**
+     * @param symbol a symbol number
+     * @return the number of records of the security
+     */
+    int count(int symbol) {
+        return symbol < counts.length ? counts[symbol] : 0;
+    }
+
+    /**
+     * @param channel an index file
+     * @param size    the number of committed records
+     * @return the number of records the index covers, or 0 if the index has to be rebuilt
+     * @throws IOException if the index file cannot be read
+     */
+    private static int readCovered(FileChannel channel, int size) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return 0;
+        }
+        int covered = OrderLogArchive.read(channel, 0, HEADER_SIZE).getInt();
+        return covered >= 0 && covered <= size ? covered : 0;
+    }
+
+    /**
+     * @param channel an index file
+     * @param covered the number of records the index covers
+     * @throws IOException if the index file cannot be written
+     */
+    private static void writeCovered(FileChannel channel, int covered) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.putInt(covered).putInt(0);
+        buffer.flip();
+        OrderLogArchive.write(channel, buffer, 0);
+    }
+
+    /**
+     * @param count the number of blocks the date index must hold
+     */
+    private void ensureBlocks(int count) {
+        if (count > blockMin.length) {
+            int length = Math.max(count, blockMin.length * 2);
+            blockMin = Arrays.copyOf(blockMin, length);
+            blockMax = Arrays.copyOf(blockMax, length);
+            blockMaxBefore = Arrays.copyOf(blockMaxBefore, length);
+        }
+    }
+
+    /**
+     * @param count the number of symbols the security index must hold
+     */
+    private void ensureSymbols(int count) {
+        if (count > heads.length) {
+            int length = heads.length;
+            heads = Arrays.copyOf(heads, Math.max(count, length * 2));
+            counts = Arrays.copyOf(counts, heads.length);
+            Arrays.fill(heads, length, heads.length, OrderLogArchive.NONE);
+        }
+    }
+}
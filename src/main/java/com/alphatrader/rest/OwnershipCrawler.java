@@ -0,0 +1,242 @@
+package com.alphatrader.rest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Builds the ownership graph of the market by fetching the shareholders of every listing. The requests
+ * run concurrently up to a configurable limit. The shareholders of every listing are kept between
+ * crawls, so a refresh only requests listings whose version changed, e.g. because they were traded or
+ * their number of outstanding shares changed. Listings that fail keep their previous shareholders.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OwnershipCrawler {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(OwnershipCrawler.class);
+
+    /**
+     * Requests the shareholders of a listing.
+     */
+    private final ShareholderFetcher fetcher;
+
+    /**
+     * The crawled listings by security identifier.
+     */
+    private final Map<String, CrawledListing> listings = new HashMap<>();
+
+    /**
+     * The maximum number of requests running at the same time.
+     */
+    private int parallelism = 8;
+
+    /**
+     * Returns the current version of a listing, or null if unknown.
+     */
+    private Function<String, ?> versionFunction;
+
+    /**
+     * The graph built by the last crawl.
+     */
+    private volatile OwnershipGraph graph = OwnershipGraph.EMPTY;
+
+    /**
+     * Creates a crawler that requests the shareholders from the server.
+     */
+    public OwnershipCrawler() {
+        this(Shareholder::requestShareholders);
+    }
+
+    /**
+     * Creates a crawler using the given shareholder source.
+     *
+     * @param fetcher requests the shareholders of a listing
+     */
+    OwnershipCrawler(ShareholderFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Sets the maximum number of requests running at the same time.
+     *
+     * @param parallelism the number of concurrent requests
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets the function deciding which listings have to be crawled again. Without it, every crawl
+     * requests all listings.
+     *
+     * @param versionFunction returns the current version of a listing by its security identifier, or
+     *                        null if unknown
+     */
+    public void setVersionFunction(@Nullable Function<String, ?> versionFunction) {
+        this.versionFunction = versionFunction;
+    }
+
+    /**
+     * @return the graph built by the last crawl
+     */
+    @NotNull
+    public OwnershipGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Crawls the shareholders of the given companies and rebuilds the graph. Companies crawled before
+     * but missing from the collection are dropped from the graph as held companies.
+     *
+     * @param companies the companies whose listings to crawl
+     * @return the new graph
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    @NotNull
+    public synchronized OwnershipGraph crawl(Collection<Company> companies) throws InterruptedException {
+        Map<String, String> companyBySecurity = new LinkedHashMap<>();
+        for (Company company : companies) {
+            Listing listing = company.getListing();
+            if (company.getId() != null && listing != null && listing.getSecurityIdentifier() != null) {
+                companyBySecurity.put(listing.getSecurityIdentifier(), company.getId());
+            }
+        }
+        listings.keySet().retainAll(companyBySecurity.keySet());
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        CompletionService<List<Shareholder>> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<List<Shareholder>>, String> submitted = new HashMap<>();
+        Map<String, Object> versions = new HashMap<>();
+
+        try {
+            for (Map.Entry<String, String> entry : companyBySecurity.entrySet()) {
+                String securityIdentifier = entry.getKey();
+                Object version = versionFunction != null ? versionFunction.apply(securityIdentifier)
+                    : null;
+                CrawledListing known = listings.get(securityIdentifier);
+                if (known != null && known.companyId.equals(entry.getValue()) && version != null
+                    && version.equals(known.version)) {
+                    continue;
+                }
+                versions.put(securityIdentifier, version);
+                submitted.put(completion.submit(() -> fetcher.fetch(securityIdentifier)),
+                    securityIdentifier);
+            }
+
+            for (int i = submitted.size(); i > 0; i--) {
+                Future<List<Shareholder>> future = completion.take();
+                String securityIdentifier = submitted.get(future);
+                try {
+                    listings.put(securityIdentifier, new CrawledListing(
+                        companyBySecurity.get(securityIdentifier), versions.get(securityIdentifier),
+                        future.get()));
+                }
+                catch (ExecutionException e) {
+                    log.warn("Crawling the shareholders of " + securityIdentifier + " failed: "
+                        + e.getCause().getMessage());
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        graph = build();
+        return graph;
+    }
+
+    /**
+     * Builds the graph from the crawled listings.
+     *
+     * @return the graph
+     */
+    private OwnershipGraph build() {
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        int edgeCount = 0;
+        for (CrawledListing listing : listings.values()) {
+            indexes.putIfAbsent(listing.companyId, indexes.size());
+            for (String holderId : listing.holderIds) {
+                indexes.putIfAbsent(holderId, indexes.size());
+            }
+            edgeCount += listing.holderIds.length;
+        }
+
+        int[] holder = new int[edgeCount];
+        int[] held = new int[edgeCount];
+        double[] share = new double[edgeCount];
+        int e = 0;
+        for (CrawledListing listing : listings.values()) {
+            int heldIndex = indexes.get(listing.companyId);
+            for (int i = 0; i < listing.holderIds.length; i++) {
+                holder[e] = indexes.get(listing.holderIds[i]);
+                held[e] = heldIndex;
+                share[e] = listing.shares[i];
+                e++;
+            }
+        }
+        return new OwnershipGraph(indexes.keySet().toArray(new String[0]), holder, held, share);
+    }
+
+    /**
+     * Requests the shareholders of a listing.
+     */
+    @FunctionalInterface
+    interface ShareholderFetcher {
+        /**
+         * @param securityIdentifier the security identifier of the listing
+         * @return the shareholders
+         * @throws Exception if the request fails
+         */
+        List<Shareholder> fetch(String securityIdentifier) throws Exception;
+    }
+
+    /**
+     * The shareholders of a listing as of the last crawl.
+     */
+    private static final class CrawledListing {
+        private final String companyId;
+        private final Object version;
+        private final String[] holderIds;
+        private final double[] shares;
+
+        private CrawledListing(String companyId, Object version, List<Shareholder> shareholders) {
+            this.companyId = companyId;
+            this.version = version;
+
+            List<String> ids = new ArrayList<>(shareholders.size());
+            double[] percentages = new double[shareholders.size()];
+            for (Shareholder shareholder : shareholders) {
+                if (shareholder.getCompany() == null || shareholder.getCompany().getId() == null) {
+                    continue;
+                }
+                percentages[ids.size()] = shareOf(shareholder);
+                ids.add(shareholder.getCompany().getId());
+            }
+            this.holderIds = ids.toArray(new String[0]);
+            this.shares = Arrays.copyOf(percentages, ids.size());
+        }
+
+        /**
+         * @param shareholder the shareholder
+         * @return the share held in percent, computed from the share counts if not sent
+         */
+        private static double shareOf(Shareholder shareholder) {
+            if (shareholder.getShareInPercent() != null && shareholder.getShareInPercent() > 0) {
+                return shareholder.getShareInPercent();
+            }
+            Long outstanding = shareholder.getOutstandingShares();
+            Long held = shareholder.getNumberOfShares();
+            return outstanding != null && held != null && outstanding > 0 ? 100.0 * held / outstanding
+                : 0.0;
+        }
+    }
+}
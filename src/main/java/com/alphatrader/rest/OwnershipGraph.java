@@ -0,0 +1,350 @@
+package com.alphatrader.rest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of which companies hold shares in which other companies. Companies are mapped to
+ * int indexes once, and both directions of the graph are stored as compressed adjacency arrays: for
+ * every company the offsets into one shared array of the companies it holds, and into one of the
+ * companies holding it. Traversals only touch primitive arrays.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class OwnershipGraph {
+    /**
+     * A graph without companies.
+     */
+    static final OwnershipGraph EMPTY = new OwnershipGraph(new String[0], new int[0], new int[0],
+        new double[0]);
+
+    /**
+     * The share in percent above which a holder controls a company.
+     */
+    private static final double CONTROL_THRESHOLD = 50.0;
+
+    /**
+     * The company ids by index.
+     */
+    private final String[] companyIds;
+
+    /**
+     * The indexes by company id.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * The start of the holdings of every company in {@link #holdings}; one element longer than the
+     * number of companies.
+     */
+    private final int[] holdingOffsets;
+
+    /**
+     * The companies held, grouped by holder.
+     */
+    private final int[] holdings;
+
+    /**
+     * The start of the holders of every company in {@link #holders}; one element longer than the
+     * number of companies.
+     */
+    private final int[] holderOffsets;
+
+    /**
+     * The holding companies, grouped by the company held.
+     */
+    private final int[] holders;
+
+    /**
+     * The share in percent of every entry in {@link #holders}.
+     */
+    private final double[] holderShares;
+
+    /**
+     * Builds a graph from a list of edges.
+     *
+     * @param companyIds the company ids by index
+     * @param holder     the index of the holding company of every edge
+     * @param held       the index of the company held of every edge
+     * @param share      the share in percent of every edge
+     */
+    OwnershipGraph(String[] companyIds, int[] holder, int[] held, double[] share) {
+        int count = companyIds.length;
+        this.companyIds = companyIds;
+        this.indexes = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            indexes.put(companyIds[i], i);
+        }
+
+        holdingOffsets = new int[count + 1];
+        holderOffsets = new int[count + 1];
+        for (int e = 0; e < holder.length; e++) {
+            holdingOffsets[holder[e] + 1]++;
+            holderOffsets[held[e] + 1]++;
+        }
+        for (int i = 0; i < count; i++) {
+            holdingOffsets[i + 1] += holdingOffsets[i];
+            holderOffsets[i + 1] += holderOffsets[i];
+        }
+
+        holdings = new int[holder.length];
+        holders = new int[holder.length];
+        holderShares = new double[holder.length];
+        int[] holdingFill = Arrays.copyOf(holdingOffsets, count);
+        int[] holderFill = Arrays.copyOf(holderOffsets, count);
+        for (int e = 0; e < holder.length; e++) {
+            holdings[holdingFill[holder[e]]++] = held[e];
+            int position = holderFill[held[e]]++;
+            holders[position] = holder[e];
+            holderShares[position] = share[e];
+        }
+    }
+
+    /**
+     * @return the number of companies in the graph
+     */
+    @PublicAPI
+    public int size() {
+        return companyIds.length;
+    }
+
+    /**
+     * @return the number of holdings in the graph
+     */
+    @PublicAPI
+    public int getEdgeCount() {
+        return holdings.length;
+    }
+
+    /**
+     * @param companyId the company id
+     * @return true if the company is part of the graph
+     */
+    @PublicAPI
+    public boolean contains(String companyId) {
+        return indexes.containsKey(companyId);
+    }
+
+    /**
+     * @param companyId the company id
+     * @return the ids of the companies directly holding shares in the company
+     */
+    @PublicAPI
+    @NotNull
+    public List<String> getHolders(String companyId) {
+        Integer node = indexes.get(companyId);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return ids(holders, holderOffsets[node], holderOffsets[node + 1]);
+    }
+
+    /**
+     * @param companyId the company id
+     * @return the ids of the companies the company directly holds shares in
+     */
+    @PublicAPI
+    @NotNull
+    public List<String> getHoldings(String companyId) {
+        Integer node = indexes.get(companyId);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return ids(holdings, holdingOffsets[node], holdingOffsets[node + 1]);
+    }
+
+    /**
+     * @param holderId the id of the holding company
+     * @param heldId   the id of the company held
+     * @return the share in percent the holder directly holds, 0 if none
+     */
+    @PublicAPI
+    public double getShare(String holderId, String heldId) {
+        Integer holder = indexes.get(holderId);
+        Integer held = indexes.get(heldId);
+        if (holder == null || held == null) {
+            return 0.0;
+        }
+        for (int e = holderOffsets[held]; e < holderOffsets[held + 1]; e++) {
+            if (holders[e] == holder) {
+                return holderShares[e];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Checks whether a company holds shares in another one, directly or through other companies.
+     *
+     * @param holderId the id of the holding company
+     * @param heldId   the id of the company held
+     * @return true if there is a chain of holdings from the holder to the held company
+     */
+    @PublicAPI
+    public boolean isReachable(String holderId, String heldId) {
+        Integer start = indexes.get(holderId);
+        Integer target = indexes.get(heldId);
+        if (start == null || target == null) {
+            return false;
+        }
+
+        boolean[] visited = new boolean[companyIds.length];
+        int[] queue = new int[companyIds.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = holdingOffsets[node]; e < holdingOffsets[node + 1]; e++) {
+                int next = holdings[e];
+                if (next == target) {
+                    return true;
+                }
+                if (!visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Follows the chain of controlling holders, i.e. holders of more than half of the shares, up to the
+     * company at the top. The chain stops when it runs into a cycle.
+     *
+     * @param companyId the company id
+     * @return the id of the ultimate controlling company, which is the company itself if it has no
+     * controlling holder, or null if the company is not part of the graph
+     */
+    @PublicAPI
+    @Nullable
+    public String getUltimateOwner(String companyId) {
+        Integer start = indexes.get(companyId);
+        if (start == null) {
+            return null;
+        }
+
+        boolean[] visited = new boolean[companyIds.length];
+        int node = start;
+        visited[node] = true;
+        while (true) {
+            int controller = -1;
+            for (int e = holderOffsets[node]; e < holderOffsets[node + 1]; e++) {
+                if (holderShares[e] > CONTROL_THRESHOLD) {
+                    controller = holders[e];
+                    break;
+                }
+            }
+            if (controller < 0 || visited[controller]) {
+                return companyIds[node];
+            }
+            visited[controller] = true;
+            node = controller;
+        }
+    }
+
+    /**
+     * Finds all groups of companies that hold shares in each other, directly or through a chain of
+     * holdings. A company holding its own shares forms a group of its own.
+     *
+     * @return the groups of company ids
+     */
+    @PublicAPI
+    @NotNull
+    public List<List<String>> getCycles() {
+        int count = companyIds.length;
+        int[] order = new int[count];
+        Arrays.fill(order, -1);
+        int[] low = new int[count];
+        boolean[] onStack = new boolean[count];
+        int[] stack = new int[count];
+        int[] callStack = new int[count];
+        int[] nextEdge = new int[count];
+        int stackSize = 0;
+        int counter = 0;
+        List<List<String>> cycles = new ArrayList<>();
+
+        for (int root = 0; root < count; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            order[root] = counter;
+            low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            nextEdge[root] = holdingOffsets[root];
+
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                if (nextEdge[node] < holdingOffsets[node + 1]) {
+                    int next = holdings[nextEdge[node]++];
+                    if (order[next] < 0) {
+                        order[next] = counter;
+                        low[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        nextEdge[next] = holdingOffsets[next];
+                        callStack[depth++] = next;
+                    }
+                    else if (onStack[next]) {
+                        low[node] = Math.min(low[node], order[next]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+                if (low[node] == order[node]) {
+                    List<String> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component.add(companyIds[member]);
+                    } while (member != node);
+                    if (component.size() > 1 || holdsItself(node)) {
+                        cycles.add(component);
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * @param node the index of a company
+     * @return true if the company holds its own shares
+     */
+    private boolean holdsItself(int node) {
+        for (int e = holdingOffsets[node]; e < holdingOffsets[node + 1]; e++) {
+            if (holdings[e] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param nodes the adjacency array
+     * @param from  the first index, inclusive
+     * @param to    the last index, exclusive
+     * @return the company ids of the given range
+     */
+    private List<String> ids(int[] nodes, int from, int to) {
+        List<String> result = new ArrayList<>(to - from);
+        for (int e = from; e < to; e++) {
+            result.add(companyIds[nodes[e]]);
+        }
+        return result;
+    }
+}
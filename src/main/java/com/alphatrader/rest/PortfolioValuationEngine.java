@@ -0,0 +1,404 @@
+package com.alphatrader.rest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Marks many portfolios to market against live prices. The engine keeps the positions of every
+ * securities account and indexes them by security identifier. A price change only touches the positions
+ * in that security: each one takes the new price, every affected account sums the values of its
+ * positions again, and the new valuation of every affected account is published. Summing instead of
+ * adjusting by the difference keeps rounding errors from building up on long-lived accounts. An update
+ * costs O(positions of the affected accounts) no matter how many portfolios are tracked.
+ * <p>
+ * Valuations are computed under the lock of the engine, but published after it is released, on the
+ * thread that made the change. A slow listener therefore does not stall other updates, and a listener
+ * may call back into the engine. Valuations of concurrent updates may reach the listeners in any order.
+ * <p>
+ * A position is valued as its number of shares times the last price, the same way the server computes
+ * the position volume.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PortfolioValuationEngine {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(PortfolioValuationEngine.class);
+
+    /**
+     * The tracked accounts by securities account id.
+     */
+    private final Map<String, Account> accounts = new HashMap<>();
+
+    /**
+     * The holdings of all accounts by security identifier.
+     */
+    private final Map<String, Set<Holding>> holdingsBySecurity = new HashMap<>();
+
+    /**
+     * The registered listeners.
+     */
+    private final List<Consumer<Valuation>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener that is called with every changed valuation.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Consumer<Valuation> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Consumer<Valuation> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts tracking a portfolio or replaces the tracked state of the account with it. Positions are
+     * valued at the last price they carry. Several positions in the same security are merged into one
+     * holding valued at the price of the last of them.
+     *
+     * @param securitiesAccountId the securities account id
+     * @param portfolio           the portfolio
+     * @return the valuation of the portfolio
+     */
+    @NotNull
+    public Valuation setPortfolio(String securitiesAccountId, Portfolio portfolio) {
+        Valuation valuation;
+        synchronized (this) {
+            valuation = track(securitiesAccountId, portfolio);
+        }
+        publish(Collections.singletonList(valuation));
+        return valuation;
+    }
+
+    /**
+     * Stops tracking a portfolio.
+     *
+     * @param securitiesAccountId the securities account id
+     */
+    public synchronized void removePortfolio(String securitiesAccountId) {
+        unindex(accounts.remove(securitiesAccountId));
+    }
+
+    /**
+     * Updates the cash of a tracked account.
+     *
+     * @param securitiesAccountId the securities account id
+     * @param cash                the available cash
+     * @param committedCash       the cash committed to open orders
+     * @return the new valuation, or null if the account is not tracked
+     */
+    @Nullable
+    public Valuation updateCash(String securitiesAccountId, double cash, double committedCash) {
+        Valuation valuation;
+        synchronized (this) {
+            Account account = accounts.get(securitiesAccountId);
+            if (account == null) {
+                return null;
+            }
+            account.cash = cash;
+            account.committedCash = committedCash;
+            valuation = account.valuation();
+        }
+        publish(Collections.singletonList(valuation));
+        return valuation;
+    }
+
+    /**
+     * Revalues all positions in a security at a new price.
+     *
+     * @param securityIdentifier the security identifier
+     * @param price              the new price
+     * @return the new valuations of all affected accounts
+     */
+    @NotNull
+    public List<Valuation> updatePrice(String securityIdentifier, double price) {
+        List<Valuation> valuations;
+        synchronized (this) {
+            valuations = revalue(securityIdentifier, price);
+        }
+        publish(valuations);
+        return valuations;
+    }
+
+    /**
+     * Revalues all positions in a security at the last price of a spread.
+     *
+     * @param securityIdentifier the security identifier of the spread
+     * @param priceSpread        the new price spread
+     * @return the new valuations of all affected accounts
+     */
+    @NotNull
+    public List<Valuation> updatePrice(String securityIdentifier, PriceSpread priceSpread) {
+        LastPrice lastPrice = priceSpread.getLastPrice();
+        if (lastPrice == null) {
+            return Collections.emptyList();
+        }
+        return updatePrice(securityIdentifier, lastPrice.getValueAsDouble());
+    }
+
+    /**
+     * @param securitiesAccountId the securities account id
+     * @return the current valuation, or null if the account is not tracked
+     */
+    @Nullable
+    public synchronized Valuation getValuation(String securitiesAccountId) {
+        Account account = accounts.get(securitiesAccountId);
+        return account != null ? account.valuation() : null;
+    }
+
+    /**
+     * @return the number of tracked portfolios
+     */
+    public synchronized int size() {
+        return accounts.size();
+    }
+
+    /**
+     * Replaces the tracked state of an account with a portfolio.
+     *
+     * @param securitiesAccountId the securities account id
+     * @param portfolio           the portfolio
+     * @return the valuation of the portfolio
+     */
+    private Valuation track(String securitiesAccountId, Portfolio portfolio) {
+        unindex(accounts.remove(securitiesAccountId));
+
+        Account account = new Account(securitiesAccountId, valueOf(portfolio.getCash()),
+            valueOf(portfolio.getCommittedCash()));
+        for (Position position : portfolio.getPositions()) {
+            if (position.getSecurityIdentifier() == null || position.getNumberOfShares() == null) {
+                continue;
+            }
+            LastPrice lastPrice = position.getLastPrice();
+            Holding holding = account.holdings.get(position.getSecurityIdentifier());
+            if (holding == null) {
+                holding = new Holding(account);
+                account.holdings.put(position.getSecurityIdentifier(), holding);
+                holdingsBySecurity.computeIfAbsent(position.getSecurityIdentifier(),
+                    key -> new HashSet<>()).add(holding);
+            }
+            holding.shares += position.getNumberOfShares();
+            holding.price = lastPrice != null ? lastPrice.getValueAsDouble() : 0.0;
+        }
+        account.revalue();
+        accounts.put(securitiesAccountId, account);
+        return account.valuation();
+    }
+
+    /**
+     * Sets the price of all positions in a security and values the affected accounts again.
+     *
+     * @param securityIdentifier the security identifier
+     * @param price              the new price
+     * @return the new valuations of all affected accounts
+     */
+    private List<Valuation> revalue(String securityIdentifier, double price) {
+        Set<Holding> holdings = holdingsBySecurity.get(securityIdentifier);
+        if (holdings == null || Double.isNaN(price)) {
+            return Collections.emptyList();
+        }
+
+        Set<Account> affected = new LinkedHashSet<>();
+        for (Holding holding : holdings) {
+            if (holding.price != price) {
+                holding.price = price;
+                affected.add(holding.account);
+            }
+        }
+
+        List<Valuation> valuations = new ArrayList<>(affected.size());
+        for (Account account : affected) {
+            account.revalue();
+            valuations.add(account.valuation());
+        }
+        return valuations;
+    }
+
+    /**
+     * Removes the holdings of an account from the security index.
+     *
+     * @param account the account, may be null
+     */
+    private void unindex(@Nullable Account account) {
+        if (account == null) {
+            return;
+        }
+        for (Map.Entry<String, Holding> entry : account.holdings.entrySet()) {
+            Set<Holding> holdings = holdingsBySecurity.get(entry.getKey());
+            holdings.remove(entry.getValue());
+            if (holdings.isEmpty()) {
+                holdingsBySecurity.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Hands the valuations to all listeners.
+     *
+     * @param valuations the changed valuations
+     */
+    private void publish(List<Valuation> valuations) {
+        for (Valuation valuation : valuations) {
+            for (Consumer<Valuation> listener : listeners) {
+                try {
+                    listener.accept(valuation);
+                }
+                catch (RuntimeException e) {
+                    log.error("Valuation listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param value a possibly missing amount
+     * @return the amount or 0
+     */
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    /**
+     * The tracked state of a securities account.
+     */
+    private static final class Account {
+        private final String securitiesAccountId;
+        private final Map<String, Holding> holdings = new HashMap<>();
+        private double cash;
+        private double committedCash;
+        private double marketValue;
+
+        private Account(String securitiesAccountId, double cash, double committedCash) {
+            this.securitiesAccountId = securitiesAccountId;
+            this.cash = cash;
+            this.committedCash = committedCash;
+        }
+
+        private void revalue() {
+            double sum = 0;
+            for (Holding holding : holdings.values()) {
+                sum += holding.value();
+            }
+            marketValue = sum;
+        }
+
+        private Valuation valuation() {
+            return new Valuation(securitiesAccountId, cash, committedCash, marketValue);
+        }
+    }
+
+    /**
+     * A position of an account at the price it is currently valued at.
+     */
+    private static final class Holding {
+        private final Account account;
+        private long shares;
+        private double price;
+
+        private Holding(Account account) {
+            this.account = account;
+        }
+
+        private double value() {
+            return shares * price;
+        }
+    }
+
+    /**
+     * The valuation of a portfolio at a point in time.
+     */
+    public static final class Valuation {
+        /**
+         * The securities account id.
+         */
+        private final String securitiesAccountId;
+
+        /**
+         * The available cash.
+         */
+        private final double cash;
+
+        /**
+         * The cash committed to open orders.
+         */
+        private final double committedCash;
+
+        /**
+         * The market value of all positions.
+         */
+        private final double marketValue;
+
+        private Valuation(String securitiesAccountId, double cash, double committedCash,
+                          double marketValue) {
+            this.securitiesAccountId = securitiesAccountId;
+            this.cash = cash;
+            this.committedCash = committedCash;
+            this.marketValue = marketValue;
+        }
+
+        /**
+         * @return the securities account id
+         */
+        @PublicAPI
+        public String getSecuritiesAccountId() {
+            return securitiesAccountId;
+        }
+
+        /**
+         * @return the available cash
+         */
+        @PublicAPI
+        public double getCash() {
+            return cash;
+        }
+
+        /**
+         * @return the cash committed to open orders
+         */
+        @PublicAPI
+        public double getCommittedCash() {
+            return committedCash;
+        }
+
+        /**
+         * @return the market value of all positions
+         */
+        @PublicAPI
+        public double getMarketValue() {
+            return marketValue;
+        }
+
+        /**
+         * @return the sum of cash, committed cash and market value
+         */
+        @PublicAPI
+        public double getTotalValue() {
+            return cash + committedCash + marketValue;
+        }
+
+        @Override
+        public String toString() {
+            return "Valuation{"
+                + "securitiesAccountId='" + securitiesAccountId + '\''
+                + ", cash=" + cash
+                + ", committedCash=" + committedCash
+                + ", marketValue=" + marketValue
+                + '}';
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.alphatrader.rest;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import javafx.beans.property.*;
 
+import java.io.IOException;
+
 /**
  * Represents a single portfolio position in the game.
  *
@@ -142,4 +147,70 @@ public class Position {
         result = 31 * result + (volume.getValue() != null ? volume.getValue().hashCode() : 0);
         return result;
     }
+
+    /**
+     * Streaming gson adapter for portfolio positions.
+     */
+    static final class GsonAdapter extends TypeAdapter<Position> {
+        /**
+         * The adapter used for the nested last price.
+         */
+        private final TypeAdapter<LastPrice> lastPriceAdapter;
+
+        /**
+         * @param lastPriceAdapter the adapter used for the nested last price
+         */
+        GsonAdapter(TypeAdapter<LastPrice> lastPriceAdapter) {
+            this.lastPriceAdapter = lastPriceAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, Position position) throws IOException {
+            if (position == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("securityIdentifier").value(position.securityIdentifier.getValue());
+            out.name("lastPrice");
+            lastPriceAdapter.write(out, position.lastPrice.getValue());
+            out.name("numberOfShares").value(position.numberOfShares.get());
+            out.name("volume").value(position.volume.get());
+            out.endObject();
+        }
+
+        @Override
+        public Position read(JsonReader in) throws IOException {
+            if (ModelTypeAdapterFactory.skipNull(in)) {
+                return null;
+            }
+
+            Position position = new Position();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (ModelTypeAdapterFactory.skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "securityIdentifier":
+                        position.securityIdentifier.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "lastPrice":
+                        position.lastPrice.setValue(lastPriceAdapter.read(in));
+                        break;
+                    case "numberOfShares":
+                        position.numberOfShares.set(in.nextLong());
+                        break;
+                    case "volume":
+                        position.volume.set(in.nextDouble());
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return position;
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the price histories of many securities as {@link PriceSeries}. The first refresh of a security
+ * loads its history from the given start date. Every later refresh only requests the prices from the
+ * newest held date on and merges them into the series.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PriceHistoryStore {
+    /**
+     * Fetches the prices of a security from a date on.
+     */
+    private final BiFunction<String, ZonedDateTime, List<LastPrice>> fetcher;
+
+    /**
+     * The date the first refresh of a security loads the history from.
+     */
+    private final ZonedDateTime startDate;
+
+    /**
+     * The series by security identifier.
+     */
+    private final Map<String, PriceSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store that requests the prices from the server.
+     *
+     * @param startDate the date the first refresh of a security loads the history from
+     */
+    public PriceHistoryStore(ZonedDateTime startDate) {
+        this(SecurityPrice::getSecurityPricesUncached, startDate);
+    }
+
+    /**
+     * Creates a store using the given price source.
+     *
+     * @param fetcher   fetches the prices of a security from a date on
+     * @param startDate the date the first refresh of a security loads the history from
+     */
+    PriceHistoryStore(BiFunction<String, ZonedDateTime, List<LastPrice>> fetcher,
+                      ZonedDateTime startDate) {
+        this.fetcher = fetcher;
+        this.startDate = startDate;
+    }
+
+    /**
+     * Fetches the new prices of a security and merges them into its series. The series stays readable
+     * while the request is running.
+     *
+     * @param securityIdentifier the security identifier
+     * @return the number of points added
+     */
+    public int refresh(String securityIdentifier) {
+        PriceSeries prices = series.computeIfAbsent(securityIdentifier, PriceSeries::new);
+        long newest = prices.getNewestDateMillis();
+        ZonedDateTime from = newest == Timestamps.NONE ? startDate : Timestamps.toZonedDateTime(newest);
+        return prices.merge(fetcher.apply(securityIdentifier, from));
+    }
+
+    /**
+     * Refreshes all securities held.
+     *
+     * @return the number of points added
+     */
+    public int refreshAll() {
+        int added = 0;
+        for (String securityIdentifier : series.keySet()) {
+            added += refresh(securityIdentifier);
+        }
+        return added;
+    }
+
+    /**
+     * Adds a single price, e.g. from a price spread, without a request. A price without a date is
+     * dropped.
+     *
+     * @param securityIdentifier the security identifier
+     * @param lastPrice          the price
+     */
+    public void append(String securityIdentifier, LastPrice lastPrice) {
+        if (lastPrice.getDateMillis() == Timestamps.NONE) {
+            return;
+        }
+        series.computeIfAbsent(securityIdentifier, PriceSeries::new).append(lastPrice.getDateMillis(),
+            lastPrice.getValueAsDouble());
+    }
+
+    /**
+     * @param securityIdentifier the security identifier
+     * @return the series of the security, or null if it has never been refreshed
+     */
+    @Nullable
+    public PriceSeries get(String securityIdentifier) {
+        return series.get(securityIdentifier);
+    }
+
+    /**
+     * @return the identifiers of all securities held
+     */
+    @NotNull
+    public Set<String> getSecurityIdentifiers() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    /**
+     * Drops the series of a security.
+     *
+     * @param securityIdentifier the security identifier
+     */
+    public void remove(String securityIdentifier) {
+        series.remove(securityIdentifier);
+    }
+}
@@ -0,0 +1,85 @@
+package com.alphatrader.rest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One side of an order book aggregated into price levels. Prices are distinct and sorted ascending, and
+ * the sizes are the summed number of shares of all orders at the price. Both are kept in primitive
+ * arrays.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+final class PriceLevels {
+    /**
+     * Empty levels.
+     */
+    static final PriceLevels EMPTY = new PriceLevels(new double[0], new long[0]);
+
+    /**
+     * The distinct prices in ascending order.
+     */
+    final double[] prices;
+
+    /**
+     * The number of shares at each price.
+     */
+    final long[] sizes;
+
+    /**
+     * @param prices the distinct prices in ascending order
+     * @param sizes  the number of shares at each price
+     */
+    private PriceLevels(double[] prices, long[] sizes) {
+        this.prices = prices;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Aggregates orders into price levels. Orders without price or shares are ignored.
+     *
+     * @param orders the orders of one side of the book, in any order
+     * @return the price levels
+     */
+    static PriceLevels aggregate(List<Order> orders) {
+        double[] orderPrices = new double[orders.size()];
+        long[] orderSizes = new long[orders.size()];
+        int count = 0;
+        for (Order order : orders) {
+            if (order == null || order.getPrice() == null || order.getNumberOfShares() == null
+                || order.getNumberOfShares() <= 0) {
+                continue;
+            }
+            orderPrices[count] = order.getPrice();
+            orderSizes[count] = order.getNumberOfShares();
+            count++;
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        double[] sorted = Arrays.copyOf(orderPrices, count);
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+
+        double[] prices = Arrays.copyOf(sorted, distinct);
+        long[] sizes = new long[distinct];
+        for (int i = 0; i < count; i++) {
+            sizes[Arrays.binarySearch(prices, orderPrices[i])] += orderSizes[i];
+        }
+        return new PriceLevels(prices, sizes);
+    }
+
+    /**
+     * @return the number of price levels
+     */
+    int size() {
+        return prices.length;
+    }
+}
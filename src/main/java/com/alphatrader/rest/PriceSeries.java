@@ -0,0 +1,381 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The price history of a single security, stored in columns: the dates as unix timestamps in
+ * milliseconds in one primitive array, the prices in another. A point costs 16 bytes instead of a
+ * {@link LastPrice} object with its properties. The points are ordered by date and at most one point is
+ * kept per date, so ranges and as-of lookups are found by binary search.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PriceSeries {
+    /**
+     * The identifier of the security.
+     */
+    private final String securityIdentifier;
+
+    /**
+     * The dates of the points in ascending order.
+     */
+    private long[] dates;
+
+    /**
+     * The prices of the points.
+     */
+    private double[] values;
+
+    /**
+     * The number of points.
+     */
+    private int size;
+
+    /**
+     * Creates an empty series.
+     *
+     * @param securityIdentifier the identifier of the security
+     */
+    public PriceSeries(String securityIdentifier) {
+        this(securityIdentifier, new long[16], new double[16], 0);
+    }
+
+    /**
+     * Creates a series from ordered columns.
+     *
+     * @param securityIdentifier the identifier of the security
+     * @param dates              the dates in strictly ascending order
+     * @param values             the prices
+     * @param size               the number of points
+     */
+    private PriceSeries(String securityIdentifier, long[] dates, double[] values, int size) {
+        this.securityIdentifier = securityIdentifier;
+        this.dates = dates;
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * @return the identifier of the security
+     */
+    @PublicAPI
+    public String getSecurityIdentifier() {
+        return securityIdentifier;
+    }
+
+    /**
+     * Adds a point. A point at a date already held replaces the held price. Points are appended in
+     * constant time if they are newer than all held points.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @param value      the price
+     */
+    @PublicAPI
+    public synchronized void append(long dateMillis, double value) {
+        if (size > 0 && dateMillis <= dates[size - 1]) {
+            int index = lowerBound(dateMillis);
+            if (dates[index] == dateMillis) {
+                values[index] = value;
+                return;
+            }
+            ensureCapacity(size + 1);
+            System.arraycopy(dates, index, dates, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            dates[index] = dateMillis;
+            values[index] = value;
+            size++;
+            return;
+        }
+        ensureCapacity(size + 1);
+        dates[size] = dateMillis;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Merges fetched prices into the series, e.g. the result of
+     * {@link SecurityPrice#getSecurityPrices(String, java.time.ZonedDateTime)}. Prices at dates already
+     * held replace the held prices and prices without a date are dropped. The merge takes time linear in
+     * the size of the series and the prices.
+     *
+     * @param prices the prices in any order
+     * @return the number of points added
+     */
+    @PublicAPI
+    public synchronized int merge(List<LastPrice> prices) {
+        long[] newDates = new long[prices.size()];
+        double[] newValues = new double[newDates.length];
+        int count = 0;
+        boolean ordered = true;
+        for (LastPrice price : prices) {
+            long date = price.getDateMillis();
+            if (date == Timestamps.NONE) {
+                continue;
+            }
+            newDates[count] = date;
+            newValues[count] = price.getValueAsDouble();
+            ordered &= count == 0 || newDates[count - 1] <= date;
+            count++;
+        }
+        if (count < newDates.length) {
+            newDates = Arrays.copyOf(newDates, count);
+            newValues = Arrays.copyOf(newValues, count);
+        }
+        if (!ordered) {
+            sort(newDates, newValues);
+        }
+
+        int before = size;
+        if (count > 0 && (size == 0 || newDates[0] > dates[size - 1])) {
+            ensureCapacity(size + count);
+            for (int i = 0; i < count; i++) {
+                if (i + 1 < count && newDates[i + 1] == newDates[i]) {
+                    continue;
+                }
+                dates[size] = newDates[i];
+                values[size] = newValues[i];
+                size++;
+            }
+            return size - before;
+        }
+
+        long[] mergedDates = new long[Math.max(16, size + count)];
+        double[] mergedValues = new double[mergedDates.length];
+        int merged = 0;
+        int held = 0;
+        int added = 0;
+        while (held < size || added < count) {
+            long date;
+            double value;
+            if (added == count || (held < size && dates[held] < newDates[added])) {
+                date = dates[held];
+                value = values[held++];
+            }
+            else {
+                if (held < size && dates[held] == newDates[added]) {
+                    held++;
+                }
+                date = newDates[added];
+                value = newValues[added++];
+            }
+            if (merged > 0 && mergedDates[merged - 1] == date) {
+                mergedValues[merged - 1] = value;
+            }
+            else {
+                mergedDates[merged] = date;
+                mergedValues[merged++] = value;
+            }
+        }
+        dates = mergedDates;
+        values = mergedValues;
+        size = merged;
+        return size - before;
+    }
+
+    /**
+     * @return the number of points
+     */
+    @PublicAPI
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of the point, 0 being the oldest
+     * @return the date of the point as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public synchronized long getDateMillis(int index) {
+        checkIndex(index);
+        return dates[index];
+    }
+
+    /**
+     * @param index the index of the point, 0 being the oldest
+     * @return the price of the point
+     */
+    @PublicAPI
+    public synchronized double getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * @return the date of the newest point as unix timestamp in milliseconds, or
+     * {@link Timestamps#NONE} if the series is empty
+     */
+    @PublicAPI
+    public synchronized long getNewestDateMillis() {
+        return size > 0 ? dates[size - 1] : Timestamps.NONE;
+    }
+
+    /**
+     * Returns the price that was valid at the given date, i.e. the price of the newest point at or
+     * before the date.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @return the price, or NaN if the series has no point at or before the date
+     */
+    @PublicAPI
+    public synchronized double getValueAt(long dateMillis) {
+        int index = upperBound(dateMillis) - 1;
+        return index >= 0 ? values[index] : Double.NaN;
+    }
+
+    /**
+     * Returns the points in the given time range.
+     *
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, exclusive
+     * @return a new series holding a copy of the points
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized PriceSeries getRange(long fromMillis, long toMillis) {
+        int from = lowerBound(fromMillis);
+        int to = Math.max(from, lowerBound(toMillis));
+        return new PriceSeries(securityIdentifier, Arrays.copyOfRange(dates, from, to),
+            Arrays.copyOfRange(values, from, to), to - from);
+    }
+
+    /**
+     * Reduces the series to one point per bucket of the given length, e.g. one point per hour for a
+     * chart. Each bucket is represented by its last price, dated at the start of the bucket. Buckets
+     * are aligned to multiples of their length since the epoch, and empty buckets are left out.
+     *
+     * @param bucketMillis the length of a bucket in milliseconds
+     * @return a new series with at most one point per bucket
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized PriceSeries downsample(long bucketMillis) {
+        if (bucketMillis < 1) {
+            throw new IllegalArgumentException("Bucket length must be positive: " + bucketMillis);
+        }
+        long[] bucketDates = new long[Math.max(1, size)];
+        double[] bucketValues = new double[bucketDates.length];
+        int buckets = 0;
+        for (int i = 0; i < size; i++) {
+            long bucket = Math.floorDiv(dates[i], bucketMillis) * bucketMillis;
+            if (buckets == 0 || bucketDates[buckets - 1] != bucket) {
+                bucketDates[buckets++] = bucket;
+            }
+            bucketValues[buckets - 1] = values[i];
+        }
+        return new PriceSeries(securityIdentifier, bucketDates, bucketValues, buckets);
+    }
+
+    /**
+     * @return a copy of the dates of all points as unix timestamps in milliseconds
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized long[] getDates() {
+        return Arrays.copyOf(dates, size);
+    }
+
+    /**
+     * @return a copy of the prices of all points
+     */
+    @PublicAPI
+    @NotNull
+    public synchronized double[] getValues() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PriceSeries{"
+            + "securityIdentifier='" + securityIdentifier + '\''
+            + ", size=" + size
+            + '}';
+    }
+
+    /**
+     * @param date a unix timestamp in milliseconds
+     * @return the index of the first point at or after the given date
+     */
+    private int lowerBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < date) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param date a unix timestamp in milliseconds
+     * @return the index of the first point after the given date
+     */
+    private int upperBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] <= date) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Grows the columns to hold at least the given number of points.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > dates.length) {
+            int newCapacity = Math.max(capacity, dates.length * 2);
+            dates = Arrays.copyOf(dates, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+    }
+
+    /**
+     * @param index the index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Sorts two parallel columns by date. Equal dates keep their order, so the later of two prices at
+     * the same date wins when merging.
+     *
+     * @param dates  the dates
+     * @param values the prices
+     */
+    private static void sort(long[] dates, double[] values) {
+        Integer[] order = new Integer[dates.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(dates[a], dates[b]));
+        long[] sortedDates = new long[dates.length];
+        double[] sortedValues = new double[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedDates[i] = dates[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        System.arraycopy(sortedDates, 0, dates, 0, dates.length);
+        System.arraycopy(sortedValues, 0, values, 0, values.length);
+    }
+}
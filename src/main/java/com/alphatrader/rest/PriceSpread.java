@@ -99,6 +99,19 @@ public class PriceSpread {
         return Http.getSingleObjectFromApi(PriceSpread.class, "/api/pricespreads/" + securityIdentifier);
     }
 
+    /**
+     * Fetches the price spread of the listing with the given security identifier, bypassing the response
+     * cache.
+     *
+     * @param securityIdentifier the security identifier or the listing
+     * @return the price spread of the listing
+     */
+    @Nullable
+    static PriceSpread getPriceSpreadUncached(String securityIdentifier) {
+        return Http.getSingleObjectFromApiUncached(PriceSpread.class, "/api/pricespreads/"
+            + securityIdentifier);
+    }
+
     /**
      * @return the current ask size
      */
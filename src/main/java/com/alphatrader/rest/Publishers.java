@@ -0,0 +1,193 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.flow.OverflowPolicy;
+import com.alphatrader.rest.flow.PollingPublisher;
+import javafx.util.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Creates publishers for the data of the game that changes over time. Snapshot streams like price
+ * spreads and order books emit the current snapshot on every poll, log streams only emit new entries.
+ * Every publisher has to be started with
+ * {@link PollingPublisher#start(long, java.util.concurrent.TimeUnit)}.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class Publishers {
+    /**
+     * Private constructor to avoid utility class instantiation.
+     */
+    private Publishers() {
+    }
+
+    /**
+     * @param securityIdentifier the security identifier of the listing
+     * @param bufferSize         the capacity of every subscriber buffer
+     * @param overflowPolicy     what a full subscriber buffer does with a new item
+     * @return a publisher of the current price spread of the listing
+     */
+    @NotNull
+    public static PollingPublisher<PriceSpread> priceSpreads(String securityIdentifier, int bufferSize,
+                                                             OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(
+            snapshot(() -> PriceSpread.getPriceSpreadUncached(securityIdentifier)),
+            bufferSize, overflowPolicy);
+    }
+
+    /**
+     * @param securityIdentifier the security identifier of the listing
+     * @param bufferSize         the capacity of every subscriber buffer
+     * @param overflowPolicy     what a full subscriber buffer does with a new item
+     * @return a publisher of the current order book of the listing
+     */
+    @NotNull
+    public static PollingPublisher<OrderBook> orderBooks(String securityIdentifier, int bufferSize,
+                                                         OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(snapshot(() -> OrderBook.getOrderBookUncached(securityIdentifier)),
+            bufferSize, overflowPolicy);
+    }
+
+    /**
+     * @param startDate      the date to start publishing from
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     * @param params         additional search parameters, e.g. a security identifier
+     * @return a publisher of new security order logs, in date order
+     */
+    @SafeVarargs
+    @NotNull
+    public static PollingPublisher<SecurityOrderLog> securityOrderLogs(
+        ZonedDateTime startDate, int bufferSize, OverflowPolicy overflowPolicy,
+        Pair<SecurityOrderLog.SearchType, String>... params) {
+        return new PollingPublisher<>(new SecurityOrderLogTailer(startDate, params)::poll, bufferSize,
+            overflowPolicy);
+    }
+
+    /**
+     * @param startDate      the date to start publishing from
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     * @return a publisher of new non-persistent events in the game, in date order
+     */
+    @NotNull
+    public static PollingPublisher<Event> events(ZonedDateTime startDate, int bufferSize,
+                                                 OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(EventSubscriptionService.forAllEvents(startDate)::poll, bufferSize,
+            overflowPolicy);
+    }
+
+    /**
+     * @param startDate      the date to start publishing from
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     * @return a publisher of new non-persistent events of the logged-in user, in date order
+     */
+    @NotNull
+    public static PollingPublisher<Event> userEvents(ZonedDateTime startDate, int bufferSize,
+                                                     OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(EventSubscriptionService.forUserEvents(startDate)::poll,
+            bufferSize, overflowPolicy);
+    }
+
+    /**
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     * @return a publisher of new notifications of the logged-in user, in date order
+     */
+    @NotNull
+    public static PollingPublisher<Notification> notifications(int bufferSize,
+                                                               OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(new NotificationFeed(Notification::getNotificationsUncached),
+            bufferSize, overflowPolicy);
+    }
+
+    /**
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     * @return a publisher of new messages in all chats of the logged-in user
+     */
+    @NotNull
+    public static PollingPublisher<ChatMessage> chatMessages(int bufferSize,
+                                                             OverflowPolicy overflowPolicy) {
+        return new PollingPublisher<>(new ChatSync()::syncAll, bufferSize, overflowPolicy);
+    }
+
+    /**
+     * Turns a snapshot request into a source of at most one item.
+     *
+     * @param request requests the current snapshot
+     * @param <T>     the type of snapshot
+     * @return the source
+     */
+    private static <T> Supplier<List<T>> snapshot(Supplier<T> request) {
+        return () -> {
+            T snapshot = request.get();
+            return snapshot == null ? Collections.emptyList() : Collections.singletonList(snapshot);
+        };
+    }
+
+    /**
+     * Returns the notifications that have not been returned before. The server sends all notifications
+     * on every request, so a high-water mark on the date and the ids at the mark are kept.
+     */
+    static final class NotificationFeed implements Supplier<List<Notification>> {
+        /**
+         * Orders notifications by date.
+         */
+        private static final Comparator<Notification> BY_DATE =
+            Comparator.comparing(Notification::getDate);
+
+        /**
+         * Fetches all notifications.
+         */
+        private final Supplier<List<Notification>> fetcher;
+
+        /**
+         * The date of the newest returned notification as unix timestamp in milliseconds.
+         */
+        private long watermark = Long.MIN_VALUE;
+
+        /**
+         * The ids of all returned notifications dated exactly at the watermark.
+         */
+        private final Set<String> idsAtWatermark = new HashSet<>();
+
+        /**
+         * @param fetcher fetches all notifications
+         */
+        NotificationFeed(Supplier<List<Notification>> fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public synchronized List<Notification> get() {
+            List<Notification> fresh = new ArrayList<>();
+            for (Notification notification : fetcher.get()) {
+                if (notification.getDate() == null) {
+                    continue;
+                }
+                long date = notification.getDate().toInstant().toEpochMilli();
+                if (date > watermark
+                    || (date == watermark && !idsAtWatermark.contains(notification.getId()))) {
+                    fresh.add(notification);
+                }
+            }
+            fresh.sort(BY_DATE);
+
+            for (Notification notification : fresh) {
+                long date = notification.getDate().toInstant().toEpochMilli();
+                if (date > watermark) {
+                    watermark = date;
+                    idsAtWatermark.clear();
+                }
+                idsAtWatermark.add(notification.getId());
+            }
+            return fresh;
+        }
+    }
+}
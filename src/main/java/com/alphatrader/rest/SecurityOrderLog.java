@@ -1,10 +1,16 @@
 package com.alphatrader.rest;
 
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.mashape.unirest.http.exceptions.UnirestException;
 import javafx.beans.property.*;
 import javafx.util.Pair;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -49,9 +55,14 @@ public class SecurityOrderLog {
     private final DoubleProperty price = new SimpleDoubleProperty();
 
     /**
-     * The date.
+     * The date. Kept as unix timestamp in milliseconds.
      */
-    private final ObjectProperty<ZonedDateTime> date = new SimpleObjectProperty<>();
+    private long dateMillis = Timestamps.NONE;
+
+    /**
+     * The date property, created from the timestamp on first access.
+     */
+    private ObjectProperty<ZonedDateTime> date;
 
     /**
      * The unique id.
@@ -80,6 +91,56 @@ public class SecurityOrderLog {
     @SafeVarargs
     public static List<SecurityOrderLog> searchLogs(ZonedDateTime startDate, ZonedDateTime endDate,
                                                     Pair<SearchType, String>... params) {
+        return getMultipleLogsFromApi(buildSearchSuffix(startDate, endDate, params));
+    }
+
+    /**
+     * Searches for all security order logs matching the given search parameters, bypassing the response
+     * cache. Used by components that poll the logs repeatedly.
+     *
+     * @param startDate the lower date boundary for the search
+     * @param endDate   the upper date boundary for the search
+     * @param params    the list of search parameters
+     * @return the search result list
+     */
+    @NotNull
+    @SafeVarargs
+    static List<SecurityOrderLog> searchLogsUncached(ZonedDateTime startDate, ZonedDateTime endDate,
+                                                     Pair<SearchType, String>... params) {
+        return Http.getMultipleObjectFromApiUncached(SecurityOrderLog.class, "/api/securityorderlogs"
+            + buildSearchSuffix(startDate, endDate, params));
+    }
+
+    /**
+     * Searches for all security order logs matching the given search parameters, bypassing the response
+     * cache and reporting failures to the caller.
+     *
+     * @param startDate the lower date boundary for the search
+     * @param endDate   the upper date boundary for the search
+     * @param params    the list of search parameters
+     * @return the search result list
+     * @throws UnirestException if the request fails
+     */
+    @NotNull
+    @SafeVarargs
+    static List<SecurityOrderLog> requestLogs(ZonedDateTime startDate, ZonedDateTime endDate,
+                                              Pair<SearchType, String>... params) throws UnirestException {
+        return Http.requestMultipleObjectsFromApi(SecurityOrderLog.class, "/api/securityorderlogs"
+            + buildSearchSuffix(startDate, endDate, params));
+    }
+
+    /**
+     * Builds the query string for a log search.
+     *
+     * @param startDate the lower date boundary for the search
+     * @param endDate   the upper date boundary for the search
+     * @param params    the list of search parameters
+     * @return the url suffix
+     */
+    @NotNull
+    @SafeVarargs
+    private static String buildSearchSuffix(ZonedDateTime startDate, ZonedDateTime endDate,
+                                            Pair<SearchType, String>... params) {
         String suffix = "";
 
         if (startDate != null || endDate != null || (params != null && params.length > 0)) {
@@ -106,7 +167,7 @@ public class SecurityOrderLog {
             ).collect(Collectors.toList()));
         }
 
-        return getMultipleLogsFromApi(suffix);
+        return suffix;
     }
 
     /**
@@ -174,7 +235,15 @@ public class SecurityOrderLog {
      */
     @PublicAPI
     public ZonedDateTime getDate() {
-        return date.getValue();
+        return dateProperty().getValue();
+    }
+
+    /**
+     * @return the date the order was placed as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public long getDateMillis() {
+        return dateMillis;
     }
 
     /**
@@ -238,6 +307,9 @@ public class SecurityOrderLog {
      */
     @PublicAPI
     public ReadOnlyObjectProperty<ZonedDateTime> dateProperty() {
+        if (date == null) {
+            date = new SimpleObjectProperty<>(Timestamps.toZonedDateTime(dateMillis));
+        }
         return date;
     }
 
@@ -258,7 +330,7 @@ public class SecurityOrderLog {
             + ", volume=" + volume.getValue()
             + ", securityIdentifier='" + securityIdentifier.getValue() + '\''
             + ", price=" + price.getValue()
-            + ", date=" + date
+            + ", date=" + getDate()
             + ", id='" + id.getValue() + '\''
             + '}';
     }
@@ -283,6 +355,45 @@ public class SecurityOrderLog {
         return id.getValue() != null ? id.getValue().hashCode() : 0;
     }
 
+    /**
+     * Creates a security order log from stored values, e.g. when reading an {@link OrderLogArchive}. The
+     * accounts and trade figures are set with {@link #setParties(String, String)} and
+     * {@link #setTrade(double, double, double)}.
+     *
+     * @param id                 the unique id
+     * @param securityIdentifier the security identifier
+     * @param dateMillis         the date as unix timestamp in milliseconds
+     * @return the security order log
+     */
+    @NotNull
+    static SecurityOrderLog create(String id, String securityIdentifier, long dateMillis) {
+        SecurityOrderLog log = new SecurityOrderLog();
+        log.id.setValue(id);
+        log.securityIdentifier.setValue(securityIdentifier);
+        log.dateMillis = dateMillis;
+        return log;
+    }
+
+    /**
+     * @param buyer  the buyer securities account id
+     * @param seller the seller securities account id
+     */
+    void setParties(String buyer, String seller) {
+        buyerSecuritiesAccount.setValue(buyer);
+        sellerSecuritiesAccount.setValue(seller);
+    }
+
+    /**
+     * @param shares      the number of shares
+     * @param orderPrice  the price
+     * @param orderVolume the volume
+     */
+    void setTrade(double shares, double orderPrice, double orderVolume) {
+        numberOfShares.set(shares);
+        price.set(orderPrice);
+        volume.set(orderVolume);
+    }
+
     /**
      * The property you want to look for.
      */
@@ -311,4 +422,74 @@ public class SecurityOrderLog {
             return text;
         }
     }
+
+    /**
+     * Streaming gson adapter for security order logs.
+     */
+    static final class GsonAdapter extends TypeAdapter<SecurityOrderLog> {
+        @Override
+        public void write(JsonWriter out, SecurityOrderLog log) throws IOException {
+            if (log == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("buyerSecuritiesAccount").value(log.buyerSecuritiesAccount.getValue());
+            out.name("sellerSecuritiesAccount").value(log.sellerSecuritiesAccount.getValue());
+            out.name("numberOfShares").value(log.numberOfShares.get());
+            out.name("volume").value(log.volume.get());
+            out.name("securityIdentifier").value(log.securityIdentifier.getValue());
+            out.name("price").value(log.price.get());
+            out.name("date");
+            ModelTypeAdapterFactory.writeDate(out, log.dateMillis);
+            out.name("id").value(log.id.getValue());
+            out.endObject();
+        }
+
+        @Override
+        public SecurityOrderLog read(JsonReader in) throws IOException {
+            if (ModelTypeAdapterFactory.skipNull(in)) {
+                return null;
+            }
+
+            SecurityOrderLog log = new SecurityOrderLog();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (ModelTypeAdapterFactory.skipNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "buyerSecuritiesAccount":
+                        log.buyerSecuritiesAccount.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "sellerSecuritiesAccount":
+                        log.sellerSecuritiesAccount.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "numberOfShares":
+                        log.numberOfShares.set(in.nextDouble());
+                        break;
+                    case "volume":
+                        log.volume.set(in.nextDouble());
+                        break;
+                    case "securityIdentifier":
+                        log.securityIdentifier.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    case "price":
+                        log.price.set(in.nextDouble());
+                        break;
+                    case "date":
+                        log.dateMillis = in.nextLong();
+                        break;
+                    case "id":
+                        log.id.setValue(ModelTypeAdapterFactory.readIdentifier(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return log;
+        }
+    }
 }
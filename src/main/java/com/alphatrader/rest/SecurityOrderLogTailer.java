@@ -0,0 +1,175 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Schedulers;
+import com.alphatrader.rest.util.Timestamps;
+import javafx.util.Pair;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Follows the security order logs of the game. The tailer keeps a high-water mark on the log date and
+ * only requests logs from that date on. Logs at the edge of the window that have already been delivered
+ * are dropped by their id, so every trade reaches the registered listeners exactly once and in date
+ * order. Only the ids at the current high-water mark are remembered, which keeps the memory bounded.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SecurityOrderLogTailer {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(SecurityOrderLogTailer.class);
+
+    /**
+     * Orders logs by date, breaking ties by id.
+     */
+    private static final Comparator<SecurityOrderLog> BY_DATE = Comparator
+        .comparingLong(SecurityOrderLog::getDateMillis)
+        .thenComparing(SecurityOrderLog::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Fetches all logs from the given date on.
+     */
+    private final Function<ZonedDateTime, List<SecurityOrderLog>> fetcher;
+
+    /**
+     * The registered listeners.
+     */
+    private final List<Consumer<SecurityOrderLog>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The date of the newest delivered log as unix timestamp in milliseconds.
+     */
+    private long watermark;
+
+    /**
+     * The ids of all delivered logs dated exactly at the watermark.
+     */
+    private final Set<String> idsAtWatermark = new HashSet<>();
+
+    /**
+     * The executor running the scheduled polls, if started.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a tailer that follows all logs matching the given search parameters, starting at the given
+     * date.
+     *
+     * @param startDate the date to start following from
+     * @param params    additional search parameters, e.g. a security identifier
+     */
+    @SafeVarargs
+    public SecurityOrderLogTailer(ZonedDateTime startDate,
+                                  Pair<SecurityOrderLog.SearchType, String>... params) {
+        this(from -> SecurityOrderLog.searchLogsUncached(from, null, params), startDate);
+    }
+
+    /**
+     * Creates a tailer using the given log source.
+     *
+     * @param fetcher   fetches all logs from the given date on
+     * @param startDate the date to start following from
+     */
+    SecurityOrderLogTailer(Function<ZonedDateTime, List<SecurityOrderLog>> fetcher,
+                           ZonedDateTime startDate) {
+        this.fetcher = fetcher;
+        this.watermark = startDate.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Registers a listener that is called for every new trade.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Consumer<SecurityOrderLog> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Consumer<SecurityOrderLog> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return the date of the newest delivered trade, or the start date if none was delivered yet
+     */
+    public ZonedDateTime getWatermark() {
+        return Timestamps.toZonedDateTime(watermark);
+    }
+
+    /**
+     * Requests all logs newer than the high-water mark and delivers the new ones to the listeners.
+     *
+     * @return the new trades, in date order
+     */
+    @NotNull
+    public synchronized List<SecurityOrderLog> poll() {
+        List<SecurityOrderLog> fresh = new ArrayList<>();
+
+        for (SecurityOrderLog orderLog : fetcher.apply(Timestamps.toZonedDateTime(watermark))) {
+            long date = orderLog.getDateMillis();
+            if (date > watermark || (date == watermark && !idsAtWatermark.contains(orderLog.getId()))) {
+                fresh.add(orderLog);
+            }
+        }
+        fresh.sort(BY_DATE);
+
+        for (SecurityOrderLog orderLog : fresh) {
+            if (orderLog.getDateMillis() > watermark) {
+                watermark = orderLog.getDateMillis();
+                idsAtWatermark.clear();
+            }
+            idsAtWatermark.add(orderLog.getId());
+            for (Consumer<SecurityOrderLog> listener : listeners) {
+                try {
+                    listener.accept(orderLog);
+                }
+                catch (RuntimeException e) {
+                    log.error("Security order log listener failed: " + e.getMessage());
+                }
+            }
+        }
+
+        return fresh;
+    }
+
+    /**
+     * Starts polling on the given schedule in a daemon thread. A failing poll is logged and the next one
+     * runs as scheduled. Does nothing if the tailer is already running.
+     *
+     * @param period the delay between the end of one poll and the start of the next
+     * @param unit   the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executor == null) {
+            executor = Schedulers.newDaemonScheduler("security-order-log-tailer");
+            executor.scheduleWithFixedDelay(Schedulers.logFailures("Security order log poll",
+                this::poll), 0, period, unit);
+        }
+    }
+
+    /**
+     * Stops polling.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
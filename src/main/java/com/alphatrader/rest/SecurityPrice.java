@@ -44,6 +44,21 @@ public final class SecurityPrice {
             + startDate.toInstant().toEpochMilli());
     }
 
+    /**
+     * Fetches all prices for the given company from the given date on, bypassing the response cache.
+     *
+     * @param securityIdentifier the securityIdentifier
+     * @param startDate          the lower date boundary
+     * @return the list of prices
+     */
+    @NotNull
+    static List<LastPrice> getSecurityPricesUncached(String securityIdentifier,
+                                                     ZonedDateTime startDate) {
+        return Http.getMultipleObjectFromApiUncached(LastPrice.class, "/api/securityPrices/"
+            + "?securityIdentifier=" + securityIdentifier + "&startDate="
+            + startDate.toInstant().toEpochMilli());
+    }
+
     /**
      * Fetches all prices for the given company.
      *
@@ -0,0 +1,192 @@
+package com.alphatrader.rest;
+
+import com.mashape.unirest.http.exceptions.UnirestException;
+import javafx.beans.property.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents the holding of a company in a listing.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class Shareholder {
+    /**
+     * The company holding the shares.
+     */
+    private final ObjectProperty<Company> company = new SimpleObjectProperty<>();
+
+    /**
+     * The security identifier of the listing held.
+     */
+    private final StringProperty securityIdentifier = new SimpleStringProperty();
+
+    /**
+     * The number of shares held.
+     */
+    private final LongProperty numberOfShares = new SimpleLongProperty();
+
+    /**
+     * The number of outstanding shares of the listing.
+     */
+    private final LongProperty outstandingShares = new SimpleLongProperty();
+
+    /**
+     * The share of the listing held, in percent.
+     */
+    private final DoubleProperty shareInPercent = new SimpleDoubleProperty();
+
+    /**
+     * Fetches all shareholders of the listing with the given security identifier.
+     *
+     * @param securityIdentifier the security identifier of the listing
+     * @return the shareholders of the listing
+     */
+    @PublicAPI
+    @NotNull
+    public static List<Shareholder> getShareholders(String securityIdentifier) {
+        return Http.getMultipleObjectFromApi(Shareholder.class, "/api/shareholders/"
+            + securityIdentifier);
+    }
+
+    /**
+     * Requests all shareholders of the listing with the given security identifier, bypassing the
+     * response cache. Failures are thrown.
+     *
+     * @param securityIdentifier the security identifier of the listing
+     * @return the shareholders of the listing
+     * @throws UnirestException if the request fails
+     */
+    @NotNull
+    static List<Shareholder> requestShareholders(String securityIdentifier) throws UnirestException {
+        return Http.requestMultipleObjectsFromApi(Shareholder.class, "/api/shareholders/"
+            + securityIdentifier);
+    }
+
+    /**
+     * @return the company holding the shares
+     */
+    @PublicAPI
+    public Company getCompany() {
+        return company.getValue();
+    }
+
+    /**
+     * @return the security identifier of the listing held
+     */
+    @PublicAPI
+    public String getSecurityIdentifier() {
+        return securityIdentifier.getValue();
+    }
+
+    /**
+     * @return the number of shares held
+     */
+    @PublicAPI
+    public Long getNumberOfShares() {
+        return numberOfShares.getValue();
+    }
+
+    /**
+     * @return the number of outstanding shares of the listing
+     */
+    @PublicAPI
+    public Long getOutstandingShares() {
+        return outstandingShares.getValue();
+    }
+
+    /**
+     * @return the share of the listing held, in percent
+     */
+    @PublicAPI
+    public Double getShareInPercent() {
+        return shareInPercent.getValue();
+    }
+
+    /**
+     * @return the company property.
+     */
+    @PublicAPI
+    public ReadOnlyObjectProperty<Company> companyProperty() {
+        return company;
+    }
+
+    /**
+     * @return the security identifier property.
+     */
+    @PublicAPI
+    public ReadOnlyStringProperty securityIdentifierProperty() {
+        return securityIdentifier;
+    }
+
+    /**
+     * @return the number of shares property.
+     */
+    @PublicAPI
+    public ReadOnlyLongProperty numberOfSharesProperty() {
+        return numberOfShares;
+    }
+
+    /**
+     * @return the outstanding shares property.
+     */
+    @PublicAPI
+    public ReadOnlyLongProperty outstandingSharesProperty() {
+        return outstandingShares;
+    }
+
+    /**
+     * @return the share in percent property.
+     */
+    @PublicAPI
+    public ReadOnlyDoubleProperty shareInPercentProperty() {
+        return shareInPercent;
+    }
+
+    @Override
+    public String toString() {
+        return "Shareholder{"
+            + "company=" + company.getValue()
+            + ", securityIdentifier='" + securityIdentifier.getValue() + '\''
+            + ", numberOfShares=" + numberOfShares.getValue()
+            + ", outstandingShares=" + outstandingShares.getValue()
+            + ", shareInPercent=" + shareInPercent.getValue()
+            + '}';
+    }
+
+    @SuppressWarnings("SimplifiableIfStatement")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        Shareholder that = (Shareholder) o;
+
+        if (company.getValue() != null ? !company.getValue().equals(that.company.getValue())
+            : that.company.getValue() != null) {
+            return false;
+        }
+        if (securityIdentifier.getValue() != null ? !securityIdentifier.getValue().equals(
+            that.securityIdentifier.getValue()) : that.securityIdentifier.getValue() != null) {
+            return false;
+        }
+        return numberOfShares.getValue() != null ? numberOfShares.getValue().equals(
+            that.numberOfShares.getValue()) : that.numberOfShares.getValue() == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = company.getValue() != null ? company.getValue().hashCode() : 0;
+        result = 31 * result + (securityIdentifier.getValue() != null ? securityIdentifier.getValue()
+            .hashCode() : 0);
+        result = 31 * result + (numberOfShares.getValue() != null ? numberOfShares.getValue().hashCode()
+            : 0);
+        return result;
+    }
+}
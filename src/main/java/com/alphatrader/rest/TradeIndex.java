@@ -0,0 +1,408 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.SecurityOrderLog.SearchType;
+import javafx.util.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory index over loaded security order logs, e.g. the result of
+ * {@link SecurityOrderLog#searchLogs(ZonedDateTime, ZonedDateTime, Pair[])}. The logs are kept sorted by
+ * date next to a primitive array of their dates, so date ranges are found by binary search. For every
+ * security identifier, buyer and seller securities account the index keeps a postings list of the
+ * positions of the matching logs in ascending order. Searches combining several parameters intersect the
+ * postings lists, starting with the shortest one, instead of scanning the logs.
+ * <p>
+ * Logs can be added at any time. Logs newer than all indexed logs are appended in constant time, older
+ * logs cause the index to be rebuilt. Logs with an id that is already indexed are ignored. The index
+ * accepts security order logs and can be registered directly as listener of a
+ * {@link SecurityOrderLogTailer}.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class TradeIndex implements Consumer<SecurityOrderLog> {
+    /**
+     * Orders logs by date.
+     */
+    private static final Comparator<SecurityOrderLog> BY_DATE =
+        Comparator.comparingLong(SecurityOrderLog::getDateMillis);
+
+    /**
+     * The logs in ascending date order.
+     */
+    private SecurityOrderLog[] logs = new SecurityOrderLog[16];
+
+    /**
+     * The dates of the logs as unix timestamps in milliseconds.
+     */
+    private long[] dates = new long[16];
+
+    /**
+     * The number of logs.
+     */
+    private int size;
+
+    /**
+     * The ids of all indexed logs.
+     */
+    private final Set<String> ids = new HashSet<>();
+
+    /**
+     * The postings lists by security identifier.
+     */
+    private final Map<String, Postings> bySecurity = new HashMap<>();
+
+    /**
+     * The postings lists by buyer securities account id.
+     */
+    private final Map<String, Postings> byBuyer = new HashMap<>();
+
+    /**
+     * The postings lists by seller securities account id.
+     */
+    private final Map<String, Postings> bySeller = new HashMap<>();
+
+    /**
+     * Adds a security order log.
+     *
+     * @param orderLog the security order log
+     */
+    @Override
+    public void accept(SecurityOrderLog orderLog) {
+        add(orderLog);
+    }
+
+    /**
+     * Adds a security order log.
+     *
+     * @param orderLog the security order log
+     * @return false if a log with the same id is already indexed
+     */
+    @PublicAPI
+    public boolean add(SecurityOrderLog orderLog) {
+        return addAll(Collections.singletonList(orderLog)) > 0;
+    }
+
+    /**
+     * Adds security order logs.
+     *
+     * @param orderLogs the security order logs in any order
+     * @return the number of logs added
+     */
+    @PublicAPI
+    public synchronized int addAll(Collection<SecurityOrderLog> orderLogs) {
+        List<SecurityOrderLog> fresh = new ArrayList<>(orderLogs.size());
+        for (SecurityOrderLog orderLog : orderLogs) {
+            if (orderLog.getId() == null || ids.add(orderLog.getId())) {
+                fresh.add(orderLog);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        fresh.sort(BY_DATE);
+
+        if (size == 0 || fresh.get(0).getDateMillis() >= dates[size - 1]) {
+            ensureCapacity(size + fresh.size());
+            for (SecurityOrderLog orderLog : fresh) {
+                append(orderLog);
+            }
+            return fresh.size();
+        }
+
+        SecurityOrderLog[] held = Arrays.copyOf(logs, size);
+        logs = new SecurityOrderLog[Math.max(16, size + fresh.size())];
+        dates = new long[logs.length];
+        size = 0;
+        bySecurity.clear();
+        byBuyer.clear();
+        bySeller.clear();
+        int oldIndex = 0;
+        int newIndex = 0;
+        while (oldIndex < held.length || newIndex < fresh.size()) {
+            if (newIndex == fresh.size() || (oldIndex < held.length
+                && held[oldIndex].getDateMillis() <= fresh.get(newIndex).getDateMillis())) {
+                append(held[oldIndex++]);
+            }
+            else {
+                append(fresh.get(newIndex++));
+            }
+        }
+        return fresh.size();
+    }
+
+    /**
+     * @return the number of indexed logs
+     */
+    @PublicAPI
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Searches for all indexed logs matching the given search parameters, like
+     * {@link SecurityOrderLog#searchLogs(ZonedDateTime, ZonedDateTime, Pair[])} does on the server.
+     *
+     * @param startDate the lower date boundary, inclusive, or null
+     * @param endDate   the upper date boundary, inclusive, or null
+     * @param params    the list of search parameters
+     * @return the matching logs in ascending date order
+     */
+    @PublicAPI
+    @NotNull
+    @SafeVarargs
+    public final List<SecurityOrderLog> search(ZonedDateTime startDate, ZonedDateTime endDate,
+                                               Pair<SearchType, String>... params) {
+        return search(startDate != null ? startDate.toInstant().toEpochMilli() : Long.MIN_VALUE,
+            endDate != null ? endDate.toInstant().toEpochMilli() : Long.MAX_VALUE, params);
+    }
+
+    /**
+     * Searches for all indexed logs matching the given search parameters.
+     *
+     * @param fromMillis the lower date boundary as unix timestamp in milliseconds, inclusive
+     * @param toMillis   the upper date boundary as unix timestamp in milliseconds, inclusive
+     * @param params     the list of search parameters
+     * @return the matching logs in ascending date order
+     */
+    @PublicAPI
+    @NotNull
+    @SafeVarargs
+    public final synchronized List<SecurityOrderLog> search(long fromMillis, long toMillis,
+                                                            Pair<SearchType, String>... params) {
+        int[] positions = match(fromMillis, toMillis, parameters(params));
+        List<SecurityOrderLog> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(logs[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the indexed logs matching the given search parameters.
+     *
+     * @param fromMillis the lower date boundary as unix timestamp in milliseconds, inclusive
+     * @param toMillis   the upper date boundary as unix timestamp in milliseconds, inclusive
+     * @param params     the list of search parameters
+     * @return the number of matching logs
+     */
+    @PublicAPI
+    @SafeVarargs
+    public final synchronized int count(long fromMillis, long toMillis,
+                                        Pair<SearchType, String>... params) {
+        return match(fromMillis, toMillis, parameters(params)).length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TradeIndex{"
+            + "size=" + size
+            + ", securities=" + bySecurity.size()
+            + '}';
+    }
+
+    /**
+     * Finds the positions of the logs matching the given search parameters.
+     *
+     * @param fromMillis the lower date boundary, inclusive
+     * @param toMillis   the upper date boundary, inclusive
+     * @param params     the list of search parameters
+     * @return the positions in ascending order
+     */
+    private int[] match(long fromMillis, long toMillis, List<Pair<SearchType, String>> params) {
+        long lower = fromMillis;
+        long upper = toMillis;
+        List<Postings> lists = new ArrayList<>();
+        for (Pair<SearchType, String> param : params) {
+            switch (param.getKey()) {
+                case START_DATE:
+                    lower = Math.max(lower, Long.parseLong(param.getValue()));
+                    break;
+                case END_DATE:
+                    upper = Math.min(upper, Long.parseLong(param.getValue()));
+                    break;
+                default:
+                    Postings postings = postings(param.getKey()).get(param.getValue());
+                    if (postings == null) {
+                        return new int[0];
+                    }
+                    lists.add(postings);
+            }
+        }
+
+        int from = lowerBound(lower);
+        int to = upper == Long.MAX_VALUE ? size : lowerBound(upper + 1);
+        if (from >= to) {
+            return new int[0];
+        }
+        if (lists.isEmpty()) {
+            int[] positions = new int[to - from];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = from + i;
+            }
+            return positions;
+        }
+
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        Postings shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        int[] result = new int[Math.min(shortest.size, to - from)];
+        int found = 0;
+        for (int i = shortest.advance(0, from); i < shortest.size; i++) {
+            int candidate = shortest.positions[i];
+            if (candidate >= to) {
+                break;
+            }
+            boolean matches = true;
+            for (int list = 1; list < lists.size() && matches; list++) {
+                Postings other = lists.get(list);
+                cursors[list] = other.advance(cursors[list], candidate);
+                matches = cursors[list] < other.size && other.positions[cursors[list]] == candidate;
+            }
+            if (matches) {
+                result[found++] = candidate;
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Copies search parameters into a list, so the generic varargs array does not escape.
+     *
+     * @param params the search parameters, may be null
+     * @return the search parameters
+     */
+    @SafeVarargs
+    private static List<Pair<SearchType, String>> parameters(Pair<SearchType, String>... params) {
+        List<Pair<SearchType, String>> list = new ArrayList<>();
+        if (params != null) {
+            for (Pair<SearchType, String> param : params) {
+                list.add(param);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @param type a search parameter type
+     * @return the postings lists for the type
+     */
+    private Map<String, Postings> postings(SearchType type) {
+        switch (type) {
+            case SECURITY_IDENTIFIER:
+                return bySecurity;
+            case BUYER_SECURITIES_ACCOUNT_ID:
+                return byBuyer;
+            case SELLER_SECURITIES_ACCOUNT_ID:
+                return bySeller;
+            default:
+                throw new IllegalArgumentException("Unsupported search parameter: " + type);
+        }
+    }
+
+    /**
+     * Appends a log that is not older than the newest one.
+     *
+     * @param orderLog the log
+     */
+    private void append(SecurityOrderLog orderLog) {
+        ensureCapacity(size + 1);
+        logs[size] = orderLog;
+        dates[size] = orderLog.getDateMillis();
+        post(bySecurity, orderLog.getSecurityIdentifier(), size);
+        post(byBuyer, orderLog.getBuyerSecuritiesAccount(), size);
+        post(bySeller, orderLog.getSellerSecuritiesAccount(), size);
+        size++;
+    }
+
+    /**
+     * @param date a unix timestamp in milliseconds
+     * @return the position of the first log at or after the given date
+     */
+    private int lowerBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < date) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param capacity the number of logs the arrays must hold
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > logs.length) {
+            int newCapacity = Math.max(capacity, logs.length * 2);
+            logs = Arrays.copyOf(logs, newCapacity);
+            dates = Arrays.copyOf(dates, newCapacity);
+        }
+    }
+
+    /**
+     * Adds a position to the postings list of a key.
+     *
+     * @param lists    the postings lists
+     * @param key      the key, ignored if null
+     * @param position the position
+     */
+    private static void post(Map<String, Postings> lists, String key, int position) {
+        if (key != null) {
+            lists.computeIfAbsent(key, k -> new Postings()).add(position);
+        }
+    }
+
+    /**
+     * The positions of the logs sharing a key, in ascending order.
+     */
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        private void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        /**
+         * Gallops forward to the first entry not smaller than the target.
+         *
+         * @param from   the index to start from
+         * @param target the position to look for
+         * @return the index of the first entry at or after from that is at least the target, or size
+         */
+        private int advance(int from, int target) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && positions[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (positions[middle] < target) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
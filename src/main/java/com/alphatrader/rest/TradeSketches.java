@@ -0,0 +1,203 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.sketch.SlidingHeavyHitters;
+import com.alphatrader.rest.sketch.SlidingQuantiles;
+import com.alphatrader.rest.util.Timestamps;
+import javafx.util.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps approximate statistics of the trades of a sliding window in bounded memory: the most traded
+ * securities, the most active securities accounts and quantiles of trade sizes and prices. Every trade
+ * is added in constant time and the statistics are answered from sketches without keeping the trades, so
+ * the window can cover hours of the full trade stream.
+ * <p>
+ * The window follows the dates of the trades, trades older than the window are ignored. Use
+ * {@link #advanceTo(long)} to let the window move on when no trades arrive. Sketches with the same
+ * window can be merged, e.g. to combine the statistics of several tailers. The sketches accept security
+ * order logs and can be registered directly as listener of a {@link SecurityOrderLogTailer}.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class TradeSketches implements Consumer<SecurityOrderLog> {
+    /**
+     * The number of keys tracked per pane.
+     */
+    private static final int CAPACITY = 100;
+
+    /**
+     * The number of rows of the frequency sketches.
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * The number of counters per row of the frequency sketches.
+     */
+    private static final int WIDTH = 1024;
+
+    /**
+     * The relative accuracy of the quantile estimates.
+     */
+    private static final double ACCURACY = 0.01;
+
+    /**
+     * The number of trades by security identifier.
+     */
+    private final SlidingHeavyHitters securities;
+
+    /**
+     * The number of trades by buyer or seller securities account.
+     */
+    private final SlidingHeavyHitters accounts;
+
+    /**
+     * The number of shares per trade.
+     */
+    private final SlidingQuantiles shares;
+
+    /**
+     * The prices of the trades.
+     */
+    private final SlidingQuantiles prices;
+
+    /**
+     * Creates empty sketches.
+     *
+     * @param window the length of the window
+     * @param panes  the number of panes the window is split into, the window moves in steps of one pane
+     */
+    public TradeSketches(Duration window, int panes) {
+        this.securities = new SlidingHeavyHitters(window, panes, CAPACITY, DEPTH, WIDTH);
+        this.accounts = new SlidingHeavyHitters(window, panes, CAPACITY, DEPTH, WIDTH);
+        this.shares = new SlidingQuantiles(window, panes, ACCURACY);
+        this.prices = new SlidingQuantiles(window, panes, ACCURACY);
+    }
+
+    /**
+     * Adds a trade.
+     *
+     * @param orderLog the security order log of the trade
+     */
+    @Override
+    public void accept(SecurityOrderLog orderLog) {
+        add(orderLog);
+    }
+
+    /**
+     * Adds a trade.
+     *
+     * @param orderLog the security order log of the trade
+     * @return false if the trade has no date or is older than the window
+     */
+    @PublicAPI
+    public synchronized boolean add(SecurityOrderLog orderLog) {
+        long date = orderLog.getDateMillis();
+        if (date == Timestamps.NONE) {
+            return false;
+        }
+        if (orderLog.getSecurityIdentifier() != null
+            && !securities.add(orderLog.getSecurityIdentifier(), date, 1)) {
+            return false;
+        }
+        if (orderLog.getBuyerSecuritiesAccount() != null) {
+            accounts.add(orderLog.getBuyerSecuritiesAccount(), date, 1);
+        }
+        if (orderLog.getSellerSecuritiesAccount() != null) {
+            accounts.add(orderLog.getSellerSecuritiesAccount(), date, 1);
+        }
+        if (orderLog.getNumberOfShares() != null) {
+            shares.add(orderLog.getNumberOfShares(), date);
+        }
+        if (orderLog.getPrice() != null) {
+            prices.add(orderLog.getPrice(), date);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the window forward, e.g. to the current time when no new trades arrive.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     */
+    @PublicAPI
+    public synchronized void advanceTo(long dateMillis) {
+        securities.advanceTo(dateMillis);
+        accounts.advanceTo(dateMillis);
+        shares.advanceTo(dateMillis);
+        prices.advanceTo(dateMillis);
+    }
+
+    /**
+     * Returns the most traded securities of the window.
+     *
+     * @param count the number of securities
+     * @return the security identifiers and their estimated number of trades, the most traded first
+     */
+    @NotNull
+    @PublicAPI
+    public List<Pair<String, Long>> getTopSecurities(int count) {
+        return securities.getTop(count);
+    }
+
+    /**
+     * Returns the securities accounts that took part in the most trades of the window, as buyer or
+     * seller.
+     *
+     * @param count the number of securities accounts
+     * @return the securities account ids and their estimated number of trades, the most active first
+     */
+    @NotNull
+    @PublicAPI
+    public List<Pair<String, Long>> getTopAccounts(int count) {
+        return accounts.getTop(count);
+    }
+
+    /**
+     * @param securityIdentifier the security identifier
+     * @return the estimated number of trades of the security in the window
+     */
+    @PublicAPI
+    public long getTradeCount(String securityIdentifier) {
+        return securities.estimate(securityIdentifier);
+    }
+
+    /**
+     * Estimates a quantile of the number of shares per trade in the window.
+     *
+     * @param quantile the quantile between 0 and 1, e.g. 0.5 for the median
+     * @return the estimated number of shares, or NaN if there are no trades in the window
+     */
+    @PublicAPI
+    public double getShareQuantile(double quantile) {
+        return shares.getQuantile(quantile);
+    }
+
+    /**
+     * Estimates a quantile of the prices of the trades in the window.
+     *
+     * @param quantile the quantile between 0 and 1, e.g. 0.5 for the median
+     * @return the estimated price, or NaN if there are no trades in the window
+     */
+    @PublicAPI
+    public double getPriceQuantile(double quantile) {
+        return prices.getQuantile(quantile);
+    }
+
+    /**
+     * Merges other sketches with the same window into these ones.
+     *
+     * @param other the other sketches
+     */
+    @PublicAPI
+    public synchronized void merge(TradeSketches other) {
+        securities.merge(other.securities);
+        accounts.merge(other.accounts);
+        shares.merge(other.shares);
+        prices.merge(other.prices);
+    }
+}
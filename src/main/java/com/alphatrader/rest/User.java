@@ -298,6 +298,19 @@ public class User {
         return jwtToken;
     }
 
+    /**
+     * Fills the values of this user that are still missing from another copy of it. Values that are
+     * already set are never changed.
+     *
+     * @param other the other copy
+     */
+    void fillMissingFrom(User other) {
+        EntityIdentityMap.fillMissing(username, other.username);
+        EntityIdentityMap.fillMissing(emailAddress, other.emailAddress);
+        EntityIdentityMap.fillMissing(gravatarHash, other.gravatarHash);
+        EntityIdentityMap.fillMissing(userCapabilities, other.userCapabilities);
+    }
+
     @Override
     public String toString() {
         return "User{"
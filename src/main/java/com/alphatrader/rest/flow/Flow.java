@@ -0,0 +1,83 @@
+package com.alphatrader.rest.flow;
+
+/**
+ * The reactive streams interfaces. They mirror {@code java.util.concurrent.Flow}, which is not available
+ * on the Java version this library targets, so adapting a publisher to the JDK interfaces later is a
+ * matter of delegating method by method.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class Flow {
+    /**
+     * Private constructor to avoid utility class instantiation.
+     */
+    private Flow() {
+    }
+
+    /**
+     * A producer of items that are received by subscribers according to their demand.
+     *
+     * @param <T> the type of items
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /**
+         * Adds the subscriber. The subscriber is first handed its subscription via
+         * {@link Subscriber#onSubscribe(Subscription)} and receives no items before it requests them.
+         *
+         * @param subscriber the subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items.
+     *
+     * @param <T> the type of items
+     */
+    public interface Subscriber<T> {
+        /**
+         * Called once before any other method.
+         *
+         * @param subscription the subscription used to request items or cancel
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item. Never called more often than requested.
+         *
+         * @param item the item
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the publisher fails. No further methods are called.
+         *
+         * @param throwable the failure
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when the publisher completes. No further methods are called.
+         */
+        void onComplete();
+    }
+
+    /**
+     * The link between a publisher and a subscriber.
+     */
+    public interface Subscription {
+        /**
+         * Adds the given number of items to the demand.
+         *
+         * @param n the number of items, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery of items. Items may still arrive for a short while.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,26 @@
+package com.alphatrader.rest.flow;
+
+/**
+ * Decides what a bounded subscriber buffer does with a new item when it is full.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public enum OverflowPolicy {
+    /**
+     * Discards the oldest buffered item. Suits streams where recent items matter most.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replaces the newest buffered item, so the buffer always ends with the latest value. Suits snapshot
+     * streams like price spreads or order books, where an outdated snapshot is worthless.
+     */
+    CONFLATE_LATEST,
+
+    /**
+     * Makes the publisher wait until the subscriber has taken an item. No item is lost, and no further
+     * requests are sent to the server while the publisher waits.
+     */
+    BLOCK
+}
@@ -0,0 +1,364 @@
+package com.alphatrader.rest.flow;
+
+import com.alphatrader.rest.util.Schedulers;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A publisher that polls a source on a schedule and hands the items to its subscribers according to
+ * their demand. Every subscriber has its own bounded buffer; what happens when it is full is decided by
+ * the {@link OverflowPolicy}. The source is only polled while at least one subscriber has requested more
+ * items than are buffered for it, so slow subscribers cause neither unbounded memory growth nor extra
+ * requests to the server.
+ *
+ * @param <T> the type of items
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PollingPublisher<T> implements Flow.Publisher<T> {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(PollingPublisher.class);
+
+    /**
+     * Returns the new items on every call.
+     */
+    private final Supplier<List<T>> source;
+
+    /**
+     * The capacity of every subscriber buffer.
+     */
+    private final int bufferSize;
+
+    /**
+     * What a full subscriber buffer does with a new item.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The active subscriptions.
+     */
+    private final List<BufferedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * The executor running the scheduled polls, if started.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a new publisher.
+     *
+     * @param source         returns the new items on every call
+     * @param bufferSize     the capacity of every subscriber buffer
+     * @param overflowPolicy what a full subscriber buffer does with a new item
+     */
+    public PollingPublisher(Supplier<List<T>> source, int bufferSize, OverflowPolicy overflowPolicy) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.source = source;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        BufferedSubscription subscription = new BufferedSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * @return the number of active subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Polls the source once if any subscriber is waiting for items and offers the result to all
+     * subscribers.
+     *
+     * @return true if the source was polled
+     */
+    public synchronized boolean poll() {
+        boolean hungry = false;
+        for (BufferedSubscription subscription : subscriptions) {
+            hungry |= subscription.isHungry();
+        }
+        if (!hungry) {
+            return false;
+        }
+
+        List<T> items;
+        try {
+            items = source.get();
+        }
+        catch (RuntimeException e) {
+            log.error("Publisher source failed: " + e.getMessage());
+            return true;
+        }
+
+        for (T item : items) {
+            if (item == null) {
+                continue;
+            }
+            for (BufferedSubscription subscription : subscriptions) {
+                subscription.offer(item);
+                subscription.drain();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts polling on the given schedule in a daemon thread. A failing poll is logged and the next one
+     * runs as scheduled. Does nothing if the publisher is already running.
+     *
+     * @param period the delay between the end of one poll and the start of the next
+     * @param unit   the unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executor == null) {
+            executor = Schedulers.newDaemonScheduler("polling-publisher");
+            executor.scheduleWithFixedDelay(Schedulers.logFailures("Publisher poll", this::poll), 0,
+                period, unit);
+        }
+    }
+
+    /**
+     * Stops polling and completes all subscriptions once they have taken their buffered items. A
+     * publisher waiting for a subscriber under {@link OverflowPolicy#BLOCK} gives up and drops the item.
+     */
+    public void stop() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running != null) {
+            running.shutdownNow();
+        }
+
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * A subscription with its own bounded buffer and demand counter.
+     */
+    private final class BufferedSubscription implements Flow.Subscription {
+        /**
+         * The subscriber.
+         */
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /**
+         * The items not yet delivered.
+         */
+        private final Deque<T> buffer = new ArrayDeque<>();
+
+        /**
+         * The number of requested but not yet delivered items.
+         */
+        private long demand;
+
+        /**
+         * True while one thread delivers items, which keeps deliveries sequential and stops recursion
+         * when the subscriber requests from within onNext.
+         */
+        private boolean draining;
+
+        /**
+         * True once cancelled or terminated.
+         */
+        private boolean cancelled;
+
+        /**
+         * True once the publisher stopped; the subscriber completes after the buffer is empty.
+         */
+        private boolean completing;
+
+        private BufferedSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                terminate(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                buffer.clear();
+                notifyAll();
+            }
+            subscriptions.remove(this);
+        }
+
+        /**
+         * @return true if the subscriber has requested more items than are buffered
+         */
+        private synchronized boolean isHungry() {
+            return !cancelled && demand > buffer.size();
+        }
+
+        /**
+         * Buffers an item, applying the overflow policy if the buffer is full.
+         *
+         * @param item the item
+         */
+        private synchronized void offer(T item) {
+            if (cancelled) {
+                return;
+            }
+            if (buffer.size() >= bufferSize) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        buffer.pollFirst();
+                        break;
+                    case CONFLATE_LATEST:
+                        buffer.pollLast();
+                        break;
+                    case BLOCK:
+                        if (!awaitSpace()) {
+                            return;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+                }
+            }
+            buffer.addLast(item);
+        }
+
+        /**
+         * Waits until the subscriber has taken an item from the full buffer.
+         *
+         * @return false if the subscription was cancelled or the wait interrupted
+         */
+        private boolean awaitSpace() {
+            while (buffer.size() >= bufferSize && !cancelled) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return !cancelled;
+        }
+
+        /**
+         * Delivers buffered items as long as there is demand.
+         */
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+
+            while (true) {
+                T item;
+                boolean complete = false;
+                synchronized (this) {
+                    if (cancelled || demand == 0 || buffer.isEmpty()) {
+                        draining = false;
+                        complete = !cancelled && completing && buffer.isEmpty();
+                        if (complete) {
+                            cancelled = true;
+                        }
+                        item = null;
+                    }
+                    else {
+                        item = buffer.pollFirst();
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                        notifyAll();
+                    }
+                }
+
+                if (item == null) {
+                    if (complete) {
+                        subscriptions.remove(this);
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (!deliver(item)) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Hands an item to the subscriber. A failing subscriber is cancelled.
+         *
+         * @param item the item
+         * @return false if the subscriber failed
+         */
+        private boolean deliver(T item) {
+            try {
+                subscriber.onNext(item);
+                return true;
+            }
+            catch (RuntimeException e) {
+                log.error("Subscriber failed, cancelling its subscription: " + e.getMessage());
+                cancel();
+                return false;
+            }
+        }
+
+        /**
+         * Marks the subscription for completion and completes it right away if the buffer is empty.
+         */
+        private void complete() {
+            synchronized (this) {
+                completing = true;
+                notifyAll();
+            }
+            drain();
+        }
+
+        /**
+         * Cancels the subscription and signals the error to the subscriber.
+         *
+         * @param throwable the error
+         */
+        private void terminate(Throwable throwable) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+            }
+            cancel();
+            subscriber.onError(throwable);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * The exponentially weighted mean of all prices, with a smoothing factor of 2 / (period + 1). The
+ * average is seeded with the simple mean of the first period prices.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ExponentialMovingAverage implements Indicator {
+    /**
+     * The number of prices used for the seed.
+     */
+    private final int period;
+
+    /**
+     * The weight of a new price.
+     */
+    private final double alpha;
+
+    /**
+     * The number of prices added, capped at the period.
+     */
+    private int count;
+
+    /**
+     * The current average, or the sum of the prices while seeding.
+     */
+    private double value;
+
+    /**
+     * @param period the period defining the smoothing factor
+     */
+    public ExponentialMovingAverage(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(double price, double quantity) {
+        if (count < period) {
+            value += price;
+            if (++count == period) {
+                value /= period;
+            }
+        }
+        else {
+            value += alpha * (price - value);
+        }
+    }
+
+    @Override
+    public double getValue() {
+        return isReady() ? value : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        value = 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialMovingAverage{"
+            + "period=" + period
+            + ", value=" + getValue()
+            + '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * A technical indicator that is updated one observation at a time. Implementations keep their state in
+ * primitive fields and fixed size arrays, so an update takes constant time and allocates nothing.
+ * Indicators are not thread-safe; the {@link IndicatorEngine} serializes the updates per security.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public interface Indicator {
+    /**
+     * Adds an observation.
+     *
+     * @param price    the price
+     * @param quantity the traded quantity, or NaN if unknown
+     */
+    void update(double price, double quantity);
+
+    /**
+     * @return the current value, or NaN if not enough observations have been added
+     */
+    double getValue();
+
+    /**
+     * @return true if enough observations have been added for the value to be meaningful
+     */
+    boolean isReady();
+
+    /**
+     * Drops all observations.
+     */
+    void reset();
+}
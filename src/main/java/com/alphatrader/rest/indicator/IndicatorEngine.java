@@ -0,0 +1,174 @@
+package com.alphatrader.rest.indicator;
+
+import com.alphatrader.rest.LastPrice;
+import com.alphatrader.rest.SecurityOrderLog;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps technical indicators of many securities up to date. Every new price is handed to the indicators
+ * registered for its security, each of which updates in constant time, so a tick never recomputes
+ * anything over the price history. Histories, e.g. from {@link com.alphatrader.rest.SecurityPrice}, are
+ * only needed once to prime the indicators.
+ * <p>
+ * Prices come either as {@link LastPrice}, which carry no quantity, or as {@link SecurityOrderLog},
+ * which also feed volume based indicators. The engine can be registered directly as listener of a
+ * {@link com.alphatrader.rest.SecurityOrderLogTailer}. Updates of the same security are serialized,
+ * different securities can be updated in parallel.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class IndicatorEngine implements Consumer<SecurityOrderLog> {
+    /**
+     * The indicators by security identifier.
+     */
+    private final Map<String, Registrations> securities = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an indicator for a security.
+     *
+     * @param securityIdentifier the security identifier
+     * @param indicator          the indicator
+     * @param <T>                the type of the indicator
+     * @return the indicator
+     */
+    public <T extends Indicator> T register(String securityIdentifier, T indicator) {
+        Registrations registrations = securities.computeIfAbsent(securityIdentifier,
+            key -> new Registrations());
+        synchronized (registrations) {
+            Indicator[] indicators = Arrays.copyOf(registrations.indicators,
+                registrations.indicators.length + 1);
+            indicators[indicators.length - 1] = indicator;
+            registrations.indicators = indicators;
+        }
+        return indicator;
+    }
+
+    /**
+     * Removes an indicator of a security.
+     *
+     * @param securityIdentifier the security identifier
+     * @param indicator          the indicator
+     * @return true if the indicator was registered
+     */
+    public boolean unregister(String securityIdentifier, Indicator indicator) {
+        Registrations registrations = securities.get(securityIdentifier);
+        if (registrations == null) {
+            return false;
+        }
+        synchronized (registrations) {
+            List<Indicator> indicators = new ArrayList<>(Arrays.asList(registrations.indicators));
+            boolean removed = indicators.remove(indicator);
+            registrations.indicators = indicators.toArray(new Indicator[0]);
+            return removed;
+        }
+    }
+
+    /**
+     * Removes all indicators of a security.
+     *
+     * @param securityIdentifier the security identifier
+     */
+    public void remove(String securityIdentifier) {
+        securities.remove(securityIdentifier);
+    }
+
+    /**
+     * @param securityIdentifier the security identifier
+     * @return the indicators registered for the security
+     */
+    @NotNull
+    public List<Indicator> getIndicators(String securityIdentifier) {
+        Registrations registrations = securities.get(securityIdentifier);
+        if (registrations == null) {
+            return Collections.emptyList();
+        }
+        synchronized (registrations) {
+            return Collections.unmodifiableList(Arrays.asList(registrations.indicators));
+        }
+    }
+
+    /**
+     * @return the identifiers of all securities with indicators
+     */
+    @NotNull
+    public Set<String> getSecurityIdentifiers() {
+        return Collections.unmodifiableSet(securities.keySet());
+    }
+
+    /**
+     * Feeds a price history to the indicators of a security, oldest price first.
+     *
+     * @param securityIdentifier the security identifier
+     * @param prices             the prices in chronological order
+     */
+    public void prime(String securityIdentifier, List<LastPrice> prices) {
+        Registrations registrations = securities.get(securityIdentifier);
+        if (registrations == null) {
+            return;
+        }
+        synchronized (registrations) {
+            for (LastPrice price : prices) {
+                registrations.update(price.getValueAsDouble(), Double.NaN);
+            }
+        }
+    }
+
+    /**
+     * Feeds a new price to the indicators of a security.
+     *
+     * @param securityIdentifier the security identifier
+     * @param lastPrice          the price
+     */
+    public void update(String securityIdentifier, LastPrice lastPrice) {
+        update(securityIdentifier, lastPrice.getValueAsDouble(), Double.NaN);
+    }
+
+    /**
+     * Feeds a trade to the indicators of its security.
+     *
+     * @param log the trade
+     */
+    @Override
+    public void accept(SecurityOrderLog log) {
+        if (log.getSecurityIdentifier() == null || log.getPrice() == null) {
+            return;
+        }
+        update(log.getSecurityIdentifier(), log.getPrice(),
+            log.getNumberOfShares() != null ? log.getNumberOfShares() : Double.NaN);
+    }
+
+    /**
+     * Feeds a new price to the indicators of a security.
+     *
+     * @param securityIdentifier the security identifier
+     * @param price              the price
+     * @param quantity           the traded quantity, or NaN if unknown
+     */
+    public void update(String securityIdentifier, double price, double quantity) {
+        Registrations registrations = securities.get(securityIdentifier);
+        if (registrations == null) {
+            return;
+        }
+        synchronized (registrations) {
+            registrations.update(price, quantity);
+        }
+    }
+
+    /**
+     * The indicators of one security. All access is synchronized on the instance.
+     */
+    private static final class Registrations {
+        private Indicator[] indicators = new Indicator[0];
+
+        private void update(double price, double quantity) {
+            for (Indicator indicator : indicators) {
+                indicator.update(price, quantity);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * Wilder's relative strength index between 0 and 100. The average gain and loss are seeded with the
+ * simple mean of the first period price changes and smoothed with a factor of 1 / period afterwards.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class RelativeStrengthIndex implements Indicator {
+    /**
+     * The number of price changes averaged.
+     */
+    private final int period;
+
+    /**
+     * The number of price changes added, capped at the period.
+     */
+    private int count;
+
+    /**
+     * True once the first price has been added.
+     */
+    private boolean started;
+
+    /**
+     * The previous price.
+     */
+    private double previous;
+
+    /**
+     * The average gain, or the sum of the gains while seeding.
+     */
+    private double averageGain;
+
+    /**
+     * The average loss, or the sum of the losses while seeding.
+     */
+    private double averageLoss;
+
+    /**
+     * @param period the number of price changes averaged, usually 14
+     */
+    public RelativeStrengthIndex(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(double price, double quantity) {
+        if (!started) {
+            started = true;
+            previous = price;
+            return;
+        }
+        double change = price - previous;
+        previous = price;
+        double gain = change > 0.0 ? change : 0.0;
+        double loss = change < 0.0 ? -change : 0.0;
+
+        if (count < period) {
+            averageGain += gain;
+            averageLoss += loss;
+            if (++count == period) {
+                averageGain /= period;
+                averageLoss /= period;
+            }
+        }
+        else {
+            averageGain = (averageGain * (period - 1) + gain) / period;
+            averageLoss = (averageLoss * (period - 1) + loss) / period;
+        }
+    }
+
+    @Override
+    public double getValue() {
+        if (!isReady()) {
+            return Double.NaN;
+        }
+        if (averageLoss == 0.0) {
+            return averageGain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + averageGain / averageLoss);
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == period;
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        started = false;
+        previous = 0.0;
+        averageGain = 0.0;
+        averageLoss = 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "RelativeStrengthIndex{"
+            + "period=" + period
+            + ", value=" + getValue()
+            + '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * The unweighted mean of the last prices. The prices are kept in a ring buffer next to their running
+ * sum.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SimpleMovingAverage implements Indicator {
+    /**
+     * The last prices.
+     */
+    private final double[] window;
+
+    /**
+     * The position of the next price in the window.
+     */
+    private int next;
+
+    /**
+     * The number of prices in the window.
+     */
+    private int count;
+
+    /**
+     * The sum of all prices in the window.
+     */
+    private double sum;
+
+    /**
+     * @param period the number of prices averaged
+     */
+    public SimpleMovingAverage(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.window = new double[period];
+    }
+
+    @Override
+    public void update(double price, double quantity) {
+        if (count == window.length) {
+            sum -= window[next];
+        }
+        else {
+            count++;
+        }
+        window[next] = price;
+        sum += price;
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    @Override
+    public double getValue() {
+        return isReady() ? sum / count : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public void reset() {
+        next = 0;
+        count = 0;
+        sum = 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleMovingAverage{"
+            + "period=" + window.length
+            + ", value=" + getValue()
+            + '}';
+    }
+}
@@ -0,0 +1,100 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * The population standard deviation of the last prices. The mean and the sum of squared deviations are
+ * updated with Welford's method whenever a price enters or leaves the window, which avoids the
+ * cancellation of a plain sum of squares.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class StandardDeviation implements Indicator {
+    /**
+     * The last prices.
+     */
+    private final double[] window;
+
+    /**
+     * The position of the next price in the window.
+     */
+    private int next;
+
+    /**
+     * The number of prices in the window.
+     */
+    private int count;
+
+    /**
+     * The mean of the prices in the window.
+     */
+    private double mean;
+
+    /**
+     * The sum of squared deviations from the mean.
+     */
+    private double squares;
+
+    /**
+     * @param period the number of prices in the window
+     */
+    public StandardDeviation(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.window = new double[period];
+    }
+
+    @Override
+    public void update(double price, double quantity) {
+        if (count < window.length) {
+            count++;
+            double delta = price - mean;
+            mean += delta / count;
+            squares += delta * (price - mean);
+        }
+        else {
+            double removed = window[next];
+            double previousMean = mean;
+            mean += (price - removed) / count;
+            squares += (price - removed) * (price - mean + removed - previousMean);
+            if (squares < 0.0) {
+                squares = 0.0;
+            }
+        }
+        window[next] = price;
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    @Override
+    public double getValue() {
+        return isReady() ? Math.sqrt(squares / count) : Double.NaN;
+    }
+
+    /**
+     * @return the mean of the prices in the window, or NaN if the window is not full
+     */
+    public double getMean() {
+        return isReady() ? mean : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public void reset() {
+        next = 0;
+        count = 0;
+        mean = 0.0;
+        squares = 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "StandardDeviation{"
+            + "period=" + window.length
+            + ", value=" + getValue()
+            + '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.alphatrader.rest.indicator;
+
+/**
+ * The mean price of the last trades, weighted by their quantities. Observations without a positive
+ * quantity, e.g. plain price updates, are ignored.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class VolumeWeightedAveragePrice implements Indicator {
+    /**
+     * The prices of the last trades.
+     */
+    private final double[] prices;
+
+    /**
+     * The quantities of the last trades.
+     */
+    private final double[] quantities;
+
+    /**
+     * The position of the next trade in the window.
+     */
+    private int next;
+
+    /**
+     * The number of trades in the window.
+     */
+    private int count;
+
+    /**
+     * The sum of price times quantity of all trades in the window.
+     */
+    private double volume;
+
+    /**
+     * The sum of the quantities of all trades in the window.
+     */
+    private double quantity;
+
+    /**
+     * @param period the number of trades in the window
+     */
+    public VolumeWeightedAveragePrice(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        this.prices = new double[period];
+        this.quantities = new double[period];
+    }
+
+    @Override
+    public void update(double price, double quantity) {
+        if (!(quantity > 0.0)) {
+            return;
+        }
+        if (count == prices.length) {
+            volume -= prices[next] * quantities[next];
+            this.quantity -= quantities[next];
+        }
+        else {
+            count++;
+        }
+        prices[next] = price;
+        quantities[next] = quantity;
+        volume += price * quantity;
+        this.quantity += quantity;
+        next = next + 1 == prices.length ? 0 : next + 1;
+    }
+
+    @Override
+    public double getValue() {
+        return count > 0 && quantity > 0.0 ? volume / quantity : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count > 0;
+    }
+
+    @Override
+    public void reset() {
+        next = 0;
+        count = 0;
+        volume = 0.0;
+        quantity = 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "VolumeWeightedAveragePrice{"
+            + "period=" + prices.length
+            + ", value=" + getValue()
+            + '}';
+    }
+}
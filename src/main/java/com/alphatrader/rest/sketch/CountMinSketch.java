@@ -0,0 +1,208 @@
+package com.alphatrader.rest.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Estimates how often keys occurred in a stream in constant memory. Every key increments one counter in
+ * each row of the sketch, its frequency is estimated as the smallest of these counters. Estimates never
+ * undercount; they overcount by at most {@code e / width} of the total with a probability of at least
+ * {@code 1 - e^-depth}.
+ * <p>
+ * Keys are hashed from {@link String#hashCode()}, so sketches of the same size built in different
+ * instances can be merged. Since the counters are plain sums, a sketch that was merged into another one
+ * can be subtracted again, which sliding windows use to drop expired parts.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CountMinSketch {
+    /**
+     * The number of rows.
+     */
+    private final int depth;
+
+    /**
+     * The number of counters per row, a power of two.
+     */
+    private final int width;
+
+    /**
+     * The counters, row by row.
+     */
+    private final long[] counters;
+
+    /**
+     * The sum of all counts added.
+     */
+    private long total;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param depth the number of rows
+     * @param width the number of counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Depth and width must be positive: " + depth + ", "
+                + width);
+        }
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.counters = new long[depth * this.width];
+    }
+
+    /**
+     * Creates a copy of a sketch.
+     *
+     * @param other the sketch to copy
+     */
+    public CountMinSketch(CountMinSketch other) {
+        this.depth = other.depth;
+        this.width = other.width;
+        this.counters = Arrays.copyOf(other.counters, other.counters.length);
+        this.total = other.total;
+    }
+
+    /**
+     * Creates an empty sketch with the given error bounds.
+     *
+     * @param epsilon    the largest overcount as fraction of the total
+     * @param confidence the probability that an estimate stays within the bound
+     * @return the sketch
+     */
+    public static CountMinSketch withError(double epsilon, double confidence) {
+        if (epsilon <= 0.0 || confidence <= 0.0 || confidence >= 1.0) {
+            throw new IllegalArgumentException("Invalid error bounds: " + epsilon + ", " + confidence);
+        }
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1.0 / (1.0 - confidence)));
+        return new CountMinSketch(Math.max(1, depth), width);
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key   the key
+     * @param count the number of occurrences, not negative
+     * @return the estimated frequency of the key after adding
+     */
+    public long add(String key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        long hash = hash(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((first + row * second) & (width - 1));
+            counters[index] += count;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        total += count;
+        return estimate;
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated frequency of the key
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((first + row * second) & (width - 1));
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the sum of all counts added
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of counters per row
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Adds the counts of another sketch of the same size.
+     *
+     * @param other the other sketch
+     */
+    public void merge(CountMinSketch other) {
+        checkCompatible(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Removes the counts of another sketch of the same size that was merged into this one before.
+     *
+     * @param other the other sketch
+     */
+    public void subtract(CountMinSketch other) {
+        checkCompatible(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+        total -= other.total;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void clear() {
+        Arrays.fill(counters, 0L);
+        total = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch{"
+            + "depth=" + depth
+            + ", width=" + width
+            + ", total=" + total
+            + '}';
+    }
+
+    /**
+     * @param other another sketch
+     * @throws IllegalArgumentException if the sketches differ in size
+     */
+    private void checkCompatible(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Sketch sizes differ: " + depth + "x" + width + ", "
+                + other.depth + "x" + other.width);
+        }
+    }
+
+    /**
+     * @param key a key
+     * @return 64 well mixed bits of the key
+     */
+    private static long hash(String key) {
+        long hash = key.hashCode() * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0xC2B2AE3D27D4EB4FL;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,260 @@
+package com.alphatrader.rest.sketch;
+
+import javafx.util.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the most frequent keys of a stream in bounded memory. The frequencies are estimated by a
+ * {@link CountMinSketch}, the keys with the highest estimates are kept in a min-heap of fixed capacity.
+ * Adding a key costs one pass over the sketch rows and O(log capacity) heap operations; a key that
+ * enters the heap replaces the one with the lowest estimate.
+ * <p>
+ * Trackers with sketches of the same size can be merged: the sketches are summed and the keys of both
+ * heaps are estimated again against the merged sketch.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class HeavyHitters {
+    /**
+     * Orders keys by descending estimate, then by key.
+     */
+    static final Comparator<Pair<String, Long>> BY_ESTIMATE = (a, b) -> {
+        int order = Long.compare(b.getValue(), a.getValue());
+        return order != 0 ? order : a.getKey().compareTo(b.getKey());
+    };
+
+    /**
+     * The frequency estimates.
+     */
+    private final CountMinSketch sketch;
+
+    /**
+     * The keys in the heap, the one with the lowest estimate first.
+     */
+    private final String[] keys;
+
+    /**
+     * The estimates of the keys in the heap.
+     */
+    private final long[] estimates;
+
+    /**
+     * The heap positions of the keys.
+     */
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    /**
+     * The number of keys in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates an empty tracker.
+     *
+     * @param capacity the number of keys tracked
+     * @param depth    the number of rows of the sketch
+     * @param width    the number of counters per row of the sketch
+     */
+    public HeavyHitters(int capacity, int depth, int width) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.sketch = new CountMinSketch(depth, width);
+        this.keys = new String[capacity];
+        this.estimates = new long[capacity];
+    }
+
+    /**
+     * Creates a copy of a tracker.
+     *
+     * @param other the tracker to copy
+     */
+    public HeavyHitters(HeavyHitters other) {
+        this.sketch = new CountMinSketch(other.sketch);
+        this.keys = Arrays.copyOf(other.keys, other.keys.length);
+        this.estimates = Arrays.copyOf(other.estimates, other.estimates.length);
+        this.positions.putAll(other.positions);
+        this.size = other.size;
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key   the key
+     * @param count the number of occurrences, not negative
+     */
+    public void add(String key, long count) {
+        offer(key, sketch.add(key, count));
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated frequency of the key
+     */
+    public long estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    /**
+     * @return the sum of all counts added
+     */
+    public long getTotal() {
+        return sketch.getTotal();
+    }
+
+    /**
+     * @return the number of keys tracked
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the most frequent keys.
+     *
+     * @param count the number of keys, at most the capacity is returned
+     * @return the keys and their estimated frequencies, the most frequent first
+     */
+    @NotNull
+    public List<Pair<String, Long>> getTop(int count) {
+        List<Pair<String, Long>> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(new Pair<>(keys[i], estimates[i]));
+        }
+        top.sort(BY_ESTIMATE);
+        return top.subList(0, Math.min(count, top.size()));
+    }
+
+    /**
+     * Merges another tracker with a sketch of the same size into this one.
+     *
+     * @param other the other tracker
+     */
+    public void merge(HeavyHitters other) {
+        sketch.merge(other.sketch);
+        Set<String> candidates = new HashSet<>(positions.keySet());
+        candidates.addAll(other.positions.keySet());
+        positions.clear();
+        size = 0;
+        for (String key : candidates) {
+            offer(key, sketch.estimate(key));
+        }
+    }
+
+    /**
+     * Removes all keys and counts.
+     */
+    public void clear() {
+        sketch.clear();
+        Arrays.fill(keys, null);
+        positions.clear();
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "HeavyHitters{"
+            + "capacity=" + keys.length
+            + ", size=" + size
+            + ", total=" + sketch.getTotal()
+            + '}';
+    }
+
+    /**
+     * @return the frequency estimates
+     */
+    CountMinSketch getSketch() {
+        return sketch;
+    }
+
+    /**
+     * @param consumer receives every key in the heap
+     */
+    void forEachKey(Consumer<String> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(keys[i]);
+        }
+    }
+
+    /**
+     * Updates the heap with the estimate of a key.
+     *
+     * @param key      the key
+     * @param estimate the estimated frequency
+     */
+    private void offer(String key, long estimate) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            estimates[position] = estimate;
+            siftDown(position);
+        }
+        else if (size < keys.length) {
+            keys[size] = key;
+            estimates[size] = estimate;
+            positions.put(key, size);
+            siftUp(size++);
+        }
+        else if (estimate > estimates[0]) {
+            positions.remove(keys[0]);
+            keys[0] = key;
+            estimates[0] = estimate;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @param position the position of a newly inserted entry
+     */
+    private void siftUp(int position) {
+        int current = position;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            if (estimates[parent] <= estimates[current]) {
+                break;
+            }
+            swap(current, parent);
+            current = parent;
+        }
+    }
+
+    /**
+     * @param position the position of an entry whose estimate increased
+     */
+    private void siftDown(int position) {
+        int current = position;
+        while (true) {
+            int child = 2 * current + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && estimates[child + 1] < estimates[child]) {
+                child++;
+            }
+            if (estimates[current] <= estimates[child]) {
+                return;
+            }
+            swap(current, child);
+            current = child;
+        }
+    }
+
+    /**
+     * @param first  a heap position
+     * @param second another heap position
+     */
+    private void swap(int first, int second) {
+        String key = keys[first];
+        long estimate = estimates[first];
+        keys[first] = keys[second];
+        estimates[first] = estimates[second];
+        keys[second] = key;
+        estimates[second] = estimate;
+        positions.put(keys[first], first);
+        positions.put(keys[second], second);
+    }
+}
@@ -0,0 +1,120 @@
+package com.alphatrader.rest.sketch;
+
+import java.time.Duration;
+import java.util.function.IntConsumer;
+
+/**
+ * Splits a sliding window into panes of equal length and maps dates to the ring buffer slot of their
+ * pane. The window ends with the pane of the newest date seen; whenever it moves forward, the slots of
+ * the panes that drop out are handed to an expiry callback before they are reused.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+final class Panes {
+    /**
+     * The pane number before the first date.
+     */
+    static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * The length of a pane in milliseconds.
+     */
+    private final long paneMillis;
+
+    /**
+     * The number of panes in the window.
+     */
+    private final int count;
+
+    /**
+     * The number of the newest pane, panes are counted from the epoch.
+     */
+    private long newest = NONE;
+
+    /**
+     * @param window the length of the window
+     * @param count  the number of panes the window is split into
+     */
+    Panes(Duration window, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Pane count must be positive: " + count);
+        }
+        if (window.toMillis() < count) {
+            throw new IllegalArgumentException("Window is too short for " + count + " panes: " + window);
+        }
+        this.paneMillis = window.toMillis() / count;
+        this.count = count;
+    }
+
+    /**
+     * Moves the window forward to the given date if necessary and returns the slot of its pane.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @param expire     receives the slots of panes dropping out of the window
+     * @return the slot, or -1 if the date is older than the window
+     */
+    int slot(long dateMillis, IntConsumer expire) {
+        long pane = Math.floorDiv(dateMillis, paneMillis);
+        advance(pane, expire);
+        return pane > newest - count ? (int) Math.floorMod(pane, (long) count) : -1;
+    }
+
+    /**
+     * Moves the window forward to the given date, e.g. the current time when no new values arrive.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     * @param expire     receives the slots of panes dropping out of the window
+     */
+    void advanceTo(long dateMillis, IntConsumer expire) {
+        advance(Math.floorDiv(dateMillis, paneMillis), expire);
+    }
+
+    /**
+     * @param pane   the number of the pane that becomes the newest one, if it is newer
+     * @param expire receives the slots of panes dropping out of the window
+     */
+    private void advance(long pane, IntConsumer expire) {
+        if (newest == NONE) {
+            newest = pane;
+            return;
+        }
+        if (pane <= newest) {
+            return;
+        }
+        long steps = Math.min(count, pane - newest);
+        for (long step = 1; step <= steps; step++) {
+            expire.accept((int) Math.floorMod(newest + step, (long) count));
+        }
+        newest = pane;
+    }
+
+    /**
+     * @return the number of the newest pane, or {@link #NONE} before the first date
+     */
+    long getNewest() {
+        return newest;
+    }
+
+    /**
+     * @param pane a pane number
+     * @return the slot of the pane
+     */
+    int slotOf(long pane) {
+        return (int) Math.floorMod(pane, (long) count);
+    }
+
+    /**
+     * @return the length of a pane in milliseconds
+     */
+    long getPaneMillis() {
+        return paneMillis;
+    }
+
+    /**
+     * @return the number of panes in the window
+     */
+    int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,248 @@
+package com.alphatrader.rest.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of a stream of values, e.g. trade sizes or prices, with a bounded relative error.
+ * Like an HDR histogram, the sketch counts values in buckets whose width grows with the value: bucket
+ * {@code i} holds the values in {@code (gamma^(i-1), gamma^i]}, so every value is represented within the
+ * configured relative accuracy. Only the range of buckets between the smallest and largest value is
+ * allocated, a few hundred counters cover prices from cents to millions at 1% accuracy.
+ * <p>
+ * Values that are zero or negative are counted as zero. Sketches with the same accuracy can be merged,
+ * and a sketch that was merged into another one can be subtracted again.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class QuantileSketch {
+    /**
+     * The relative accuracy of the estimates.
+     */
+    private final double relativeAccuracy;
+
+    /**
+     * The ratio between the bounds of a bucket.
+     */
+    private final double gamma;
+
+    /**
+     * The natural logarithm of the ratio between the bounds of a bucket.
+     */
+    private final double logGamma;
+
+    /**
+     * The bucket counters.
+     */
+    private long[] counts = new long[0];
+
+    /**
+     * The index of the bucket counted by the first counter.
+     */
+    private int offset;
+
+    /**
+     * The number of values that are zero or negative.
+     */
+    private long zeroCount;
+
+    /**
+     * The number of values.
+     */
+    private long count;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param relativeAccuracy the relative accuracy of the estimates, e.g. 0.01 for 1%
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0.0 || relativeAccuracy >= 1.0) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): "
+                + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1.0 + relativeAccuracy) / (1.0 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Creates a copy of a sketch.
+     *
+     * @param other the sketch to copy
+     */
+    public QuantileSketch(QuantileSketch other) {
+        this.relativeAccuracy = other.relativeAccuracy;
+        this.gamma = other.gamma;
+        this.logGamma = other.logGamma;
+        this.counts = Arrays.copyOf(other.counts, other.counts.length);
+        this.offset = other.offset;
+        this.zeroCount = other.zeroCount;
+        this.count = other.count;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds a value several times.
+     *
+     * @param value the value
+     * @param times the number of times, not negative
+     */
+    public void add(double value, long times) {
+        if (times < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + times);
+        }
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value <= 0.0) {
+            zeroCount += times;
+        }
+        else {
+            int index = index(value);
+            ensureRange(index, index);
+            counts[index - offset] += times;
+        }
+        count += times;
+    }
+
+    /**
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the relative accuracy of the estimates
+     */
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param quantile the quantile between 0 and 1, e.g. 0.5 for the median
+     * @return the estimated value, or NaN if the sketch is empty
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        int bucket = counts.length - 1;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                bucket = i;
+                break;
+            }
+        }
+        return 2.0 * Math.exp((offset + bucket) * logGamma) / (1.0 + gamma);
+    }
+
+    /**
+     * Adds the values of another sketch with the same accuracy.
+     *
+     * @param other the other sketch
+     */
+    public void merge(QuantileSketch other) {
+        combine(other, 1);
+    }
+
+    /**
+     * Removes the values of another sketch with the same accuracy that was merged into this one before.
+     *
+     * @param other the other sketch
+     */
+    public void subtract(QuantileSketch other) {
+        combine(other, -1);
+    }
+
+    /**
+     * Removes all values. The allocated buckets are kept.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0L);
+        zeroCount = 0;
+        count = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{"
+            + "relativeAccuracy=" + relativeAccuracy
+            + ", count=" + count
+            + ", buckets=" + counts.length
+            + '}';
+    }
+
+    /**
+     * Adds or removes the values of another sketch.
+     *
+     * @param other the other sketch
+     * @param sign  1 to add, -1 to remove
+     */
+    private void combine(QuantileSketch other, int sign) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Accuracies differ: " + relativeAccuracy + ", "
+                + other.relativeAccuracy);
+        }
+        if (other.counts.length > 0) {
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += sign * other.counts[i];
+            }
+        }
+        zeroCount += sign * other.zeroCount;
+        count += sign * other.count;
+    }
+
+    /**
+     * @param value a positive value
+     * @return the index of the bucket holding the value
+     */
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * Grows the counters to cover the given bucket indexes.
+     *
+     * @param low  the lowest index
+     * @param high the highest index
+     */
+    private void ensureRange(int low, int high) {
+        if (counts.length == 0) {
+            counts = new long[high - low + 1];
+            offset = low;
+            return;
+        }
+        int currentHigh = offset + counts.length - 1;
+        if (low >= offset && high <= currentHigh) {
+            return;
+        }
+        int newOffset = Math.min(low, offset);
+        int newHigh = Math.max(high, currentHigh);
+        long[] grown = new long[newHigh - newOffset + 1];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+}
@@ -0,0 +1,170 @@
+package com.alphatrader.rest.sketch;
+
+import javafx.util.Pair;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Tracks the most frequent keys of a stream over a sliding window, e.g. the most traded securities of
+ * the last hour. The window is split into panes, each with its own {@link HeavyHitters}, and a
+ * {@link CountMinSketch} holds the sum of all panes. When a pane drops out of the window, its sketch is
+ * subtracted from the sum and the pane is reused, so memory stays bounded no matter how many values
+ * arrive.
+ * <p>
+ * Adding a key costs O(depth + log capacity). The most frequent keys of the window are chosen among the
+ * keys tracked by the panes, estimated against the summed sketch and selected with a heap of the
+ * requested size. The window follows the dates of the values, values older than the window are dropped.
+ * Windows with the same configuration can be merged pane by pane.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SlidingHeavyHitters {
+    /**
+     * The panes of the window.
+     */
+    private final Panes panes;
+
+    /**
+     * The trackers of the panes, indexed by slot.
+     */
+    private final HeavyHitters[] slots;
+
+    /**
+     * The sum of the sketches of all panes.
+     */
+    private final CountMinSketch window;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param window    the length of the window
+     * @param paneCount the number of panes the window is split into
+     * @param capacity  the number of keys tracked per pane
+     * @param depth     the number of rows of the sketches
+     * @param width     the number of counters per row of the sketches
+     */
+    public SlidingHeavyHitters(Duration window, int paneCount, int capacity, int depth, int width) {
+        this.panes = new Panes(window, paneCount);
+        this.slots = new HeavyHitters[paneCount];
+        for (int i = 0; i < paneCount; i++) {
+            slots[i] = new HeavyHitters(capacity, depth, width);
+        }
+        this.window = new CountMinSketch(depth, width);
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key        the key
+     * @param dateMillis the date of the occurrences as unix timestamp in milliseconds
+     * @param count      the number of occurrences, not negative
+     * @return false if the date is older than the window and the occurrences were dropped
+     */
+    public synchronized boolean add(String key, long dateMillis, long count) {
+        int slot = panes.slot(dateMillis, this::expire);
+        if (slot < 0) {
+            return false;
+        }
+        slots[slot].add(key, count);
+        window.add(key, count);
+        return true;
+    }
+
+    /**
+     * Moves the window forward, e.g. to the current time when no new values arrive.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     */
+    public synchronized void advanceTo(long dateMillis) {
+        panes.advanceTo(dateMillis, this::expire);
+    }
+
+    /**
+     * @param key the key
+     * @return the estimated frequency of the key in the window
+     */
+    public synchronized long estimate(String key) {
+        return window.estimate(key);
+    }
+
+    /**
+     * @return the sum of all counts in the window
+     */
+    public synchronized long getTotal() {
+        return window.getTotal();
+    }
+
+    /**
+     * Returns the most frequent keys of the window.
+     *
+     * @param count the number of keys
+     * @return the keys and their estimated frequencies, the most frequent first
+     */
+    @NotNull
+    public synchronized List<Pair<String, Long>> getTop(int count) {
+        Set<String> candidates = new HashSet<>();
+        for (HeavyHitters slot : slots) {
+            slot.forEachKey(candidates::add);
+        }
+        PriorityQueue<Pair<String, Long>> top = new PriorityQueue<>(count + 1,
+            HeavyHitters.BY_ESTIMATE.reversed());
+        for (String key : candidates) {
+            long estimate = window.estimate(key);
+            if (estimate > 0) {
+                top.add(new Pair<>(key, estimate));
+                if (top.size() > count) {
+                    top.poll();
+                }
+            }
+        }
+        List<Pair<String, Long>> result = new ArrayList<>(top);
+        result.sort(HeavyHitters.BY_ESTIMATE);
+        return result;
+    }
+
+    /**
+     * Merges another window with the same configuration into this one. Panes of the other window that
+     * are older than this window are ignored.
+     *
+     * @param other the other window
+     */
+    public void merge(SlidingHeavyHitters other) {
+        HeavyHitters[] copies = new HeavyHitters[slots.length];
+        long otherNewest;
+        synchronized (other) {
+            if (other.panes.getPaneMillis() != panes.getPaneMillis()
+                || other.slots.length != slots.length) {
+                throw new IllegalArgumentException("Window configurations differ");
+            }
+            otherNewest = other.panes.getNewest();
+            for (int i = 0; i < copies.length; i++) {
+                copies[i] = new HeavyHitters(other.slots[i]);
+            }
+        }
+        if (otherNewest == Panes.NONE) {
+            return;
+        }
+
+        synchronized (this) {
+            panes.advanceTo(otherNewest * panes.getPaneMillis(), this::expire);
+            for (long pane = panes.getNewest() - slots.length + 1; pane <= otherNewest; pane++) {
+                int slot = panes.slotOf(pane);
+                slots[slot].merge(copies[slot]);
+                window.merge(copies[slot].getSketch());
+            }
+        }
+    }
+
+    /**
+     * Drops a pane that left the window.
+     *
+     * @param slot the slot of the pane
+     */
+    private void expire(int slot) {
+        window.subtract(slots[slot].getSketch());
+        slots[slot].clear();
+    }
+}
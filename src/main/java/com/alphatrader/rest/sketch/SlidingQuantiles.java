@@ -0,0 +1,134 @@
+package com.alphatrader.rest.sketch;
+
+import java.time.Duration;
+
+/**
+ * Estimates quantiles of a stream of values over a sliding window, e.g. the median trade size of the
+ * last hour. The window is split into panes, each with its own {@link QuantileSketch}, and another
+ * sketch holds the sum of all panes. When a pane drops out of the window, it is subtracted from the sum
+ * and reused, so adding a value and answering a quantile never touch more than one sketch.
+ * <p>
+ * The window follows the dates of the values, values older than the window are dropped. Windows with the
+ * same configuration can be merged pane by pane.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SlidingQuantiles {
+    /**
+     * The panes of the window.
+     */
+    private final Panes panes;
+
+    /**
+     * The sketches of the panes, indexed by slot.
+     */
+    private final QuantileSketch[] slots;
+
+    /**
+     * The sum of the sketches of all panes.
+     */
+    private final QuantileSketch window;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param window           the length of the window
+     * @param paneCount        the number of panes the window is split into
+     * @param relativeAccuracy the relative accuracy of the estimates, e.g. 0.01 for 1%
+     */
+    public SlidingQuantiles(Duration window, int paneCount, double relativeAccuracy) {
+        this.panes = new Panes(window, paneCount);
+        this.slots = new QuantileSketch[paneCount];
+        for (int i = 0; i < paneCount; i++) {
+            slots[i] = new QuantileSketch(relativeAccuracy);
+        }
+        this.window = new QuantileSketch(relativeAccuracy);
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value      the value
+     * @param dateMillis the date of the value as unix timestamp in milliseconds
+     * @return false if the date is older than the window and the value was dropped
+     */
+    public synchronized boolean add(double value, long dateMillis) {
+        int slot = panes.slot(dateMillis, this::expire);
+        if (slot < 0) {
+            return false;
+        }
+        slots[slot].add(value);
+        window.add(value);
+        return true;
+    }
+
+    /**
+     * Moves the window forward, e.g. to the current time when no new values arrive.
+     *
+     * @param dateMillis the date as unix timestamp in milliseconds
+     */
+    public synchronized void advanceTo(long dateMillis) {
+        panes.advanceTo(dateMillis, this::expire);
+    }
+
+    /**
+     * Estimates a quantile of the values in the window.
+     *
+     * @param quantile the quantile between 0 and 1, e.g. 0.5 for the median
+     * @return the estimated value, or NaN if the window is empty
+     */
+    public synchronized double getQuantile(double quantile) {
+        return window.getQuantile(quantile);
+    }
+
+    /**
+     * @return the number of values in the window
+     */
+    public synchronized long getCount() {
+        return window.getCount();
+    }
+
+    /**
+     * Merges another window with the same configuration into this one. Panes of the other window that
+     * are older than this window are ignored.
+     *
+     * @param other the other window
+     */
+    public void merge(SlidingQuantiles other) {
+        QuantileSketch[] copies = new QuantileSketch[slots.length];
+        long otherNewest;
+        synchronized (other) {
+            if (other.panes.getPaneMillis() != panes.getPaneMillis()
+                || other.slots.length != slots.length) {
+                throw new IllegalArgumentException("Window configurations differ");
+            }
+            otherNewest = other.panes.getNewest();
+            for (int i = 0; i < copies.length; i++) {
+                copies[i] = new QuantileSketch(other.slots[i]);
+            }
+        }
+        if (otherNewest == Panes.NONE) {
+            return;
+        }
+
+        synchronized (this) {
+            panes.advanceTo(otherNewest * panes.getPaneMillis(), this::expire);
+            for (long pane = panes.getNewest() - slots.length + 1; pane <= otherNewest; pane++) {
+                int slot = panes.slotOf(pane);
+                slots[slot].merge(copies[slot]);
+                window.merge(copies[slot]);
+            }
+        }
+    }
+
+    /**
+     * Drops a pane that left the window.
+     *
+     * @param slot the slot of the pane
+     */
+    private void expire(int slot) {
+        window.subtract(slots[slot]);
+        slots[slot].clear();
+    }
+}
@@ -6,6 +6,7 @@ import org.apache.commons.logging.LogFactory;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.ZoneId;
 
 /**
  * The ApiLibConfig singleton holds all library wide configuration variables.
@@ -41,6 +42,11 @@ public final class ApiLibConfig {
      */
     private Long refreshInterval = 5L;
 
+    /**
+     * The time zone all dates sent by the api are converted to.
+     */
+    private ZoneId timeZone = ZoneId.systemDefault();
+
     private ApiLibConfig() {
         setApiUrl("http://stable.alpha-trader.com");
     }
@@ -68,6 +74,22 @@ public final class ApiLibConfig {
         this.refreshInterval = refreshInterval;
     }
 
+    /**
+     * @return the time zone dates are converted to.
+     */
+    public ZoneId getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Sets the time zone dates are converted to. Defaults to the system time zone.
+     *
+     * @param timeZone the new time zone
+     */
+    public void setTimeZone(ZoneId timeZone) {
+        this.timeZone = timeZone;
+    }
+
     /**
      * @return the API URL.
      */
@@ -0,0 +1,141 @@
+package com.alphatrader.rest.util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Utility class for the identifiers used throughout the api. Identifiers are interned during
+ * deserialization, so every id, securities account id, security identifier and bank account id is held
+ * only once no matter how many objects refer to it. UUID-shaped ids can also be converted to and from a
+ * compact form of two longs.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class Identifiers {
+    /**
+     * The length of a UUID in its canonical string form.
+     */
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * The identifier pool. Weak, so identifiers no longer referenced by any object can be collected.
+     */
+    private static final Interner<String> pool = Interners.newWeakInterner();
+
+    /**
+     * Private constructor to avoid utility class instantiation.
+     */
+    private Identifiers() {
+    }
+
+    /**
+     * Returns the canonical instance of the given identifier.
+     *
+     * @param identifier the identifier, may be null
+     * @return the pooled instance equal to the identifier, or null
+     */
+    @Contract("null -> null; !null -> !null")
+    public static String intern(@Nullable String identifier) {
+        return identifier == null ? null : pool.intern(identifier);
+    }
+
+    /**
+     * Checks whether the identifier is a UUID in its canonical hexadecimal form.
+     *
+     * @param identifier the identifier to check
+     * @return true if the identifier can be stored in compact form
+     */
+    @Contract("null -> false")
+    public static boolean isUuid(@Nullable String identifier) {
+        if (identifier == null || identifier.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = identifier.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            }
+            else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param uuid a UUID-shaped identifier, see {@link #isUuid(String)}
+     * @return the most significant 64 bits of the identifier
+     */
+    public static long mostSignificantBits(String uuid) {
+        return (parseHex(uuid, 0, 8) << 32) | (parseHex(uuid, 9, 13) << 16) | parseHex(uuid, 14, 18);
+    }
+
+    /**
+     * @param uuid a UUID-shaped identifier, see {@link #isUuid(String)}
+     * @return the least significant 64 bits of the identifier
+     */
+    public static long leastSignificantBits(String uuid) {
+        return (parseHex(uuid, 19, 23) << 48) | parseHex(uuid, 24, 36);
+    }
+
+    /**
+     * Restores a UUID-shaped identifier from its compact form.
+     *
+     * @param mostSignificantBits  the most significant 64 bits
+     * @param leastSignificantBits the least significant 64 bits
+     * @return the pooled identifier in canonical lower case form
+     */
+    public static String fromBits(long mostSignificantBits, long leastSignificantBits) {
+        char[] chars = new char[UUID_LENGTH];
+        writeHex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSignificantBits, 12);
+        return intern(new String(chars));
+    }
+
+    /**
+     * Parses a section of hexadecimal digits.
+     *
+     * @param value the string to parse
+     * @param from  the first index, inclusive
+     * @param to    the last index, exclusive
+     * @return the parsed value
+     */
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a UUID: " + value);
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+
+    /**
+     * Writes the lowest bits of a value as hexadecimal digits.
+     *
+     * @param chars  the target array
+     * @param offset the index of the first digit
+     * @param value  the value to write
+     * @param digits the number of digits to write
+     */
+    private static void writeHex(char[] chars, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.alphatrader.rest.util;
 
+import com.alphatrader.rest.EntityIdentityMap;
+import com.alphatrader.rest.ModelTypeAdapterFactory;
 import com.google.gson.Gson;
 import org.hildan.fxgson.FxGsonBuilder;
 import org.jetbrains.annotations.NotNull;
@@ -21,6 +23,8 @@ public final class PropertyGson {
         return new FxGsonBuilder()
             .acceptNullPrimitives()
             .builder().registerTypeAdapter(ZonedDateTime.class, new ZonedDateTimeDeserializer())
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapterFactory(EntityIdentityMap.getInstance())
             .create();
     }
 }
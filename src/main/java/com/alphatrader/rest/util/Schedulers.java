@@ -0,0 +1,59 @@
+package com.alphatrader.rest.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Utility class for the executors that poll the api in the background.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class Schedulers {
+    /**
+     * The logger for this class.
+     */
+    private static final Log log = LogFactory.getLog(Schedulers.class);
+
+    /**
+     * Private constructor to avoid utility class instantiation.
+     */
+    private Schedulers() {
+    }
+
+    /**
+     * Creates a single threaded scheduler whose thread carries the given name and does not keep the JVM
+     * alive.
+     *
+     * @param name the name of the thread
+     * @return the scheduler
+     */
+    public static ScheduledExecutorService newDaemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Wraps a periodic task so a failing run is logged instead of cancelling all later runs.
+     *
+     * @param name the name of the task for the log
+     * @param task the task
+     * @return the wrapped task
+     */
+    public static Runnable logFailures(String name, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            }
+            catch (Throwable e) {
+                log.error(name + " failed: " + e.getMessage());
+            }
+        };
+    }
+}
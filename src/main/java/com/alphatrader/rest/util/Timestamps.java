@@ -0,0 +1,40 @@
+package com.alphatrader.rest.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Utility class for converting the unix timestamps sent by the api into dates.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public final class Timestamps {
+    /**
+     * Marker for a missing timestamp.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Private constructor to avoid utility class instantiation.
+     */
+    private Timestamps() {
+    }
+
+    /**
+     * Converts a unix timestamp into a date in the configured time zone.
+     *
+     * @param epochMillis the unix timestamp in milliseconds or {@link #NONE}
+     * @return the date or null if the timestamp is missing
+     */
+    @Nullable
+    public static ZonedDateTime toZonedDateTime(long epochMillis) {
+        if (epochMillis == NONE) {
+            return null;
+        }
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis),
+            ApiLibConfig.getInstance().getTimeZone());
+    }
+}
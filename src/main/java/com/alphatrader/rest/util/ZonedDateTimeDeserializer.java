@@ -5,8 +5,6 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 
 import java.lang.reflect.Type;
-import java.time.Instant;
-import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
@@ -19,7 +17,6 @@ class ZonedDateTimeDeserializer implements JsonDeserializer<ZonedDateTime> {
     @Override
     public ZonedDateTime deserialize(JsonElement json, Type type,
                                      JsonDeserializationContext jsonDeserializationContext) {
-        Instant instant = Instant.ofEpochMilli(json.getAsJsonPrimitive().getAsLong());
-        return ZonedDateTime.ofInstant(instant, ZoneId.systemDefault());
+        return Timestamps.toZonedDateTime(json.getAsJsonPrimitive().getAsLong());
     }
 }
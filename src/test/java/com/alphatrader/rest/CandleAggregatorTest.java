@@ -0,0 +1,148 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CandleAggregator} and {@link CandleSeries} classes.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CandleAggregatorTest {
+    private static final Gson gson = new PropertyGson().create();
+    private static final long MINUTE = 60_000L;
+
+    private CandleAggregator toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new CandleAggregator(10, CandleAggregator.Interval.ONE_MINUTE,
+            CandleAggregator.Interval.FIVE_MINUTES);
+    }
+
+    @Test
+    public void testBars() throws Exception {
+        toTest.add("S1", 0, 10.0, 1, 10.0);
+        toTest.add("S1", 20_000, 12.0, 2, 24.0);
+        toTest.add("S1", 40_000, 9.0, 1, 9.0);
+        toTest.add("S1", MINUTE + 1, 11.0, 3, 33.0);
+
+        CandleSeries minutes = toTest.getSeries("S1", CandleAggregator.Interval.ONE_MINUTE);
+        assertEquals(2, minutes.size());
+        assertEquals(MINUTE, minutes.getStartMillis(0));
+        assertEquals(11.0, minutes.getOpen(0), 0.0);
+        assertEquals(10.0, minutes.getOpen(1), 0.0);
+        assertEquals(12.0, minutes.getHigh(1), 0.0);
+        assertEquals(9.0, minutes.getLow(1), 0.0);
+        assertEquals(9.0, minutes.getClose(1), 0.0);
+        assertEquals(4.0, minutes.getShares(1), 0.0);
+        assertEquals(43.0, minutes.getVolume(1), 0.0);
+        assertEquals(3, minutes.getTradeCount(1));
+
+        CandleSeries fiveMinutes = toTest.getSeries("S1", CandleAggregator.Interval.FIVE_MINUTES);
+        assertEquals(1, fiveMinutes.size());
+        assertEquals(10.0, fiveMinutes.getOpen(0), 0.0);
+        assertEquals(11.0, fiveMinutes.getClose(0), 0.0);
+        assertEquals(76.0, fiveMinutes.getVolume(0), 0.0);
+    }
+
+    @Test
+    public void testLateTradeCorrectsBar() throws Exception {
+        toTest.add("S1", 30_000, 10.0, 1, 10.0);
+        toTest.add("S1", 50_000, 11.0, 1, 11.0);
+        toTest.add("S1", 3 * MINUTE, 20.0, 1, 20.0);
+
+        assertTrue(toTest.add("S1", 5_000, 8.0, 1, 8.0));
+        assertTrue(toTest.add("S1", 40_000, 15.0, 1, 15.0));
+
+        CandleSeries minutes = toTest.getSeries("S1", CandleAggregator.Interval.ONE_MINUTE);
+        assertEquals(8.0, minutes.getOpen(3), 0.0);
+        assertEquals(15.0, minutes.getHigh(3), 0.0);
+        assertEquals(8.0, minutes.getLow(3), 0.0);
+        assertEquals(11.0, minutes.getClose(3), 0.0);
+        assertEquals(4, minutes.getTradeCount(3));
+        assertEquals(20.0, minutes.getClose(0), 0.0);
+    }
+
+    @Test
+    public void testEmptyBars() throws Exception {
+        toTest.add("S1", 0, 10.0, 1, 10.0);
+        toTest.add("S1", 3 * MINUTE, 11.0, 1, 11.0);
+
+        CandleSeries minutes = toTest.getSeries("S1", CandleAggregator.Interval.ONE_MINUTE);
+        assertEquals(4, minutes.size());
+        assertFalse(minutes.hasTrades(1));
+        assertTrue(Double.isNaN(minutes.getClose(1)));
+        assertEquals(0.0, minutes.getVolume(2), 0.0);
+        assertEquals(MINUTE, minutes.getStartMillis(2));
+        assertTrue(minutes.hasTrades(3));
+    }
+
+    @Test
+    public void testRingBufferEvictsOldBars() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            toTest.add("S1", i * MINUTE, i, 1, i);
+        }
+
+        CandleSeries minutes = toTest.getSeries("S1", CandleAggregator.Interval.ONE_MINUTE);
+        assertEquals(10, minutes.size());
+        assertEquals(24.0, minutes.getClose(0), 0.0);
+        assertEquals(15.0, minutes.getClose(9), 0.0);
+        assertFalse(minutes.hasTrades(10));
+
+        toTest.add("S1", 14 * MINUTE, 99.0, 1, 99.0);
+        assertEquals(15.0, minutes.getClose(9), 0.0);
+        assertFalse(minutes.hasTrades(10));
+    }
+
+    @Test
+    public void testDroppedTrade() throws Exception {
+        CandleAggregator aggregator = new CandleAggregator(2, CandleAggregator.Interval.ONE_MINUTE);
+        aggregator.add("S1", 10 * MINUTE, 1.0, 1, 1.0);
+        assertFalse(aggregator.add("S1", 0, 1.0, 1, 1.0));
+        assertTrue(aggregator.add("S1", 9 * MINUTE, 1.0, 1, 1.0));
+    }
+
+    @Test
+    public void testAccept() throws Exception {
+        SecurityOrderLog log = gson.fromJson("{\n" +
+            "  \"buyerSecuritiesAccount\": \"a\",\n" +
+            "  \"sellerSecuritiesAccount\": \"b\",\n" +
+            "  \"numberOfShares\": 100,\n" +
+            "  \"volume\": 250.0,\n" +
+            "  \"securityIdentifier\": \"STK0F513\",\n" +
+            "  \"price\": 2.5,\n" +
+            "  \"date\": 1475882777051,\n" +
+            "  \"id\": \"1\"\n" +
+            "}", SecurityOrderLog.class);
+        toTest.accept(log);
+
+        CandleSeries minutes = toTest.getSeries("STK0F513", CandleAggregator.Interval.ONE_MINUTE);
+        assertEquals(2.5, minutes.getClose(0), 0.0);
+        assertEquals(100.0, minutes.getShares(0), 0.0);
+        assertEquals(1475882777051L / MINUTE * MINUTE, minutes.getStartMillis(0));
+        assertTrue(toTest.getSecurityIdentifiers().contains("STK0F513"));
+        assertNull(toTest.getSeries("STK0F513", CandleAggregator.Interval.ONE_DAY));
+        assertNull(toTest.getSeries("unknown", CandleAggregator.Interval.ONE_MINUTE));
+
+        toTest.remove("STK0F513");
+        assertTrue(toTest.getSecurityIdentifiers().isEmpty());
+    }
+
+    @Test
+    public void testAcceptSkipsLogWithoutDate() throws Exception {
+        toTest.accept(gson.fromJson("{\"securityIdentifier\": \"STK0F513\", \"price\": 2.5}",
+            SecurityOrderLog.class));
+        assertNull(toTest.getSeries("STK0F513", CandleAggregator.Interval.ONE_MINUTE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        new CandleAggregator(0, CandleAggregator.Interval.ONE_MINUTE);
+    }
+}
@@ -0,0 +1,114 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CashFlowAggregator} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CashFlowAggregatorTest {
+    private static final Gson gson = new PropertyGson().create();
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private CashFlowAggregator toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new CashFlowAggregator(Duration.ofHours(1));
+    }
+
+    @Test
+    public void testTotals() throws Exception {
+        toTest.addAll(Arrays.asList(
+            log("a", "b", 10.0, 0),
+            log("a", "b", 30.0, HOUR - 1),
+            log("b", "c", 5.0, HOUR),
+            log("c", "a", 7.0, 3 * HOUR)));
+        toTest.accept(log("a", "c", 1.0, 3 * HOUR + 5));
+
+        CashFlowAggregator.Totals sent = toTest.getSent("a");
+        assertEquals(3, sent.getCount());
+        assertEquals(41.0, sent.getSum(), 0.0);
+        assertEquals(30.0, sent.getMax(), 0.0);
+        assertEquals(7.0, toTest.getReceived("a").getSum(), 0.0);
+        assertEquals(-34.0, toTest.getNetFlow("a"), 0.0);
+        assertEquals(35.0, toTest.getNetFlow("b"), 0.0);
+
+        CashFlowAggregator.Totals between = toTest.getBetween("a", "b");
+        assertEquals(2, between.getCount());
+        assertEquals(20.0, between.getAverage(), 0.0);
+        assertEquals(0, toTest.getBetween("b", "a").getCount());
+        assertEquals(0, toTest.getSent("unknown").getCount());
+        assertTrue(Double.isNaN(toTest.getSent("unknown").getMax()));
+
+        assertEquals(2, toTest.getBucket(0).getCount());
+        assertEquals(0, toTest.getBucket(2 * HOUR).getCount());
+        SortedMap<Long, CashFlowAggregator.Totals> buckets = toTest.getBuckets();
+        assertEquals(Arrays.asList(0L, HOUR, 3 * HOUR), new ArrayList<>(buckets.keySet()));
+        assertEquals(8.0, buckets.get(3 * HOUR).getSum(), 0.0);
+
+        assertEquals(5, toTest.getTotal().getCount());
+        assertEquals(53.0, toTest.getTotal().getSum(), 0.0);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), toTest.getSentByAccount().keySet());
+        assertEquals(2, toTest.getReceivedByAccount().get("c").getCount());
+
+        toTest.clear();
+        assertEquals(0, toTest.getTotal().getCount());
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        Random random = new Random(7);
+        List<CashTransferLog> logs = new ArrayList<>();
+        for (int i = 0; i < 60_000; i++) {
+            logs.add(log("acc" + random.nextInt(300), "acc" + random.nextInt(300),
+                random.nextInt(10_000) / 100.0, random.nextInt(1000) * HOUR / 10));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            toTest.setPool(pool);
+            toTest.addAll(logs.subList(0, 40_000));
+            toTest.addAll(logs.subList(40_000, 60_000));
+        }
+        finally {
+            pool.shutdown();
+        }
+        CashFlowAggregator sequential = new CashFlowAggregator(Duration.ofHours(1));
+        logs.forEach(sequential);
+
+        assertEquals(sequential.getTotal().getCount(), toTest.getTotal().getCount());
+        assertEquals(sequential.getTotal().getSum(), toTest.getTotal().getSum(), 1e-6);
+        for (int i = 0; i < 300; i++) {
+            String account = "acc" + i;
+            assertEquals(sequential.getSent(account).getCount(), toTest.getSent(account).getCount());
+            assertEquals(sequential.getSent(account).getMax(), toTest.getSent(account).getMax(), 0.0);
+            assertEquals(sequential.getNetFlow(account), toTest.getNetFlow(account), 1e-6);
+        }
+        assertEquals(sequential.getBetween("acc1", "acc2").getSum(),
+            toTest.getBetween("acc1", "acc2").getSum(), 1e-6);
+        assertEquals(sequential.getBuckets().keySet(), toTest.getBuckets().keySet());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBucketLength() throws Exception {
+        new CashFlowAggregator(Duration.ZERO);
+    }
+
+    private static CashTransferLog log(String sender, String receiver, double amount, long date) {
+        return gson.fromJson("{\"senderBankAccount\": \"" + sender + "\", \"receiverBankAccount\": \""
+            + receiver + "\", \"amount\": " + amount + ", \"date\": " + date + "}",
+            CashTransferLog.class);
+    }
+}
@@ -3,6 +3,7 @@ package com.alphatrader.rest;
 import com.alphatrader.rest.util.PropertyGson;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.mashape.unirest.http.exceptions.UnirestException;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -68,6 +69,22 @@ public class CashTransferLogTest {
         assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
     }
 
+    @Test
+    public void testRequestCashTransferLogs() throws Exception {
+        ZonedDateTime date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneId.systemDefault());
+
+        List<CashTransferLog> reference = CashTransferLog.getCashTransferLogs(date, date, null, null);
+        List<CashTransferLog> testObject = CashTransferLog.requestCashTransferLogs(date, date, null, null);
+
+        assertNotEquals(0, testObject.size());
+        assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
+    }
+
+    @Test(expected = UnirestException.class)
+    public void testRequestCashTransferLogsInvalid() throws Exception {
+        CashTransferLog.requestCashTransferLogs(null, null, null, "invalid");
+    }
+
     @Test
     public void testGetCashTransferLogs1() throws Exception {
         ZonedDateTime date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneId.systemDefault());
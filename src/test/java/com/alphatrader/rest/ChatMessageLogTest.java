@@ -0,0 +1,84 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link ChatMessageLog} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ChatMessageLogTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private ChatMessageLog toTest;
+
+    static ChatMessage message(String id, long dateSent) {
+        return gson.fromJson("{\"chatId\": \"chat\", \"id\": \"" + id + "\", \"dateSent\": " + dateSent
+            + "}", ChatMessage.class);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new ChatMessageLog("chat");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(toTest.append(message("m" + i, i * 10L)));
+        }
+    }
+
+    @Test
+    public void getChatId() throws Exception {
+        assertEquals("chat", toTest.getChatId());
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        assertEquals(100, toTest.size());
+        assertFalse(toTest.append(message("old", 500L)));
+        assertFalse(toTest.append(message("m99", 990L)));
+        assertFalse(toTest.append(gson.fromJson("{\"id\": \"undated\"}", ChatMessage.class)));
+        assertTrue(toTest.append(message("same", 990L)));
+        assertTrue(toTest.append(message("new", 1000L)));
+        assertEquals(102, toTest.size());
+    }
+
+    @Test
+    public void getNewestDate() throws Exception {
+        assertEquals(Timestamps.toZonedDateTime(990L), toTest.getNewestDate());
+        assertNull(new ChatMessageLog("empty").getNewestDate());
+    }
+
+    @Test
+    public void getMessages() throws Exception {
+        List<ChatMessage> messages = toTest.getMessages();
+        assertEquals(100, messages.size());
+        assertEquals("m0", messages.get(0).getId());
+        messages.clear();
+        assertEquals(100, toTest.size());
+    }
+
+    @Test
+    public void getMessagesInRange() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (ChatMessage message : toTest.getMessages(Timestamps.toZonedDateTime(95L),
+            Timestamps.toZonedDateTime(131L))) {
+            ids.add(message.getId());
+        }
+        assertEquals(4, ids.size());
+        assertEquals("m10", ids.get(0));
+        assertEquals("m13", ids.get(3));
+        assertTrue(toTest.getMessages(Timestamps.toZonedDateTime(2000L),
+            Timestamps.toZonedDateTime(3000L)).isEmpty());
+        assertTrue(toTest.getMessages(Timestamps.toZonedDateTime(50L),
+            Timestamps.toZonedDateTime(10L)).isEmpty());
+    }
+}
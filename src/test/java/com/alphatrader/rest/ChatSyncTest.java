@@ -0,0 +1,116 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link ChatSync} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ChatSyncTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private final Map<String, List<ChatMessage>> server = new HashMap<>();
+    private final List<String> messageRequests = new ArrayList<>();
+    private final List<ChatMessage> delivered = new ArrayList<>();
+
+    private ChatSync toTest;
+
+    private static Chat chat(String id, long lastMessageDate) {
+        return gson.fromJson("{\"id\": \"" + id + "\", \"lastMessage\": {\"dateSent\": "
+            + lastMessageDate + "}}", Chat.class);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server.put("a", new ArrayList<>(Arrays.asList(ChatMessageLogTest.message("a2", 20L),
+            ChatMessageLogTest.message("a1", 10L))));
+        server.put("b", new ArrayList<>(Collections.singletonList(ChatMessageLogTest.message("b1", 15L))));
+
+        toTest = new ChatSync(() -> {
+            List<Chat> chats = new ArrayList<>();
+            for (Map.Entry<String, List<ChatMessage>> entry : server.entrySet()) {
+                long newest = 0;
+                for (ChatMessage message : entry.getValue()) {
+                    newest = Math.max(newest, message.getDateSent().toInstant().toEpochMilli());
+                }
+                chats.add(chat(entry.getKey(), newest));
+            }
+            return chats;
+        }, (String chatId, ZonedDateTime from) -> {
+            messageRequests.add(chatId);
+            List<ChatMessage> result = new ArrayList<>();
+            for (ChatMessage message : server.get(chatId)) {
+                if (from == null || !message.getDateSent().isBefore(from)) {
+                    result.add(message);
+                }
+            }
+            return result;
+        });
+        toTest.addListener(delivered::add);
+    }
+
+    @Test
+    public void testSyncAll() throws Exception {
+        assertEquals(3, toTest.syncAll().size());
+        assertEquals(2, toTest.getLog("a").size());
+        assertEquals("a1", toTest.getLog("a").getMessages().get(0).getId());
+        assertEquals(1, toTest.getLog("b").size());
+        assertEquals(3, delivered.size());
+    }
+
+    @Test
+    public void testSyncAllOnlyFetchesChangedChats() throws Exception {
+        toTest.syncAll();
+        messageRequests.clear();
+
+        assertTrue(toTest.syncAll().isEmpty());
+        assertTrue(messageRequests.isEmpty());
+
+        server.get("b").add(ChatMessageLogTest.message("b2", 30L));
+        List<ChatMessage> fresh = toTest.syncAll();
+        assertEquals(Collections.singletonList("b"), messageRequests);
+        assertEquals(1, fresh.size());
+        assertEquals("b2", fresh.get(0).getId());
+        assertEquals(4, delivered.size());
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        assertNull(toTest.getLog("a"));
+        assertEquals(2, toTest.sync("a").size());
+        assertTrue(toTest.sync("a").isEmpty());
+        assertEquals(2, toTest.getLog("a").size());
+    }
+
+    @Test(timeout = 5000)
+    public void testStartSurvivesFailingSync() throws Exception {
+        AtomicInteger syncs = new AtomicInteger();
+        ChatSync sync = new ChatSync(() -> {
+            if (syncs.incrementAndGet() == 1) {
+                throw new IllegalStateException("Test");
+            }
+            return Collections.emptyList();
+        }, (chatId, from) -> Collections.emptyList());
+        sync.start(1, TimeUnit.MILLISECONDS);
+        try {
+            while (syncs.get() < 3) {
+                Thread.sleep(1);
+            }
+        }
+        finally {
+            sync.stop();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CompanyProfileHydrator} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CompanyProfileHydratorTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final Gson gson = new PropertyGson().create();
+    private static final String COMPANY = "81dcf5a1-b0b6-462a-a40c-e374619edc2f";
+
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+    private final List<CompanyProfile> received = new ArrayList<>();
+
+    private CompanyProfileHydrator toTest;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new CompanyProfileHydrator(companyId -> {
+            requested.add(companyId);
+            if (companyId.startsWith("fail")) {
+                throw new IllegalStateException("failure");
+            }
+            if (companyId.startsWith("missing")) {
+                return null;
+            }
+            return gson.fromJson("{\"id\": \"" + companyId + "\"}", CompanyProfile.class);
+        });
+    }
+
+    @Test
+    public void testHydrate() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add("c" + i);
+        }
+        toTest.setParallelism(4);
+
+        CompanyProfileHydrator.Summary summary = toTest.hydrate(ids, received::add);
+
+        assertEquals(50, summary.getLoaded());
+        assertEquals(50, summary.getCompleted());
+        assertEquals(50, received.size());
+        Set<String> receivedIds = new HashSet<>();
+        for (CompanyProfile profile : received) {
+            receivedIds.add(profile.getId());
+        }
+        assertEquals(new HashSet<>(ids), receivedIds);
+    }
+
+    @Test
+    public void testFailuresAndProgress() throws Exception {
+        List<String> failed = new ArrayList<>();
+        AtomicInteger lastCompleted = new AtomicInteger();
+        toTest.setListener(new CompanyProfileHydrator.Listener() {
+            @Override
+            public void onProgress(int completed, int total) {
+                assertEquals(3, total);
+                lastCompleted.set(completed);
+            }
+
+            @Override
+            public void onFailure(String companyId, Throwable cause) {
+                failed.add(companyId);
+            }
+        });
+
+        CompanyProfileHydrator.Summary summary = toTest.hydrate(Arrays.asList("a", "fail", "missing"),
+            received::add);
+
+        assertEquals(1, summary.getLoaded());
+        assertEquals(2, summary.getFailures().size());
+        assertEquals("failure", summary.getFailures().get("fail").getMessage());
+        assertTrue(summary.getFailures().get("missing") instanceof NoSuchElementException);
+        assertEquals(new HashSet<>(Arrays.asList("fail", "missing")), new HashSet<>(failed));
+        assertEquals(3, lastCompleted.get());
+        assertTrue(summary.toString().startsWith(summary.getClass().getSimpleName()));
+    }
+
+    @Test
+    public void testSkipUnchanged() throws Exception {
+        Map<String, Object> versions = new HashMap<>();
+        versions.put("a", 1);
+        versions.put("b", 1);
+        toTest.setVersionFunction(versions::get);
+
+        toTest.hydrate(Arrays.asList("a", "b", "c"), received::add);
+        requested.clear();
+        versions.put("b", 2);
+
+        CompanyProfileHydrator.Summary summary = toTest.hydrate(Arrays.asList("a", "b", "c"),
+            received::add);
+
+        assertEquals(2, summary.getLoaded());
+        assertEquals(1, summary.getSkipped());
+        assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(requested));
+
+        toTest.clearVersions();
+        requested.clear();
+        toTest.hydrate(Arrays.asList("a", "b"), received::add);
+        assertEquals(2, requested.size());
+    }
+
+    @Test
+    public void testRateBudget() throws Exception {
+        toTest.setRequestsPerSecond(50);
+        long start = System.nanoTime();
+
+        toTest.hydrate(Arrays.asList("a", "b", "c", "d", "e", "f"), received::add);
+
+        assertTrue(System.nanoTime() - start >= 80_000_000L);
+        assertEquals(6, received.size());
+    }
+
+    @Test
+    public void testHydrateCompanies() throws Exception {
+        CompanyProfileHydrator hydrator = new CompanyProfileHydrator();
+        Company company = gson.fromJson("{\"id\": \"" + COMPANY + "\"}", Company.class);
+
+        CompanyProfileHydrator.Summary summary = hydrator.hydrateCompanies(
+            Collections.singletonList(company), received::add);
+
+        assertEquals(1, summary.getLoaded());
+        assertEquals(CompanyProfile.getByCompany(COMPANY), received.get(0));
+    }
+}
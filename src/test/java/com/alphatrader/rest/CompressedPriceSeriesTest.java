@@ -0,0 +1,167 @@
+package com.alphatrader.rest;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CompressedPriceSeries} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CompressedPriceSeriesTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Random random = new Random(17);
+        long[] dates = new long[20000];
+        double[] values = new double[dates.length];
+        long date = 1474194147801L;
+        double price = 100.0;
+        for (int i = 0; i < dates.length; i++) {
+            int kind = random.nextInt(10);
+            date += kind == 0 ? 0 : kind == 1 ? random.nextInt(1_000_000_000) : kind < 5 ? 60_000
+                : random.nextInt(100_000);
+            price = kind == 2 ? price : Math.round((price + random.nextGaussian()) * 100) / 100.0;
+            dates[i] = date;
+            values[i] = kind == 3 ? random.nextLong() * 1e-300 : price;
+        }
+
+        CompressedPriceSeries.Builder builder = CompressedPriceSeries.builder(HOUR);
+        for (int i = 0; i < dates.length; i++) {
+            builder.append(dates[i], values[i]);
+        }
+        CompressedPriceSeries toTest = builder.build();
+
+        assertEquals(dates.length, toTest.size());
+        CompressedPriceSeries.Cursor cursor = toTest.cursor();
+        for (int i = 0; i < dates.length; i++) {
+            assertTrue(cursor.next());
+            assertEquals(dates[i], cursor.getDateMillis());
+            assertEquals(Double.doubleToRawLongBits(values[i]),
+                Double.doubleToRawLongBits(cursor.getValue()));
+        }
+        assertFalse(cursor.next());
+        assertTrue(toTest.getCompressedBytes() < dates.length * 16L);
+    }
+
+    @Test
+    public void testCompressionRatio() throws Exception {
+        Random random = new Random(42);
+        CompressedPriceSeries.Builder builder = CompressedPriceSeries.builder(
+            CompressedPriceSeries.DEFAULT_BLOCK_MILLIS);
+        long date = 1474194147801L;
+        double price = 600;
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            date += 1000 + random.nextInt(120_000);
+            if (random.nextInt(3) == 0) {
+                price = Math.max(0.01, Math.round((price + random.nextGaussian()) * 100) / 100.0);
+            }
+            builder.append(date, price);
+        }
+        CompressedPriceSeries toTest = builder.build();
+
+        assertTrue(count * 16.0 / toTest.getCompressedBytes() > 2.5);
+    }
+
+    @Test
+    public void testSpecialValues() throws Exception {
+        double[] values = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE,
+            -Double.MAX_VALUE, 1.0, 1.0, 2.0};
+        CompressedPriceSeries.Builder builder = CompressedPriceSeries.builder(HOUR);
+        for (int i = 0; i < values.length; i++) {
+            builder.append(Long.MIN_VALUE / 2 + i, values[i]);
+        }
+        builder.append(Long.MAX_VALUE / 2, 3.0);
+
+        List<Double> decoded = new ArrayList<>();
+        List<Long> dates = new ArrayList<>();
+        builder.build().forEach((dateMillis, value) -> {
+            dates.add(dateMillis);
+            decoded.add(value);
+        });
+        assertEquals(values.length + 1, decoded.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(values[i]),
+                Double.doubleToRawLongBits(decoded.get(i)));
+            assertEquals(Long.MIN_VALUE / 2 + i, (long) dates.get(i));
+        }
+        assertEquals(Long.MAX_VALUE / 2, (long) dates.get(values.length));
+    }
+
+    @Test
+    public void testBlocks() throws Exception {
+        CompressedPriceSeries toTest = series(0, 10 * HOUR, 60_000);
+
+        assertEquals(10, toTest.getBlockCount());
+        assertEquals(600, toTest.size());
+        assertEquals(3 * HOUR, toTest.getBlockStartMillis(3));
+        assertEquals(60, toTest.getBlockSize(3));
+        assertEquals(3, toTest.findBlock(3 * HOUR + 1));
+        assertEquals(0, toTest.findBlock(-1));
+        assertEquals(9, toTest.findBlock(100 * HOUR));
+
+        CompressedPriceSeries.Cursor cursor = toTest.cursor(7);
+        assertTrue(cursor.next());
+        assertEquals(7 * HOUR, cursor.getDateMillis());
+        assertEquals(7 * 60, cursor.getValue(), 0.0);
+        assertFalse(toTest.cursor(10).next());
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        CompressedPriceSeries toTest = series(0, 10 * HOUR, 60_000);
+        List<Long> dates = new ArrayList<>();
+        toTest.forEach(2 * HOUR + 30 * 60_000, 4 * HOUR, (dateMillis, value) -> dates.add(dateMillis));
+        assertEquals(90, dates.size());
+        assertEquals(2 * HOUR + 30 * 60_000, (long) dates.get(0));
+        assertEquals(4 * HOUR - 60_000, (long) dates.get(89));
+    }
+
+    @Test
+    public void testPriceSeriesConversion() throws Exception {
+        PriceSeries series = new PriceSeries("STK0F513");
+        series.append(1474194147801L, 0.28);
+        series.append(1474284838614L, 0.05);
+        series.append(1474329384614L, 0.02);
+
+        CompressedPriceSeries compressed = CompressedPriceSeries.of(series,
+            CompressedPriceSeries.DEFAULT_BLOCK_MILLIS);
+        PriceSeries decompressed = compressed.toPriceSeries("STK0F513");
+        assertArrayEquals(series.getDates(), decompressed.getDates());
+        assertArrayEquals(series.getValues(), decompressed.getValues(), 0.0);
+        assertTrue(compressed.toString().startsWith(compressed.getClass().getSimpleName()));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        CompressedPriceSeries toTest = CompressedPriceSeries.builder(HOUR).build();
+        assertEquals(0, toTest.size());
+        assertEquals(0, toTest.getBlockCount());
+        assertFalse(toTest.cursor().next());
+        toTest.forEach(0, 1, (dateMillis, value) -> fail());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfOrder() throws Exception {
+        CompressedPriceSeries.builder(HOUR).append(2, 1.0).append(1, 1.0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testCursorBeforeFirstPoint() throws Exception {
+        series(0, HOUR, 60_000).cursor().getValue();
+    }
+
+    private static CompressedPriceSeries series(long from, long to, long step) {
+        CompressedPriceSeries.Builder builder = CompressedPriceSeries.builder(HOUR);
+        for (long date = from; date < to; date += step) {
+            builder.append(date, date / step);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link EntityIdentityMap} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class EntityIdentityMapTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private static final String COMPANY_JSON = "{\n" +
+        "  \"securitiesAccountId\": \"57875cf3-de0a-48e4-a3bc-314d4550df12\",\n" +
+        "  \"ceo\": {\n" +
+        "    \"username\": \"FauserneEist\",\n" +
+        "    \"id\": \"43986f13-edde-486c-9ef0-718b100a1949\"\n" +
+        "  },\n" +
+        "  \"name\": \"Katholische Kirche AG\",\n" +
+        "  \"id\": \"81dcf5a1-b0b6-462a-a40c-e374619edc2f\"\n" +
+        "}";
+
+    private EntityIdentityMap toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = EntityIdentityMap.getInstance();
+        toTest.clear();
+    }
+
+    @Test
+    public void testGetInstance() throws Exception {
+        assertSame(toTest, EntityIdentityMap.getInstance());
+    }
+
+    @Test
+    public void testSharedInstance() throws Exception {
+        Company first = gson.fromJson(COMPANY_JSON, Company.class);
+        Company second = new PropertyGson().create().fromJson(COMPANY_JSON, Company.class);
+        assertSame(first, second);
+        assertSame(first.getCeo(), second.getCeo());
+        assertEquals(2, toTest.size());
+    }
+
+    @Test
+    public void testNestedInstanceShared() throws Exception {
+        Company company = gson.fromJson(COMPANY_JSON, Company.class);
+        User ceo = gson.fromJson("{\"id\": \"43986f13-edde-486c-9ef0-718b100a1949\"}", User.class);
+        assertSame(company.getCeo(), ceo);
+    }
+
+    @Test
+    public void testFillMissing() throws Exception {
+        Company company = gson.fromJson("{\"name\": \"Katholische Kirche AG\", "
+            + "\"id\": \"81dcf5a1-b0b6-462a-a40c-e374619edc2f\"}", Company.class);
+        Company full = gson.fromJson(COMPANY_JSON, Company.class);
+        assertSame(company, full);
+        assertEquals("57875cf3-de0a-48e4-a3bc-314d4550df12", company.getSecuritiesAccountId());
+        assertNotNull(company.getCeo());
+    }
+
+    @Test
+    public void testKeepsSetValues() throws Exception {
+        Company company = gson.fromJson(COMPANY_JSON, Company.class);
+        Company renamed = gson.fromJson("{\"name\": \"Renamed AG\", "
+            + "\"id\": \"81dcf5a1-b0b6-462a-a40c-e374619edc2f\"}", Company.class);
+        assertSame(company, renamed);
+        assertEquals("Katholische Kirche AG", company.getName());
+    }
+
+    @Test
+    public void testWithoutId() throws Exception {
+        Listing first = gson.fromJson("{\"name\": \"No id\"}", Listing.class);
+        Listing second = gson.fromJson("{\"name\": \"No id\"}", Listing.class);
+        assertNotSame(first, second);
+        assertEquals(0, toTest.size());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        Company first = gson.fromJson(COMPANY_JSON, Company.class);
+        toTest.clear();
+        assertEquals(0, toTest.size());
+        assertNotSame(first, gson.fromJson(COMPANY_JSON, Company.class));
+    }
+}
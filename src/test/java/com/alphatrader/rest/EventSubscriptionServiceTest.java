@@ -0,0 +1,135 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link EventSubscriptionService} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class EventSubscriptionServiceTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private final List<Event> server = new ArrayList<>();
+    private final List<Long> requestedDates = new ArrayList<>();
+
+    private EventSubscriptionService toTest;
+
+    private static Event event(Event.Type type, long date, String realm) {
+        return gson.fromJson("{\"type\": \"" + type + "\", \"date\": " + date + ", \"realms\": [\""
+            + realm + "\"], \"content\": {\"id\": \"" + realm + date + "\"}}", Event.class);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new EventSubscriptionService(from -> {
+            long fromMillis = from.toInstant().toEpochMilli();
+            requestedDates.add(fromMillis);
+            List<Event> result = new ArrayList<>();
+            for (Event event : server) {
+                if (event.getDate().toInstant().toEpochMilli() >= fromMillis) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }, Timestamps.toZonedDateTime(100L));
+    }
+
+    @Test
+    public void testPoll() throws Exception {
+        server.add(event(Event.Type.NEW_USER, 200L, "a"));
+        server.add(event(Event.Type.NEW_COMPANY, 150L, "b"));
+        server.add(event(Event.Type.NEW_USER, 50L, "a"));
+
+        List<Event> fresh = toTest.poll();
+        assertEquals(2, fresh.size());
+        assertEquals(Event.Type.NEW_COMPANY, fresh.get(0).getType());
+        assertEquals(Timestamps.toZonedDateTime(200L), toTest.getWatermark());
+
+        assertTrue(toTest.poll().isEmpty());
+        assertEquals(Arrays.asList(100L, 200L), requestedDates);
+    }
+
+    @Test
+    public void testPollAtMostOnceAtWatermark() throws Exception {
+        server.add(event(Event.Type.NEW_USER, 200L, "a"));
+        toTest.poll();
+
+        server.add(event(Event.Type.NEW_USER, 200L, "b"));
+        List<Event> fresh = toTest.poll();
+        assertEquals(1, fresh.size());
+        assertEquals("b", fresh.get(0).getRealms().get(0));
+        assertTrue(toTest.poll().isEmpty());
+    }
+
+    @Test
+    public void testSubscribeByTypeAndRealm() throws Exception {
+        List<Event> users = new ArrayList<>();
+        List<Event> realmA = new ArrayList<>();
+        List<Event> all = new ArrayList<>();
+        toTest.subscribe(users::add, null, Event.Type.NEW_USER);
+        toTest.subscribe(realmA::add, "a", Event.Type.NEW_USER, Event.Type.NEW_COMPANY);
+        toTest.subscribe(all::add, null);
+
+        server.add(event(Event.Type.NEW_USER, 200L, "a"));
+        server.add(event(Event.Type.NEW_USER, 210L, "b"));
+        server.add(event(Event.Type.NEW_COMPANY, 220L, "a"));
+        server.add(event(Event.Type.SYSTEM_STARTED, 230L, "a"));
+        toTest.poll();
+
+        assertEquals(2, users.size());
+        assertEquals(2, realmA.size());
+        assertEquals(Event.Type.NEW_COMPANY, realmA.get(1).getType());
+        assertEquals(4, all.size());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        List<Event> received = new ArrayList<>();
+        EventSubscriptionService.Subscription subscription = toTest.subscribe(received::add, null);
+
+        server.add(event(Event.Type.NEW_USER, 200L, "a"));
+        toTest.poll();
+        subscription.cancel();
+        server.add(event(Event.Type.NEW_USER, 300L, "a"));
+        toTest.poll();
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testFailingSubscriber() throws Exception {
+        List<Event> received = new ArrayList<>();
+        toTest.subscribe(event -> {
+            throw new IllegalStateException("failure");
+        }, null);
+        toTest.subscribe(received::add, null);
+
+        server.add(event(Event.Type.NEW_USER, 200L, "a"));
+        toTest.poll();
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testNextPeriod() throws Exception {
+        toTest.start(10, 80, TimeUnit.SECONDS);
+        toTest.stop();
+
+        assertEquals(20000L, toTest.nextPeriod(10000L, false));
+        assertEquals(80000L, toTest.nextPeriod(60000L, false));
+        assertEquals(10000L, toTest.nextPeriod(80000L, true));
+    }
+}
@@ -0,0 +1,201 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link HistoryBackfill} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class HistoryBackfillTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<SecurityOrderLog> server = new ArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            server.add(gson.fromJson("{\"id\": \"log" + i + "\", \"date\": " + (i * 1000L) + "}",
+                SecurityOrderLog.class));
+        }
+        Collections.shuffle(server);
+    }
+
+    private HistoryBackfill<SecurityOrderLog> backfill(int failuresPerShard) {
+        Map<Long, AtomicInteger> failures = new ConcurrentHashMap<>();
+        HistoryBackfill<SecurityOrderLog> backfill = new HistoryBackfill<>((from, to) -> {
+            requests.incrementAndGet();
+            long start = from.toInstant().toEpochMilli();
+            long end = to.toInstant().toEpochMilli();
+            if (failures.computeIfAbsent(start, key -> new AtomicInteger()).getAndIncrement()
+                < failuresPerShard) {
+                throw new IOException("Test failure");
+            }
+            List<SecurityOrderLog> result = new ArrayList<>();
+            for (SecurityOrderLog orderLog : server) {
+                if (orderLog.getDateMillis() >= start && orderLog.getDateMillis() <= end) {
+                    result.add(orderLog);
+                }
+            }
+            return result;
+        }, SecurityOrderLog::getDateMillis);
+        backfill.setInitialShardLength(Duration.ofSeconds(10));
+        backfill.setTargetShardSize(50);
+        backfill.setRetries(2, Duration.ZERO);
+        return backfill;
+    }
+
+    @Test
+    public void testRunDeliversAllInOrder() throws Exception {
+        List<SecurityOrderLog> result = new ArrayList<>();
+        long count = backfill(0).run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(499000L),
+            result::add);
+
+        assertEquals(500, count);
+        assertEquals(500, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i * 1000L, result.get(i).getDateMillis());
+        }
+    }
+
+    @Test
+    public void testRunAdaptsShardSize() throws Exception {
+        backfill(0).run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(499000L),
+            orderLog -> { });
+        assertTrue(requests.get() < 50);
+    }
+
+    @Test
+    public void testRunRetriesFailedShards() throws Exception {
+        List<SecurityOrderLog> result = new ArrayList<>();
+        backfill(2).run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(99000L), result::add);
+        assertEquals(100, result.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRunFailsAfterRetries() throws Exception {
+        backfill(3).run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(99000L),
+            orderLog -> { });
+    }
+
+    @Test
+    public void testRunBoundsBufferedShardsWhileHeadRetries() throws Exception {
+        AtomicInteger headAttempts = new AtomicInteger();
+        AtomicInteger otherShards = new AtomicInteger();
+        AtomicInteger othersBeforeHead = new AtomicInteger(-1);
+        HistoryBackfill<SecurityOrderLog> backfill = new HistoryBackfill<>((from, to) -> {
+            if (from.toInstant().toEpochMilli() == 0L) {
+                if (headAttempts.getAndIncrement() < 2) {
+                    throw new IOException("Test failure");
+                }
+                othersBeforeHead.set(otherShards.get());
+            }
+            else {
+                otherShards.incrementAndGet();
+            }
+            return Collections.emptyList();
+        }, SecurityOrderLog::getDateMillis);
+        backfill.setParallelism(3);
+        backfill.setInitialShardLength(Duration.ofSeconds(10));
+        backfill.setRetries(2, Duration.ofMillis(100));
+
+        backfill.run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(999999L),
+            orderLog -> { });
+
+        assertEquals(3, headAttempts.get());
+        assertEquals(2, othersBeforeHead.get());
+        assertTrue(otherShards.get() > 2);
+    }
+
+    private HistoryBackfill<SecurityOrderLog> interruptedAt(long interruption) {
+        HistoryBackfill<SecurityOrderLog> backfill = new HistoryBackfill<>((from, to) -> {
+            long start = from.toInstant().toEpochMilli();
+            if (start >= interruption) {
+                throw new IOException("Test failure");
+            }
+            List<SecurityOrderLog> result = new ArrayList<>();
+            for (SecurityOrderLog orderLog : server) {
+                if (orderLog.getDateMillis() >= start
+                    && orderLog.getDateMillis() <= to.toInstant().toEpochMilli()) {
+                    result.add(orderLog);
+                }
+            }
+            return result;
+        }, SecurityOrderLog::getDateMillis);
+        backfill.setParallelism(1);
+        backfill.setInitialShardLength(Duration.ofSeconds(10));
+        backfill.setTargetShardSize(10);
+        backfill.setRetries(0, Duration.ZERO);
+        return backfill;
+    }
+
+    private void interrupt(Path checkpoint, long end) {
+        HistoryBackfill<SecurityOrderLog> first = interruptedAt(200000L);
+        first.setCheckpointFile(checkpoint);
+        try {
+            first.run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(end), orderLog -> { });
+            fail("Backfill was not interrupted");
+        }
+        catch (IOException e) {
+            assertEquals("Test failure", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testRunResumesFromCheckpoint() throws Exception {
+        Path checkpoint = folder.getRoot().toPath().resolve("checkpoint");
+        interrupt(checkpoint, 499000L);
+
+        List<SecurityOrderLog> result = new ArrayList<>();
+        HistoryBackfill<SecurityOrderLog> second = backfill(0);
+        second.setCheckpointFile(checkpoint);
+        second.run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(499000L), result::add);
+
+        assertEquals(300, result.size());
+        assertEquals(200000L, result.get(0).getDateMillis());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRunRejectsCheckpointOfOtherRange() throws Exception {
+        Path checkpoint = folder.getRoot().toPath().resolve("checkpoint");
+        interrupt(checkpoint, 299000L);
+
+        HistoryBackfill<SecurityOrderLog> second = backfill(0);
+        second.setCheckpointFile(checkpoint);
+        second.run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(499000L), orderLog -> { });
+    }
+
+    @Test(expected = IOException.class)
+    public void testRunRejectsCheckpointOfOtherKey() throws Exception {
+        Path checkpoint = folder.getRoot().toPath().resolve("checkpoint");
+        interrupt(checkpoint, 499000L);
+
+        HistoryBackfill<SecurityOrderLog> second = backfill(0);
+        second.setCheckpointFile(checkpoint);
+        second.setCheckpointKey("other");
+        second.run(Timestamps.toZonedDateTime(0L), Timestamps.toZonedDateTime(499000L), orderLog -> { });
+    }
+}
@@ -26,7 +26,7 @@ public class HourlyMarketStatisticsTest {
     private static HttpResponder httpResponder = HttpResponder.getInstance();
     private static final Gson gson = new PropertyGson().create();
 
-    private static final String JSON = "{\n" +
+    static final String JSON = "{\n" +
         "  \"id\": \"b6800547-d4bb-44b8-a109-33574f91b10e\",\n" +
         "  \"averageBondDurationInDays\": 1,\n" +
         "  \"averageBookValue\": 2,\n" +
@@ -87,6 +87,12 @@ public class HourlyMarketStatisticsTest {
         assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
     }
 
+    @Test
+    public void getAllUncached() throws Exception {
+        assertEquals(new HashSet<>(HourlyMarketStatistics.getAll()),
+            new HashSet<>(HourlyMarketStatistics.getAllUncached()));
+    }
+
     @Test
     public void getId() throws Exception {
         assertEquals("b6800547-d4bb-44b8-a109-33574f91b10e", toTest.getId());
@@ -44,6 +44,23 @@ public class LastPriceTest {
         assertEquals(656.93, toTest.getValue(), 0.0001);
     }
 
+    @Test
+    public void getValueAsDouble() throws Exception {
+        assertEquals(656.93, toTest.getValueAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void isPercent() throws Exception {
+        assertFalse(toTest.isPercent());
+
+        LastPrice percentage = gson.fromJson("{\n" +
+            "  \"value\": \"3.25 %\"\n" +
+            "}", LastPrice.class);
+        assertTrue(percentage.isPercent());
+        assertEquals(3.25, percentage.getValue(), 0.0001);
+        assertEquals("3.25 %", percentage.valueProperty().getValue());
+    }
+
     @Test
     public void testToString() throws Exception {
         assertTrue(toTest.toString().startsWith(toTest.getClass().getSimpleName()));
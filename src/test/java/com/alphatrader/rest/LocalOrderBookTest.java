@@ -0,0 +1,88 @@
+package com.alphatrader.rest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.alphatrader.rest.OrderBookDiffEngineTest.book;
+import static com.alphatrader.rest.OrderBookDiffEngineTest.entry;
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link LocalOrderBook} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class LocalOrderBookTest {
+    private LocalOrderBook toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new LocalOrderBook(book(entry(10, 100) + "," + entry(9, 200) + "," + entry(10, 50),
+            entry(12, 100) + "," + entry(11, 100) + "," + entry(15, 300)));
+    }
+
+    @Test
+    public void getBestPrices() throws Exception {
+        assertEquals(10, toTest.getBestBid(), 0.0001);
+        assertEquals(11, toTest.getBestAsk(), 0.0001);
+        assertEquals(1, toTest.getSpread(), 0.0001);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        LocalOrderBook empty = new LocalOrderBook();
+        assertTrue(Double.isNaN(empty.getBestBid()));
+        assertTrue(Double.isNaN(empty.getBestAsk()));
+        assertEquals(0, empty.getBidDepth(1));
+        assertTrue(Double.isNaN(empty.getVwapToBuy(1)));
+        assertEquals(0, empty.getCumulativeAskSizes().length);
+    }
+
+    @Test
+    public void getDepth() throws Exception {
+        assertEquals(150, toTest.getBidDepth(10));
+        assertEquals(350, toTest.getBidDepth(9));
+        assertEquals(350, toTest.getBidDepth(1));
+        assertEquals(0, toTest.getBidDepth(10.5));
+
+        assertEquals(0, toTest.getAskDepth(10.99));
+        assertEquals(200, toTest.getAskDepth(12));
+        assertEquals(200, toTest.getAskDepth(14));
+        assertEquals(500, toTest.getAskDepth(100));
+
+        assertEquals(350, toTest.getTotalBidSize());
+        assertEquals(500, toTest.getTotalAskSize());
+    }
+
+    @Test
+    public void getVwapToBuy() throws Exception {
+        assertEquals(11, toTest.getVwapToBuy(50), 0.0001);
+        assertEquals(11, toTest.getVwapToBuy(100), 0.0001);
+        assertEquals((100 * 11 + 50 * 12) / 150.0, toTest.getVwapToBuy(150), 0.0001);
+        assertEquals((100 * 11 + 100 * 12 + 300 * 15) / 500.0, toTest.getVwapToBuy(500), 0.0001);
+        assertTrue(Double.isNaN(toTest.getVwapToBuy(501)));
+        assertTrue(Double.isNaN(toTest.getVwapToBuy(0)));
+    }
+
+    @Test
+    public void getVwapToSell() throws Exception {
+        assertEquals(10, toTest.getVwapToSell(150), 0.0001);
+        assertEquals((150 * 10 + 50 * 9) / 200.0, toTest.getVwapToSell(200), 0.0001);
+    }
+
+    @Test
+    public void getCurves() throws Exception {
+        assertArrayEquals(new double[] {10, 9}, toTest.getBidPrices(), 0.0001);
+        assertArrayEquals(new long[] {150, 350}, toTest.getCumulativeBidSizes());
+        assertArrayEquals(new double[] {11, 12, 15}, toTest.getAskPrices(), 0.0001);
+        assertArrayEquals(new long[] {100, 200, 500}, toTest.getCumulativeAskSizes());
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        toTest.update(book(entry(8, 10), ""));
+        assertEquals(8, toTest.getBestBid(), 0.0001);
+        assertTrue(Double.isNaN(toTest.getBestAsk()));
+    }
+}
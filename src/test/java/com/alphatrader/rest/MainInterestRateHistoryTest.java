@@ -0,0 +1,117 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link MainInterestRateHistory} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class MainInterestRateHistoryTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private final List<MainInterestRate> all = new ArrayList<>();
+    private MainInterestRate current;
+    private int allFetches;
+    private MainInterestRateHistory toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        all.addAll(Arrays.asList(rate("3", 3000L, 3.0), rate("1", 1000L, 1.0), rate("2", 2000L, 2.0)));
+        current = rate("3", 3000L, 3.0);
+        toTest = new MainInterestRateHistory(() -> {
+            allFetches++;
+            return all;
+        }, () -> current);
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        assertEquals(3, toTest.refresh());
+        assertEquals(1, allFetches);
+        assertEquals(3, toTest.size());
+        assertEquals(3000L, toTest.getNewestDateMillis());
+
+        assertEquals(0, toTest.refresh());
+        current = rate("4", 5000L, 2.5);
+        assertEquals(1, toTest.refresh());
+        assertEquals(0, toTest.refresh());
+        assertEquals(1, allFetches);
+        assertEquals(4, toTest.size());
+        assertEquals(2.5, toTest.getRateAt(6000L), 0.0);
+
+        all.add(rate("5", 4000L, 4.0));
+        assertEquals(1, toTest.reload());
+        assertEquals(4.0, toTest.getRateAt(4500L), 0.0);
+    }
+
+    @Test
+    public void testRefreshWithoutCurrent() throws Exception {
+        toTest.refresh();
+        current = null;
+        assertEquals(0, toTest.refresh());
+        assertEquals(3, toTest.size());
+    }
+
+    @Test
+    public void testAsOf() throws Exception {
+        toTest.refresh();
+
+        assertTrue(Double.isNaN(toTest.getRateAt(999L)));
+        assertEquals(1.0, toTest.getRateAt(1000L), 0.0);
+        assertEquals(1.0, toTest.getRateAt(1999L), 0.0);
+        assertEquals(3.0, toTest.getRateAt(Long.MAX_VALUE), 0.0);
+        assertEquals(2.0, toTest.getRateAt(Timestamps.toZonedDateTime(2500L)), 0.0);
+
+        assertEquals(1.0, toTest.getNextRate(0L), 0.0);
+        assertEquals(2.0, toTest.getNextRate(1001L), 0.0);
+        assertEquals(3.0, toTest.getNextRate(Timestamps.toZonedDateTime(3000L)), 0.0);
+        assertTrue(Double.isNaN(toTest.getNextRate(3001L)));
+
+        assertEquals(2000L, toTest.getEffectiveDateMillis(2999L));
+        assertEquals(Timestamps.NONE, toTest.getEffectiveDateMillis(0L));
+    }
+
+    @Test
+    public void testInterpolation() throws Exception {
+        assertTrue(Double.isNaN(toTest.getInterpolatedRate(1000L)));
+        toTest.refresh();
+
+        assertEquals(1.0, toTest.getInterpolatedRate(0L), 0.0);
+        assertEquals(1.25, toTest.getInterpolatedRate(1250L), 1e-9);
+        assertEquals(2.0, toTest.getInterpolatedRate(2000L), 0.0);
+        assertEquals(2.5, toTest.getInterpolatedRate(Timestamps.toZonedDateTime(2500L)), 1e-9);
+        assertEquals(3.0, toTest.getInterpolatedRate(10000L), 0.0);
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        assertEquals(Timestamps.NONE, toTest.getNewestDateMillis());
+        for (int i = 40; i > 0; i--) {
+            assertTrue(toTest.add(rate(String.valueOf(i), i * 1000L, i)));
+        }
+        assertEquals(40, toTest.size());
+        assertEquals(17.0, toTest.getRateAt(17500L), 0.0);
+
+        assertFalse(toTest.add(rate("x", 17000L, 1.5)));
+        assertEquals(1.5, toTest.getRateAt(17500L), 0.0);
+        assertFalse(toTest.add(new MainInterestRate()));
+        assertEquals(40, toTest.size());
+    }
+
+    private static MainInterestRate rate(String id, long dateMillis, double value) {
+        return gson.fromJson("{\"id\": \"" + id + "\", \"date\": " + dateMillis + ", \"value\": " + value
+            + "}", MainInterestRate.class);
+    }
+}
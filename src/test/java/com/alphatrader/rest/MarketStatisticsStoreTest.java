@@ -0,0 +1,157 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.MarketStatisticsStore.Resolution;
+import com.alphatrader.rest.MarketStatisticsStore.Rollups;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link MarketStatisticsStore} and {@link MarketStatisticsField} classes.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class MarketStatisticsStoreTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final Gson gson = new PropertyGson().create();
+    private static final long HOUR = 60L * 60 * 1000;
+
+    /**
+     * Monday, 2016-08-01 00:00 UTC.
+     */
+    private static final long MONDAY = ZonedDateTime.of(2016, 8, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+        .toInstant().toEpochMilli();
+
+    private MarketStatisticsStore toTest;
+    private List<HourlyMarketStatistics> server = new ArrayList<>();
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new MarketStatisticsStore(() -> server, ZoneOffset.UTC);
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        HourlyMarketStatistics statistics = gson.fromJson(HourlyMarketStatisticsTest.JSON,
+            HourlyMarketStatistics.class);
+        Set<Double> values = new HashSet<>();
+        for (MarketStatisticsField field : MarketStatisticsField.values()) {
+            values.add(field.valueOf(statistics));
+        }
+        assertEquals(MarketStatisticsField.values().length, values.size());
+        assertEquals(10.0, MarketStatisticsField.MARKET_CAP.valueOf(statistics), 0.0);
+        assertEquals(8.0, MarketStatisticsField.CORPORATE_CASH.valueOf(statistics), 0.0);
+    }
+
+    @Test
+    public void testAppendAndScan() throws Exception {
+        for (int i = 0; i < 48; i++) {
+            assertTrue(toTest.append(hour(MONDAY + i * HOUR, i)));
+        }
+        assertFalse(toTest.append(hour(MONDAY, 99)));
+
+        assertEquals(48, toTest.size());
+        assertEquals(MONDAY + HOUR, toTest.getDateMillis(1));
+        assertEquals(5.0, toTest.getValue(MarketStatisticsField.MARKET_CAP, 5), 0.0);
+        assertEquals(48, toTest.getColumn(MarketStatisticsField.MARKET_CAP).length);
+        assertEquals(48, toTest.getDates().length);
+
+        long from = MONDAY + 10 * HOUR;
+        long to = MONDAY + 20 * HOUR;
+        assertEquals(145.0, toTest.sum(MarketStatisticsField.MARKET_CAP, from, to), 0.0);
+        assertEquals(14.5, toTest.average(MarketStatisticsField.MARKET_CAP, from, to), 0.0);
+        assertEquals(10.0, toTest.min(MarketStatisticsField.MARKET_CAP, from, to), 0.0);
+        assertEquals(19.0, toTest.max(MarketStatisticsField.MARKET_CAP, from, to), 0.0);
+        assertEquals(290.0, toTest.sum(MarketStatisticsField.ORDER_VOLUME_24H, from, to), 0.0);
+        assertTrue(Double.isNaN(toTest.average(MarketStatisticsField.MARKET_CAP, to, from)));
+        assertTrue(Double.isNaN(toTest.min(MarketStatisticsField.MARKET_CAP, 0, 1)));
+    }
+
+    @Test
+    public void testRollups() throws Exception {
+        for (int i = 0; i < 24 * 40; i++) {
+            toTest.append(hour(MONDAY + i * HOUR, i));
+        }
+
+        Rollups days = toTest.getRollups(Resolution.DAY);
+        assertEquals(Resolution.DAY, days.getResolution());
+        assertEquals(40, days.size());
+        assertEquals(MONDAY + 24 * HOUR, days.getStartMillis(1));
+        assertEquals(24.0, days.getMin(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+        assertEquals(47.0, days.getMax(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+        assertEquals(35.5, days.getAverage(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+        assertEquals(47.0, days.getLast(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+        assertEquals(24, days.getCount(MarketStatisticsField.MARKET_CAP, 1));
+
+        Rollups weeks = toTest.getRollups(Resolution.WEEK);
+        assertEquals(6, weeks.size());
+        assertEquals(MONDAY + 7 * 24 * HOUR, weeks.getStartMillis(1));
+        assertEquals(168.0, weeks.getMin(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+
+        Rollups months = toTest.getRollups(Resolution.MONTH);
+        assertEquals(2, months.size());
+        long september = ZonedDateTime.of(2016, 9, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant()
+            .toEpochMilli();
+        assertEquals(september, months.getStartMillis(1));
+        assertEquals(31 * 24 - 1, months.getLast(MarketStatisticsField.MARKET_CAP, 0), 0.0);
+        assertEquals(24 * 40 - 1, months.getLast(MarketStatisticsField.MARKET_CAP, 1), 0.0);
+    }
+
+    @Test
+    public void testRollupsInTimeZone() throws Exception {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        MarketStatisticsStore store = new MarketStatisticsStore(() -> server, berlin);
+        for (int i = 0; i < 24; i++) {
+            store.append(hour(MONDAY + i * HOUR, i));
+        }
+        Rollups days = store.getRollups(Resolution.DAY);
+        assertEquals(2, days.size());
+        assertEquals(MONDAY - 2 * HOUR, days.getStartMillis(0));
+        assertEquals(21.0, days.getLast(MarketStatisticsField.MARKET_CAP, 0), 0.0);
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        server.add(hour(MONDAY + 2 * HOUR, 2));
+        server.add(hour(MONDAY, 0));
+        assertEquals(2, toTest.refresh());
+        server.add(hour(MONDAY + HOUR, 1));
+        server.add(hour(MONDAY + 3 * HOUR, 3));
+        assertEquals(1, toTest.refresh());
+        assertEquals(3, toTest.size());
+        assertEquals(3.0, toTest.getValue(MarketStatisticsField.MARKET_CAP, 2), 0.0);
+    }
+
+    @Test
+    public void testRefreshFromServer() throws Exception {
+        MarketStatisticsStore store = new MarketStatisticsStore(ZoneOffset.UTC);
+        assertNotEquals(0, store.refresh());
+        assertEquals(1, store.getRollups(Resolution.DAY).size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRollupIndexOutOfBounds() throws Exception {
+        Rollups days = toTest.getRollups(Resolution.DAY);
+        days.getMin(MarketStatisticsField.MARKET_CAP, 0);
+    }
+
+    private static HourlyMarketStatistics hour(long date, double value) {
+        return gson.fromJson("{\"date\": " + date + ", \"marketCap\": " + value
+            + ", \"orderVolume24h\": " + value * 2 + "}", HourlyMarketStatistics.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link ModelTypeAdapterFactory} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ModelTypeAdapterFactoryTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private static final String LOG_JSON = "{\n" +
+        "  \"buyerSecuritiesAccount\": \"ca74b0ce-b77a-4125-93c8-bb7a2d2cb920\",\n" +
+        "  \"sellerSecuritiesAccount\": \"de97775a-11be-47c5-af33-529b996d2b53\",\n" +
+        "  \"numberOfShares\": 12,\n" +
+        "  \"volume\": 25.68,\n" +
+        "  \"securityIdentifier\": \"STSD5676\",\n" +
+        "  \"unknownField\": { \"nested\": [1, 2, 3] },\n" +
+        "  \"price\": 2.14,\n" +
+        "  \"date\": 1476953559806,\n" +
+        "  \"id\": \"b7a4c7c7-c870-4bf1-badd-667d16fbd274\"\n" +
+        "}";
+
+    private static final String POSITION_JSON = "{\n" +
+        "  \"securityIdentifier\": \"STSD5676\",\n" +
+        "  \"lastPrice\": { \"date\": 1476375715646, \"value\": \"3.5 %\" },\n" +
+        "  \"numberOfShares\": 100,\n" +
+        "  \"volume\": 350.0\n" +
+        "}";
+
+    @Test
+    public void testCreateReturnsNullForOtherTypes() throws Exception {
+        assertNull(new ModelTypeAdapterFactory().create(gson, TypeToken.get(Company.class)));
+    }
+
+    @Test
+    public void testReadSkipsUnknownFields() throws Exception {
+        SecurityOrderLog log = gson.fromJson(LOG_JSON, SecurityOrderLog.class);
+        assertEquals("STSD5676", log.getSecurityIdentifier());
+        assertEquals(2.14, log.getPrice(), 0.0001);
+        assertEquals(12.0, log.getNumberOfShares(), 0.0001);
+        assertEquals("b7a4c7c7-c870-4bf1-badd-667d16fbd274", log.getId());
+    }
+
+    @Test
+    public void testReadNulls() throws Exception {
+        SecurityOrderLog log = gson.fromJson("{\"price\": null, \"date\": null, \"id\": null}",
+            SecurityOrderLog.class);
+        assertEquals(0.0, log.getPrice(), 0.0001);
+        assertNull(log.getDate());
+        assertNull(log.getId());
+        assertNull(gson.fromJson("null", SecurityOrderLog.class));
+    }
+
+    @Test
+    public void testReadNested() throws Exception {
+        Position position = gson.fromJson(POSITION_JSON, Position.class);
+        assertEquals(3.5, position.getLastPrice().getValue(), 0.0001);
+        assertEquals(100L, (long) position.getNumberOfShares());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        SecurityOrderLog log = gson.fromJson(LOG_JSON, SecurityOrderLog.class);
+        SecurityOrderLog copy = gson.fromJson(gson.toJson(log), SecurityOrderLog.class);
+        assertEquals(log.toString(), copy.toString());
+
+        Position position = gson.fromJson(POSITION_JSON, Position.class);
+        assertEquals(position, gson.fromJson(gson.toJson(position), Position.class));
+    }
+
+    @Test
+    public void testReadList() throws Exception {
+        List<SecurityOrderLog> logs = gson.fromJson("[" + LOG_JSON + ", " + LOG_JSON + "]",
+            new TypeToken<ArrayList<SecurityOrderLog>>() { }.getType());
+        assertEquals(2, logs.size());
+        assertEquals(logs.get(0), logs.get(1));
+    }
+
+    @Test
+    public void testReadInternsIdentifiers() throws Exception {
+        SecurityOrderLog first = gson.fromJson(LOG_JSON, SecurityOrderLog.class);
+        SecurityOrderLog second = gson.fromJson(LOG_JSON, SecurityOrderLog.class);
+        assertSame(first.getId(), second.getId());
+        assertSame(first.getBuyerSecuritiesAccount(), second.getBuyerSecuritiesAccount());
+        assertSame(first.getSecurityIdentifier(), second.getSecurityIdentifier());
+    }
+}
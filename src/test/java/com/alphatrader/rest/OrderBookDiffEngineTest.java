@@ -0,0 +1,109 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link OrderBookDiffEngine} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OrderBookDiffEngineTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private OrderBookDiffEngine toTest;
+
+    static OrderBook book(String buyEntries, String sellEntries) {
+        return gson.fromJson("{\"buyEntries\": [" + buyEntries + "], \"sellEntries\": [" + sellEntries
+            + "]}", OrderBook.class);
+    }
+
+    static String entry(double price, long size) {
+        return "{\"priceLimit\": " + price + ", \"size\": " + size + "}";
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new OrderBookDiffEngine();
+    }
+
+    @Test
+    public void testFirstSnapshot() throws Exception {
+        List<OrderBookChange> changes = toTest.update("STK", book(entry(10, 5) + "," + entry(9, 3),
+            entry(11, 7)));
+
+        assertEquals(Arrays.asList(
+            new OrderBookChange(Order.Action.BUY, OrderBookChange.Kind.ADDED, 9, 0, 3),
+            new OrderBookChange(Order.Action.BUY, OrderBookChange.Kind.ADDED, 10, 0, 5),
+            new OrderBookChange(Order.Action.SELL, OrderBookChange.Kind.ADDED, 11, 0, 7)), changes);
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        toTest.update("STK", book(entry(10, 5), entry(11, 7)));
+        assertTrue(toTest.update("STK", book(entry(10, 5), entry(11, 7))).isEmpty());
+    }
+
+    @Test
+    public void testChanges() throws Exception {
+        toTest.update("STK", book(entry(10, 5) + "," + entry(9, 3), entry(11, 7) + "," + entry(12, 1)));
+
+        List<OrderBookChange> changes = toTest.update("STK", book(entry(10, 8) + "," + entry(9.5, 2),
+            entry(12, 1)));
+
+        assertEquals(Arrays.asList(
+            new OrderBookChange(Order.Action.BUY, OrderBookChange.Kind.REMOVED, 9, 3, 0),
+            new OrderBookChange(Order.Action.BUY, OrderBookChange.Kind.ADDED, 9.5, 0, 2),
+            new OrderBookChange(Order.Action.BUY, OrderBookChange.Kind.RESIZED, 10, 5, 8),
+            new OrderBookChange(Order.Action.SELL, OrderBookChange.Kind.REMOVED, 11, 7, 0)), changes);
+    }
+
+    @Test
+    public void testEntriesAtSamePriceAreAggregated() throws Exception {
+        List<OrderBookChange> changes = toTest.update("STK", book(entry(10, 5) + "," + entry(10, 3)
+            + "," + entry(8, 0), ""));
+
+        assertEquals(1, changes.size());
+        assertEquals(8, changes.get(0).getSize());
+    }
+
+    @Test
+    public void testSecuritiesAreIndependent() throws Exception {
+        toTest.update("A", book(entry(10, 5), ""));
+        assertEquals(1, toTest.update("B", book(entry(10, 5), "")).size());
+        assertTrue(toTest.update("A", book(entry(10, 5), "")).isEmpty());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        toTest.update("STK", book(entry(10, 5), ""));
+        toTest.reset("STK");
+        assertEquals(1, toTest.update("STK", book(entry(10, 5), "")).size());
+
+        toTest.clear();
+        assertEquals(1, toTest.update("STK", book(entry(10, 5), "")).size());
+    }
+
+    @Test
+    public void testChange() throws Exception {
+        OrderBookChange change = new OrderBookChange(Order.Action.SELL, OrderBookChange.Kind.RESIZED,
+            2.5, 4, 6);
+        assertEquals(Order.Action.SELL, change.getSide());
+        assertEquals(OrderBookChange.Kind.RESIZED, change.getKind());
+        assertEquals(2.5, change.getPrice(), 0.0001);
+        assertEquals(4, change.getPreviousSize());
+        assertEquals(6, change.getSize());
+        assertEquals(change.hashCode(), new OrderBookChange(Order.Action.SELL,
+            OrderBookChange.Kind.RESIZED, 2.5, 4, 6).hashCode());
+        assertFalse(change.equals(null));
+        assertTrue(change.toString().startsWith(change.getClass().getSimpleName()));
+    }
+}
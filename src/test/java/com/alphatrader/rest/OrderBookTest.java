@@ -99,6 +99,13 @@ public class OrderBookTest {
         assertEquals(new HashSet<>(reference), new HashSet<>(toTest.getBuyEntries()));
     }
 
+    @Test
+    public void getBuyEntryPriceAndSize() throws Exception {
+        Order best = toTest.getBuyEntries().get(0);
+        assertEquals(25.0, best.getPrice(), 0.0001);
+        assertEquals(49701L, (long) best.getNumberOfShares());
+    }
+
     @Test
     public void getSellEntries() throws Exception {
         List<Order> reference = gson.fromJson("[]", new TypeToken<ArrayList<Order>>() { }.getType());
@@ -0,0 +1,187 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.Timestamps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link OrderLogArchive} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OrderLogArchiveTest {
+    private static final String BUYER = "7a7bc3a1-5a93-4c7c-b2a4-3c0a3f1b0f01";
+    private static final String SELLER = "7a7bc3a1-5a93-4c7c-b2a4-3c0a3f1b0f02";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private OrderLogArchive toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.getRoot().toPath().resolve("archive");
+        toTest = new OrderLogArchive(directory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        toTest.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        SecurityOrderLog uuid = log("0f5b7b9e-1c2d-4e3f-8a9b-0c1d2e3f4a5b", "STK1", 1000L, 2.5);
+        SecurityOrderLog named = SecurityOrderLog.create("log-1", "STK2", 2000L);
+        named.setParties(null, SELLER);
+        named.setTrade(3, 4.0, 12.0);
+        toTest.append(uuid);
+        toTest.accept(named);
+
+        assertEquals(2, toTest.size());
+        SecurityOrderLog first = toTest.get(0);
+        assertEquals(uuid, first);
+        assertEquals("STK1", first.getSecurityIdentifier());
+        assertEquals(BUYER, first.getBuyerSecuritiesAccount());
+        assertEquals(SELLER, first.getSellerSecuritiesAccount());
+        assertEquals(2.5, first.getPrice(), 0.0);
+        assertEquals(10.0, first.getNumberOfShares(), 0.0);
+        assertEquals(25.0, first.getVolume(), 0.0);
+        assertEquals(1000L, first.getDateMillis());
+
+        SecurityOrderLog second = toTest.get(1);
+        assertEquals("log-1", second.getId());
+        assertNull(second.getBuyerSecuritiesAccount());
+        assertEquals(12.0, second.getVolume(), 0.0);
+        assertEquals(2000L, toTest.getNewestDateMillis());
+    }
+
+    @Test
+    public void testScans() throws Exception {
+        toTest.appendAll(logs(5000));
+
+        List<Long> dates = new ArrayList<>();
+        assertEquals(100, toTest.scan(2000 * 1000L, 2100 * 1000L,
+            entry -> dates.add(entry.getDateMillis())));
+        assertEquals(Long.valueOf(2000 * 1000L), dates.get(0));
+        assertEquals(Long.valueOf(2099 * 1000L), dates.get(99));
+
+        List<Integer> indexes = new ArrayList<>();
+        assertEquals(34, toTest.scan("STK1", 1000 * 1000L, 1100 * 1000L, entry -> {
+            assertEquals("STK1", entry.getSecurityIdentifier());
+            indexes.add(entry.getIndex());
+        }));
+        assertEquals(Integer.valueOf(1000), indexes.get(0));
+        assertEquals(Integer.valueOf(1099), indexes.get(33));
+
+        assertEquals(1667, toTest.getCount("STK1"));
+        assertEquals(0, toTest.getCount("unknown"));
+        assertEquals(0, toTest.scan("unknown", 0, Long.MAX_VALUE, entry -> fail()));
+        assertEquals(new HashSet<>(Arrays.asList("STK0", "STK1", "STK2")),
+            toTest.getSecurityIdentifiers());
+        assertEquals(4999 * 1000L, toTest.getNewestDateMillis());
+    }
+
+    @Test
+    public void testScanOutOfOrder() throws Exception {
+        List<SecurityOrderLog> logs = logs(3000);
+        Collections.reverse(logs);
+        toTest.appendAll(logs);
+
+        assertEquals(10, toTest.scan(0, 10 * 1000L,
+            entry -> assertTrue(entry.getDateMillis() < 10000L)));
+        assertEquals(1000, toTest.scan("STK0", 0, Long.MAX_VALUE, entry -> { }));
+        assertEquals(4, toTest.scan("STK0", 0, 10 * 1000L, entry -> { }));
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        toTest.appendAll(logs(2000));
+        toTest.close();
+        assertEquals(8 + 2 * 16, Files.size(directory.resolve(OrderLogArchive.DATE_INDEX_FILE)));
+
+        toTest = new OrderLogArchive(directory);
+        assertEquals(2000, toTest.size());
+        assertEquals(667, toTest.getCount("STK0"));
+        assertEquals(1999 * 1000L, toTest.getNewestDateMillis());
+
+        toTest.append(log(null, "STK0", 5000 * 1000L, 1.0));
+        assertEquals(668, toTest.getCount("STK0"));
+        assertEquals(4, toTest.scan("STK0", 1990 * 1000L, Long.MAX_VALUE, entry -> { }));
+    }
+
+    @Test
+    public void testReopenAfterCrash() throws Exception {
+        toTest.appendAll(logs(2000));
+        Files.write(directory.resolve(OrderLogArchive.DATE_INDEX_FILE), new byte[]{1, 2, 3});
+        Files.write(directory.resolve(OrderLogArchive.SECURITY_INDEX_FILE), new byte[40]);
+        Files.write(directory.resolve(OrderLogArchive.SYMBOL_FILE),
+            "uncommitted".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (OrderLogArchive reopened = new OrderLogArchive(directory)) {
+            assertEquals(2000, reopened.size());
+            assertEquals(666, reopened.getCount("STK2"));
+            assertEquals(10, reopened.scan(500 * 1000L, 510 * 1000L, entry -> { }));
+            assertEquals(1999 * 1000L, reopened.getNewestDateMillis());
+            reopened.append(log(null, "STK3", 3000 * 1000L, 1.0));
+            assertEquals("STK3", reopened.get(2000).getSecurityIdentifier());
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(0, toTest.size());
+        assertEquals(Timestamps.NONE, toTest.getNewestDateMillis());
+        assertTrue(toTest.getSecurityIdentifiers().isEmpty());
+        toTest.appendAll(Collections.emptyList());
+        assertEquals(0, toTest.scan(0, Long.MAX_VALUE, entry -> fail()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws Exception {
+        Path other = folder.newFolder().toPath();
+        Files.write(other.resolve(OrderLogArchive.DATA_FILE), new byte[64]);
+        new OrderLogArchive(other);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() throws Exception {
+        toTest.get(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws Exception {
+        toTest.close();
+        toTest.scan(0, 1, entry -> { });
+    }
+
+    private static List<SecurityOrderLog> logs(int count) {
+        List<SecurityOrderLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(log(null, "STK" + (i % 3), i * 1000L, i));
+        }
+        return logs;
+    }
+
+    private static SecurityOrderLog log(String id, String securityIdentifier, long date, double price) {
+        String logId = id != null ? id : UUID.randomUUID().toString();
+        SecurityOrderLog log = SecurityOrderLog.create(logId, securityIdentifier, date);
+        log.setParties(BUYER, SELLER);
+        log.setTrade(10, price, price * 10);
+        return log;
+    }
+}
@@ -0,0 +1,116 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link OwnershipCrawler} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OwnershipCrawlerTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private final Map<String, List<Shareholder>> shareholders = new HashMap<>();
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Integer> versions = new HashMap<>();
+
+    private OwnershipCrawler toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new OwnershipCrawler(securityIdentifier -> {
+            requested.add(securityIdentifier);
+            if (securityIdentifier.startsWith("FAIL")) {
+                throw new IllegalStateException("failure");
+            }
+            return shareholders.getOrDefault(securityIdentifier, Collections.emptyList());
+        });
+        toTest.setParallelism(2);
+
+        shareholders.put("SA", Collections.singletonList(shareholder("b", "SA", 60.0)));
+        shareholders.put("SB", Arrays.asList(shareholder("c", "SB", 30.0), shareholder("a", "SB", 0.0)));
+        shareholders.put("SC", Collections.singletonList(shareholder("a", "SC", 55.0)));
+    }
+
+    @Test
+    public void testCrawl() throws Exception {
+        OwnershipGraph graph = toTest.crawl(Arrays.asList(company("a", "SA"), company("b", "SB"),
+            company("c", "SC")));
+
+        assertSame(graph, toTest.getGraph());
+        assertEquals(3, graph.size());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(60.0, graph.getShare("b", "a"), 0.0);
+        assertEquals(25.0, graph.getShare("a", "b"), 0.0001);
+        assertTrue(graph.isReachable("a", "c"));
+        assertEquals(1, graph.getCycles().size());
+        assertEquals(3, requested.size());
+    }
+
+    @Test
+    public void testIncrementalCrawl() throws Exception {
+        List<Company> companies = Arrays.asList(company("a", "SA"), company("b", "SB"), company("c", "SC"));
+        versions.put("SA", 1);
+        versions.put("SB", 1);
+        versions.put("SC", 1);
+        toTest.setVersionFunction(versions::get);
+        toTest.crawl(companies);
+        requested.clear();
+
+        versions.put("SB", 2);
+        shareholders.put("SB", Collections.singletonList(shareholder("c", "SB", 90.0)));
+        OwnershipGraph graph = toTest.crawl(companies);
+
+        assertEquals(Collections.singletonList("SB"), requested);
+        assertEquals(90.0, graph.getShare("c", "b"), 0.0);
+        assertEquals(0.0, graph.getShare("a", "b"), 0.0);
+        assertEquals(60.0, graph.getShare("b", "a"), 0.0);
+    }
+
+    @Test
+    public void testCrawlWithoutVersionsRequestsAll() throws Exception {
+        List<Company> companies = Arrays.asList(company("a", "SA"), company("b", "SB"));
+        toTest.crawl(companies);
+        toTest.crawl(companies);
+        assertEquals(4, requested.size());
+    }
+
+    @Test
+    public void testDroppedCompanies() throws Exception {
+        toTest.crawl(Arrays.asList(company("a", "SA"), company("b", "SB"), company("c", "SC")));
+        OwnershipGraph graph = toTest.crawl(Collections.singletonList(company("a", "SA")));
+
+        assertEquals(2, graph.size());
+        assertEquals(Collections.singletonList("b"), graph.getHolders("a"));
+        assertTrue(graph.getHolders("b").isEmpty());
+    }
+
+    @Test
+    public void testFailureIsSkipped() throws Exception {
+        shareholders.put("FAIL", Collections.singletonList(shareholder("a", "FAIL", 10.0)));
+        OwnershipGraph graph = toTest.crawl(Arrays.asList(company("a", "SA"), company("f", "FAIL")));
+
+        assertEquals(60.0, graph.getShare("b", "a"), 0.0);
+        assertTrue(graph.getHolders("f").isEmpty());
+        assertEquals(2, requested.size());
+    }
+
+    private static Company company(String id, String securityIdentifier) {
+        return gson.fromJson("{\"id\": \"" + id + "\", \"listing\": {\"securityIdentifier\": \""
+            + securityIdentifier + "\"}}", Company.class);
+    }
+
+    private static Shareholder shareholder(String companyId, String securityIdentifier, double share) {
+        return gson.fromJson("{\"company\": {\"id\": \"" + companyId + "\"}, \"numberOfShares\": 250, "
+            + "\"outstandingShares\": 1000, \"securityIdentifier\": \"" + securityIdentifier + "\", "
+            + "\"shareInPercent\": " + share + "}", Shareholder.class);
+    }
+}
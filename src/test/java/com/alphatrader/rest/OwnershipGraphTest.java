@@ -0,0 +1,111 @@
+package com.alphatrader.rest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link OwnershipGraph} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class OwnershipGraphTest {
+    private OwnershipGraph toTest;
+
+    /**
+     * Builds the graph: a holds 60% of b, b holds 80% of c, c holds 10% of d, d holds 30% of c,
+     * e holds 5% of itself and 20% of a.
+     */
+    @Before
+    public void setUp() throws Exception {
+        toTest = new OwnershipGraph(new String[] {"a", "b", "c", "d", "e"},
+            new int[] {0, 1, 2, 3, 4, 4},
+            new int[] {1, 2, 3, 2, 4, 0},
+            new double[] {60.0, 80.0, 10.0, 30.0, 5.0, 20.0});
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        assertEquals(5, toTest.size());
+        assertEquals(6, toTest.getEdgeCount());
+        assertTrue(toTest.contains("a"));
+        assertFalse(toTest.contains("x"));
+    }
+
+    @Test
+    public void testHoldersAndHoldings() throws Exception {
+        assertEquals(new HashSet<>(Arrays.asList("b", "d")), new HashSet<>(toTest.getHolders("c")));
+        assertEquals(new HashSet<>(Arrays.asList("e", "a")), new HashSet<>(toTest.getHoldings("e")));
+        assertEquals(Collections.emptyList(), toTest.getHolders("x"));
+        assertEquals(30.0, toTest.getShare("d", "c"), 0.0);
+        assertEquals(0.0, toTest.getShare("c", "a"), 0.0);
+    }
+
+    @Test
+    public void testIsReachable() throws Exception {
+        assertTrue(toTest.isReachable("e", "d"));
+        assertTrue(toTest.isReachable("d", "c"));
+        assertTrue(toTest.isReachable("c", "c"));
+        assertFalse(toTest.isReachable("a", "e"));
+        assertFalse(toTest.isReachable("a", "a"));
+        assertFalse(toTest.isReachable("a", "x"));
+    }
+
+    @Test
+    public void testGetUltimateOwner() throws Exception {
+        assertEquals("a", toTest.getUltimateOwner("c"));
+        assertEquals("a", toTest.getUltimateOwner("a"));
+        assertEquals("d", toTest.getUltimateOwner("d"));
+        assertNull(toTest.getUltimateOwner("x"));
+    }
+
+    @Test
+    public void testGetUltimateOwnerStopsAtCycle() throws Exception {
+        OwnershipGraph graph = new OwnershipGraph(new String[] {"a", "b", "c"},
+            new int[] {0, 1, 1}, new int[] {1, 0, 2}, new double[] {51.0, 70.0, 90.0});
+        assertEquals("a", graph.getUltimateOwner("c"));
+    }
+
+    @Test
+    public void testGetCycles() throws Exception {
+        Set<Set<String>> cycles = new HashSet<>();
+        for (List<String> cycle : toTest.getCycles()) {
+            cycles.add(new HashSet<>(cycle));
+        }
+        Set<Set<String>> reference = new HashSet<>();
+        reference.add(new HashSet<>(Arrays.asList("c", "d")));
+        reference.add(Collections.singleton("e"));
+        assertEquals(reference, cycles);
+    }
+
+    @Test
+    public void testLongChain() throws Exception {
+        int count = 100000;
+        String[] ids = new String[count];
+        int[] holder = new int[count];
+        int[] held = new int[count];
+        double[] share = new double[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "c" + i;
+            holder[i] = i;
+            held[i] = (i + 1) % count;
+            share[i] = 75.0;
+        }
+        OwnershipGraph graph = new OwnershipGraph(ids, holder, held, share);
+
+        assertTrue(graph.isReachable("c0", "c99999"));
+        assertEquals(1, graph.getCycles().size());
+        assertEquals(count, graph.getCycles().get(0).size());
+        assertEquals("c1", graph.getUltimateOwner("c0"));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(0, OwnershipGraph.EMPTY.size());
+        assertTrue(OwnershipGraph.EMPTY.getCycles().isEmpty());
+    }
+}
@@ -0,0 +1,171 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link PortfolioValuationEngine} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PortfolioValuationEngineTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final Gson gson = new PropertyGson().create();
+    private static final String ACCOUNT = "57875cf3-de0a-48e4-a3bc-314d4550df12";
+
+    private final List<PortfolioValuationEngine.Valuation> published = new ArrayList<>();
+
+    private PortfolioValuationEngine toTest;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    private static Portfolio portfolio(double cash, String... positions) {
+        StringBuilder json = new StringBuilder("{\"cash\": " + cash
+            + ", \"committedCash\": 10, \"positions\": [");
+        for (int i = 0; i < positions.length; i += 3) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"securityIdentifier\": \"").append(positions[i])
+                .append("\", \"numberOfShares\": ").append(positions[i + 1])
+                .append(", \"lastPrice\": {\"value\": ").append(positions[i + 2]).append("}}");
+        }
+        return gson.fromJson(json.append("]}").toString(), Portfolio.class);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new PortfolioValuationEngine();
+        toTest.addListener(published::add);
+    }
+
+    @Test
+    public void testSetPortfolio() throws Exception {
+        PortfolioValuationEngine.Valuation valuation = toTest.setPortfolio(ACCOUNT,
+            Portfolio.getCompanyPortfolio(ACCOUNT));
+
+        assertEquals(ACCOUNT, valuation.getSecuritiesAccountId());
+        assertEquals(13790216.21, valuation.getCash(), 0.001);
+        assertEquals(151430.34, valuation.getCommittedCash(), 0.001);
+        double volume = 0;
+        for (Position position : Portfolio.getCompanyPortfolio(ACCOUNT).getPositions()) {
+            volume += position.getVolume();
+        }
+        assertEquals(volume, valuation.getMarketValue(), 0.01);
+        assertEquals(1, published.size());
+        assertEquals(1, toTest.size());
+    }
+
+    @Test
+    public void testUpdatePrice() throws Exception {
+        toTest.setPortfolio("a", portfolio(100, "X", "10", "2", "Y", "5", "4"));
+        toTest.setPortfolio("b", portfolio(0, "Y", "1", "4"));
+        toTest.setPortfolio("c", portfolio(0, "Z", "1", "4"));
+        published.clear();
+
+        List<PortfolioValuationEngine.Valuation> valuations = toTest.updatePrice("Y", 6);
+
+        assertEquals(2, valuations.size());
+        assertEquals(2, published.size());
+        assertEquals(10 * 2 + 5 * 6, toTest.getValuation("a").getMarketValue(), 0.0001);
+        assertEquals(100 + 10 + 50, toTest.getValuation("a").getTotalValue(), 0.0001);
+        assertEquals(6, toTest.getValuation("b").getMarketValue(), 0.0001);
+        assertEquals(4, toTest.getValuation("c").getMarketValue(), 0.0001);
+
+        assertTrue(toTest.updatePrice("Y", 6).isEmpty());
+        assertTrue(toTest.updatePrice("unknown", 6).isEmpty());
+    }
+
+    @Test
+    public void testSetPortfolioMergesDuplicateSecurities() throws Exception {
+        PortfolioValuationEngine.Valuation valuation = toTest.setPortfolio("a",
+            portfolio(0, "X", "10", "2", "X", "5", "2"));
+        assertEquals(30.0, valuation.getMarketValue(), 0.0);
+
+        valuation = toTest.updatePrice("X", 3).get(0);
+        assertEquals(45.0, valuation.getMarketValue(), 0.0);
+
+        toTest.removePortfolio("a");
+        assertTrue(toTest.updatePrice("X", 4).isEmpty());
+    }
+
+    @Test
+    public void testUpdatePriceFromSpread() throws Exception {
+        toTest.setPortfolio("a", portfolio(0, "X", "10", "2"));
+        PriceSpread spread = gson.fromJson("{\"lastPrice\": {\"value\": 3}}", PriceSpread.class);
+
+        assertEquals(1, toTest.updatePrice("X", spread).size());
+        assertEquals(30, toTest.getValuation("a").getMarketValue(), 0.0001);
+    }
+
+    @Test
+    public void testUpdatePriceDoesNotAccumulateRoundingErrors() throws Exception {
+        toTest.setPortfolio("a", portfolio(0, "X", "3", "0.1", "Y", "7", "1"));
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            toTest.updatePrice("X", Math.round(random.nextDouble() * 10000) / 100.0);
+        }
+        toTest.updatePrice("X", 0.1);
+
+        assertEquals(3 * 0.1 + 7, toTest.getValuation("a").getMarketValue(), 0.0);
+    }
+
+    @Test(timeout = 5000)
+    public void testListenerMayCallBackFromAnotherThread() throws Exception {
+        toTest.setPortfolio("a", portfolio(0, "X", "10", "2"));
+        AtomicReference<PortfolioValuationEngine.Valuation> seen = new AtomicReference<>();
+        toTest.addListener(valuation -> {
+            try {
+                seen.set(CompletableFuture.supplyAsync(() -> toTest.getValuation("a"))
+                    .get(1, TimeUnit.SECONDS));
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        toTest.updatePrice("X", 3);
+        assertEquals(30, seen.get().getMarketValue(), 0.0001);
+    }
+
+    @Test
+    public void testReplaceAndRemovePortfolio() throws Exception {
+        toTest.setPortfolio("a", portfolio(0, "X", "10", "2"));
+        toTest.setPortfolio("a", portfolio(0, "Y", "1", "1"));
+
+        assertTrue(toTest.updatePrice("X", 5).isEmpty());
+        assertEquals(1, toTest.updatePrice("Y", 5).size());
+
+        toTest.removePortfolio("a");
+        assertNull(toTest.getValuation("a"));
+        assertTrue(toTest.updatePrice("Y", 7).isEmpty());
+        assertEquals(0, toTest.size());
+    }
+
+    @Test
+    public void testUpdateCash() throws Exception {
+        toTest.setPortfolio("a", portfolio(0, "X", "10", "2"));
+
+        PortfolioValuationEngine.Valuation valuation = toTest.updateCash("a", 50, 5);
+        assertNotNull(valuation);
+        assertEquals(75, valuation.getTotalValue(), 0.0001);
+        assertNull(toTest.updateCash("unknown", 1, 1));
+        assertTrue(valuation.toString().startsWith(valuation.getClass().getSimpleName()));
+    }
+}
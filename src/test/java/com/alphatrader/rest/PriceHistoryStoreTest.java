@@ -0,0 +1,112 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.alphatrader.rest.PriceSeriesTest.lastPrice;
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link PriceHistoryStore} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PriceHistoryStoreTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final ZonedDateTime EPOCH = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L),
+        ZoneId.systemDefault());
+
+    private final List<Long> requestedFrom = new ArrayList<>();
+    private final List<LastPrice> server = new ArrayList<>();
+
+    private PriceHistoryStore toTest;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new PriceHistoryStore((securityIdentifier, from) -> {
+            long fromMillis = from.toInstant().toEpochMilli();
+            requestedFrom.add(fromMillis);
+            List<LastPrice> result = new ArrayList<>();
+            for (LastPrice price : server) {
+                if (price.getDateMillis() >= fromMillis) {
+                    result.add(price);
+                }
+            }
+            return result;
+        }, EPOCH);
+    }
+
+    @Test
+    public void testIncrementalRefresh() throws Exception {
+        server.add(lastPrice(1000L, 1.0));
+        server.add(lastPrice(2000L, 2.0));
+        assertEquals(2, toTest.refresh("S1"));
+
+        server.add(lastPrice(3000L, 3.0));
+        assertEquals(1, toTest.refresh("S1"));
+        assertEquals(0, toTest.refreshAll());
+
+        assertEquals(Arrays.asList(0L, 2000L, 3000L), requestedFrom);
+        PriceSeries series = toTest.get("S1");
+        assertEquals(3, series.size());
+        assertEquals(3.0, series.getValueAt(5000L), 0.0);
+    }
+
+    @Test
+    public void testAppendAndRemove() throws Exception {
+        toTest.append("S1", lastPrice(1000L, 1.0));
+        assertEquals(1, toTest.get("S1").size());
+        assertEquals(Collections.singleton("S1"), toTest.getSecurityIdentifiers());
+        toTest.remove("S1");
+        assertNull(toTest.get("S1"));
+    }
+
+    @Test
+    public void testAppendDropsPriceWithoutDate() throws Exception {
+        toTest.append("S1", new PropertyGson().create().fromJson("{\"value\": 1.0}", LastPrice.class));
+        assertNull(toTest.get("S1"));
+    }
+
+    @Test(timeout = 5000)
+    public void testSeriesReadableDuringRefresh() throws Exception {
+        AtomicReference<PriceSeries> held = new AtomicReference<>();
+        PriceHistoryStore store = new PriceHistoryStore((securityIdentifier, from) -> {
+            try {
+                assertEquals(1.0, CompletableFuture.supplyAsync(() -> held.get().getValueAt(1000L))
+                    .get(1, TimeUnit.SECONDS), 0.0);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return Collections.singletonList(lastPrice(2000L, 2.0));
+        }, EPOCH);
+        store.append("S1", lastPrice(1000L, 1.0));
+        held.set(store.get("S1"));
+
+        assertEquals(1, store.refresh("S1"));
+    }
+
+    @Test
+    public void testRefreshFromServer() throws Exception {
+        PriceHistoryStore store = new PriceHistoryStore(EPOCH);
+        assertNotEquals(0, store.refresh("STK0F513"));
+        assertEquals(SecurityPrice.getSecurityPrices("STK0F513", EPOCH).size(),
+            store.get("STK0F513").size());
+    }
+}
@@ -0,0 +1,159 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link PriceSeries} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PriceSeriesTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private PriceSeries toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new PriceSeries("STK0F513");
+        for (int i = 0; i < 100; i++) {
+            toTest.append(i * 1000L, i);
+        }
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        assertEquals("STK0F513", toTest.getSecurityIdentifier());
+        assertEquals(100, toTest.size());
+        assertEquals(99000L, toTest.getNewestDateMillis());
+        assertEquals(42.0, toTest.getValue(42), 0.0);
+        assertEquals(42000L, toTest.getDateMillis(42));
+
+        toTest.append(42000L, -1.0);
+        toTest.append(42500L, 42.5);
+        assertEquals(101, toTest.size());
+        assertEquals(-1.0, toTest.getValue(42), 0.0);
+        assertEquals(42.5, toTest.getValue(43), 0.0);
+        assertEquals(43.0, toTest.getValue(44), 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() throws Exception {
+        toTest.getValue(100);
+    }
+
+    @Test
+    public void testGetValueAt() throws Exception {
+        assertEquals(5.0, toTest.getValueAt(5000L), 0.0);
+        assertEquals(5.0, toTest.getValueAt(5999L), 0.0);
+        assertEquals(99.0, toTest.getValueAt(Long.MAX_VALUE), 0.0);
+        assertTrue(Double.isNaN(toTest.getValueAt(-1L)));
+    }
+
+    @Test
+    public void testGetRange() throws Exception {
+        PriceSeries range = toTest.getRange(10000L, 20000L);
+        assertEquals(10, range.size());
+        assertEquals(10.0, range.getValue(0), 0.0);
+        assertEquals(19.0, range.getValue(9), 0.0);
+        assertEquals(0, toTest.getRange(20000L, 10000L).size());
+        assertEquals(0, toTest.getRange(200000L, 300000L).size());
+
+        range.append(500000L, 1.0);
+        assertEquals(11, range.size());
+        assertEquals(100, toTest.size());
+    }
+
+    @Test
+    public void testDownsample() throws Exception {
+        PriceSeries downsampled = toTest.downsample(10000L);
+        assertEquals(10, downsampled.size());
+        assertEquals(0L, downsampled.getDateMillis(0));
+        assertEquals(9.0, downsampled.getValue(0), 0.0);
+        assertEquals(90000L, downsampled.getDateMillis(9));
+        assertEquals(99.0, downsampled.getValue(9), 0.0);
+        assertEquals(0, new PriceSeries("S").downsample(1000L).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDownsampleInvalidBucket() throws Exception {
+        toTest.downsample(0L);
+    }
+
+    @Test
+    public void testMergeNewer() throws Exception {
+        int added = toTest.merge(Arrays.asList(lastPrice(100000L, 100.0), lastPrice(101000L, 101.0)));
+        assertEquals(2, added);
+        assertEquals(102, toTest.size());
+        assertEquals(101.0, toTest.getValue(101), 0.0);
+    }
+
+    @Test
+    public void testMergeDropsPricesWithoutDate() throws Exception {
+        PriceSeries series = new PriceSeries("S1");
+        assertEquals(2, series.merge(Arrays.asList(lastPrice(2000L, 2.0),
+            gson.fromJson("{\"value\": 1.5}", LastPrice.class), lastPrice(1000L, 1.0))));
+        assertEquals(1000L, series.getDateMillis(0));
+        assertEquals(2000L, series.getDateMillis(1));
+    }
+
+    @Test
+    public void testMergeOverlapping() throws Exception {
+        int added = toTest.merge(Arrays.asList(lastPrice(150000L, 150.0), lastPrice(99000L, -99.0),
+            lastPrice(500L, 0.5), lastPrice(0L, -0.0)));
+        assertEquals(2, added);
+        assertEquals(102, toTest.size());
+        assertEquals(0.5, toTest.getValue(1), 0.0);
+        assertEquals(-99.0, toTest.getValue(100), 0.0);
+        assertEquals(150000L, toTest.getNewestDateMillis());
+    }
+
+    @Test
+    public void testMergeMatchesReference() throws Exception {
+        Random random = new Random(1);
+        PriceSeries series = new PriceSeries("S");
+        TreeMap<Long, Double> reference = new TreeMap<>();
+        for (int round = 0; round < 20; round++) {
+            List<LastPrice> prices = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                long date = random.nextInt(2000) * 10L;
+                double value = random.nextInt(1000);
+                prices.add(lastPrice(date, value));
+                reference.put(date, value);
+            }
+            series.merge(prices);
+        }
+
+        assertEquals(reference.size(), series.size());
+        int index = 0;
+        for (Map.Entry<Long, Double> entry : reference.entrySet()) {
+            assertEquals((long) entry.getKey(), series.getDateMillis(index));
+            assertEquals(entry.getValue(), series.getValue(index), 0.0);
+            index++;
+        }
+        long[] dates = series.getDates();
+        assertEquals(series.size(), dates.length);
+        assertEquals(series.size(), series.getValues().length);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        PriceSeries series = new PriceSeries("S");
+        assertEquals(Timestamps.NONE, series.getNewestDateMillis());
+        assertEquals(0, series.merge(new ArrayList<>()));
+        assertTrue(Double.isNaN(series.getValueAt(0L)));
+        assertTrue(series.toString().startsWith(series.getClass().getSimpleName()));
+    }
+
+    static LastPrice lastPrice(long date, double value) {
+        return gson.fromJson("{\"date\": " + date + ", \"value\": " + value + "}", LastPrice.class);
+    }
+}
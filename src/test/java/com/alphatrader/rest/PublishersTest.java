@@ -0,0 +1,104 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.flow.Flow;
+import com.alphatrader.rest.flow.OverflowPolicy;
+import com.alphatrader.rest.flow.PollingPublisher;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link Publishers} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PublishersTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final Gson gson = new PropertyGson().create();
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    private static <T> List<T> collect(PollingPublisher<T> publisher) {
+        List<T> items = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<T>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return items;
+    }
+
+    private static Notification notification(String id, long date) {
+        return gson.fromJson("{\"id\": \"" + id + "\", \"date\": " + date + "}", Notification.class);
+    }
+
+    @Test
+    public void priceSpreads() throws Exception {
+        PollingPublisher<PriceSpread> toTest = Publishers.priceSpreads("STK0F513", 1,
+            OverflowPolicy.CONFLATE_LATEST);
+        List<PriceSpread> items = collect(toTest);
+
+        toTest.poll();
+        toTest.poll();
+
+        assertEquals(2, items.size());
+        assertEquals(PriceSpread.getPriceSpread("STK0F513"), items.get(0));
+    }
+
+    @Test
+    public void orderBooks() throws Exception {
+        PollingPublisher<OrderBook> toTest = Publishers.orderBooks("STK0F513", 1,
+            OverflowPolicy.CONFLATE_LATEST);
+        List<OrderBook> items = collect(toTest);
+
+        toTest.poll();
+
+        assertEquals(1, items.size());
+        assertEquals(OrderBook.getOrderBook("STK0F513"), items.get(0));
+    }
+
+    @Test
+    public void notificationFeed() throws Exception {
+        List<Notification> server = new ArrayList<>(Arrays.asList(notification("b", 20L),
+            notification("a", 10L)));
+        Publishers.NotificationFeed toTest = new Publishers.NotificationFeed(() -> server);
+
+        List<Notification> first = toTest.get();
+        assertEquals(2, first.size());
+        assertEquals("a", first.get(0).getId());
+        assertTrue(toTest.get().isEmpty());
+
+        server.add(notification("c", 20L));
+        server.add(notification("d", 30L));
+        List<Notification> second = toTest.get();
+        assertEquals(2, second.size());
+        assertEquals("c", second.get(0).getId());
+        assertEquals("d", second.get(1).getId());
+    }
+}
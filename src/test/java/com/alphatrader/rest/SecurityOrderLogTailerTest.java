@@ -0,0 +1,138 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.alphatrader.rest.util.Timestamps;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link SecurityOrderLogTailer} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SecurityOrderLogTailerTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private final List<SecurityOrderLog> server = new ArrayList<>();
+    private final List<ZonedDateTime> requests = new ArrayList<>();
+    private final List<SecurityOrderLog> delivered = new ArrayList<>();
+
+    private SecurityOrderLogTailer toTest;
+
+    private static SecurityOrderLog log(String id, long date) {
+        return gson.fromJson("{\"id\": \"" + id + "\", \"date\": " + date + "}", SecurityOrderLog.class);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new SecurityOrderLogTailer(from -> {
+            requests.add(from);
+            List<SecurityOrderLog> result = new ArrayList<>();
+            for (SecurityOrderLog orderLog : server) {
+                if (orderLog.getDateMillis() >= from.toInstant().toEpochMilli()) {
+                    result.add(orderLog);
+                }
+            }
+            return result;
+        }, Timestamps.toZonedDateTime(1000L));
+        toTest.addListener(delivered::add);
+    }
+
+    @Test
+    public void testPollDeliversInDateOrder() throws Exception {
+        server.addAll(Arrays.asList(log("c", 3000L), log("a", 1000L), log("b", 2000L)));
+        assertEquals(3, toTest.poll().size());
+        assertEquals(Arrays.asList("a", "b", "c"), ids(delivered));
+        assertEquals(3000L, toTest.getWatermark().toInstant().toEpochMilli());
+    }
+
+    @Test
+    public void testPollDropsDuplicatesAtEdge() throws Exception {
+        server.addAll(Arrays.asList(log("a", 1000L), log("b", 2000L)));
+        toTest.poll();
+        server.add(log("c", 2000L));
+        server.add(log("d", 2500L));
+
+        assertEquals(Arrays.asList("c", "d"), ids(toTest.poll()));
+        assertTrue(toTest.poll().isEmpty());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), ids(delivered));
+    }
+
+    @Test
+    public void testPollRequestsFromWatermark() throws Exception {
+        server.add(log("a", 5000L));
+        toTest.poll();
+        toTest.poll();
+        assertEquals(1000L, requests.get(0).toInstant().toEpochMilli());
+        assertEquals(5000L, requests.get(1).toInstant().toEpochMilli());
+    }
+
+    @Test
+    public void testPollIgnoresOlderLogs() throws Exception {
+        server.add(log("old", 500L));
+        assertTrue(toTest.poll().isEmpty());
+    }
+
+    @Test
+    public void testFailingListener() throws Exception {
+        toTest.addListener(orderLog -> {
+            throw new IllegalStateException("Test");
+        });
+        server.add(log("a", 1000L));
+        toTest.poll();
+        assertEquals(1, delivered.size());
+    }
+
+    @Test
+    public void testRemoveListener() throws Exception {
+        List<SecurityOrderLog> removed = new ArrayList<>();
+        Consumer<SecurityOrderLog> listener = removed::add;
+        toTest.addListener(listener);
+        toTest.removeListener(listener);
+        server.add(log("a", 1000L));
+        assertEquals(1, toTest.poll().size());
+        assertTrue(removed.isEmpty());
+        assertEquals(1, delivered.size());
+    }
+
+    @Test(timeout = 5000)
+    public void testStartSurvivesFailingPoll() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        SecurityOrderLogTailer tailer = new SecurityOrderLogTailer(from -> {
+            if (polls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Test");
+            }
+            return Collections.emptyList();
+        }, Timestamps.toZonedDateTime(1000L));
+        tailer.start(1, TimeUnit.MILLISECONDS);
+        try {
+            while (polls.get() < 3) {
+                Thread.sleep(1);
+            }
+        }
+        finally {
+            tailer.stop();
+        }
+    }
+
+    private static List<String> ids(List<SecurityOrderLog> logs) {
+        List<String> ids = new ArrayList<>();
+        for (SecurityOrderLog orderLog : logs) {
+            ids.add(orderLog.getId());
+        }
+        return ids;
+    }
+}
@@ -97,6 +97,16 @@ public class SecurityOrderLogTest {
         assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
     }
 
+    @Test
+    public void searchLogsUncached() throws Exception {
+        ZonedDateTime date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(1477030780257L),
+            ZoneId.systemDefault());
+        List<SecurityOrderLog> reference = SecurityOrderLog.searchLogs(date, null, null);
+        List<SecurityOrderLog> testObject = SecurityOrderLog.searchLogsUncached(date, null, null);
+        assertNotEquals(0, testObject.size());
+        assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
+    }
+
     @Test
     public void getBuyerSecuritiesAccount() throws Exception {
         assertEquals("ca74b0ce-b77a-4125-93c8-bb7a2d2cb920", toTest.getBuyerSecuritiesAccount());
@@ -134,6 +144,12 @@ public class SecurityOrderLogTest {
         assertEquals(reference, toTest.getDate());
     }
 
+    @Test
+    public void getDateMillis() throws Exception {
+        assertEquals(1476953559806L, toTest.getDateMillis());
+        assertSame(toTest.getDate(), toTest.getDate());
+    }
+
     @Test
     public void getId() throws Exception {
         assertEquals("b7a4c7c7-c870-4bf1-badd-667d16fbd274", toTest.getId());
@@ -53,6 +53,17 @@ public class SecurityPriceTest {
         assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
     }
 
+    @Test
+    public void getSecurityPricesUncached() throws Exception {
+        ZonedDateTime date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneId.systemDefault());
+        List<LastPrice> reference = gson.fromJson(httpResponder.getJsonForRequest(
+            "/api/securityPrices/?securityIdentifier=STK0F513&startDate=0"),
+            new TypeToken<ArrayList<LastPrice>>() { }.getType());
+        List<LastPrice> testObject = SecurityPrice.getSecurityPricesUncached("STK0F513", date);
+        assertNotEquals(0, testObject.size());
+        assertEquals(new HashSet<>(reference), new HashSet<>(testObject));
+    }
+
     @Test
     public void getSecurityPrices2() throws Exception {
         ZonedDateTime date = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneId.systemDefault());
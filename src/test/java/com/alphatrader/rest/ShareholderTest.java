@@ -0,0 +1,110 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link Shareholder} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ShareholderTest {
+    private static HttpResponder httpResponder = HttpResponder.getInstance();
+    private static final Gson gson = new PropertyGson().create();
+
+    private static final String JSON = "{\n" +
+        "  \"company\": {\n" +
+        "    \"securitiesAccountId\": \"57875cf3-de0a-48e4-a3bc-314d4550df12\",\n" +
+        "    \"securityIdentifier\": \"STK0F513\",\n" +
+        "    \"name\": \"Katholische Kirche AG\",\n" +
+        "    \"id\": \"81dcf5a1-b0b6-462a-a40c-e374619edc2f\"\n" +
+        "  },\n" +
+        "  \"numberOfShares\": 38347,\n" +
+        "  \"outstandingShares\": 56947,\n" +
+        "  \"securityIdentifier\": \"STK0F513\",\n" +
+        "  \"shareInPercent\": 67.33805117\n" +
+        "}";
+
+    private Shareholder toTest;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        Http.setInstance(httpResponder.getMock());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = gson.fromJson(JSON, Shareholder.class);
+    }
+
+    @Test
+    public void testGetShareholders() throws Exception {
+        List<Shareholder> shareholders = Shareholder.getShareholders("STK0F513");
+        assertNotEquals(0, shareholders.size());
+        assertTrue(shareholders.contains(toTest));
+    }
+
+    @Test
+    public void testRequestShareholders() throws Exception {
+        assertEquals(Shareholder.getShareholders("STK0F513"), Shareholder.requestShareholders("STK0F513"));
+    }
+
+    @Test
+    public void testGetCompany() throws Exception {
+        assertEquals("81dcf5a1-b0b6-462a-a40c-e374619edc2f", toTest.getCompany().getId());
+        assertEquals("Katholische Kirche AG", toTest.getCompany().getName());
+    }
+
+    @Test
+    public void testGetSecurityIdentifier() throws Exception {
+        assertEquals("STK0F513", toTest.getSecurityIdentifier());
+    }
+
+    @Test
+    public void testGetNumberOfShares() throws Exception {
+        assertEquals(Long.valueOf(38347), toTest.getNumberOfShares());
+    }
+
+    @Test
+    public void testGetOutstandingShares() throws Exception {
+        assertEquals(Long.valueOf(56947), toTest.getOutstandingShares());
+    }
+
+    @Test
+    public void testGetShareInPercent() throws Exception {
+        assertEquals(67.33805117, toTest.getShareInPercent(), 0.0000001);
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        assertTrue(toTest.toString().startsWith(toTest.getClass().getSimpleName()));
+    }
+
+    @Test
+    public void testEquals() throws Exception {
+        assertTrue(toTest.equals(toTest));
+        assertFalse(toTest.equals(null));
+        assertFalse(toTest.equals("Test"));
+
+        Shareholder same = gson.fromJson(JSON, Shareholder.class);
+        Shareholder other = gson.fromJson(JSON.replace("38347", "1000"), Shareholder.class);
+        assertTrue(toTest.equals(same));
+        assertFalse(toTest.equals(other));
+    }
+
+    @Test
+    public void testHashCode() throws Exception {
+        Shareholder same = gson.fromJson(JSON, Shareholder.class);
+        Shareholder other = gson.fromJson(JSON.replace("38347", "1000"), Shareholder.class);
+        assertEquals(toTest.hashCode(), same.hashCode());
+        assertNotEquals(toTest.hashCode(), other.hashCode());
+    }
+}
@@ -0,0 +1,116 @@
+package com.alphatrader.rest;
+
+import com.alphatrader.rest.SecurityOrderLog.SearchType;
+import com.alphatrader.rest.util.Timestamps;
+import javafx.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link TradeIndex} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class TradeIndexTest {
+    private TradeIndex toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new TradeIndex();
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        toTest.add(log("1", "STK1", "a", "b", 1000L));
+        toTest.add(log("2", "STK2", "a", "c", 2000L));
+        toTest.add(log("3", "STK1", "c", "a", 3000L));
+        toTest.accept(log("4", "STK1", "a", "c", 4000L));
+
+        assertEquals(ids("1", "3", "4"), ids(toTest.search(null, null,
+            new Pair<>(SearchType.SECURITY_IDENTIFIER, "STK1"))));
+        assertEquals(ids("1", "4"), ids(toTest.search(Long.MIN_VALUE, Long.MAX_VALUE,
+            new Pair<>(SearchType.SECURITY_IDENTIFIER, "STK1"),
+            new Pair<>(SearchType.BUYER_SECURITIES_ACCOUNT_ID, "a"))));
+        assertEquals(ids("2", "4"), ids(toTest.search(null, null,
+            new Pair<>(SearchType.SELLER_SECURITIES_ACCOUNT_ID, "c"))));
+        assertEquals(ids("3"), ids(toTest.search(2000L, 3000L,
+            new Pair<>(SearchType.SECURITY_IDENTIFIER, "STK1"))));
+        assertEquals(ids("2", "3"), ids(toTest.search(2000L, 3000L)));
+        assertEquals(ids("2", "3", "4"), ids(toTest.search(Timestamps.toZonedDateTime(2000L), null)));
+        assertEquals(ids("3"), ids(toTest.search(Long.MIN_VALUE, Long.MAX_VALUE,
+            new Pair<>(SearchType.START_DATE, "2500"),
+            new Pair<>(SearchType.END_DATE, "3000"))));
+        assertTrue(toTest.search(0L, 10000L, new Pair<>(SearchType.BUYER_SECURITIES_ACCOUNT_ID, "x"))
+            .isEmpty());
+        assertEquals(0, toTest.count(5000L, 1000L));
+        assertEquals(4, toTest.count(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testOutOfOrderAndDuplicates() throws Exception {
+        assertEquals(2, toTest.addAll(Arrays.asList(log("3", "STK1", "a", "b", 3000L),
+            log("1", "STK1", "a", "b", 1000L))));
+        assertEquals(1, toTest.addAll(Arrays.asList(log("2", "STK1", "a", "b", 2000L),
+            log("1", "STK1", "a", "b", 1000L))));
+        assertFalse(toTest.add(log("3", "STK1", "a", "b", 3000L)));
+
+        assertEquals(3, toTest.size());
+        assertEquals(ids("1", "2", "3"), ids(toTest.search(null, null,
+            new Pair<>(SearchType.SECURITY_IDENTIFIER, "STK1"),
+            new Pair<>(SearchType.SELLER_SECURITIES_ACCOUNT_ID, "b"))));
+    }
+
+    @Test
+    public void testMatchesScan() throws Exception {
+        Random random = new Random(42);
+        List<SecurityOrderLog> all = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            all.add(log(Integer.toString(i), "STK" + random.nextInt(20), "acc" + random.nextInt(50),
+                "acc" + random.nextInt(50), random.nextInt(100_000)));
+        }
+        toTest.addAll(all.subList(0, 2500));
+        toTest.addAll(all.subList(2500, 5000));
+
+        for (int i = 0; i < 50; i++) {
+            String security = "STK" + random.nextInt(20);
+            String buyer = "acc" + random.nextInt(50);
+            long from = random.nextInt(100_000);
+            long to = from + random.nextInt(50_000);
+            Set<String> expected = all.stream()
+                .filter(log -> log.getSecurityIdentifier().equals(security))
+                .filter(log -> log.getBuyerSecuritiesAccount().equals(buyer))
+                .filter(log -> log.getDateMillis() >= from && log.getDateMillis() <= to)
+                .map(SecurityOrderLog::getId)
+                .collect(Collectors.toSet());
+            List<SecurityOrderLog> found = toTest.search(from, to,
+                new Pair<>(SearchType.BUYER_SECURITIES_ACCOUNT_ID, buyer),
+                new Pair<>(SearchType.SECURITY_IDENTIFIER, security));
+            assertEquals(expected, ids(found));
+            for (int j = 1; j < found.size(); j++) {
+                assertTrue(found.get(j - 1).getDateMillis() <= found.get(j).getDateMillis());
+            }
+        }
+    }
+
+    private static SecurityOrderLog log(String id, String security, String buyer, String seller,
+                                        long date) {
+        SecurityOrderLog log = SecurityOrderLog.create(id, security, date);
+        log.setParties(buyer, seller);
+        log.setTrade(1, 1.0, 1.0);
+        return log;
+    }
+
+    private static Set<String> ids(String... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    private static Set<String> ids(List<SecurityOrderLog> logs) {
+        return logs.stream().map(SecurityOrderLog::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,83 @@
+package com.alphatrader.rest;
+
+import javafx.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link TradeSketches} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class TradeSketchesTest {
+    private TradeSketches toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new TradeSketches(Duration.ofHours(1), 60);
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            toTest.accept(log("STK1", "a", "b", 10.0, 100.0, i * 1000L));
+        }
+        for (int i = 0; i < 30; i++) {
+            toTest.accept(log("STK2", "a", "c", 1000.0, 5.0, i * 1000L));
+        }
+
+        List<Pair<String, Long>> securities = toTest.getTopSecurities(5);
+        assertEquals(new Pair<>("STK1", 50L), securities.get(0));
+        assertEquals(new Pair<>("STK2", 30L), securities.get(1));
+        assertEquals(50, toTest.getTradeCount("STK1"));
+
+        List<Pair<String, Long>> accounts = toTest.getTopAccounts(2);
+        assertEquals(2, accounts.size());
+        assertEquals(new Pair<>("a", 80L), accounts.get(0));
+        assertEquals(new Pair<>("b", 50L), accounts.get(1));
+
+        assertEquals(10.0, toTest.getShareQuantile(0.5), 0.1);
+        assertEquals(1000.0, toTest.getShareQuantile(0.9), 10.0);
+        assertEquals(100.0, toTest.getPriceQuantile(0.5), 1.0);
+        assertEquals(5.0, toTest.getPriceQuantile(0.1), 0.05);
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        assertTrue(toTest.add(log("STK1", "a", "b", 10.0, 100.0, 0L)));
+        assertTrue(toTest.add(log("STK2", "a", "b", 10.0, 100.0, 3600000L)));
+        assertFalse(toTest.add(log("STK1", "a", "b", 10.0, 100.0, 1000L)));
+        assertEquals(0, toTest.getTradeCount("STK1"));
+        assertEquals(1, toTest.getTradeCount("STK2"));
+
+        toTest.advanceTo(7200000L);
+        assertTrue(toTest.getTopSecurities(5).isEmpty());
+        assertTrue(Double.isNaN(toTest.getPriceQuantile(0.5)));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        TradeSketches other = new TradeSketches(Duration.ofHours(1), 60);
+        toTest.add(log("STK1", "a", "b", 10.0, 100.0, 0L));
+        other.add(log("STK1", "c", "d", 10.0, 100.0, 60000L));
+        other.add(log("STK2", "c", "d", 10.0, 100.0, 60000L));
+
+        toTest.merge(other);
+        assertEquals(2, toTest.getTradeCount("STK1"));
+        assertEquals(new Pair<>("c", 2L), toTest.getTopAccounts(1).get(0));
+    }
+
+    private static SecurityOrderLog log(String security, String buyer, String seller, double shares,
+                                        double price, long dateMillis) {
+        SecurityOrderLog log = SecurityOrderLog.create(null, security, dateMillis);
+        log.setParties(buyer, seller);
+        log.setTrade(shares, price, shares * price);
+        return log;
+    }
+}
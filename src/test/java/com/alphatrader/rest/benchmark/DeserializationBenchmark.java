@@ -0,0 +1,86 @@
+package com.alphatrader.rest.benchmark;
+
+import com.alphatrader.rest.SecurityOrderLog;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.reflect.TypeToken;
+import org.hildan.fxgson.FxGsonBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming model adapters against the reflective property adapters when deserializing
+ * a large list of security order logs.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DeserializationBenchmark {
+    private static final Type LIST_TYPE = new TypeToken<List<SecurityOrderLog>>() { }.getType();
+
+    @Param({"10000"})
+    private int size;
+
+    private String json;
+    private Gson streaming;
+    private Gson reflective;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"buyerSecuritiesAccount\":\"ca74b0ce-b77a-4125-93c8-bb7a2d2cb920\",")
+                .append("\"sellerSecuritiesAccount\":\"de97775a-11be-47c5-af33-529b996d2b53\",")
+                .append("\"numberOfShares\":").append(i % 100 + 1).append(',')
+                .append("\"volume\":").append((i % 100 + 1) * 2.14).append(',')
+                .append("\"securityIdentifier\":\"STSD5676\",")
+                .append("\"price\":2.14,")
+                .append("\"date\":").append(1476953559806L + i).append(',')
+                .append("\"id\":\"b7a4c7c7-c870-4bf1-badd-").append(String.format("%012d", i))
+                .append("\"}");
+        }
+        json = builder.append(']').toString();
+
+        streaming = new PropertyGson().create();
+        reflective = new FxGsonBuilder()
+            .acceptNullPrimitives()
+            .builder().registerTypeAdapter(ZonedDateTime.class,
+                (JsonDeserializer<ZonedDateTime>) (element, type, context) -> ZonedDateTime.ofInstant(
+                    Instant.ofEpochMilli(element.getAsLong()), ZoneId.systemDefault()))
+            .create();
+    }
+
+    @Benchmark
+    public List<SecurityOrderLog> streaming() {
+        return streaming.fromJson(json, LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<SecurityOrderLog> reflective() {
+        return reflective.fromJson(json, LIST_TYPE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DeserializationBenchmark.class.getSimpleName()).build())
+            .run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.alphatrader.rest.benchmark;
+
+import com.alphatrader.rest.LastPrice;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the values of a security price history, comparing the values parsed once at
+ * deserialization against re-parsing the raw value string on every access.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LastPriceBenchmark {
+    @Param({"100000"})
+    private int size;
+
+    private List<LastPrice> history;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"date\":").append(1476375715646L + i * 60000L)
+                .append(",\"value\":").append(600 + (i % 1000) / 100.0).append('}');
+        }
+        history = new PropertyGson().create().fromJson(builder.append(']').toString(),
+            new TypeToken<List<LastPrice>>() { }.getType());
+    }
+
+    @Benchmark
+    public double parsedOnce() {
+        double sum = 0;
+        for (LastPrice price : history) {
+            sum += price.getValueAsDouble();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double parsedPerCall() {
+        double sum = 0;
+        for (LastPrice price : history) {
+            sum += Double.valueOf(price.valueProperty().getValue().replaceAll("%", "").trim());
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LastPriceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.alphatrader.rest.benchmark;
+
+import com.alphatrader.rest.CompressedPriceSeries;
+import com.alphatrader.rest.LastPrice;
+import com.alphatrader.rest.PriceSeries;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding and scanning a compressed price history against the uncompressed columns and the
+ * {@link LastPrice} objects. The encode benchmark reports the uncompressed and compressed bytes it
+ * produced as secondary results; their quotient is the compression ratio.
+ * <p>
+ * The history is read from the JSON file given in the system property {@code prices.file}, e.g. the
+ * response of {@code /api/securityPrices/?securityIdentifier=...} saved from the server. Without it, a
+ * random walk at a cent tick size and irregular trade times is generated.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PriceCompressionBenchmark {
+    @Param({"100000"})
+    private int size;
+
+    private List<LastPrice> history;
+    private PriceSeries columns;
+    private double[] values;
+    private CompressedPriceSeries compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        String file = System.getProperty("prices.file");
+        String json = file != null
+            ? new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8) : generate();
+        history = new PropertyGson().create().fromJson(json,
+            new TypeToken<List<LastPrice>>() { }.getType());
+
+        columns = new PriceSeries("benchmark");
+        columns.merge(history);
+        values = columns.getValues();
+        compressed = CompressedPriceSeries.of(columns, CompressedPriceSeries.DEFAULT_BLOCK_MILLIS);
+    }
+
+    private String generate() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder("[");
+        long date = 1474194147801L;
+        double price = 600;
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            date += 1000 + random.nextInt(120_000);
+            if (random.nextInt(3) == 0) {
+                price = Math.max(0.01, Math.round((price + random.nextGaussian()) * 100) / 100.0);
+            }
+            builder.append("{\"date\":").append(date).append(",\"value\":").append(price).append('}');
+        }
+        return builder.append(']').toString();
+    }
+
+    @Benchmark
+    public CompressedPriceSeries encode(Sizes sizes) {
+        CompressedPriceSeries result = CompressedPriceSeries.of(columns,
+            CompressedPriceSeries.DEFAULT_BLOCK_MILLIS);
+        sizes.uncompressedBytes += result.size() * 16L;
+        sizes.compressedBytes += result.getCompressedBytes();
+        return result;
+    }
+
+    @Benchmark
+    public double scanCompressed() {
+        double sum = 0;
+        CompressedPriceSeries.Cursor cursor = compressed.cursor();
+        while (cursor.next()) {
+            sum += cursor.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanColumns() {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double scanObjects() {
+        double sum = 0;
+        for (LastPrice price : history) {
+            sum += price.getValueAsDouble();
+        }
+        return sum;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long uncompressedBytes;
+        public long compressedBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PriceCompressionBenchmark.class.getSimpleName()).build())
+            .run();
+    }
+}
@@ -0,0 +1,293 @@
+package com.alphatrader.rest.flow;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link PollingPublisher} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class PollingPublisherTest {
+    private final AtomicInteger polls = new AtomicInteger();
+    private List<Integer> nextItems;
+
+    private PollingPublisher<Integer> create(int bufferSize, OverflowPolicy policy) {
+        return new PollingPublisher<>(() -> {
+            polls.incrementAndGet();
+            List<Integer> items = nextItems;
+            nextItems = Collections.emptyList();
+            return items;
+        }, bufferSize, policy);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        nextItems = Collections.emptyList();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBufferSize() throws Exception {
+        create(0, OverflowPolicy.DROP_OLDEST);
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+
+        nextItems = Arrays.asList(1, 2, 3);
+        assertFalse(toTest.poll());
+        assertEquals(0, polls.get());
+
+        subscriber.subscription.request(2);
+        assertTrue(toTest.poll());
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+
+        assertFalse(toTest.poll());
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+        assertEquals(1, polls.get());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        PollingPublisher<Integer> toTest = create(2, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        RecordingSubscriber fast = new RecordingSubscriber();
+        toTest.subscribe(fast);
+        fast.subscription.request(Long.MAX_VALUE);
+
+        nextItems = Arrays.asList(1, 2, 3, 4);
+        toTest.poll();
+        subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(3, 4), subscriber.items);
+        assertEquals(Arrays.asList(1, 2, 3, 4), fast.items);
+    }
+
+    @Test
+    public void testConflateLatest() throws Exception {
+        PollingPublisher<Integer> toTest = create(2, OverflowPolicy.CONFLATE_LATEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        RecordingSubscriber fast = new RecordingSubscriber();
+        toTest.subscribe(fast);
+        fast.subscription.request(Long.MAX_VALUE);
+
+        nextItems = Arrays.asList(1, 2, 3, 4);
+        toTest.poll();
+        subscriber.subscription.request(10);
+
+        assertEquals(Arrays.asList(1, 4), subscriber.items);
+    }
+
+    @Test
+    public void testBlockDeliversWhileWaiting() throws Exception {
+        PollingPublisher<Integer> toTest = create(1, OverflowPolicy.BLOCK);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        subscriber.subscription.request(3);
+
+        nextItems = Arrays.asList(1, 2, 3);
+        toTest.poll();
+
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+    }
+
+    @Test(timeout = 5000)
+    public void testBlockWaitsForDemand() throws Exception {
+        PollingPublisher<Integer> toTest = create(1, OverflowPolicy.BLOCK);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        nextItems = Arrays.asList(1, 2, 3);
+        Thread poller = new Thread(toTest::poll);
+        poller.start();
+
+        while (subscriber.items.size() < 1) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+        assertTrue(poller.isAlive());
+
+        subscriber.subscription.request(2);
+        poller.join();
+        subscriber.subscription.request(10);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+    }
+
+    @Test
+    public void testRequestFromOnNext() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        toTest.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        nextItems = Arrays.asList(1, 2, 3);
+        toTest.poll();
+
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.items);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        assertEquals(1, toTest.getSubscriberCount());
+
+        subscriber.subscription.cancel();
+        assertEquals(0, toTest.getSubscriberCount());
+        subscriber.subscription.request(1);
+        nextItems = Collections.singletonList(1);
+        assertFalse(toTest.poll());
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void testFailingSubscriberIsCancelled() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                throw new IllegalStateException("failure");
+            }
+        };
+        toTest.subscribe(subscriber);
+        subscriber.subscription.request(5);
+
+        nextItems = Arrays.asList(1, 2);
+        toTest.poll();
+
+        assertEquals(0, toTest.getSubscriberCount());
+    }
+
+    @Test
+    public void testInvalidRequest() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, toTest.getSubscriberCount());
+    }
+
+    @Test
+    public void testStopCompletesAfterBuffer() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        toTest.subscribe(subscriber);
+        RecordingSubscriber fast = new RecordingSubscriber();
+        toTest.subscribe(fast);
+        fast.subscription.request(10);
+
+        nextItems = Arrays.asList(1, 2);
+        toTest.poll();
+        toTest.stop();
+
+        assertTrue(fast.completed);
+        assertFalse(subscriber.completed);
+        subscriber.subscription.request(10);
+        assertEquals(Arrays.asList(1, 2), subscriber.items);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test(timeout = 5000)
+    public void testStart() throws Exception {
+        PollingPublisher<Integer> toTest = create(10, OverflowPolicy.DROP_OLDEST);
+        CountDownLatch latch = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                latch.countDown();
+            }
+        };
+        toTest.subscribe(subscriber);
+        nextItems = Collections.singletonList(1);
+        subscriber.subscription.request(1);
+
+        toTest.start(10, TimeUnit.MILLISECONDS);
+        latch.await();
+        toTest.stop();
+
+        assertEquals(Collections.singletonList(1), subscriber.items);
+    }
+
+    @Test(timeout = 5000)
+    public void testStartSurvivesFailingPoll() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        PollingPublisher<Integer> toTest = new PollingPublisher<>(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new AssertionError("Test");
+            }
+            return Collections.singletonList(attempts.get());
+        }, 10, OverflowPolicy.DROP_OLDEST);
+        CountDownLatch latch = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                latch.countDown();
+            }
+        };
+        toTest.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        toTest.start(1, TimeUnit.MILLISECONDS);
+        latch.await();
+        toTest.stop();
+
+        assertEquals(Collections.singletonList(2), subscriber.items);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
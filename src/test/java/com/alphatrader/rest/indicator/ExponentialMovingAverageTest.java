@@ -0,0 +1,58 @@
+package com.alphatrader.rest.indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link ExponentialMovingAverage} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class ExponentialMovingAverageTest {
+    @Test
+    public void testSeedAndSmoothing() throws Exception {
+        ExponentialMovingAverage toTest = new ExponentialMovingAverage(3);
+        toTest.update(1, Double.NaN);
+        toTest.update(2, Double.NaN);
+        assertFalse(toTest.isReady());
+        assertTrue(Double.isNaN(toTest.getValue()));
+        toTest.update(3, Double.NaN);
+        assertEquals(2.0, toTest.getValue(), 0.0);
+        toTest.update(6, Double.NaN);
+        assertEquals(4.0, toTest.getValue(), 1e-12);
+    }
+
+    @Test
+    public void testMatchesFullRecomputation() throws Exception {
+        ExponentialMovingAverage toTest = new ExponentialMovingAverage(10);
+        double[] prices = new double[300];
+        Random random = new Random(7);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 50 + random.nextDouble() * 5;
+            toTest.update(prices[i], Double.NaN);
+        }
+
+        double reference = 0;
+        for (int i = 0; i < 10; i++) {
+            reference += prices[i] / 10;
+        }
+        for (int i = 10; i < prices.length; i++) {
+            reference = prices[i] * 2.0 / 11 + reference * (1 - 2.0 / 11);
+        }
+        assertEquals(reference, toTest.getValue(), 1e-9);
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        ExponentialMovingAverage toTest = new ExponentialMovingAverage(1);
+        toTest.update(4, Double.NaN);
+        assertEquals(4.0, toTest.getValue(), 0.0);
+        toTest.reset();
+        assertFalse(toTest.isReady());
+        assertTrue(toTest.toString().startsWith(toTest.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.alphatrader.rest.indicator;
+
+import com.alphatrader.rest.LastPrice;
+import com.alphatrader.rest.SecurityOrderLog;
+import com.alphatrader.rest.util.PropertyGson;
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link IndicatorEngine} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class IndicatorEngineTest {
+    private static final Gson gson = new PropertyGson().create();
+
+    private IndicatorEngine toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new IndicatorEngine();
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        SimpleMovingAverage sma = toTest.register("S1", new SimpleMovingAverage(2));
+        VolumeWeightedAveragePrice vwap = toTest.register("S1", new VolumeWeightedAveragePrice(10));
+        SimpleMovingAverage other = toTest.register("S2", new SimpleMovingAverage(1));
+
+        toTest.update("S1", 10, 1);
+        toTest.update("S1", 20, 3);
+        toTest.update("S3", 99, 1);
+
+        assertEquals(15.0, sma.getValue(), 0.0);
+        assertEquals(17.5, vwap.getValue(), 0.0);
+        assertFalse(other.isReady());
+        assertEquals(Arrays.asList(sma, vwap), toTest.getIndicators("S1"));
+        assertTrue(toTest.getIndicators("S3").isEmpty());
+    }
+
+    @Test
+    public void testLastPrices() throws Exception {
+        SimpleMovingAverage sma = toTest.register("S1", new SimpleMovingAverage(3));
+        VolumeWeightedAveragePrice vwap = toTest.register("S1", new VolumeWeightedAveragePrice(3));
+
+        toTest.prime("S1", Arrays.asList(lastPrice(1.0), lastPrice(2.0)));
+        toTest.update("S1", lastPrice(6.0));
+
+        assertEquals(3.0, sma.getValue(), 0.0);
+        assertFalse(vwap.isReady());
+    }
+
+    @Test
+    public void testAccept() throws Exception {
+        VolumeWeightedAveragePrice vwap = toTest.register("STK0F513", new VolumeWeightedAveragePrice(3));
+        toTest.accept(gson.fromJson("{\"numberOfShares\": 100, \"volume\": 250.0, "
+            + "\"securityIdentifier\": \"STK0F513\", \"price\": 2.5, \"date\": 1475882777051, "
+            + "\"id\": \"1\"}", SecurityOrderLog.class));
+        assertEquals(2.5, vwap.getValue(), 0.0);
+    }
+
+    @Test
+    public void testUnregisterAndRemove() throws Exception {
+        SimpleMovingAverage sma = toTest.register("S1", new SimpleMovingAverage(1));
+        assertTrue(toTest.unregister("S1", sma));
+        assertFalse(toTest.unregister("S1", sma));
+        assertFalse(toTest.unregister("S2", sma));
+        toTest.update("S1", 1, 1);
+        assertFalse(sma.isReady());
+
+        toTest.register("S1", sma);
+        assertTrue(toTest.getSecurityIdentifiers().contains("S1"));
+        toTest.remove("S1");
+        assertTrue(toTest.getSecurityIdentifiers().isEmpty());
+    }
+
+    private static LastPrice lastPrice(double value) {
+        return gson.fromJson("{\"date\": 1475882777051, \"value\": " + value + "}", LastPrice.class);
+    }
+}
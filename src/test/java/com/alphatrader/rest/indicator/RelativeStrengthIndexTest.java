@@ -0,0 +1,62 @@
+package com.alphatrader.rest.indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link RelativeStrengthIndex} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class RelativeStrengthIndexTest {
+    @Test
+    public void testSeedAndSmoothing() throws Exception {
+        RelativeStrengthIndex toTest = new RelativeStrengthIndex(2);
+        toTest.update(10, Double.NaN);
+        toTest.update(12, Double.NaN);
+        assertFalse(toTest.isReady());
+        toTest.update(11, Double.NaN);
+        assertTrue(toTest.isReady());
+        assertEquals(100.0 - 100.0 / 3.0, toTest.getValue(), 1e-9);
+
+        toTest.update(14, Double.NaN);
+        assertEquals(100.0 - 100.0 / (1.0 + 2.0 / 0.25), toTest.getValue(), 1e-9);
+    }
+
+    @Test
+    public void testOneSidedMarkets() throws Exception {
+        RelativeStrengthIndex toTest = new RelativeStrengthIndex(3);
+        for (int i = 0; i < 5; i++) {
+            toTest.update(i, Double.NaN);
+        }
+        assertEquals(100.0, toTest.getValue(), 0.0);
+
+        toTest.reset();
+        for (int i = 0; i < 5; i++) {
+            toTest.update(1, Double.NaN);
+        }
+        assertEquals(50.0, toTest.getValue(), 0.0);
+
+        toTest.reset();
+        for (int i = 5; i > 0; i--) {
+            toTest.update(i, Double.NaN);
+        }
+        assertEquals(0.0, toTest.getValue(), 0.0);
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        RelativeStrengthIndex toTest = new RelativeStrengthIndex(14);
+        Random random = new Random(5);
+        for (int i = 0; i < 500; i++) {
+            toTest.update(100 + random.nextGaussian(), Double.NaN);
+            if (toTest.isReady()) {
+                assertTrue(toTest.getValue() >= 0.0 && toTest.getValue() <= 100.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.alphatrader.rest.indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link SimpleMovingAverage} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SimpleMovingAverageTest {
+    @Test
+    public void testMatchesFullRecomputation() throws Exception {
+        SimpleMovingAverage toTest = new SimpleMovingAverage(5);
+        double[] prices = new double[200];
+        Random random = new Random(42);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 100 + random.nextGaussian() * 10;
+            toTest.update(prices[i], Double.NaN);
+            if (i < 4) {
+                assertFalse(toTest.isReady());
+                assertTrue(Double.isNaN(toTest.getValue()));
+                continue;
+            }
+            double sum = 0;
+            for (int j = i - 4; j <= i; j++) {
+                sum += prices[j];
+            }
+            assertEquals(sum / 5, toTest.getValue(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        SimpleMovingAverage toTest = new SimpleMovingAverage(2);
+        toTest.update(1, Double.NaN);
+        toTest.update(3, Double.NaN);
+        assertEquals(2.0, toTest.getValue(), 0.0);
+        toTest.reset();
+        assertFalse(toTest.isReady());
+        toTest.update(5, Double.NaN);
+        toTest.update(7, Double.NaN);
+        assertEquals(6.0, toTest.getValue(), 0.0);
+        assertTrue(toTest.toString().startsWith(toTest.getClass().getSimpleName()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPeriod() throws Exception {
+        new SimpleMovingAverage(0);
+    }
+}
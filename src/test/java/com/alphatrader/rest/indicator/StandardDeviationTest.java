@@ -0,0 +1,52 @@
+package com.alphatrader.rest.indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link StandardDeviation} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class StandardDeviationTest {
+    @Test
+    public void testMatchesFullRecomputation() throws Exception {
+        StandardDeviation toTest = new StandardDeviation(20);
+        double[] prices = new double[1000];
+        Random random = new Random(3);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 10000 + random.nextGaussian();
+            toTest.update(prices[i], Double.NaN);
+            if (i < 19) {
+                assertFalse(toTest.isReady());
+                continue;
+            }
+            double mean = 0;
+            for (int j = i - 19; j <= i; j++) {
+                mean += prices[j] / 20;
+            }
+            double squares = 0;
+            for (int j = i - 19; j <= i; j++) {
+                squares += (prices[j] - mean) * (prices[j] - mean);
+            }
+            assertEquals(mean, toTest.getMean(), 1e-8);
+            assertEquals(Math.sqrt(squares / 20), toTest.getValue(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testConstantPrices() throws Exception {
+        StandardDeviation toTest = new StandardDeviation(3);
+        for (int i = 0; i < 10; i++) {
+            toTest.update(0.1, Double.NaN);
+        }
+        assertEquals(0.0, toTest.getValue(), 1e-12);
+        toTest.reset();
+        assertTrue(Double.isNaN(toTest.getValue()));
+        assertTrue(Double.isNaN(toTest.getMean()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.alphatrader.rest.indicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link VolumeWeightedAveragePrice} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class VolumeWeightedAveragePriceTest {
+    @Test
+    public void testWindow() throws Exception {
+        VolumeWeightedAveragePrice toTest = new VolumeWeightedAveragePrice(2);
+        assertFalse(toTest.isReady());
+        assertTrue(Double.isNaN(toTest.getValue()));
+
+        toTest.update(10, 1);
+        toTest.update(20, 3);
+        assertEquals(17.5, toTest.getValue(), 1e-12);
+
+        toTest.update(30, 1);
+        assertEquals(22.5, toTest.getValue(), 1e-12);
+    }
+
+    @Test
+    public void testIgnoresMissingQuantities() throws Exception {
+        VolumeWeightedAveragePrice toTest = new VolumeWeightedAveragePrice(5);
+        toTest.update(10, 2);
+        toTest.update(99, Double.NaN);
+        toTest.update(99, 0);
+        assertEquals(10.0, toTest.getValue(), 0.0);
+    }
+
+    @Test
+    public void testMatchesFullRecomputation() throws Exception {
+        VolumeWeightedAveragePrice toTest = new VolumeWeightedAveragePrice(8);
+        double[] prices = new double[100];
+        double[] quantities = new double[100];
+        Random random = new Random(11);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 5 + random.nextDouble();
+            quantities[i] = 1 + random.nextInt(1000);
+            toTest.update(prices[i], quantities[i]);
+        }
+        double volume = 0;
+        double quantity = 0;
+        for (int i = prices.length - 8; i < prices.length; i++) {
+            volume += prices[i] * quantities[i];
+            quantity += quantities[i];
+        }
+        assertEquals(volume / quantity, toTest.getValue(), 1e-9);
+
+        toTest.reset();
+        assertFalse(toTest.isReady());
+    }
+}
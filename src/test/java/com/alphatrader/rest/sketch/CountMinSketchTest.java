@@ -0,0 +1,86 @@
+package com.alphatrader.rest.sketch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link CountMinSketch} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class CountMinSketchTest {
+    private CountMinSketch toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new CountMinSketch(4, 1000);
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        assertEquals(4, toTest.getDepth());
+        assertEquals(1024, toTest.getWidth());
+        CountMinSketch sized = CountMinSketch.withError(0.01, 0.99);
+        assertEquals(5, sized.getDepth());
+        assertEquals(512, sized.getWidth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() throws Exception {
+        new CountMinSketch(0, 16);
+    }
+
+    @Test
+    public void testAddAndEstimate() throws Exception {
+        assertEquals(3, toTest.add("STK1", 3));
+        assertEquals(5, toTest.add("STK1", 2));
+        for (int i = 0; i < 500; i++) {
+            toTest.add("STK" + (i + 2), 1);
+        }
+        assertTrue(toTest.estimate("STK1") >= 5);
+        assertTrue(toTest.estimate("STK1") <= 5 + toTest.getTotal() * Math.E / toTest.getWidth());
+        assertEquals(505, toTest.getTotal());
+        assertEquals(0, new CountMinSketch(4, 1000).estimate("STK1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() throws Exception {
+        toTest.add("STK1", -1);
+    }
+
+    @Test
+    public void testMergeAndSubtract() throws Exception {
+        CountMinSketch other = new CountMinSketch(4, 1024);
+        toTest.add("STK1", 3);
+        other.add("STK1", 4);
+        other.add("STK2", 1);
+
+        toTest.merge(other);
+        assertEquals(7, toTest.estimate("STK1"));
+        assertEquals(8, toTest.getTotal());
+
+        toTest.subtract(other);
+        assertEquals(3, toTest.estimate("STK1"));
+        assertEquals(0, toTest.estimate("STK2"));
+        assertEquals(3, toTest.getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentSize() throws Exception {
+        toTest.merge(new CountMinSketch(4, 512));
+    }
+
+    @Test
+    public void testCopyAndClear() throws Exception {
+        toTest.add("STK1", 3);
+        CountMinSketch copy = new CountMinSketch(toTest);
+        toTest.clear();
+        assertEquals(0, toTest.estimate("STK1"));
+        assertEquals(0, toTest.getTotal());
+        assertEquals(3, copy.estimate("STK1"));
+        assertEquals(3, copy.getTotal());
+    }
+}
@@ -0,0 +1,79 @@
+package com.alphatrader.rest.sketch;
+
+import javafx.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link HeavyHitters} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class HeavyHittersTest {
+    private HeavyHitters toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new HeavyHitters(3, 4, 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() throws Exception {
+        new HeavyHitters(0, 4, 1024);
+    }
+
+    @Test
+    public void testTop() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            toTest.add("noise" + i, 1);
+        }
+        toTest.add("STK1", 50);
+        toTest.add("STK2", 30);
+        for (int i = 0; i < 40; i++) {
+            toTest.add("STK3", 1);
+        }
+
+        List<Pair<String, Long>> top = toTest.getTop(5);
+        assertEquals(3, top.size());
+        assertEquals("STK1", top.get(0).getKey());
+        assertEquals("STK3", top.get(1).getKey());
+        assertEquals("STK2", top.get(2).getKey());
+        assertTrue(top.get(0).getValue() >= 50);
+        assertEquals(1, toTest.getTop(1).size());
+        assertEquals(3, toTest.getCapacity());
+        assertEquals(320, toTest.getTotal());
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        HeavyHitters other = new HeavyHitters(3, 4, 1024);
+        toTest.add("STK1", 10);
+        toTest.add("STK2", 8);
+        other.add("STK2", 8);
+        other.add("STK3", 9);
+
+        toTest.merge(other);
+        List<Pair<String, Long>> top = toTest.getTop(3);
+        assertEquals("STK2", top.get(0).getKey());
+        assertEquals(16, (long) top.get(0).getValue());
+        assertEquals("STK1", top.get(1).getKey());
+        assertEquals("STK3", top.get(2).getKey());
+        assertEquals(35, toTest.getTotal());
+    }
+
+    @Test
+    public void testCopyAndClear() throws Exception {
+        toTest.add("STK1", 10);
+        HeavyHitters copy = new HeavyHitters(toTest);
+        toTest.clear();
+        assertTrue(toTest.getTop(3).isEmpty());
+        assertEquals(0, toTest.estimate("STK1"));
+        assertEquals(10, copy.estimate("STK1"));
+        assertEquals("STK1", copy.getTop(1).get(0).getKey());
+    }
+}
@@ -0,0 +1,93 @@
+package com.alphatrader.rest.sketch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link QuantileSketch} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class QuantileSketchTest {
+    private QuantileSketch toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new QuantileSketch(0.01);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(0, toTest.getCount());
+        assertTrue(Double.isNaN(toTest.getQuantile(0.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAccuracy() throws Exception {
+        new QuantileSketch(1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() throws Exception {
+        toTest.getQuantile(1.5);
+    }
+
+    @Test
+    public void testQuantiles() throws Exception {
+        for (int i = 1; i <= 10000; i++) {
+            toTest.add(i);
+        }
+        assertEquals(10000, toTest.getCount());
+        assertEquals(1.0, toTest.getQuantile(0.0), 0.01);
+        assertEquals(5000.0, toTest.getQuantile(0.5), 50.0);
+        assertEquals(9900.0, toTest.getQuantile(0.99), 99.0);
+        assertEquals(10000.0, toTest.getQuantile(1.0), 100.0);
+    }
+
+    @Test
+    public void testZeroAndRepeatedValues() throws Exception {
+        toTest.add(0.0, 3);
+        toTest.add(-5.0);
+        toTest.add(Double.NaN);
+        toTest.add(250.0, 6);
+        assertEquals(10, toTest.getCount());
+        assertEquals(0.0, toTest.getQuantile(0.3), 0.0);
+        assertEquals(250.0, toTest.getQuantile(0.5), 2.5);
+    }
+
+    @Test
+    public void testMergeAndSubtract() throws Exception {
+        QuantileSketch other = new QuantileSketch(0.01);
+        for (int i = 0; i < 100; i++) {
+            toTest.add(10.0);
+            other.add(1000.0);
+        }
+
+        toTest.merge(other);
+        assertEquals(200, toTest.getCount());
+        assertEquals(10.0, toTest.getQuantile(0.25), 0.1);
+        assertEquals(1000.0, toTest.getQuantile(0.75), 10.0);
+
+        toTest.subtract(other);
+        assertEquals(100, toTest.getCount());
+        assertEquals(10.0, toTest.getQuantile(1.0), 0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentAccuracy() throws Exception {
+        toTest.merge(new QuantileSketch(0.02));
+    }
+
+    @Test
+    public void testCopyAndClear() throws Exception {
+        toTest.add(42.0);
+        QuantileSketch copy = new QuantileSketch(toTest);
+        toTest.clear();
+        assertEquals(0, toTest.getCount());
+        assertEquals(1, copy.getCount());
+        assertEquals(42.0, copy.getQuantile(0.5), 0.42);
+    }
+}
@@ -0,0 +1,86 @@
+package com.alphatrader.rest.sketch;
+
+import javafx.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link SlidingHeavyHitters} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SlidingHeavyHittersTest {
+    private SlidingHeavyHitters toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new SlidingHeavyHitters(Duration.ofSeconds(4), 4, 10, 4, 256);
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        assertTrue(toTest.add("STK1", 0L, 5));
+        assertTrue(toTest.add("STK2", 1000L, 3));
+        assertTrue(toTest.add("STK2", 3999L, 3));
+        assertEquals(11, toTest.getTotal());
+        assertEquals("STK2", toTest.getTop(1).get(0).getKey());
+
+        assertTrue(toTest.add("STK3", 4000L, 1));
+        assertEquals(0, toTest.estimate("STK1"));
+        assertEquals(7, toTest.getTotal());
+        assertFalse(toTest.add("STK1", 500L, 1));
+
+        List<Pair<String, Long>> top = toTest.getTop(5);
+        assertEquals(2, top.size());
+        assertEquals(new Pair<>("STK2", 6L), top.get(0));
+        assertEquals(new Pair<>("STK3", 1L), top.get(1));
+
+        toTest.advanceTo(7000L);
+        assertEquals(1, toTest.getTotal());
+        toTest.advanceTo(100000L);
+        assertEquals(0, toTest.getTotal());
+        assertTrue(toTest.getTop(5).isEmpty());
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        SlidingHeavyHitters other = new SlidingHeavyHitters(Duration.ofSeconds(4), 4, 10, 4, 256);
+        toTest.add("STK1", 1000L, 2);
+        other.add("STK1", 0L, 4);
+        other.add("STK2", 5000L, 3);
+
+        toTest.merge(other);
+        assertEquals(0, toTest.estimate("STK1"));
+        assertEquals(3, toTest.estimate("STK2"));
+
+        SlidingHeavyHitters empty = new SlidingHeavyHitters(Duration.ofSeconds(4), 4, 10, 4, 256);
+        empty.merge(other);
+        assertEquals(3, empty.getTotal());
+        toTest.merge(new SlidingHeavyHitters(Duration.ofSeconds(4), 4, 10, 4, 256));
+        assertEquals(3, toTest.getTotal());
+    }
+
+    @Test
+    public void testMergeKeepsOwnPanes() throws Exception {
+        SlidingHeavyHitters other = new SlidingHeavyHitters(Duration.ofSeconds(4), 4, 10, 4, 256);
+        toTest.add("STK1", 9000L, 2);
+        other.add("STK1", 6000L, 4);
+        other.add("STK2", 2000L, 3);
+
+        toTest.merge(other);
+        assertEquals(6, toTest.estimate("STK1"));
+        assertEquals(0, toTest.estimate("STK2"));
+        assertEquals("STK1", toTest.getTop(3).get(0).getKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentWindow() throws Exception {
+        toTest.merge(new SlidingHeavyHitters(Duration.ofSeconds(8), 4, 10, 4, 256));
+    }
+}
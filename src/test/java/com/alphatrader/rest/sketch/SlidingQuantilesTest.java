@@ -0,0 +1,65 @@
+package com.alphatrader.rest.sketch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link SlidingQuantiles} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SlidingQuantilesTest {
+    private SlidingQuantiles toTest;
+
+    @Before
+    public void setUp() throws Exception {
+        toTest = new SlidingQuantiles(Duration.ofMinutes(1), 6, 0.01);
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        assertTrue(Double.isNaN(toTest.getQuantile(0.5)));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(toTest.add(10.0, i * 100L));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(toTest.add(100.0, 30000L + i * 100L));
+        }
+        assertEquals(200, toTest.getCount());
+        assertEquals(10.0, toTest.getQuantile(0.25), 0.1);
+        assertEquals(100.0, toTest.getQuantile(0.75), 1.0);
+
+        toTest.advanceTo(65000L);
+        assertEquals(100, toTest.getCount());
+        assertEquals(100.0, toTest.getQuantile(0.0), 1.0);
+        assertFalse(toTest.add(1.0, 1000L));
+
+        toTest.advanceTo(1000000L);
+        assertEquals(0, toTest.getCount());
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        SlidingQuantiles other = new SlidingQuantiles(Duration.ofMinutes(1), 6, 0.01);
+        toTest.add(10.0, 0L);
+        other.add(20.0, 5000L);
+        other.add(30.0, 70000L);
+
+        toTest.merge(other);
+        assertEquals(1, toTest.getCount());
+        assertEquals(30.0, toTest.getQuantile(0.5), 0.3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentAccuracy() throws Exception {
+        SlidingQuantiles other = new SlidingQuantiles(Duration.ofMinutes(1), 6, 0.02);
+        other.add(1.0, 0L);
+        toTest.add(1.0, 0L);
+        toTest.merge(other);
+    }
+}
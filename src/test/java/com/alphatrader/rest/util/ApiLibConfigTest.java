@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URL;
+import java.time.ZoneId;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -61,4 +62,13 @@ public class ApiLibConfigTest {
         toTest.setPartnerId(partnerId);
         assertEquals(partnerId, toTest.getPartnerId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetSetTimeZone() throws Exception {
+        ZoneId previous = toTest.getTimeZone();
+        ZoneId zone = ZoneId.of("UTC");
+        toTest.setTimeZone(zone);
+        assertEquals(zone, toTest.getTimeZone());
+        toTest.setTimeZone(previous);
+    }
+}
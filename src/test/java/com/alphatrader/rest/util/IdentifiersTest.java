@@ -0,0 +1,55 @@
+package com.alphatrader.rest.util;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link Identifiers} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class IdentifiersTest {
+    private static final String ID = "b7a4c7c7-c870-4bf1-badd-667d16fbd274";
+
+    @Test
+    public void testIntern() throws Exception {
+        String copy = new String(ID.toCharArray());
+        assertNotSame(ID, copy);
+        assertSame(Identifiers.intern(ID), Identifiers.intern(copy));
+        assertNull(Identifiers.intern(null));
+    }
+
+    @Test
+    public void testIsUuid() throws Exception {
+        assertTrue(Identifiers.isUuid(ID));
+        assertTrue(Identifiers.isUuid(ID.toUpperCase()));
+        assertFalse(Identifiers.isUuid(null));
+        assertFalse(Identifiers.isUuid("STSD5676"));
+        assertFalse(Identifiers.isUuid("b7a4c7c7-c870-4bf1-badd-667d16fbd27x"));
+        assertFalse(Identifiers.isUuid("b7a4c7c7xc870-4bf1-badd-667d16fbd274"));
+    }
+
+    @Test
+    public void testBits() throws Exception {
+        UUID reference = UUID.fromString(ID);
+        assertEquals(reference.getMostSignificantBits(), Identifiers.mostSignificantBits(ID));
+        assertEquals(reference.getLeastSignificantBits(), Identifiers.leastSignificantBits(ID));
+    }
+
+    @Test
+    public void testFromBits() throws Exception {
+        String restored = Identifiers.fromBits(Identifiers.mostSignificantBits(ID),
+            Identifiers.leastSignificantBits(ID));
+        assertEquals(ID, restored);
+        assertSame(Identifiers.intern(ID), restored);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitsInvalid() throws Exception {
+        Identifiers.mostSignificantBits("STSD5676-xxxx-xxxx-xxxx-xxxxxxxxxxxx");
+    }
+}
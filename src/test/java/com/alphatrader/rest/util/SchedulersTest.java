@@ -0,0 +1,48 @@
+package com.alphatrader.rest.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for the {@link Schedulers} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class SchedulersTest {
+    @Test
+    public void testNewDaemonScheduler() throws Exception {
+        ScheduledExecutorService scheduler = Schedulers.newDaemonScheduler("test-scheduler");
+        try {
+            Thread thread = scheduler.submit(Thread::currentThread).get();
+            assertTrue(thread.isDaemon());
+            assertEquals("test-scheduler", thread.getName());
+        }
+        finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testLogFailuresKeepsSchedule() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledExecutorService scheduler = Schedulers.newDaemonScheduler("test-scheduler");
+        try {
+            scheduler.scheduleWithFixedDelay(Schedulers.logFailures("Test task", () -> {
+                runs.incrementAndGet();
+                throw new IllegalStateException("Test");
+            }), 0, 1, TimeUnit.MILLISECONDS);
+            while (runs.get() < 3) {
+                Thread.sleep(1);
+            }
+        }
+        finally {
+            scheduler.shutdown();
+        }
+    }
+}
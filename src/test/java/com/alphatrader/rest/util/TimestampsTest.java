@@ -0,0 +1,43 @@
+package com.alphatrader.rest.util;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case for the {@link Timestamps} class.
+ *
+ * @author Christopher Guckes (christopher.guckes@torq-dev.de)
+ * @version 1.0.0
+ */
+public class TimestampsTest {
+    @Test
+    public void testToZonedDateTime() throws Exception {
+        ZonedDateTime reference = ZonedDateTime.ofInstant(Instant.ofEpochMilli(1476953559806L),
+            ZoneId.systemDefault());
+        assertEquals(reference, Timestamps.toZonedDateTime(1476953559806L));
+    }
+
+    @Test
+    public void testToZonedDateTimeConfiguredZone() throws Exception {
+        ApiLibConfig config = ApiLibConfig.getInstance();
+        ZoneId previous = config.getTimeZone();
+        try {
+            config.setTimeZone(ZoneId.of("Asia/Tokyo"));
+            assertEquals(ZoneId.of("Asia/Tokyo"), Timestamps.toZonedDateTime(0L).getZone());
+        }
+        finally {
+            config.setTimeZone(previous);
+        }
+    }
+
+    @Test
+    public void testToZonedDateTimeNone() throws Exception {
+        assertNull(Timestamps.toZonedDateTime(Timestamps.NONE));
+    }
+}